@@ -0,0 +1,75 @@
+package domain;
+
+import java.io.Serializable;
+
+/**
+ * A decision taken by a trainer for one turn, applied with {@link POOBkemon#apply(Action)}.
+ * Actions carry ids as ints, so machines build them and the game applies them
+ * without going through text. The {@code String[]} decisions used by the GUI,
+ * such as {@code {"Attack", "12", "3", "1"}}, are converted with
+ * {@link #fromDecision(String[])} and {@link #toDecision()}.
+ */
+public sealed interface Action extends Serializable permits AttackAction, UseItemAction, SwitchAction, RunAction, TimeoutAction {
+
+	/**
+	 * @return the id of the trainer that takes the action
+	 */
+	int trainerId();
+
+	/**
+	 * Formats the action as a {@code String[]} decision.
+	 *
+	 * @return the decision accepted by {@link POOBkemon#takeDecision(String[])}
+	 */
+	String[] toDecision();
+
+	/**
+	 * Reads a {@code String[]} decision. The formats are:
+	 * <ul>
+	 *     <li>{@code {"Attack", attackId, pokemonId, trainerId}}</li>
+	 *     <li>{@code {"UseItem", trainerId, pokemonId, itemName}}</li>
+	 *     <li>{@code {"ChangePokemon", trainerId, pokemonId}}</li>
+	 *     <li>{@code {"Run", trainerId}}</li>
+	 *     <li>{@code {"timeOver", trainerId, pokemonId}}</li>
+	 * </ul>
+	 *
+	 * @param decision the decision to read
+	 * @return the action it describes
+	 * @throws POOBkemonException if the decision is empty, unknown, incomplete or has ids that are not numbers
+	 */
+	static Action fromDecision(String[] decision) throws POOBkemonException {
+		if (decision == null || decision.length == 0) {
+			throw new POOBkemonException("Se necesita introducir un movimiento valido");
+		}
+		String action = decision[0];
+		try {
+			switch (action) {
+				case "Attack":
+					require(decision, 4, action);
+					return new AttackAction(Integer.parseInt(decision[3]), Integer.parseInt(decision[2]), Integer.parseInt(decision[1]));
+				case "UseItem":
+					require(decision, 4, action);
+					return new UseItemAction(Integer.parseInt(decision[1]), Integer.parseInt(decision[2]), decision[3]);
+				case "ChangePokemon":
+					require(decision, 3, action);
+					return new SwitchAction(Integer.parseInt(decision[1]), Integer.parseInt(decision[2]));
+				case "Run":
+					require(decision, 2, action);
+					return new RunAction(Integer.parseInt(decision[1]));
+				case "timeOver":
+					require(decision, 3, action);
+					return new TimeoutAction(Integer.parseInt(decision[1]), Integer.parseInt(decision[2]));
+				default:
+					throw new POOBkemonException("Acción no reconocida: " + action);
+			}
+		} catch (NumberFormatException e) {
+			throw new POOBkemonException("Formato inválido en parámetros: " + e.getMessage());
+		}
+	}
+
+	private static void require(String[] decision, int length, String action) throws POOBkemonException {
+		if (decision.length < length) {
+			throw new POOBkemonException("Faltan parámetros para " + action);
+		}
+	}
+}
@@ -7,24 +7,15 @@ import java.io.Serializable;
  * Represents an attack with specific properties such as name, type, power, accuracy, and power points (PP).
  * This class is used to model an action that can be performed in a battle, with details about its usage and effects.
  * It supports serialization*/
-public class Attack implements Serializable {
+public class Attack implements Serializable, Cloneable {
 
-	private String name;
-
-	private String type;
-
-	private int power;
-
-	private int presition;
-
-	private int ppMax;
-	protected int ppActual;
-
-	private int idCSV;
+	private final MoveSpec spec;
 
 	private int idInside;
 
-	private String description;
+	private short[] pp;
+
+	private int ppSlot;
 
 	/**
 	 * Constructs an instance of an Attack with the specified id and information.
@@ -42,22 +33,49 @@ public class Attack implements Serializable {
 	 * @throws POOBkemonException If the information array is incomplete, has invalid formatting, or if another unexpected error occurs.
 	 */
 	public Attack(int idInside, String[] info) throws POOBkemonException {
+		this(idInside, new MoveSpec(info));
+	}
+
+	/**
+	 * Constructs an attack that shares an already parsed move. The attack starts with
+	 * full PP, kept in its own counter until {@link #bindPP(short[], int)} moves it
+	 * into the owner's PP array.
+	 *
+	 * @param idInside The internal ID of the attack within the system.
+	 * @param spec The shared description of the move.
+	 */
+	public Attack(int idInside, MoveSpec spec) {
+		this.idInside = idInside;
+		this.spec = spec;
+		this.pp = new short[]{(short) spec.getPPMax()};
+		this.ppSlot = 0;
+	}
+
+	/**
+	 * Stores the remaining PP of this attack in a slot of an array owned by its
+	 * Pokemon, so the Pokemon keeps all its PP counters together.
+	 *
+	 * @param pp The PP array of the owner.
+	 * @param slot The index of this attack in that array.
+	 */
+	void bindPP(short[] pp, int slot) {
+		pp[slot] = this.pp[this.ppSlot];
+		this.pp = pp;
+		this.ppSlot = slot;
+	}
+
+	/**
+	 * Copies this attack for a copied Pokemon. The copy shares the move and,
+	 * until its Pokemon calls {@link #bindPP(short[], int)} with its own array,
+	 * the PP counter of this attack.
+	 *
+	 * @return an attack with the same id and state as this one
+	 */
+	Attack copy() {
 		try {
-			this.idInside = idInside;
-			this.idCSV = Integer.parseInt(info[0]);
-			this.name = info[1];
-			this.type = info[3];
-			this.power = Integer.parseInt(info[5]);
-			this.presition = Integer.parseInt(info[6]);
-			this.ppMax = Integer.parseInt(info[7]);
-			this.ppActual = this.ppMax;
-			this.description = info[2];
-		} catch (ArrayIndexOutOfBoundsException e) {
-			throw new POOBkemonException("Error al crear ataque: información incompleta en el array" + e.getMessage());
-		} catch (NumberFormatException e) {
-			throw new POOBkemonException("Error al crear ataque: formato numérico inválido" + e.getMessage());
-		} catch (Exception e) {
-			throw new POOBkemonException("Error inesperado al crear ataque" + e.getMessage());
+			return (Attack) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
 		}
 	}
 
@@ -65,7 +83,7 @@ public class Attack implements Serializable {
 	 * Decreases the current power points (PP) of the attack by 1. This method is intended to track
 	 * the*/
 	public void usePP(){
-		this.ppActual--;
+		this.pp[this.ppSlot]--;
 	}
 
 	/**
@@ -86,14 +104,14 @@ public class Attack implements Serializable {
 	 */
 	public String[] getInfo() {
 		String[] info = new String[9];
-		info[0] = this.name;               // Nombre del ataque
-		info[1] = this.type;               // Tipo del ataque
-		info[2] = String.valueOf(this.power);      // Poder del ataque
-		info[3] = String.valueOf(this.presition);  // Precisión del ataque
-		info[4] = String.valueOf(this.ppActual);         // Puntos de poder (PP)
-		info[5] = String.valueOf(this.ppMax);         // Puntos de poder máximos (PP)
-		info[6] = String.valueOf(this.idCSV);         // ID del ataque en el CSV
-		info[7] = this.description;        // Descripción del ataque
+		info[0] = spec.getName();               // Nombre del ataque
+		info[1] = spec.getType();               // Tipo del ataque
+		info[2] = String.valueOf(spec.getPower());      // Poder del ataque
+		info[3] = String.valueOf(spec.getAccuracy());  // Precisión del ataque
+		info[4] = String.valueOf(getPPActual());         // Puntos de poder (PP)
+		info[5] = String.valueOf(spec.getPPMax());         // Puntos de poder máximos (PP)
+		info[6] = String.valueOf(spec.getId());         // ID del ataque en el CSV
+		info[7] = spec.getDescription();        // Descripción del ataque
 		info[8] = String.valueOf(this.idInside); //Id interno del juego
 		return info;
 	}
@@ -107,7 +125,7 @@ public class Attack implements Serializable {
 	@Override
 	public String toString() {
 		return String.format("%s (Type: %s, Power: %d, Accuracy: %d%%, PP: %d/%d)",
-				name, type, power, presition, ppActual, ppMax);
+				spec.getName(), spec.getType(), spec.getPower(), spec.getAccuracy(), getPPActual(), spec.getPPMax());
 	}
 
 	/**
@@ -119,29 +137,54 @@ public class Attack implements Serializable {
 		return this.idInside;
 	}
 	public int getIdCSV(){
-		return this.idCSV;
+		return spec.getId();
+	}
+
+	/**
+	 * Retrieves the shared description of the move behind this attack.
+	 *
+	 * @return The immutable move specification.
+	 */
+	public MoveSpec getSpec() {
+		return this.spec;
 	}
 
 	public int getPPActual(){
-		return this.ppActual;
+		return this.pp[this.ppSlot];
 	}
 	public int getPPMax(){
-		return this.ppMax;
+		return spec.getPPMax();
 	}
 	public int getAccuracy() {
-		return this.presition;
+		return spec.getAccuracy();
 	}
 	public String getName() {
-		return this.name;
+		return spec.getName();
 	}
 	public String getType() {
-		return this.type;
+		return spec.getType();
+	}
+
+	/**
+	 * Retrieves the type of the attack as a {@link PokemonType} ordinal.
+	 *
+	 * @return the type index, or {@link PokemonType#NONE} if the type is unknown.
+	 */
+	public int getTypeId() {
+		return spec.getTypeId();
 	}
 	public void setPPActual(int ppActual) {
-		this.ppActual = ppActual;
+		this.pp[this.ppSlot] = (short) ppActual;
 	}
 
     public int getPower() {
-		return this.power;
+		return spec.getPower();
     }
+
+	/**
+	 * @return true if the damage uses the special attack and defense stats instead of the physical ones
+	 */
+	public boolean isSpecial() {
+		return false;
+	}
 }
@@ -0,0 +1,16 @@
+package domain;
+
+/**
+ * A Pokemon of the trainer uses one of its attacks on the rival's active Pokemon.
+ *
+ * @param trainerId the trainer that attacks
+ * @param pokemonId the Pokemon that throws the attack
+ * @param attackId the id of the attack inside the battle
+ */
+public record AttackAction(int trainerId, int pokemonId, int attackId) implements Action {
+
+	@Override
+	public String[] toDecision() {
+		return new String[] {"Attack", String.valueOf(this.attackId), String.valueOf(this.pokemonId), String.valueOf(this.trainerId)};
+	}
+}
@@ -19,6 +19,18 @@ public class BagPack implements Serializable {
 		this.items = new ArrayList<Item>(items);
 	}
 
+	/**
+	 * Copies the backpack with a copy of each item, so using items from the
+	 * copy leaves this backpack untouched.
+	 */
+	BagPack copy() {
+		ArrayList<Item> copies = new ArrayList<>(this.items.size());
+		for (int i = 0; i < this.items.size(); i++) {
+			copies.add(this.items.get(i).copy());
+		}
+		return new BagPack(copies);
+	}
+
 	/**
 	 * Retrieves the items stored*/
 	private Item[] showItems(){
@@ -0,0 +1,348 @@
+package domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Record of what happened in a battle. Each event is a code plus four int
+ * operands (trainer, Pokemon and attack ids, damage) kept in a fixed size ring
+ * buffer, so recording an event allocates nothing and a long battle holds only
+ * the latest {@link #getCapacity()} events. Events pushed out of the ring can be
+ * kept by a {@link Sink}, such as a {@link FileSink} on disk.
+ * <p>
+ * The texts shown to the player are built only when they are asked for, with
+ * {@link #render(int, POOBkemon)}; a battle that nobody reads never builds them.
+ * Free texts and item names are stored once in a table and referenced by index.
+ */
+public final class BattleLog implements Serializable {
+
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/** "Start Game". */
+	public static final int START = 0;
+	/** Free text: a = text. */
+	public static final int TEXT = 1;
+	/** a = trainer, b = Pokemon sent to the battle. */
+	public static final int SWITCH = 2;
+	/** a = trainer that ran away. */
+	public static final int RUN = 3;
+	/** a = trainer that lost by running away. */
+	public static final int GAME_OVER = 4;
+	/** a = trainer that ran out of time. */
+	public static final int TIMEOUT = 5;
+	/** a = trainer whose team fainted. */
+	public static final int DEFEATED = 6;
+	/** a = trainer, b = Pokemon, c = item name as text. */
+	public static final int ITEM = 7;
+	/** a = fainted Pokemon, b = Pokemon that replaces it. */
+	public static final int FAINTED = 8;
+	/** a = attacker, b = target, c = move id in the catalog, d = damage; neutral hit. */
+	public static final int HIT = 9;
+	/** Like {@link #HIT}, super effective. */
+	public static final int HIT_SUPER = 10;
+	/** Like {@link #HIT}, not very effective. */
+	public static final int HIT_WEAK = 11;
+	/** a = attacker, b = target; the target's types are immune. */
+	public static final int NO_EFFECT = 12;
+	/** a = attacker, b = target; the attack missed. */
+	public static final int MISS = 13;
+	/** a = attacker, b = target; the state attack missed. */
+	public static final int STATE_MISS = 14;
+	/** a = attacker, b = target, c = move id in the catalog; the attacker applied a state to itself. */
+	public static final int STATE_SELF = 15;
+	/** a = attacker, b = target, c = move id in the catalog; the target got the state. */
+	public static final int STATE_APPLIED = 16;
+	/** a = attacker, b = target, c = move id in the catalog, d = immune Pokemon. */
+	public static final int STATE_IMMUNE = 17;
+
+	private static final int STRIDE = 5;
+
+	private final int capacity;
+	private final int[] events;
+	private long total;
+	private final ArrayList<String> texts = new ArrayList<>();
+	private final HashMap<String, Integer> textIds = new HashMap<>();
+	private transient Sink sink;
+
+	public BattleLog() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity number of events kept in memory
+	 */
+	public BattleLog(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.events = new int[capacity * STRIDE];
+	}
+
+	/**
+	 * Receives the events that no longer fit in the ring, oldest first.
+	 */
+	public interface Sink {
+		void accept(int code, int a, int b, int c, int d);
+	}
+
+	/**
+	 * Sets where the events pushed out of the ring go. Without a sink they are dropped.
+	 */
+	public void setSink(Sink sink) {
+		this.sink = sink;
+	}
+
+	public void record(int code) {
+		this.record(code, 0, 0, 0, 0);
+	}
+
+	public void record(int code, int a) {
+		this.record(code, a, 0, 0, 0);
+	}
+
+	public void record(int code, int a, int b) {
+		this.record(code, a, b, 0, 0);
+	}
+
+	public void record(int code, int a, int b, int c) {
+		this.record(code, a, b, c, 0);
+	}
+
+	/**
+	 * Appends an event, overwriting the oldest one if the ring is full.
+	 */
+	public void record(int code, int a, int b, int c, int d) {
+		int at = (int) (this.total % this.capacity) * STRIDE;
+		if (this.total >= this.capacity && this.sink != null) {
+			this.sink.accept(this.events[at], this.events[at + 1], this.events[at + 2], this.events[at + 3], this.events[at + 4]);
+		}
+		this.events[at] = code;
+		this.events[at + 1] = a;
+		this.events[at + 2] = b;
+		this.events[at + 3] = c;
+		this.events[at + 4] = d;
+		this.total++;
+	}
+
+	/**
+	 * Appends a free text event.
+	 */
+	public void recordText(String text) {
+		this.record(TEXT, this.text(text));
+	}
+
+	/**
+	 * Returns the index of a text in the table, adding it the first time.
+	 */
+	public int text(String text) {
+		Integer id = this.textIds.get(text);
+		if (id == null) {
+			id = this.texts.size();
+			this.texts.add(text);
+			this.textIds.put(text, id);
+		}
+		return id;
+	}
+
+	public String getText(int id) {
+		return this.texts.get(id);
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * @return the number of events recorded since the battle started, including the ones pushed out
+	 */
+	public long getTotal() {
+		return this.total;
+	}
+
+	/**
+	 * @return the number of events kept in memory
+	 */
+	public int size() {
+		return (int) Math.min(this.total, this.capacity);
+	}
+
+	public boolean isEmpty() {
+		return this.total == 0;
+	}
+
+	/**
+	 * @param i position among the kept events, 0 being the oldest
+	 */
+	public int code(int i) {
+		return this.events[this.slot(i)];
+	}
+
+	/**
+	 * @param i position among the kept events, 0 being the oldest
+	 * @param operand 0 to 3 for a to d
+	 */
+	public int operand(int i, int operand) {
+		return this.events[this.slot(i) + 1 + operand];
+	}
+
+	private int slot(int i) {
+		if (i < 0 || i >= this.size()) {
+			throw new IndexOutOfBoundsException("event " + i + " of " + this.size());
+		}
+		return (int) ((this.total - this.size() + i) % this.capacity) * STRIDE;
+	}
+
+	/**
+	 * Builds the text of a kept event, looking up the names in the battle.
+	 *
+	 * @param i position among the kept events, 0 being the oldest
+	 * @param game battle the event belongs to
+	 * @return the message shown to the player
+	 */
+	public String render(int i, POOBkemon game) {
+		int at = this.slot(i);
+		return this.render(this.events[at], this.events[at + 1], this.events[at + 2], this.events[at + 3], this.events[at + 4], game);
+	}
+
+	/**
+	 * Builds the texts of every kept event, oldest first.
+	 */
+	public ArrayList<String> renderAll(POOBkemon game) {
+		ArrayList<String> messages = new ArrayList<>(this.size());
+		for (int i = 0; i < this.size(); i++) {
+			messages.add(this.render(i, game));
+		}
+		return messages;
+	}
+
+	/**
+	 * Builds the text of an event given by its code and operands, such as one read back from a {@link FileSink}.
+	 */
+	public String render(int code, int a, int b, int c, int d, POOBkemon game) {
+		switch (code) {
+			case START:
+				return "Start Game";
+			case TEXT:
+				return this.getText(a);
+			case SWITCH:
+				return "Player " + a + " cambió a Pokémon " + pokemonName(game, b);
+			case RUN:
+				return "Player " + a + " huyó de la batalla";
+			case GAME_OVER:
+				return "GameOver para el jugador " + a;
+			case TIMEOUT:
+				return "Player se le acabo el tiempo";
+			case DEFEATED:
+				return "¡Batalla terminada! " + a + " ha sido derrotado";
+			case ITEM:
+				return "El entrenador " + a + " ha usado " + this.getText(c) + " en " + pokemonName(game, b);
+			case FAINTED:
+				return pokemonName(game, a) + " ha sido debilitado, cambiando a " + pokemonName(game, b);
+			default:
+				return pokemonName(game, a) + " atacó a " + pokemonName(game, b) + attackEffect(code, a, b, c, d, game);
+		}
+	}
+
+	private static String attackEffect(int code, int a, int b, int c, int d, POOBkemon game) {
+		switch (code) {
+			case HIT:
+				return " [" + attackName(game, c) + "] causó " + d + " puntos de daño!";
+			case HIT_SUPER:
+				return " ¡Fue super efectivo! \n [" + attackName(game, c) + "] causó " + d + " puntos de daño!";
+			case HIT_WEAK:
+				return " No fue muy efectivo... \n [" + attackName(game, c) + "] causó " + d + " puntos de daño!";
+			case NO_EFFECT:
+				return " No afecta a " + pokemonName(game, b) + "...";
+			case MISS:
+				return pokemonName(game, a) + " falló el ataque!";
+			case STATE_MISS:
+				return pokemonName(game, a) + " falló el ataque de estado! ";
+			case STATE_SELF:
+				return " [" + pokemonName(game, a) + "] se aplico " + attackName(game, c);
+			case STATE_APPLIED:
+				return " [" + pokemonName(game, b) + "] fue afectado por " + attackName(game, c);
+			case STATE_IMMUNE:
+				return pokemonName(game, d) + " es inmune a " + attackName(game, c);
+			default:
+				return " (evento " + code + ")";
+		}
+	}
+
+	private static String pokemonName(POOBkemon game, int id) {
+		Pokemon pokemon = game.findPokemon(id);
+		return pokemon == null ? "#" + id : pokemon.getName();
+	}
+
+	/**
+	 * Looks the move up in the battle's catalog rather than in the attacker's
+	 * attacks, which are swapped for the default move once their PP run out.
+	 */
+	private static String attackName(POOBkemon game, int moveId) {
+		MoveSpec move = game.catalog().getMoveSpec(moveId);
+		return move == null ? "#" + moveId : move.getName();
+	}
+
+	/**
+	 * Sink that appends the events pushed out of the ring to a binary file,
+	 * five ints per event. {@link #read(Path)} loads them back.
+	 */
+	public static final class FileSink implements Sink, Closeable {
+
+		private final DataOutputStream out;
+
+		public FileSink(Path file) throws IOException {
+			this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+		}
+
+		@Override
+		public void accept(int code, int a, int b, int c, int d) {
+			try {
+				this.out.writeInt(code);
+				this.out.writeInt(a);
+				this.out.writeInt(b);
+				this.out.writeInt(c);
+				this.out.writeInt(d);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.close();
+		}
+
+		/**
+		 * Reads the events written by a sink.
+		 *
+		 * @return one array {code, a, b, c, d} per event, oldest first
+		 */
+		public static List<int[]> read(Path file) throws IOException {
+			List<int[]> events = new ArrayList<>();
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+				while (true) {
+					int code;
+					try {
+						code = in.readInt();
+					} catch (EOFException e) {
+						return events;
+					}
+					events.add(new int[]{code, in.readInt(), in.readInt(), in.readInt(), in.readInt()});
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package domain;
+
+import java.io.Serializable;
+import java.util.random.RandomGenerator;
+
+/**
+ * Random generator of a battle. It runs the same SplitMix64 algorithm as
+ * {@link java.util.SplittableRandom} and, seeded alike, draws exactly the same
+ * numbers, but its state is two plain longs that {@link #copy()} duplicates:
+ * a copied battle goes on with the draws the original would have made.
+ */
+public final class BattleRandom implements RandomGenerator, Serializable {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long seed;
+	private final long gamma;
+
+	public BattleRandom(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	private BattleRandom(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * @return a generator in the same state, which will draw the same numbers as this one
+	 */
+	public BattleRandom copy() {
+		return new BattleRandom(this.seed, this.gamma);
+	}
+
+	/**
+	 * Returns a new generator with a stream of its own, as {@link java.util.SplittableRandom#split()} does.
+	 */
+	public BattleRandom split() {
+		return new BattleRandom(this.nextLong(), mixGamma(this.nextSeed()));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(this.nextSeed());
+	}
+
+	@Override
+	public int nextInt() {
+		return mix32(this.nextSeed());
+	}
+
+	private long nextSeed() {
+		return this.seed += this.gamma;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
@@ -0,0 +1,299 @@
+package domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to play a battle again: the seed it started with, the
+ * first ids it handed out, the rosters given to {@link POOBkemon#initGame}
+ * and the actions applied with {@link POOBkemon#apply(Action)}, in order.
+ * Since the machines draw from a generator of their own, the actions alone
+ * reproduce every damage roll, critical hit and status of the original
+ * battle; see {@link Replayer}.
+ * <p>
+ * The file written by {@link #write(File)} is a small binary stream: a header,
+ * the rosters, and a tag plus variable length ints for each action.
+ */
+public final class BattleReplay implements Serializable {
+
+	private static final int MAGIC = 0x504B5250; // "PKRP"
+	private static final int VERSION = 1;
+
+	private static final int ATTACK = 0;
+	private static final int USE_ITEM = 1;
+	private static final int SWITCH = 2;
+	private static final int RUN = 3;
+	private static final int TIMEOUT = 4;
+
+	private final long seed;
+	private final int[] ids;
+	private final boolean survive;
+	private final boolean randomStats;
+	private final ArrayList<String> trainers;
+	private final HashMap<String, ArrayList<Integer>> pokemons;
+	private final HashMap<String, String[][]> items;
+	private final HashMap<String, ArrayList<Integer>> attacks;
+	private final ArrayList<Action> actions = new ArrayList<>();
+
+	/**
+	 * Copies the rosters of a battle that is about to start.
+	 */
+	BattleReplay(long seed, int[] ids, boolean survive, boolean randomStats,
+				 List<String> trainers,
+				 Map<String, ArrayList<Integer>> pokemons,
+				 Map<String, String[][]> items,
+				 Map<String, ArrayList<Integer>> attacks) {
+		this.seed = seed;
+		this.ids = ids.clone();
+		this.survive = survive;
+		this.randomStats = randomStats;
+		this.trainers = new ArrayList<>(trainers);
+		this.pokemons = new HashMap<>();
+		this.items = new HashMap<>();
+		this.attacks = new HashMap<>();
+		for (String trainer : trainers) {
+			this.pokemons.put(trainer, new ArrayList<>(pokemons.get(trainer)));
+			this.attacks.put(trainer, new ArrayList<>(attacks.get(trainer)));
+			String[][] bag = items.get(trainer);
+			String[][] copy = new String[bag.length][];
+			for (int i = 0; i < bag.length; i++) {
+				copy[i] = bag[i].clone();
+			}
+			this.items.put(trainer, copy);
+		}
+	}
+
+	/**
+	 * Appends an action applied to the battle.
+	 */
+	void add(Action action) {
+		this.actions.add(action);
+	}
+
+	public long getSeed() {
+		return this.seed;
+	}
+
+	public boolean isSurvive() {
+		return this.survive;
+	}
+
+	public boolean isRandomStats() {
+		return this.randomStats;
+	}
+
+	public List<String> getTrainers() {
+		return Collections.unmodifiableList(this.trainers);
+	}
+
+	/**
+	 * @return the actions applied so far, in order
+	 */
+	public List<Action> getActions() {
+		return Collections.unmodifiableList(this.actions);
+	}
+
+	/**
+	 * Creates a new game, outside the session registry, and starts it exactly as
+	 * the recorded battle started. No action is applied yet.
+	 *
+	 * @return the game at its first turn
+	 * @throws POOBkemonException if the rosters are not valid with the current catalog
+	 */
+	public POOBkemon start() throws POOBkemonException {
+		POOBkemon game = this.survive ? new Survive() : new POOBkemon();
+		game.session().restoreIds(this.ids);
+		game.initGame(this.trainers, this.pokemons, this.items, this.attacks, this.randomStats, this.seed);
+		return game;
+	}
+
+	/**
+	 * Writes the replay to a binary file.
+	 *
+	 * @param file destination file
+	 * @throws POOBkemonException if the file cannot be written
+	 */
+	public void write(File file) throws POOBkemonException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeLong(this.seed);
+			for (int id : this.ids) {
+				writeVarInt(out, id);
+			}
+			out.writeBoolean(this.survive);
+			out.writeBoolean(this.randomStats);
+			writeVarInt(out, this.trainers.size());
+			for (String trainer : this.trainers) {
+				out.writeUTF(trainer);
+				writeInts(out, this.pokemons.get(trainer));
+				writeInts(out, this.attacks.get(trainer));
+				String[][] bag = this.items.get(trainer);
+				writeVarInt(out, bag.length);
+				for (String[] item : bag) {
+					writeVarInt(out, item.length);
+					for (String value : item) {
+						out.writeUTF(value);
+					}
+				}
+			}
+			writeVarInt(out, this.actions.size());
+			for (Action action : this.actions) {
+				writeAction(out, action);
+			}
+		} catch (FileNotFoundException e) {
+			throw new POOBkemonException("Archivo no encontrado al intentar guardar la repetición: " + file.getAbsolutePath());
+		} catch (IOException e) {
+			throw new POOBkemonException("Error de E/S al guardar la repetición: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads a replay written by {@link #write(File)}.
+	 *
+	 * @param file source file
+	 * @return the replay
+	 * @throws POOBkemonException if the file cannot be read or is not a replay
+	 */
+	public static BattleReplay read(File file) throws POOBkemonException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC) {
+				throw new POOBkemonException("El archivo no es una repetición: " + file.getAbsolutePath());
+			}
+			int version = in.readUnsignedByte();
+			if (version != VERSION) {
+				throw new POOBkemonException("Versión de repetición no soportada: " + version);
+			}
+			long seed = in.readLong();
+			int[] ids = {readVarInt(in), readVarInt(in), readVarInt(in)};
+			boolean survive = in.readBoolean();
+			boolean randomStats = in.readBoolean();
+			int count = readVarInt(in);
+			ArrayList<String> trainers = new ArrayList<>(count);
+			HashMap<String, ArrayList<Integer>> pokemons = new HashMap<>();
+			HashMap<String, ArrayList<Integer>> attacks = new HashMap<>();
+			HashMap<String, String[][]> items = new HashMap<>();
+			for (int t = 0; t < count; t++) {
+				String trainer = in.readUTF();
+				trainers.add(trainer);
+				pokemons.put(trainer, readInts(in));
+				attacks.put(trainer, readInts(in));
+				String[][] bag = new String[readVarInt(in)][];
+				for (int i = 0; i < bag.length; i++) {
+					bag[i] = new String[readVarInt(in)];
+					for (int j = 0; j < bag[i].length; j++) {
+						bag[i][j] = in.readUTF();
+					}
+				}
+				items.put(trainer, bag);
+			}
+			BattleReplay replay = new BattleReplay(seed, ids, survive, randomStats, trainers, pokemons, items, attacks);
+			int actions = readVarInt(in);
+			for (int i = 0; i < actions; i++) {
+				replay.add(readAction(in));
+			}
+			return replay;
+		} catch (FileNotFoundException e) {
+			throw new POOBkemonException("Archivo no encontrado al intentar abrir la repetición: " + file.getAbsolutePath());
+		} catch (IOException e) {
+			throw new POOBkemonException("Error de E/S al abrir la repetición: " + e.getMessage());
+		}
+	}
+
+	private static void writeAction(DataOutputStream out, Action action) throws IOException {
+		if (action instanceof AttackAction attack) {
+			out.writeByte(ATTACK);
+			writeVarInt(out, attack.trainerId());
+			writeVarInt(out, attack.pokemonId());
+			writeVarInt(out, attack.attackId());
+		} else if (action instanceof UseItemAction item) {
+			out.writeByte(USE_ITEM);
+			writeVarInt(out, item.trainerId());
+			writeVarInt(out, item.pokemonId());
+			out.writeUTF(item.item());
+		} else if (action instanceof SwitchAction change) {
+			out.writeByte(SWITCH);
+			writeVarInt(out, change.trainerId());
+			writeVarInt(out, change.pokemonId());
+		} else if (action instanceof RunAction run) {
+			out.writeByte(RUN);
+			writeVarInt(out, run.trainerId());
+		} else if (action instanceof TimeoutAction timeout) {
+			out.writeByte(TIMEOUT);
+			writeVarInt(out, timeout.trainerId());
+			writeVarInt(out, timeout.pokemonId());
+		}
+	}
+
+	private static Action readAction(DataInputStream in) throws IOException, POOBkemonException {
+		int tag = in.readUnsignedByte();
+		switch (tag) {
+			case ATTACK:
+				return new AttackAction(readVarInt(in), readVarInt(in), readVarInt(in));
+			case USE_ITEM:
+				return new UseItemAction(readVarInt(in), readVarInt(in), in.readUTF());
+			case SWITCH:
+				return new SwitchAction(readVarInt(in), readVarInt(in));
+			case RUN:
+				return new RunAction(readVarInt(in));
+			case TIMEOUT:
+				return new TimeoutAction(readVarInt(in), readVarInt(in));
+			default:
+				throw new POOBkemonException("Acción desconocida en la repetición: " + tag);
+		}
+	}
+
+	private static void writeInts(DataOutputStream out, List<Integer> values) throws IOException {
+		writeVarInt(out, values.size());
+		for (int value : values) {
+			writeVarInt(out, value);
+		}
+	}
+
+	private static ArrayList<Integer> readInts(DataInputStream in) throws IOException {
+		int size = readVarInt(in);
+		ArrayList<Integer> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(readVarInt(in));
+		}
+		return values;
+	}
+
+	/**
+	 * Writes an int in 1 to 5 bytes, 7 bits per byte; small values of either
+	 * sign take one byte.
+	 */
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		int zigzag = (value << 1) ^ (value >> 31);
+		while ((zigzag & ~0x7F) != 0) {
+			out.writeByte((zigzag & 0x7F) | 0x80);
+			zigzag >>>= 7;
+		}
+		out.writeByte(zigzag);
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int zigzag = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			zigzag |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (zigzag >>> 1) ^ -(zigzag & 1);
+			}
+		}
+		throw new IOException("Entero mal formado en la repetición");
+	}
+}
@@ -0,0 +1,205 @@
+package domain;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * State owned by one battle: its game, the counters that hand out trainer,
+ * Pokemon and attack ids, and its random generator. Nothing here is shared
+ * with other sessions, so any number of battles can run at the same time in
+ * one JVM. Sessions are normally opened through {@link SessionRegistry}.
+ * <p>
+ * Every random draw of the battle (turn order, damage rolls, critical hits,
+ * accuracy and statuses) comes from the session's generator, and the choices
+ * of {@link Machine} trainers come from a second generator split from it, so
+ * the rules draw the same numbers whoever takes the decisions. Each battle
+ * started in the session gets its own seed ({@link #startBattle(long)}); the
+ * seed, the ids at the start and the applied actions are enough to replay it
+ * with {@link Replayer}.
+ * A session is used by one thread at a time, like the game it owns.
+ */
+public final class BattleSession implements Serializable {
+
+	private long id;
+	private final POOBkemon game;
+	private transient RandomGenerator random;
+	private transient RandomGenerator decisions;
+	private long seed;
+	private int nextTrainerId = 0;
+	private int nextPokemonId = 0;
+	private int nextAttackId = 0;
+
+	/**
+	 * Creates a session around a game and binds the game to it.
+	 *
+	 * @param id identifier given by the registry, 0 for sessions outside it
+	 * @param game the game this session owns
+	 * @param random generator used only by this battle
+	 */
+	BattleSession(long id, POOBkemon game, RandomGenerator random) {
+		this.id = id;
+		this.game = game;
+		this.random = random;
+		this.decisions = random;
+		game.bind(this);
+	}
+
+	public long getId() {
+		return this.id;
+	}
+
+	void setId(long id) {
+		this.id = id;
+	}
+
+	public POOBkemon getGame() {
+		return this.game;
+	}
+
+	/**
+	 * Retrieves the teams of the session's game.
+	 *
+	 * @return the teams, or null if the game has not been initialized
+	 */
+	public ArrayList<Team> getTeams() {
+		return this.game.getTeams();
+	}
+
+	/**
+	 * Retrieves the random generator of this battle.
+	 */
+	public RandomGenerator getRandom() {
+		return this.random;
+	}
+
+	/**
+	 * Retrieves the generator for the choices of machine trainers. It is split
+	 * from the battle generator when a battle starts and never used by the rules.
+	 */
+	public RandomGenerator getDecisionRandom() {
+		return this.decisions;
+	}
+
+	/**
+	 * @return the seed of the current battle
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 * Starts a new battle in this session by rebuilding the generators from
+	 * the seed. With the same seed, ids, rosters and actions the battle plays
+	 * out the same way in any session.
+	 *
+	 * @param seed seed of the battle
+	 */
+	void startBattle(long seed) {
+		BattleRandom battle = new BattleRandom(seed);
+		this.seed = seed;
+		this.decisions = battle.split();
+		this.random = battle;
+	}
+
+	/**
+	 * Opens a session for a copy of this session's game, outside the registry.
+	 * The generators of the new session are copies of these ones, so the copy
+	 * draws the numbers this battle would draw next, and the id counters and
+	 * the seed carry over. A generator that cannot be copied is restarted from
+	 * the seed.
+	 *
+	 * @param game copy of the game, which gets bound to the new session
+	 * @return the new session
+	 */
+	BattleSession copyFor(POOBkemon game) {
+		BattleSession copy = new BattleSession(0, game, copyOf(this.random));
+		copy.decisions = this.decisions == this.random ? copy.random : copyOf(this.decisions);
+		copy.seed = this.seed;
+		copy.nextTrainerId = this.nextTrainerId;
+		copy.nextPokemonId = this.nextPokemonId;
+		copy.nextAttackId = this.nextAttackId;
+		return copy;
+	}
+
+	private RandomGenerator copyOf(RandomGenerator generator) {
+		return generator instanceof BattleRandom
+				? ((BattleRandom) generator).copy()
+				: new BattleRandom(this.seed);
+	}
+
+	/**
+	 * @return the next trainer, Pokemon and attack ids, without using them
+	 */
+	int[] ids() {
+		return new int[] {this.nextTrainerId, this.nextPokemonId, this.nextAttackId};
+	}
+
+	/**
+	 * Sets the counters to values returned by {@link #ids()}.
+	 */
+	void restoreIds(int[] ids) {
+		this.nextTrainerId = ids[0];
+		this.nextPokemonId = ids[1];
+		this.nextAttackId = ids[2];
+	}
+
+	/**
+	 * Returns the next trainer id of this battle, starting at 0.
+	 */
+	public int nextTrainerId() {
+		return this.nextTrainerId++;
+	}
+
+	/**
+	 * Returns the next Pokemon id of this battle, starting at 0.
+	 */
+	public int nextPokemonId() {
+		return this.nextPokemonId++;
+	}
+
+	/**
+	 * Returns the next attack id of this battle, starting at 1.
+	 */
+	public int nextAttackId() {
+		return ++this.nextAttackId;
+	}
+
+	/**
+	 * Saves the generators with the battle, so a battle read from a file draws the
+	 * numbers it would have drawn and its replay stays valid after the load.
+	 * Only {@link BattleRandom} generators can be saved; every battle started with
+	 * {@link #startBattle(long)} uses them.
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeBoolean(this.decisions == this.random);
+		out.writeObject(this.random instanceof BattleRandom ? this.random : null);
+		out.writeObject(this.decisions != this.random && this.decisions instanceof BattleRandom ? this.decisions : null);
+	}
+
+	/**
+	 * Restores the saved generators. A session whose generators could not be saved
+	 * has not started a battle yet, so it goes on with new unseeded ones.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		boolean shared = in.readBoolean();
+		RandomGenerator random = (RandomGenerator) in.readObject();
+		RandomGenerator decisions = (RandomGenerator) in.readObject();
+		if (shared) {
+			decisions = random;
+		}
+		if (random == null || decisions == null) {
+			BattleRandom fresh = new BattleRandom(new SplittableRandom().nextLong());
+			random = fresh;
+			decisions = fresh.split();
+		}
+		this.random = random;
+		this.decisions = decisions;
+	}
+}
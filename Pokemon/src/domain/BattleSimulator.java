@@ -0,0 +1,393 @@
+package domain;
+
+import persistence.GameData;
+import persistence.MovesRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays complete battles between two {@link Machine} trainers without the GUI.
+ * Each battle runs in its own {@link BattleSession} and is driven the same
+ * way {@code PokemonBattlePanel} drives it, minus the Swing timers: both trainers
+ * choose with {@link POOBkemon#machineAction(int)} and the actions are then
+ * applied in turn order with {@link POOBkemon#apply(Action)}.
+ * Battles are spread over a fixed pool of worker threads.
+ */
+public final class BattleSimulator {
+
+	/** Machine trainer types that can be simulated. */
+	public static final List<String> MACHINES = List.of("Offensive", "Defensive", "Expert", "Switcher");
+
+	public static final int TEAM_SIZE = 6;
+	public static final int ATTACKS_PER_POKEMON = 4;
+	/** Turns after which a battle is stopped and counted as unfinished. */
+	public static final int DEFAULT_MAX_TURNS = 500;
+
+	private static final String[][] ITEMS = {{"Potion", "2", "50"}, {"Potion", "1", "100"}, {"Revive", "1"}};
+
+	private final String machine1;
+	private final String machine2;
+	private final int threads;
+	private final int maxTurns;
+	private final boolean randomStats;
+	private final MovesRepository moves;
+	private final int[] speciesIds;
+	private final int moveCount;
+
+	/**
+	 * Creates a simulator that uses every available core and the default turn limit.
+	 *
+	 * @param machine1 type of the first trainer, one of {@link #MACHINES}
+	 * @param machine2 type of the second trainer, one of {@link #MACHINES}
+	 * @throws POOBkemonException if a machine type is not recognised
+	 */
+	public BattleSimulator(String machine1, String machine2) throws POOBkemonException {
+		this(machine1, machine2, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_TURNS, false);
+	}
+
+	/**
+	 * @param machine1 type of the first trainer, one of {@link #MACHINES}
+	 * @param machine2 type of the second trainer, one of {@link #MACHINES}
+	 * @param threads number of worker threads
+	 * @param maxTurns turns after which a battle is counted as unfinished
+	 * @param randomStats whether Pokemon are created with random levels and stats
+	 * @throws POOBkemonException if a machine type is not recognised or a limit is not positive
+	 */
+	public BattleSimulator(String machine1, String machine2, int threads, int maxTurns, boolean randomStats) throws POOBkemonException {
+		if (!MACHINES.contains(machine1) || !MACHINES.contains(machine2)) {
+			throw new POOBkemonException("Máquina no reconocida: " + (MACHINES.contains(machine1) ? machine2 : machine1));
+		}
+		if (threads < 1 || maxTurns < 1) {
+			throw new POOBkemonException("El número de hilos y de turnos debe ser positivo");
+		}
+		this.machine1 = machine1;
+		this.machine2 = machine2;
+		this.threads = threads;
+		this.maxTurns = maxTurns;
+		this.randomStats = randomStats;
+		GameData catalog = GameData.getInstance();
+		this.moves = new MovesRepository(catalog);
+		this.speciesIds = catalog.getPokemons().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		this.moveCount = catalog.getMoves().size();
+	}
+
+	/**
+	 * Plays the given number of independent battles in parallel. Each battle gets
+	 * its own generator, split in order from a root generator built from the seed,
+	 * and draws both its teams and every random event of the fight from it. The
+	 * same seed therefore reproduces the whole run, whatever the number of threads.
+	 *
+	 * @param battles number of battles to play
+	 * @param seed root seed of the run
+	 * @return the results of the run
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public Report run(int battles, long seed) throws InterruptedException {
+		SplittableRandom[] generators = new SplittableRandom[battles];
+		SplittableRandom root = new SplittableRandom(seed);
+		for (int i = 0; i < battles; i++) {
+			generators[i] = root.split();
+		}
+		int[] winners = new int[battles];
+		int[] turns = new int[battles];
+		AtomicInteger next = new AtomicInteger();
+		String[] firstError = new String[1];
+
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.threads, Math.max(1, battles)), r -> {
+			Thread thread = new Thread(r, "POOBkemon-simulator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long start = System.nanoTime();
+		try {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < this.threads; t++) {
+				workers.add(pool.submit(() -> {
+					int i;
+					while ((i = next.getAndIncrement()) < battles) {
+						try {
+							int[] result = this.play(generators[i]);
+							winners[i] = result[0];
+							turns[i] = result[1];
+						} catch (POOBkemonException | RuntimeException e) {
+							winners[i] = Report.ERROR;
+							turns[i] = -1;
+							synchronized (firstError) {
+								if (firstError[0] == null) {
+									firstError[0] = e.getClass().getSimpleName() + ": " + e.getMessage();
+								}
+							}
+						}
+					}
+				}));
+			}
+			for (Future<?> worker : workers) {
+				try {
+					worker.get();
+				} catch (ExecutionException e) {
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return new Report(this.machine1, this.machine2, winners, turns, System.nanoTime() - start, firstError[0]);
+	}
+
+	/**
+	 * Plays again one battle of a run, with the same teams and the same draws.
+	 *
+	 * @param seed root seed of the run
+	 * @param battle index of the battle in the run, from 0
+	 * @return {winner side (0, 1 or {@link Report#UNFINISHED}), turns played}
+	 * @throws POOBkemonException if the battle cannot be created or a decision is rejected
+	 */
+	public int[] replay(long seed, int battle) throws POOBkemonException {
+		SplittableRandom root = new SplittableRandom(seed);
+		SplittableRandom generator = root.split();
+		for (int i = 0; i < battle; i++) {
+			generator = root.split();
+		}
+		return this.play(generator);
+	}
+
+	/**
+	 * Plays a single battle.
+	 *
+	 * @param random generator of the battle, used for the teams and for the fight
+	 * @return {winner side (0, 1 or {@link Report#UNFINISHED}), turns played}
+	 * @throws POOBkemonException if the battle cannot be created or a decision is rejected
+	 */
+	int[] play(SplittableRandom random) throws POOBkemonException {
+		Lineup lineup1 = Lineup.draw(random, this.speciesIds, this.moves, this.moveCount);
+		Lineup lineup2 = Lineup.draw(random, this.speciesIds, this.moves, this.moveCount);
+		return fight(this.machine1, lineup1, this.machine2, lineup2, this.randomStats, this.maxTurns, random);
+	}
+
+	/**
+	 * Plays a single battle between two machines with the given teams, each with
+	 * the standard bag of items.
+	 *
+	 * @param machine1 type of the first trainer, one of {@link #MACHINES}
+	 * @param lineup1 team of the first trainer
+	 * @param machine2 type of the second trainer, one of {@link #MACHINES}
+	 * @param lineup2 team of the second trainer
+	 * @param randomStats whether Pokemon are created with random levels and stats
+	 * @param maxTurns turns after which the battle is left unfinished
+	 * @param random generator of the battle; it must not be shared with other battles
+	 * @return {winner side (0, 1 or {@link Report#UNFINISHED}), turns played}
+	 * @throws POOBkemonException if the battle cannot be created or a decision is rejected
+	 */
+	static int[] fight(String machine1, Lineup lineup1, String machine2, Lineup lineup2,
+					   boolean randomStats, int maxTurns, RandomGenerator random) throws POOBkemonException {
+		String name1 = machine1 + "1";
+		String name2 = machine2 + "2";
+		ArrayList<String> trainers = new ArrayList<>(List.of(name1, name2));
+		HashMap<String, ArrayList<Integer>> pokemons = new HashMap<>();
+		HashMap<String, ArrayList<Integer>> attacks = new HashMap<>();
+		HashMap<String, String[][]> items = new HashMap<>();
+		pokemons.put(name1, lineup1.getSpecies());
+		attacks.put(name1, lineup1.getAttacks());
+		items.put(name1, copyItems());
+		pokemons.put(name2, lineup2.getSpecies());
+		attacks.put(name2, lineup2.getAttacks());
+		items.put(name2, copyItems());
+
+		SessionRegistry registry = SessionRegistry.getInstance();
+		BattleSession session = registry.open(random);
+		try {
+			POOBkemon game = session.getGame();
+			game.initGame(trainers, pokemons, items, attacks, randomStats);
+			int first = game.getOrder().get(0);
+			int second = game.getOrder().get(1);
+			int turn = 0;
+			while (!game.finishBattle() && turn < maxTurns) {
+				Action action1 = game.machineAction(first);
+				Action action2 = game.machineAction(second);
+				game.apply(action1);
+				if (!game.finishBattle()) {
+					game.apply(action2);
+				}
+				turn++;
+			}
+			if (!game.finishBattle()) {
+				return new int[]{Report.UNFINISHED, turn};
+			}
+			// Trainer ids depend on how the session hands them out; the report counts sides
+			int side = game.getWinner() == game.getTeams().get(0).getTrainer().getId() ? 0 : 1;
+			return new int[]{side, turn};
+		} finally {
+			registry.close(session.getId());
+		}
+	}
+
+	private static String[][] copyItems() {
+		String[][] copy = new String[ITEMS.length][];
+		for (int i = 0; i < ITEMS.length; i++) {
+			copy[i] = ITEMS[i].clone();
+		}
+		return copy;
+	}
+
+	/**
+	 * Outcome of a simulation run: who won each battle and how many turns it took.
+	 * The first trainer is side 0 and the second is side 1.
+	 */
+	public static final class Report {
+
+		/** Winner of a battle that reached the turn limit. */
+		public static final int UNFINISHED = -1;
+		/** Winner of a battle that failed with an exception. */
+		public static final int ERROR = -2;
+
+		private final String machine1;
+		private final String machine2;
+		private final int[] winners;
+		private final int[] turns;
+		private final long elapsedNanos;
+		private final String firstError;
+
+		Report(String machine1, String machine2, int[] winners, int[] turns, long elapsedNanos, String firstError) {
+			this.machine1 = machine1;
+			this.machine2 = machine2;
+			this.winners = winners;
+			this.turns = turns;
+			this.elapsedNanos = elapsedNanos;
+			this.firstError = firstError;
+		}
+
+		public int getBattles() {
+			return this.winners.length;
+		}
+
+		/**
+		 * @param side 0 for the first trainer, 1 for the second
+		 */
+		public int getWins(int side) {
+			return this.count(side);
+		}
+
+		public int getUnfinished() {
+			return this.count(UNFINISHED);
+		}
+
+		public int getErrors() {
+			return this.count(ERROR);
+		}
+
+		/**
+		 * @param side 0 for the first trainer, 1 for the second
+		 * @return share of all the battles won by that trainer
+		 */
+		public double getWinRate(int side) {
+			return this.share(this.getWins(side));
+		}
+
+		/**
+		 * @return share of the battles that failed, which count for neither trainer
+		 */
+		public double getErrorRate() {
+			return this.share(this.getErrors());
+		}
+
+		private double share(int count) {
+			return this.winners.length == 0 ? 0 : (double) count / this.winners.length;
+		}
+
+		private int count(int outcome) {
+			int count = 0;
+			for (int winner : this.winners) {
+				if (winner == outcome) count++;
+			}
+			return count;
+		}
+
+		/**
+		 * @return the winner of each battle: 0, 1, {@link #UNFINISHED} or {@link #ERROR}
+		 */
+		public int[] getWinners() {
+			return this.winners.clone();
+		}
+
+		/**
+		 * @return the turns of each battle, -1 for battles that failed
+		 */
+		public int[] getTurns() {
+			return this.turns.clone();
+		}
+
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		public double getBattlesPerSecond() {
+			return this.elapsedNanos == 0 ? 0 : this.winners.length * 1e9 / this.elapsedNanos;
+		}
+
+		/**
+		 * @return the average turns of the battles that did not fail
+		 */
+		public double getAverageTurns() {
+			return Arrays.stream(this.turns).filter(t -> t >= 0).average().orElse(0);
+		}
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return the turns below which that share of the non failed battles ended, or 0 if none
+		 */
+		public int getTurnsPercentile(double percentile) {
+			int[] played = Arrays.stream(this.turns).filter(t -> t >= 0).sorted().toArray();
+			if (played.length == 0) return 0;
+			int index = (int) Math.ceil(percentile / 100 * played.length) - 1;
+			return played[Math.max(0, Math.min(played.length - 1, index))];
+		}
+
+		/**
+		 * @return the message of the first battle that failed, or null if none did
+		 */
+		public String getFirstError() {
+			return this.firstError;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s vs %s: %d batallas en %.2f s (%.1f batallas/s)%n"
+							+ "  victorias %d - %d (%.1f%% - %.1f%%), sin terminar %d, errores %d (%.1f%%)%n"
+							+ "  turnos: media %.1f, p50 %d, p90 %d, max %d",
+					this.machine1, this.machine2, this.getBattles(), this.elapsedNanos / 1e9, this.getBattlesPerSecond(),
+					this.getWins(0), this.getWins(1), 100 * this.getWinRate(0), 100 * this.getWinRate(1),
+					this.getUnfinished(), this.getErrors(), 100 * this.getErrorRate(),
+					this.getAverageTurns(), this.getTurnsPercentile(50), this.getTurnsPercentile(90), this.getTurnsPercentile(100));
+		}
+	}
+
+	/**
+	 * Runs a simulation from the command line:
+	 * {@code BattleSimulator <machine1> <machine2> <battles> [seed] [threads]}.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 3) {
+			System.out.println("Uso: BattleSimulator <maquina1> <maquina2> <batallas> [semilla] [hilos]");
+			System.out.println("Máquinas: " + MACHINES);
+			return;
+		}
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+		int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+		BattleSimulator simulator = new BattleSimulator(args[0], args[1], threads, DEFAULT_MAX_TURNS, false);
+		Report report = simulator.run(Integer.parseInt(args[2]), seed);
+		System.out.println(report);
+		if (report.getFirstError() != null) {
+			System.out.println("  primer error: " + report.getFirstError());
+		}
+	}
+}
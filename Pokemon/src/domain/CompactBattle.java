@@ -0,0 +1,467 @@
+package domain;
+
+import persistence.GameData;
+
+import java.util.ArrayList;
+
+/**
+ * A battle laid out as columns: one primitive array per attribute, indexed by
+ * the position of the Pokemon in the battle (the members of the first team,
+ * then those of the second), and one per move attribute, indexed by the rows
+ * of the moves of every Pokemon one after another. HP, stats, stages, PP and
+ * the state bits of all the Pokemon of a battle fit in a few kilobytes, so
+ * {@link CompactEngine} plays turns over them without following references or
+ * allocating, and {@link #copy()} is a handful of array copies.
+ * <p>
+ * {@link #of(POOBkemon)} builds it from a battle of the object model and
+ * {@link #writeTo(POOBkemon)} brings the result back to that battle.
+ * <p>
+ * The moves of Pokemon {@code p} are the rows {@code moveStart[p]} to
+ * {@code moveStart[p + 1] - 2}; the last row of its range holds the default
+ * move it falls back to when it runs out of PP. {@code firstMove[p]} and
+ * {@code lastMove[p]} bound the moves it can use now.
+ */
+public final class CompactBattle {
+
+	/** Id of the move a Pokemon uses once all its moves are out of PP. */
+	static final int DEFAULT_MOVE = 357;
+
+	static final int PHYSICAL = 0;
+	static final int SPECIAL = 1;
+	static final int STATE = 2;
+
+	static final byte FAINTED = 1;
+	static final byte SELF = 1;
+	static final byte PRINCIPAL = 2;
+
+	static final int TYPES = StateSet.TYPES.length;
+	static final int STATE_WORDS = (TYPES + 63) >>> 6;
+
+	final GameData catalog;
+
+	// Teams, in the order of POOBkemon.getTeams()
+	final int[] trainerIds;
+	final int[] teamStart;
+	final int[] active;
+	final int[] alive;
+	final int[] order; // Teams in turn order
+	int actions; // Actions applied since the battle started
+	int winner = -1; // Trainer id
+	boolean finished;
+
+	// Pokemon
+	final int[] pokemonIds;
+	final int[] hp;
+	final int[] maxHp;
+	final int[] attack;
+	final int[] defense;
+	final int[] specialAttack;
+	final int[] specialDefense;
+	final int[] speed;
+	final int[] criticalChance;
+	final short[] level;
+	final byte[] type1;
+	final byte[] type2;
+	final int[] accuracyStage;
+	final int[] evasionStage;
+	final byte[] flags;
+	final byte[] principal; // Ordinal of the principal state, -1 if none
+	final long[] states; // STATE_WORDS words per Pokemon
+	final short[] stateTurns; // TYPES entries per Pokemon
+	final short[] stateIntensity;
+	final int[] moveStart;
+	final int[] firstMove;
+	final int[] lastMove;
+
+	// Moves
+	final int[] moveIds;
+	final short[] power;
+	final short[] accuracy;
+	final short[] pp;
+	final short[] ppMax;
+	final byte[] moveType;
+	final byte[] moveKind;
+	final short[] moveState; // Ordinal of the state a state move inflicts, -1 if none
+	final short[] moveStateTurns;
+	final short[] moveStateIntensity;
+	final byte[] moveFlags;
+
+	private CompactBattle(GameData catalog, int teams, int pokemons, int moves) {
+		this.catalog = catalog;
+		this.trainerIds = new int[teams];
+		this.teamStart = new int[teams + 1];
+		this.active = new int[teams];
+		this.alive = new int[teams];
+		this.order = new int[teams];
+		this.pokemonIds = new int[pokemons];
+		this.hp = new int[pokemons];
+		this.maxHp = new int[pokemons];
+		this.attack = new int[pokemons];
+		this.defense = new int[pokemons];
+		this.specialAttack = new int[pokemons];
+		this.specialDefense = new int[pokemons];
+		this.speed = new int[pokemons];
+		this.criticalChance = new int[pokemons];
+		this.level = new short[pokemons];
+		this.type1 = new byte[pokemons];
+		this.type2 = new byte[pokemons];
+		this.accuracyStage = new int[pokemons];
+		this.evasionStage = new int[pokemons];
+		this.flags = new byte[pokemons];
+		this.principal = new byte[pokemons];
+		this.states = new long[pokemons * STATE_WORDS];
+		this.stateTurns = new short[pokemons * TYPES];
+		this.stateIntensity = new short[pokemons * TYPES];
+		this.moveStart = new int[pokemons + 1];
+		this.firstMove = new int[pokemons];
+		this.lastMove = new int[pokemons];
+		this.moveIds = new int[moves];
+		this.power = new short[moves];
+		this.accuracy = new short[moves];
+		this.pp = new short[moves];
+		this.ppMax = new short[moves];
+		this.moveType = new byte[moves];
+		this.moveKind = new byte[moves];
+		this.moveState = new short[moves];
+		this.moveStateTurns = new short[moves];
+		this.moveStateIntensity = new short[moves];
+		this.moveFlags = new byte[moves];
+	}
+
+	private CompactBattle(CompactBattle other) {
+		this.catalog = other.catalog;
+		this.trainerIds = other.trainerIds;
+		this.teamStart = other.teamStart;
+		this.active = other.active.clone();
+		this.alive = other.alive.clone();
+		this.order = other.order;
+		this.actions = other.actions;
+		this.winner = other.winner;
+		this.finished = other.finished;
+		this.pokemonIds = other.pokemonIds;
+		this.hp = other.hp.clone();
+		this.maxHp = other.maxHp;
+		this.attack = other.attack.clone();
+		this.defense = other.defense.clone();
+		this.specialAttack = other.specialAttack.clone();
+		this.specialDefense = other.specialDefense.clone();
+		this.speed = other.speed.clone();
+		this.criticalChance = other.criticalChance.clone();
+		this.level = other.level;
+		this.type1 = other.type1;
+		this.type2 = other.type2;
+		this.accuracyStage = other.accuracyStage.clone();
+		this.evasionStage = other.evasionStage.clone();
+		this.flags = other.flags.clone();
+		this.principal = other.principal.clone();
+		this.states = other.states.clone();
+		this.stateTurns = other.stateTurns.clone();
+		this.stateIntensity = other.stateIntensity.clone();
+		this.moveStart = other.moveStart;
+		this.firstMove = other.firstMove.clone();
+		this.lastMove = other.lastMove.clone();
+		this.moveIds = other.moveIds;
+		this.power = other.power;
+		this.accuracy = other.accuracy;
+		this.pp = other.pp.clone();
+		this.ppMax = other.ppMax;
+		this.moveType = other.moveType;
+		this.moveKind = other.moveKind;
+		this.moveState = other.moveState;
+		this.moveStateTurns = other.moveStateTurns;
+		this.moveStateIntensity = other.moveStateIntensity;
+		this.moveFlags = other.moveFlags;
+	}
+
+	/**
+	 * Builds the compact form of a started battle of two teams.
+	 *
+	 * @param game battle of the object model; it is only read
+	 * @return the compact battle, at the same point of the fight
+	 * @throws POOBkemonException if the battle has not started or does not have two teams
+	 */
+	public static CompactBattle of(POOBkemon game) throws POOBkemonException {
+		ArrayList<Team> teams = game.getTeams();
+		if (teams == null || teams.size() != 2 || game.getOrder() == null) {
+			throw new POOBkemonException("Se necesita una batalla iniciada de dos entrenadores");
+		}
+		int pokemons = 0;
+		int moves = 0;
+		for (Team team : teams) {
+			for (Pokemon pokemon : team.getPokemons()) {
+				pokemons++;
+				moves += pokemon.getAttacks().size() + 1;
+			}
+		}
+		CompactBattle battle = new CompactBattle(game.catalog(), teams.size(), pokemons, moves);
+		MoveSpec fallback = game.catalog().getMoveSpec(DEFAULT_MOVE);
+		int p = 0;
+		int row = 0;
+		for (int t = 0; t < teams.size(); t++) {
+			Team team = teams.get(t);
+			battle.trainerIds[t] = team.getTrainer().getId();
+			battle.teamStart[t] = p;
+			battle.alive[t] = team.getAliveCount();
+			Pokemon activePokemon = team.getActivePokemon();
+			for (Pokemon pokemon : team.getPokemons()) {
+				if (pokemon == activePokemon) {
+					battle.active[t] = p;
+				}
+				battle.moveStart[p] = row;
+				pokemon.writeTo(battle, p, row);
+				row += pokemon.getAttacks().size();
+				battle.defaultMove(row, fallback);
+				row++;
+				p++;
+			}
+		}
+		battle.teamStart[teams.size()] = p;
+		battle.moveStart[p] = row;
+		for (int i = 0; i < battle.order.length; i++) {
+			battle.order[i] = battle.teamOf(game.getOrder().get(i));
+		}
+		battle.actions = game.actionCount();
+		battle.finished = game.finishBattle();
+		if (battle.finished) {
+			battle.winner = game.getWinner();
+		}
+		return battle;
+	}
+
+	/**
+	 * Brings the state of this battle back to the battle it was built from, or
+	 * to a copy of it: HP, stats, stages, PP, states, the active Pokemon of each
+	 * team and the turn. Pokemon that fainted here faint there, so the battle
+	 * ends there too if a team ran out of Pokemon.
+	 *
+	 * @param game the battle this one was built from, or a copy of it
+	 * @throws POOBkemonException if the rosters differ or a Pokemon cannot take its default move
+	 */
+	public void writeTo(POOBkemon game) throws POOBkemonException {
+		ArrayList<Team> teams = game.getTeams();
+		for (int t = 0; t < this.trainerIds.length; t++) {
+			Team team = teams.get(t);
+			ArrayList<Pokemon> members = team.getPokemons();
+			if (team.getTrainer().getId() != this.trainerIds[t]
+					|| members.size() != this.teamStart[t + 1] - this.teamStart[t]) {
+				throw new POOBkemonException("La batalla no corresponde a la forma compacta");
+			}
+			for (int i = 0; i < members.size(); i++) {
+				members.get(i).readFrom(this, this.teamStart[t] + i);
+			}
+			Pokemon current = team.getActivePokemon();
+			int wanted = this.pokemonIds[this.active[t]];
+			if ((current == null || current.getId() != wanted) && this.hp[this.active[t]] > 0) {
+				team.changePokemon(wanted);
+			}
+		}
+		game.setActionCount(this.actions);
+		game.checkBattleStatus();
+	}
+
+	/**
+	 * @return an independent copy; the columns that never change during a battle are shared
+	 */
+	public CompactBattle copy() {
+		return new CompactBattle(this);
+	}
+
+	/**
+	 * Puts this battle back at the point of another one, reusing its columns, so
+	 * that many rollouts from the same position allocate nothing.
+	 *
+	 * @param source a copy of this battle, or the battle this one was copied from
+	 */
+	public void copyFrom(CompactBattle source) {
+		if (source.pokemonIds != this.pokemonIds || source.moveIds != this.moveIds) {
+			throw new IllegalArgumentException("Las batallas no son copias la una de la otra");
+		}
+		System.arraycopy(source.active, 0, this.active, 0, this.active.length);
+		System.arraycopy(source.alive, 0, this.alive, 0, this.alive.length);
+		this.actions = source.actions;
+		this.winner = source.winner;
+		this.finished = source.finished;
+		int n = this.hp.length;
+		System.arraycopy(source.hp, 0, this.hp, 0, n);
+		System.arraycopy(source.attack, 0, this.attack, 0, n);
+		System.arraycopy(source.defense, 0, this.defense, 0, n);
+		System.arraycopy(source.specialAttack, 0, this.specialAttack, 0, n);
+		System.arraycopy(source.specialDefense, 0, this.specialDefense, 0, n);
+		System.arraycopy(source.speed, 0, this.speed, 0, n);
+		System.arraycopy(source.criticalChance, 0, this.criticalChance, 0, n);
+		System.arraycopy(source.accuracyStage, 0, this.accuracyStage, 0, n);
+		System.arraycopy(source.evasionStage, 0, this.evasionStage, 0, n);
+		System.arraycopy(source.flags, 0, this.flags, 0, n);
+		System.arraycopy(source.principal, 0, this.principal, 0, n);
+		System.arraycopy(source.firstMove, 0, this.firstMove, 0, n);
+		System.arraycopy(source.lastMove, 0, this.lastMove, 0, n);
+		System.arraycopy(source.states, 0, this.states, 0, this.states.length);
+		System.arraycopy(source.stateTurns, 0, this.stateTurns, 0, this.stateTurns.length);
+		System.arraycopy(source.stateIntensity, 0, this.stateIntensity, 0, this.stateIntensity.length);
+		System.arraycopy(source.pp, 0, this.pp, 0, this.pp.length);
+	}
+
+	private void defaultMove(int row, MoveSpec spec) {
+		this.moveIds[row] = DEFAULT_MOVE;
+		this.moveKind[row] = PHYSICAL;
+		this.moveState[row] = -1;
+		if (spec != null) {
+			this.power[row] = (short) spec.getPower();
+			this.accuracy[row] = (short) spec.getAccuracy();
+			this.ppMax[row] = (short) spec.getPPMax();
+			this.moveType[row] = (byte) spec.getTypeId();
+		}
+		this.pp[row] = this.ppMax[row];
+	}
+
+	/**
+	 * Fills a move row from an attack of the object model.
+	 */
+	void move(int row, Attack attack) {
+		this.moveIds[row] = attack.getIdCSV();
+		this.power[row] = (short) attack.getPower();
+		this.accuracy[row] = (short) attack.getAccuracy();
+		this.pp[row] = (short) attack.getPPActual();
+		this.ppMax[row] = (short) attack.getPPMax();
+		this.moveType[row] = (byte) attack.getTypeId();
+		this.moveState[row] = -1;
+		if (attack instanceof StateAttack) {
+			this.moveKind[row] = STATE;
+			StateAttack stateAttack = (StateAttack) attack;
+			State state = stateAttack.createState();
+			if (state != null) {
+				this.moveState[row] = (short) state.getType().ordinal();
+				this.moveStateTurns[row] = (short) state.getDuration();
+				this.moveStateIntensity[row] = (short) state.getIntensity();
+				this.moveFlags[row] = (byte) ((stateAttack.affectsSelf() ? SELF : 0) | (state.isPrincipal() ? PRINCIPAL : 0));
+			}
+		} else {
+			this.moveKind[row] = (byte) (attack.isSpecial() ? SPECIAL : PHYSICAL);
+		}
+	}
+
+	/**
+	 * @return the index of the team of a trainer
+	 */
+	int teamOf(int trainerId) {
+		for (int t = 0; t < this.trainerIds.length; t++) {
+			if (this.trainerIds[t] == trainerId) {
+				return t;
+			}
+		}
+		throw new IllegalArgumentException("Entrenador con ID " + trainerId + " no está en la batalla");
+	}
+
+	/**
+	 * @return the index of the team that owns Pokemon {@code p}
+	 */
+	int teamOfPokemon(int p) {
+		return p < this.teamStart[1] ? 0 : 1;
+	}
+
+	boolean hasState(int p, int type) {
+		return (this.states[p * STATE_WORDS + (type >>> 6)] & (1L << type)) != 0;
+	}
+
+	void putState(int p, int type, int turns, int intensity) {
+		this.states[p * STATE_WORDS + (type >>> 6)] |= 1L << type;
+		this.stateTurns[p * TYPES + type] = (short) turns;
+		this.stateIntensity[p * TYPES + type] = (short) intensity;
+	}
+
+	void removeState(int p, int type) {
+		this.states[p * STATE_WORDS + (type >>> 6)] &= ~(1L << type);
+	}
+
+	/**
+	 * @return the first state of Pokemon {@code p} at or after {@code from}, or -1 if there is none
+	 */
+	int nextState(int p, int from) {
+		if (from >= TYPES) {
+			return -1;
+		}
+		int word = from >>> 6;
+		long remaining = this.states[p * STATE_WORDS + word] & (-1L << from);
+		while (remaining == 0) {
+			if (++word == STATE_WORDS) {
+				return -1;
+			}
+			remaining = this.states[p * STATE_WORDS + word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(remaining);
+	}
+
+	/**
+	 * Checks that every state the battle can see, on its Pokemon or in its moves,
+	 * is one whose effect {@link CompactEngine} plays. When it holds, the engine
+	 * and the object model play the battle the same way with the same generator.
+	 */
+	public boolean isExact() {
+		for (int p = 0; p < this.pokemonIds.length; p++) {
+			for (int type = this.nextState(p, 0); type >= 0; type = this.nextState(p, type + 1)) {
+				if (!CompactEngine.plays(type)) {
+					return false;
+				}
+			}
+		}
+		for (int row = 0; row < this.moveIds.length; row++) {
+			if (this.moveKind[row] == STATE && (this.moveState[row] < 0 || !CompactEngine.plays(this.moveState[row]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getPokemonCount() {
+		return this.pokemonIds.length;
+	}
+
+	/**
+	 * @return the position in this battle of the Pokemon with the given id, or -1
+	 */
+	public int indexOf(int pokemonId) {
+		for (int p = 0; p < this.pokemonIds.length; p++) {
+			if (this.pokemonIds[p] == pokemonId) {
+				return p;
+			}
+		}
+		return -1;
+	}
+
+	public int getHealth(int p) {
+		return this.hp[p];
+	}
+
+	/**
+	 * @return the remaining PP of the moves Pokemon {@code p} can use now
+	 */
+	public int[] getPP(int p) {
+		int[] remaining = new int[this.lastMove[p] - this.firstMove[p] + 1];
+		for (int i = 0; i < remaining.length; i++) {
+			remaining[i] = this.pp[this.firstMove[p] + i];
+		}
+		return remaining;
+	}
+
+	/**
+	 * @return the position of the active Pokemon of the team at {@code team} in {@link POOBkemon#getTeams()}
+	 */
+	public int getActive(int team) {
+		return this.active[team];
+	}
+
+	public boolean isFinished() {
+		return this.finished;
+	}
+
+	/**
+	 * @return the trainer id of the winner, or -1 while the battle goes on
+	 */
+	public int getWinner() {
+		return this.winner;
+	}
+
+	public int getActions() {
+		return this.actions;
+	}
+}
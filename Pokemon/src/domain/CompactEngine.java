@@ -0,0 +1,410 @@
+package domain;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Rules of the battle played directly on the columns of a {@link CompactBattle}.
+ * They follow {@link POOBkemon#apply(Action)} step by step: the states of every
+ * Pokemon take effect before the second action of each round, an attack spends
+ * its PP and is resolved by {@link DamageKernel} or lands its state, a fainted
+ * active Pokemon is replaced by the last one of its team still standing, and the
+ * battle ends when a team has none left. The generator is asked for the same
+ * numbers in the same order as the object model does, so with the same
+ * generator both play a battle the same way as long as
+ * {@link CompactBattle#isExact()} holds.
+ * <p>
+ * The states whose effect is played here are the damaging ones (burn, poison,
+ * bad poison, confusion), sleep, freeze, paralysis, heal, flinch and the stat
+ * changes. Any other state only counts its turns down.
+ */
+public final class CompactEngine {
+
+	private static final boolean[] PLAYED = new boolean[CompactBattle.TYPES];
+
+	static {
+		State.StateType[] played = {
+				State.StateType.BURN, State.StateType.POISON, State.StateType.BAD_POISON,
+				State.StateType.PARALYSIS, State.StateType.SLEEP, State.StateType.FREEZE,
+				State.StateType.HEAL, State.StateType.CONFUSION, State.StateType.FLINCH,
+				State.StateType.ATTACK_UP, State.StateType.DEFENSE_UP, State.StateType.SPEED_UP,
+				State.StateType.SP_ATTACK_UP, State.StateType.SP_DEFENSE_UP, State.StateType.EVASION_UP,
+				State.StateType.ACCURACY_UP, State.StateType.ATTACK_DOWN, State.StateType.DEFENSE_DOWN,
+				State.StateType.SPEED_DOWN, State.StateType.SP_ATTACK_DOWN, State.StateType.SP_DEFENSE_DOWN,
+				State.StateType.EVASION_DOWN, State.StateType.ACCURACY_DOWN
+		};
+		for (State.StateType type : played) {
+			PLAYED[type.ordinal()] = true;
+		}
+	}
+
+	private CompactEngine() {
+	}
+
+	/**
+	 * @return true if the effect of the state type is played by this engine
+	 */
+	static boolean plays(int type) {
+		return PLAYED[type];
+	}
+
+	/**
+	 * Applies an attack, like an {@link AttackAction}.
+	 *
+	 * @param battle the battle
+	 * @param team index of the attacking trainer's team
+	 * @param attacker position of the attacking Pokemon, normally the active one of its team
+	 * @param move row of the move
+	 * @param rng generator of the battle
+	 * @throws POOBkemonException if the Pokemon is not in the team or cannot use the move now
+	 */
+	public static void attack(CompactBattle battle, int team, int attacker, int move, RandomGenerator rng) throws POOBkemonException {
+		if (!begin(battle, rng)) {
+			return;
+		}
+		if (attacker < battle.teamStart[team] || attacker >= battle.teamStart[team + 1]) {
+			throw new POOBkemonException("Error: No se encontró el Pokemon atacante");
+		}
+		if (move < battle.firstMove[attacker] || move > battle.lastMove[attacker]) {
+			throw new POOBkemonException("Error: No se encontró el ataque");
+		}
+		move = fallBackIfOutOfPP(battle, attacker, move);
+		int target = battle.active[1 - team];
+		battle.pp[move]--;
+		if (battle.hp[attacker] > 0 && battle.hp[target] > 0) {
+			if (battle.moveKind[move] == CompactBattle.STATE) {
+				stateMove(battle, attacker, target, move, rng);
+			} else {
+				damageMove(battle, attacker, target, move, rng);
+			}
+		}
+		replaceFainted(battle);
+		checkStatus(battle);
+	}
+
+	/**
+	 * Changes the active Pokemon of a team, like a {@link SwitchAction}.
+	 *
+	 * @param battle the battle
+	 * @param team index of the trainer's team
+	 * @param pokemon position of the Pokemon that comes in
+	 * @param rng generator of the battle
+	 * @throws POOBkemonException if the Pokemon is not in the team or has fainted
+	 */
+	public static void switchTo(CompactBattle battle, int team, int pokemon, RandomGenerator rng) throws POOBkemonException {
+		if (!begin(battle, rng)) {
+			return;
+		}
+		if (pokemon < battle.teamStart[team] || pokemon >= battle.teamStart[team + 1]) {
+			throw new POOBkemonException(POOBkemonException.POKEMON_ID_NOT_FOUND + pokemon);
+		}
+		if (battle.hp[pokemon] <= 0) {
+			throw new POOBkemonException(POOBkemonException.POKEMON_WEAK_CHANGE);
+		}
+		battle.active[team] = pokemon;
+		checkStatus(battle);
+	}
+
+	/**
+	 * Choice of an {@link Offensive} trainer: the first move of the Pokemon with PP left.
+	 *
+	 * @return the row of the move, or the first one if none has PP left
+	 */
+	public static int firstUsableMove(CompactBattle battle, int pokemon) {
+		for (int row = battle.firstMove[pokemon]; row <= battle.lastMove[pokemon]; row++) {
+			if (battle.pp[row] > 0) {
+				return row;
+			}
+		}
+		return battle.firstMove[pokemon];
+	}
+
+	/**
+	 * Plays the battle to the end with both trainers choosing like {@link Offensive}
+	 * trainers, the way {@link BattleSimulator} drives a battle: each turn both choose
+	 * and then act in turn order.
+	 *
+	 * @param battle the battle, which is played in place
+	 * @param rng generator of the battle
+	 * @param maxTurns turns after which the battle is left unfinished
+	 * @return the turns played
+	 * @throws POOBkemonException if a choice is rejected
+	 */
+	public static int play(CompactBattle battle, RandomGenerator rng, int maxTurns) throws POOBkemonException {
+		int first = battle.order[0];
+		int second = battle.order[1];
+		int turn = 0;
+		while (!battle.finished && turn < maxTurns) {
+			int attacker1 = battle.active[first];
+			int move1 = firstUsableMove(battle, attacker1);
+			int attacker2 = battle.active[second];
+			int move2 = firstUsableMove(battle, attacker2);
+			attack(battle, first, attacker1, move1, rng);
+			if (!battle.finished) {
+				attack(battle, second, attacker2, move2, rng);
+			}
+			turn++;
+		}
+		return turn;
+	}
+
+	/**
+	 * Common start of every action: the states take effect before the second
+	 * action of a round, and a battle already decided takes no more actions.
+	 *
+	 * @return true if the action goes ahead
+	 */
+	private static boolean begin(CompactBattle battle, RandomGenerator rng) {
+		if (battle.finished) {
+			return false;
+		}
+		if ((battle.actions & 1) == 1) {
+			for (int p = 0; p < battle.hp.length; p++) {
+				applyStates(battle, p, rng);
+			}
+		}
+		battle.actions++;
+		checkStatus(battle);
+		return battle.winner == -1;
+	}
+
+	private static void damageMove(CompactBattle battle, int attacker, int target, int move, RandomGenerator rng) {
+		boolean special = battle.moveKind[move] == CompactBattle.SPECIAL;
+		long outcome = DamageKernel.resolve(battle.accuracy[move], battle.accuracyStage[attacker], battle.evasionStage[target],
+				battle.level[attacker], battle.power[move],
+				special ? battle.specialAttack[attacker] : battle.attack[attacker],
+				special ? battle.specialDefense[target] : battle.defense[target],
+				battle.catalog.getEffectiveness(battle.moveType[move], battle.type1[target], battle.type2[target]),
+				battle.criticalChance[attacker], rng);
+		fallBackIfOutOfPP(battle, attacker, move);
+		int event = DamageKernel.eventOf(outcome);
+		if (event == BattleLog.NO_EFFECT || event == BattleLog.MISS) {
+			return;
+		}
+		battle.hp[target] = Math.max(0, battle.hp[target] - DamageKernel.damageOf(outcome));
+		if (battle.hp[target] <= 0) {
+			faint(battle, target);
+		}
+	}
+
+	private static void stateMove(CompactBattle battle, int attacker, int target, int move, RandomGenerator rng) {
+		int accuracy = battle.accuracy[move];
+		if (accuracy != 100 && !(rng.nextDouble() * 100 < accuracy)) {
+			return;
+		}
+		int type = battle.moveState[move];
+		if (type < 0) {
+			return;
+		}
+		int flags = battle.moveFlags[move];
+		int receiver = (flags & CompactBattle.SELF) != 0 ? attacker : target;
+		if (isImmune(type, battle.type1[receiver])) {
+			return;
+		}
+		if ((flags & CompactBattle.PRINCIPAL) != 0) {
+			if (battle.principal[receiver] < 0) {
+				battle.principal[receiver] = (byte) type;
+				battle.putState(receiver, type, battle.moveStateTurns[move], battle.moveStateIntensity[move]);
+			}
+		} else {
+			battle.putState(receiver, type, battle.moveStateTurns[move], battle.moveStateIntensity[move]);
+		}
+	}
+
+	/**
+	 * Same immunities as {@link State#isImmune(Pokemon)}, on the primary type.
+	 */
+	private static boolean isImmune(int state, int type) {
+		switch (StateSet.TYPES[state]) {
+			case PARALYSIS:
+				return type == PokemonType.ELECTRIC.ordinal();
+			case POISON:
+				return type == PokemonType.POISON.ordinal();
+			case BAD_POISON:
+				return type == PokemonType.POISON.ordinal() || type == PokemonType.STEEL.ordinal();
+			case BURN:
+				return type == PokemonType.FIRE.ordinal();
+			case FREEZE:
+				return type == PokemonType.ICE.ordinal();
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * A Pokemon whose moves are all out of PP gets a fresh default move instead.
+	 *
+	 * @return the row of the default move if the Pokemon fell back to it, or {@code move} otherwise
+	 */
+	private static int fallBackIfOutOfPP(CompactBattle battle, int pokemon, int move) {
+		for (int row = battle.firstMove[pokemon]; row <= battle.lastMove[pokemon]; row++) {
+			if (battle.pp[row] > 0) {
+				return move;
+			}
+		}
+		int fallback = battle.moveStart[pokemon + 1] - 1;
+		battle.firstMove[pokemon] = fallback;
+		battle.lastMove[pokemon] = fallback;
+		battle.pp[fallback] = battle.ppMax[fallback];
+		return fallback;
+	}
+
+	private static void faint(CompactBattle battle, int pokemon) {
+		battle.hp[pokemon] = 0;
+		if ((battle.flags[pokemon] & CompactBattle.FAINTED) == 0) {
+			battle.flags[pokemon] |= CompactBattle.FAINTED;
+			battle.alive[battle.teamOfPokemon(pokemon)]--;
+		}
+	}
+
+	private static void takeDamage(CompactBattle battle, int pokemon, int damage) {
+		battle.hp[pokemon] -= damage;
+		if (battle.hp[pokemon] <= 0) {
+			faint(battle, pokemon);
+		}
+	}
+
+	/**
+	 * Replaces the first fainted active Pokemon, in team order, by the last one of its team still standing.
+	 */
+	private static void replaceFainted(CompactBattle battle) {
+		for (int t = 0; t < battle.active.length; t++) {
+			if ((battle.flags[battle.active[t]] & CompactBattle.FAINTED) != 0) {
+				checkStatus(battle);
+				if (battle.finished) {
+					return;
+				}
+				for (int p = battle.teamStart[t + 1] - 1; p >= battle.teamStart[t]; p--) {
+					if ((battle.flags[p] & CompactBattle.FAINTED) == 0) {
+						battle.active[t] = p;
+						break;
+					}
+				}
+				return;
+			}
+		}
+	}
+
+	private static void checkStatus(CompactBattle battle) {
+		if (battle.finished) {
+			return;
+		}
+		for (int t = 0; t < battle.alive.length; t++) {
+			if (battle.alive[t] == 0) {
+				battle.finished = true;
+				battle.winner = battle.trainerIds[1 - t];
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Like {@link Pokemon#applyState()}: the principal state first, then the others in type order.
+	 */
+	private static void applyStates(CompactBattle battle, int pokemon, RandomGenerator rng) {
+		int base = pokemon * CompactBattle.TYPES;
+		int principal = battle.principal[pokemon];
+		if (principal >= 0) {
+			applyState(battle, pokemon, principal, rng);
+			if (battle.stateTurns[base + principal] == 0) {
+				battle.removeState(pokemon, principal);
+				battle.principal[pokemon] = -1;
+			}
+		}
+		for (int type = battle.nextState(pokemon, 0); type >= 0; type = battle.nextState(pokemon, type + 1)) {
+			if (type == principal) {
+				continue;
+			}
+			applyState(battle, pokemon, type, rng);
+			if (battle.stateTurns[base + type] == 0) {
+				battle.removeState(pokemon, type);
+			}
+		}
+	}
+
+	/**
+	 * Like {@code State.apply}: one turn of a state, which then loses a turn if it has a limited duration.
+	 */
+	private static void applyState(CompactBattle battle, int p, int type, RandomGenerator rng) {
+		int at = p * CompactBattle.TYPES + type;
+		if (battle.stateTurns[at] == 0 || (battle.flags[p] & CompactBattle.FAINTED) != 0) {
+			return;
+		}
+		switch (StateSet.TYPES[type]) {
+			case BURN:
+				takeDamage(battle, p, Math.max(1, battle.maxHp[p] / 8));
+				battle.attack[p] = (int) (battle.attack[p] * 0.5);
+				break;
+			case POISON:
+				takeDamage(battle, p, Math.max(1, battle.maxHp[p] / 8));
+				break;
+			case BAD_POISON:
+				takeDamage(battle, p, Math.max(1, battle.maxHp[p] / 25) * battle.stateIntensity[at]);
+				battle.stateIntensity[at]++;
+				break;
+			case PARALYSIS:
+				battle.speed[p] = battle.speed[p] - (battle.speed[p] * 50 / 100);
+				rng.nextDouble();
+				break;
+			case SLEEP:
+			case FREEZE:
+				if (rng.nextDouble() < 0.2) {
+					battle.stateTurns[at] = 0;
+				}
+				break;
+			case HEAL:
+				if ((battle.flags[p] & CompactBattle.FAINTED) == 0) {
+					battle.hp[p] = Math.min(battle.maxHp[p], battle.hp[p] + Math.max(1, (int) (battle.maxHp[p] * 0.05)));
+				}
+				break;
+			case CONFUSION:
+				if (rng.nextDouble() < 0.33) {
+					takeDamage(battle, p, battle.power[battle.firstMove[p]] / 2);
+				}
+				break;
+			case ATTACK_UP:
+				battle.attack[p] = (int) (battle.attack[p] * 1.2);
+				break;
+			case DEFENSE_UP:
+				battle.defense[p] = (int) (battle.defense[p] * 1.2);
+				break;
+			case SPEED_UP:
+				battle.speed[p] = (int) (battle.speed[p] * 1.2);
+				break;
+			case SP_ATTACK_UP:
+				battle.specialAttack[p] = (int) (battle.specialAttack[p] * 1.2);
+				break;
+			case SP_DEFENSE_UP:
+				battle.specialDefense[p] = (int) (battle.specialDefense[p] * 1.2);
+				break;
+			case EVASION_UP:
+				battle.evasionStage[p] = (int) (battle.evasionStage[p] * 1.2);
+				break;
+			case ATTACK_DOWN:
+				battle.attack[p] = (int) (battle.attack[p] * 0.8);
+				break;
+			case DEFENSE_DOWN:
+				battle.defense[p] = (int) (battle.defense[p] * 0.8);
+				break;
+			case SPEED_DOWN:
+				battle.speed[p] = (int) (battle.speed[p] * 0.8);
+				break;
+			case SP_ATTACK_DOWN:
+				battle.specialAttack[p] = (int) (battle.specialAttack[p] * 0.8);
+				break;
+			case SP_DEFENSE_DOWN:
+				battle.specialDefense[p] = (int) (battle.specialDefense[p] * 0.8);
+				break;
+			case EVASION_DOWN:
+				battle.evasionStage[p] = (int) (battle.evasionStage[p] * 0.8);
+				break;
+			default:
+				break;
+		}
+		if (battle.stateTurns[at] > 0) {
+			battle.stateTurns[at]--;
+		}
+		if (battle.hp[p] <= 0) {
+			faint(battle, p);
+		}
+	}
+}
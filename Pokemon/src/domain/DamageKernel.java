@@ -0,0 +1,152 @@
+package domain;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Accuracy and damage rules of a regular attack, on primitive inputs only.
+ * Every multiplier is a 16.16 fixed point int ({@link #ONE} is 1.0): the
+ * stage multipliers for -6..+6 and the level factor {@code 2 * level / 5 + 2}
+ * are read from tables built once, and the damage formula runs on longs, so
+ * resolving an attack allocates nothing.
+ * <p>
+ * {@link #resolve} packs its outcome in a long: the damage in the low 32 bits,
+ * the {@link BattleLog} event of the outcome in the next 8 bits and a critical
+ * hit flag above them. {@link #damageOf}, {@link #eventOf} and
+ * {@link #isCritical} read them back.
+ */
+public final class DamageKernel {
+
+	/** 1.0 in 16.16 fixed point. */
+	public static final int ONE = 1 << 16;
+
+	public static final int MIN_STAGE = -6;
+	public static final int MAX_STAGE = 6;
+	public static final int MAX_LEVEL = 100;
+
+	/** Standard critical hit chance, 4.17%. */
+	public static final int CRITICAL_CHANCE = 2733;
+
+	private static final double STAGE_MODIFIER = 1.3; // 1.5 Pokemon standar (Modify Accuracy)
+	private static final int MIN_HIT = 6554; // 0.1
+	private static final int RANDOM_MIN = 55706; // 0.85
+	private static final int RANDOM_SPAN = ONE - RANDOM_MIN;
+
+	private static final int EVENT_SHIFT = 32;
+	private static final long CRITICAL_FLAG = 1L << 40;
+
+	private static final int[] STAGE = new int[MAX_STAGE - MIN_STAGE + 1];
+	private static final int[] LEVEL_FACTOR = new int[MAX_LEVEL + 1];
+
+	static {
+		for (int stage = MIN_STAGE; stage <= MAX_STAGE; stage++) {
+			STAGE[stage - MIN_STAGE] = (int) Math.round(Math.pow(STAGE_MODIFIER, stage) * ONE);
+		}
+		for (int level = 0; level <= MAX_LEVEL; level++) {
+			LEVEL_FACTOR[level] = 2 * level / 5 + 2;
+		}
+	}
+
+	private DamageKernel() {
+	}
+
+	/**
+	 * @param stage accuracy or evasion stage; values outside -6..+6 count as the nearest end
+	 * @return {@code 1.3^stage} in 16.16 fixed point
+	 */
+	public static int stageMultiplier(int stage) {
+		return STAGE[Math.max(MIN_STAGE, Math.min(MAX_STAGE, stage)) - MIN_STAGE];
+	}
+
+	/**
+	 * @return {@code 2 * level / 5 + 2}, with the level taken within 0..100
+	 */
+	public static int levelFactor(int level) {
+		return LEVEL_FACTOR[Math.max(0, Math.min(MAX_LEVEL, level))];
+	}
+
+	/**
+	 * Chance that an attack below 100 accuracy hits: the accuracy times the
+	 * attacker's accuracy stage and the target's evasion stage, cut to 60% for
+	 * attacks of 30 or less, and kept between 10% and 100%.
+	 *
+	 * @return the chance in 16.16 fixed point
+	 */
+	public static int hitChance(int accuracy, int accuracyStage, int evasionStage) {
+		long chance = (long) accuracy * ONE / 100;
+		chance = chance * stageMultiplier(accuracyStage) >> 16;
+		chance = chance * stageMultiplier(evasionStage) >> 16;
+		if (accuracy <= 30) {
+			chance = chance * 3 / 5;
+		}
+		return (int) Math.max(MIN_HIT, Math.min(ONE, chance));
+	}
+
+	/**
+	 * Damage before the random factor and the critical hit:
+	 * {@code (levelFactor * power * attack / defense) / 50 + 2} times the type
+	 * effectiveness, in 16.16 fixed point.
+	 */
+	public static long baseDamage(int level, int power, int attack, int defense, int effectiveness) {
+		long base = ((long) levelFactor(level) * power * attack << 16) / Math.max(1, defense) / 50 + 2L * ONE;
+		return base * effectiveness >> 16;
+	}
+
+	/**
+	 * Resolves a regular attack. An immune target takes no draw; otherwise the
+	 * generator is asked, in this order, whether it hits (only below 100
+	 * accuracy), the random factor between 0.85 and 1 and the critical hit.
+	 *
+	 * @param effectiveness type multiplier against the target, in 16.16 fixed point
+	 * @param criticalChance chance of a critical hit, in 16.16 fixed point
+	 * @return the packed outcome, with at least 1 damage on a hit
+	 */
+	public static long resolve(int accuracy, int accuracyStage, int evasionStage,
+							   int level, int power, int attack, int defense,
+							   int effectiveness, int criticalChance, RandomGenerator rng) {
+		if (effectiveness == 0) {
+			return pack(BattleLog.NO_EFFECT, 0, false);
+		}
+		if (accuracy < 100 && rng.nextInt(ONE) >= hitChance(accuracy, accuracyStage, evasionStage)) {
+			return pack(BattleLog.MISS, 0, false);
+		}
+		long value = baseDamage(level, power, attack, defense, effectiveness);
+		value = value * (RANDOM_MIN + rng.nextInt(RANDOM_SPAN)) >> 16;
+		boolean critical = rng.nextInt(ONE) < criticalChance;
+		if (critical) {
+			value <<= 1;
+		}
+		int damage = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (value + (ONE >> 1)) >> 16));
+		return pack(hitEvent(effectiveness), damage, critical);
+	}
+
+	/**
+	 * @return {@link BattleLog#HIT_SUPER} above 1.0, {@link BattleLog#HIT_WEAK} below it, {@link BattleLog#HIT} otherwise
+	 */
+	public static int hitEvent(int effectiveness) {
+		if (effectiveness > ONE) {
+			return BattleLog.HIT_SUPER;
+		} else if (effectiveness < ONE) {
+			return BattleLog.HIT_WEAK;
+		}
+		return BattleLog.HIT;
+	}
+
+	public static int damageOf(long outcome) {
+		return (int) outcome;
+	}
+
+	/**
+	 * @return the {@link BattleLog} event code of the outcome
+	 */
+	public static int eventOf(long outcome) {
+		return (int) (outcome >>> EVENT_SHIFT) & 0xFF;
+	}
+
+	public static boolean isCritical(long outcome) {
+		return (outcome & CRITICAL_FLAG) != 0;
+	}
+
+	private static long pack(int event, int damage, boolean critical) {
+		return (damage & 0xFFFFFFFFL) | (long) event << EVENT_SHIFT | (critical ? CRITICAL_FLAG : 0);
+	}
+}
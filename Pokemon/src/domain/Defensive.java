@@ -4,14 +4,13 @@ import persistence.StatsRepository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * The Defensive class represents a Machine implementation focusing on a defensive strategy
  * in the POOBkemon game. It prioritizes preserving its team and minimizing damage taken by
  * strategically switching Pokémon, using protective moves, or leveraging game items during battle.
  *
- * This class extends the abstract Machine class and overrides the machineMovement method
+ * This class extends the abstract Machine class and overrides the decide method
  * to provide decision-making logic tailored to defensive gameplay.
  */
 public class Defensive extends Machine {
@@ -27,8 +26,7 @@ public class Defensive extends Machine {
     private static final double STATUS_SCORE_WEIGHT = 0.4;
     private static final double RANDOM_FACTOR_WEIGHT = 0.1;
 
-    private final StatsRepository typeChart = new StatsRepository();
-    private final Random random = new Random();
+    private transient StatsRepository typeChart;
 
     /**
      * Constructs a new Defensive object with the specified identifier and BagPack.
@@ -50,36 +48,35 @@ public class Defensive extends Machine {
      *
      * @param game the current instance of the POOBkemon game, which includes all relevant game state
      *             and information needed for decision-making.
-     * @return an array of strings representing the chosen action. The format and meaning of the array
-     *         elements depend on the action type (e.g., item usage, Pokémon switch, or defensive attack).
+     * @return the chosen action: an item usage, a Pokémon switch or a defensive attack.
      * @throws POOBkemonException if an error occurs during the decision-making process, such as
      *                            invalid game state or problems accessing required information.
      */
     @Override
-    public String[] machineMovement(POOBkemon game) throws POOBkemonException {
+    public Action decide(POOBkemon game) throws POOBkemonException {
+        this.typeChart = typeChart(game);
         Team myTeam = getMyTeam(game);
         Pokemon myActive = getActivePokemon(myTeam);
         Pokemon opponent = getOpponentActivePokemon(game);
 
         // Check if we should use a defensive item
-        String[] itemDecision = considerUsingItem(myTeam, myActive);
+        Action itemDecision = considerUsingItem(myTeam, myActive);
         if (itemDecision != null) {
             return itemDecision;
         }
 
         // Consider switching if at a disadvantage
         if (shouldSwitchPokemon(myActive, opponent)) {
-            String[] switchDecision = createSwitchDecision(myTeam, myActive, opponent);
+            Action switchDecision = createSwitchDecision(myTeam, myActive, opponent);
             if (switchDecision != null) {
                 return switchDecision;
             }
         }
 
         // Consider using Protect if health is low
-        if (shouldUseProtect(myActive)) {
-            return new String[] {"Attack", findProtectMove(myActive),
-                    String.valueOf(myActive.getId()),
-                    String.valueOf(this.getId())};
+        Attack protect = shouldUseProtect(myActive) ? findProtectMove(myActive) : null;
+        if (protect != null) {
+            return new AttackAction(this.getId(), myActive.getId(), protect.getIdInside());
         }
 
         // Default to selecting the best defensive attack
@@ -114,10 +111,10 @@ public class Defensive extends Machine {
      *
      * @param team the team to which the active Pokémon belongs, providing context for item usage
      * @param active the currently active Pokémon that may benefit from item usage
-     * @return a string array containing the action to use an item on the active Pokémon, or null if no action is needed
+     * @return the action to use an item on the active Pokémon, or null if no action is needed
      * @throws POOBkemonException if an error occurs during item evaluation, such as accessing invalid data
      */
-    private String[] considerUsingItem(Team team, Pokemon active) throws POOBkemonException {
+    private Action considerUsingItem(Team team, Pokemon active) throws POOBkemonException {
         // Check if health is below threshold for healing
         double healthRatio = (double) active.currentHealth / active.maxHealth;
         if (healthRatio < HEALTH_DEFENSE_THRESHOLD) {
@@ -126,12 +123,7 @@ public class Defensive extends Machine {
             // Prefer Potions over Revives
             for (String[] item : items) {
                 if (item[0].equalsIgnoreCase("Potion") && Integer.parseInt(item[1]) > 0) {
-                    return new String[] {
-                            "UseItem",
-                            String.valueOf(this.getId()),
-                            String.valueOf(active.getId()),
-                            "Potion"
-                    };
+                    return new UseItemAction(this.getId(), active.getId(), "Potion");
                 }
             }
 
@@ -139,12 +131,7 @@ public class Defensive extends Machine {
             if (active.getWeak()) {
                 for (String[] item : items) {
                     if (item[0].equalsIgnoreCase("Revive") && Integer.parseInt(item[1]) > 0) {
-                        return new String[] {
-                                "UseItem",
-                                String.valueOf(this.getId()),
-                                String.valueOf(active.getId()),
-                                "Revive"
-                        };
+                        return new UseItemAction(this.getId(), active.getId(), "Revive");
                     }
                 }
             }
@@ -162,7 +149,7 @@ public class Defensive extends Machine {
     private boolean shouldUseProtect(Pokemon active) {
         double healthRatio = (double) active.currentHealth / active.maxHealth;
         return healthRatio < HEALTH_DEFENSE_THRESHOLD &&
-                random.nextDouble() < PROTECT_PROBABILITY &&
+                random().nextDouble() < PROTECT_PROBABILITY &&
                 hasProtectMove(active);
     }
 
@@ -182,14 +169,15 @@ public class Defensive extends Machine {
     }
 
     /**
-     * Finds and returns the internal identifier of the "Protect" move for*/
-    private String findProtectMove(Pokemon pokemon) {
+     * Finds the "Protect" move of the Pokémon if it still has PP.
+     * @return the move, or null if the Pokémon has no Protect with PP left*/
+    private Attack findProtectMove(Pokemon pokemon) {
         for (Attack attack : pokemon.getAttacks()) {
             if (attack.getName().equalsIgnoreCase("Protect") && attack.getPPActual() > 0) {
-                return String.valueOf(attack.getIdInside());
+                return attack;
             }
         }
-        return "1"; // Fallback to first attack if Protect not found (shouldn't happen if shouldUseProtect passed)
+        return null; // Protect is out of PP: the machine picks a defensive attack instead
     }
 
     /**
@@ -198,26 +186,17 @@ public class Defensive extends Machine {
      *
      * @param attacker the Pokémon that is performing the attack
      * @param opponent the opposing Pokémon that the attack is targeting
-     * @return a string array representing the selected attack action. The array contains:
-     *         - "Attack" (a constant identifying the action type),
-     *         - the internal ID of the selected attack,
-     *         - the ID of the attacker Pokémon,
-     *         - the ID of the current machine.
-     * @throws POOBkemonException if no attacks are available for the*/
-    private String[] selectDefensiveAttack(Pokemon attacker, Pokemon opponent) throws POOBkemonException {
+     * @return the attack action with the internal ID of the selected attack, thrown by the attacker Pokémon,
+     *         or the default move if no attack has PP left*/
+    private Action selectDefensiveAttack(Pokemon attacker, Pokemon opponent) {
         List<Attack> availableAttacks = getAvailableAttacks(attacker);
 
         if (availableAttacks.isEmpty()) {
-            throw new POOBkemonException("No hay ataques disponibles para " + attacker.getName());
+            return this.defaultAttack(attacker);
         }
 
         Attack bestAttack = selectBestDefensiveAttack(availableAttacks, attacker, opponent);
-        return new String[] {
-                "Attack",
-                String.valueOf(bestAttack.getIdInside()),
-                String.valueOf(attacker.getId()),
-                String.valueOf(this.getId())
-        };
+        return new AttackAction(this.getId(), attacker.getId(), bestAttack.getIdInside());
     }
 
     /**
@@ -262,7 +241,7 @@ public class Defensive extends Machine {
 
         // Consider type effectiveness (but less important than for offensive)
         try {
-            double typeEffectiveness = typeChart.getMultiplier(attack.getType(), opponent.type);
+            double typeEffectiveness = typeChart.getMultiplier(attack.getTypeId(), opponent.getTypeId(), opponent.getType2Id());
             score += typeEffectiveness * 0.2;
         } catch (Exception e) {
             // Default to neutral effectiveness if error occurs
@@ -273,7 +252,7 @@ public class Defensive extends Machine {
         score += (attack.getAccuracy() / 100.0) * 0.1;
 
         // Small random factor to add variability
-        score += random.nextDouble() * RANDOM_FACTOR_WEIGHT;
+        score += random().nextDouble() * RANDOM_FACTOR_WEIGHT;
 
         return score;
     }
@@ -309,7 +288,7 @@ public class Defensive extends Machine {
      */
     private double calculateTypeEffectiveness(Pokemon attacker, Pokemon defender) {
         try {
-            return typeChart.getMultiplier(attacker.getType(), defender.type);
+            return typeChart.getMultiplier(attacker.getTypeId(), defender.getTypeId(), defender.getType2Id());
         } catch (Exception e) {
             return 1.0; // Neutral effectiveness if error occurs
         }
@@ -325,12 +304,11 @@ public class Defensive extends Machine {
      * @throws POOBkemonException if no team is found for the trainer.
      */
     private Team getMyTeam(POOBkemon game) throws POOBkemonException {
-        for (Team team : game.teams()) {
-            if (team.getTrainer().getId() == this.getId()) {
-                return team;
-            }
+        Team team = game.findTeam(this.getId());
+        if (team == null) {
+            throw new POOBkemonException("Equipo no encontrado para el entrenador: " + this.getId());
         }
-        throw new POOBkemonException("Equipo no encontrado para el entrenador: " + this.getId());
+        return team;
     }
 
     /**
@@ -350,16 +328,12 @@ public class Defensive extends Machine {
      *             all teams and their states.
      * @return the active Pokémon from the opposing team,*/
     private Pokemon getOpponentActivePokemon(POOBkemon game) throws POOBkemonException {
-        for (Team team : game.teams()) {
-            if (team.getTrainer().getId() != this.getId()) {
-                for (Pokemon pokemon : team.getPokemons()) {
-                    if (pokemon.getActive()) {
-                        return pokemon;
-                    }
-                }
-            }
+        Team rival = game.findOpponentTeam(this.getId());
+        Pokemon pokemon = rival == null ? null : rival.getActivePokemon();
+        if (pokemon == null) {
+            throw new POOBkemonException("No se encontró Pokémon oponente activo");
         }
-        throw new POOBkemonException("No se encontró Pokémon oponente activo");
+        return pokemon;
     }
 
     /**
@@ -370,11 +344,9 @@ public class Defensive extends Machine {
      * @param myTeam the team of the player or machine, providing the list of available Pokémon.
      * @param current the currently active Pokémon that may be switched out.
      * @param opponent the opponent's active Pokémon, used to evaluate type and defensive matchups.
-     * @return an array of strings representing the switch action:
-     *         - "ChangePokemon" (action type),
-     *         - the ID of the switching machine,
-     *        */
-    private String[] createSwitchDecision(Team myTeam, Pokemon current, Pokemon opponent) throws POOBkemonException {
+     * @return the switch action to the chosen Pokémon, or null if there are no candidates.
+     */
+    private Action createSwitchDecision(Team myTeam, Pokemon current, Pokemon opponent) throws POOBkemonException {
         List<Pokemon> candidates = getSwitchCandidates(myTeam, current);
 
         if (candidates.isEmpty()) {
@@ -382,11 +354,7 @@ public class Defensive extends Machine {
         }
 
         Pokemon bestChoice = selectBestDefensiveSwitch(candidates, opponent);
-        return new String[] {
-                "ChangePokemon",
-                String.valueOf(this.getId()),
-                String.valueOf(bestChoice.getId())
-        };
+        return new SwitchAction(this.getId(), bestChoice.getId());
     }
 
     /**
@@ -448,7 +416,7 @@ public class Defensive extends Machine {
         score += healthRatio * 0.3;
 
         // Small random factor
-        score += random.nextDouble() * 0.1;
+        score += random().nextDouble() * 0.1;
 
         return score;
     }
@@ -3,7 +3,6 @@ package domain;
 import persistence.StatsRepository;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * The Expert class represents an advanced AI entity, extending the behavior of a Machine.
@@ -25,8 +24,7 @@ public class Expert extends Machine {
 	private static final double DEFENSIVE_WEIGHT = 0.35;
 	private static final double STATUS_WEIGHT = 0.2;
 
-	private final StatsRepository typeChart = new StatsRepository();
-	private final Random random = new Random();
+	private transient StatsRepository typeChart;
 
 	public Expert(int id, BagPack bagPack) throws POOBkemonException {
 		super(id, bagPack);
@@ -38,25 +36,25 @@ public class Expert extends Machine {
 	 *
 	 * @param game the current instance of the POOBkemon game containing game state information,
 	 *             including teams, active Pokémon, and available moves or items.
-	 * @return an array of strings representing the decision for the machine's next action.
-	 *         The array format depends on the type of action, such as using an item, switching Pokémon,
+	 * @return the machine's next action, such as using an item, switching Pokémon,
 	 *         or performing an attack.
 	 * @throws POOBkemonException if any game-specific rule*/
 	@Override
-	public String[] machineMovement(POOBkemon game) throws POOBkemonException {
+	public Action decide(POOBkemon game) throws POOBkemonException {
+		this.typeChart = typeChart(game);
 		Team myTeam = getMyTeam(game);
 		Pokemon myActive = getActivePokemon(myTeam);
 		Pokemon opponent = getOpponentActivePokemon(game);
 
 		// 1. Prioridad: Uso de items si es crítico
-		String[] itemDecision = evaluateItemUsage(myTeam, myActive);
+		Action itemDecision = evaluateItemUsage(myTeam, myActive);
 		if (itemDecision != null) {
 			return itemDecision;
 		}
 
 		// 2. Evaluar cambio estratégico
 		if (shouldSwitch(myActive, opponent)) {
-			String[] switchDecision = createOptimalSwitch(myTeam, myActive, opponent);
+			Action switchDecision = createOptimalSwitch(myTeam, myActive, opponent);
 			if (switchDecision != null) {
 				return switchDecision;
 			}
@@ -73,12 +71,11 @@ public class Expert extends Machine {
 	 *
 	 * @param team the team containing the active Pokémon and the bag of items
 	 * @param active the currently active Pokémon whose health or status may determine item usage
-	 * @return an array of strings representing the action to use a specific item. The structure of
-	 *         the array includes the type of action, machine ID, Pokémon ID, and item name.
+	 * @return the action to use a specific item on the active Pokémon.
 	 *         Returns null if no item usage is deemed necessary.
 	 * @throws POOBkemonException if there is an issue with accessing the team's items or Pokémon data
 	 */
-	private String[] evaluateItemUsage(Team team, Pokemon active) throws POOBkemonException {
+	private Action evaluateItemUsage(Team team, Pokemon active) throws POOBkemonException {
 		String[][] items = this.getBagPack().getItems();
 		double healthRatio = (double) active.currentHealth / active.maxHealth;
 
@@ -86,12 +83,7 @@ public class Expert extends Machine {
 		if (active.getWeak()) {
 			for (String[] item : items) {
 				if (item[0].equals("Revive") && Integer.parseInt(item[1]) > 0) {
-					return new String[] {
-							"UseItem",
-							String.valueOf(this.getId()),
-							String.valueOf(active.getId()),
-							"Revive"
-					};
+					return new UseItemAction(this.getId(), active.getId(), "Revive");
 				}
 			}
 		}
@@ -127,7 +119,7 @@ public class Expert extends Machine {
 		}
 
 		// Potion básica para pequeñas curaciones (1-25)
-		if (healthRatio < LOW_HEALTH && random.nextDouble() < ITEM_USE_PROB) {
+		if (healthRatio < LOW_HEALTH && random().nextDouble() < ITEM_USE_PROB) {
 			for (String[] item : items) {
 				if (item[0].equals("potion") && Integer.parseInt(item[1]) > 0) {
 					return createItemDecision("potion", active);
@@ -146,20 +138,10 @@ public class Expert extends Machine {
 	 *
 	 * @param itemName the name of the item to be used
 	 * @param target the target Pokémon on which the item will be used
-	 * @return an array of strings representing the decision to use an item. The
-	 *         structure of the array includes:
-	 *         - "UseItem" (string literal representing the action)
-	 *         - machine ID (string representation of the machine's ID)
-	 *         - target Pokémon ID (string representation of the Pokémon's ID)
-	 *         - item name
+	 * @return the action of this machine using the item on the target Pokémon
 	 */
-	private String[] createItemDecision(String itemName, Pokemon target) {
-		return new String[] {
-				"UseItem",
-				String.valueOf(this.getId()),
-				String.valueOf(target.getId()),
-				itemName
-		};
+	private Action createItemDecision(String itemName, Pokemon target) {
+		return new UseItemAction(this.getId(), target.getId(), itemName);
 	}
 
 	/**
@@ -181,7 +163,7 @@ public class Expert extends Machine {
 			return true;
 		}
 
-		return random.nextDouble() < adjustedSwitchProbability(effectiveness, healthRatio);
+		return random().nextDouble() < adjustedSwitchProbability(effectiveness, healthRatio);
 	}
 
 	/**
@@ -217,23 +199,16 @@ public class Expert extends Machine {
 	 * @param team the team of the machine, containing all available Pokémon that can be switched in
 	 * @param current the currently active Pokémon belonging to the machine
 	 * @param opponent the opponent's currently active Pokémon
-	 * @return an array of strings representing the decision to switch Pokémon. The array structure includes:
-	 *         - "ChangePokemon" (string literal representing the action),
-	 *         - ID of the machine making the decision (as a string),
-	 *         - ID of the chosen Pokémon to switch in (as a string).
+	 * @return the action of switching to the chosen Pokémon.
 	 *         Returns null if no optimal switch candidate is available.
 	 * @throws POOBkemonException if there is an issue determining switch candidates or accessing team data
 	 */
-	private String[] createOptimalSwitch(Team team, Pokemon current, Pokemon opponent) throws POOBkemonException {
+	private Action createOptimalSwitch(Team team, Pokemon current, Pokemon opponent) throws POOBkemonException {
 		List<Pokemon> candidates = getSwitchCandidates(team, current);
 		if (candidates.isEmpty()) return null;
 
 		Pokemon bestChoice = selectBestSwitch(candidates, opponent);
-		return new String[] {
-				"ChangePokemon",
-				String.valueOf(this.getId()),
-				String.valueOf(bestChoice.getId())
-		};
+		return new SwitchAction(this.getId(), bestChoice.getId());
 	}
 
 	/**
@@ -274,7 +249,7 @@ public class Expert extends Machine {
 		double healthScore = (double) candidate.currentHealth / candidate.maxHealth;
 		score += healthScore * 0.2;
 
-		score += random.nextDouble() * 0.1;
+		score += random().nextDouble() * 0.1;
 
 		return score;
 	}
@@ -282,19 +257,14 @@ public class Expert extends Machine {
 	/**
 	 *
 	 */
-	private String[] selectOptimalMove(Pokemon attacker, Pokemon opponent) throws POOBkemonException {
+	private Action selectOptimalMove(Pokemon attacker, Pokemon opponent) {
 		List<Attack> attacks = getAvailableAttacks(attacker);
 		if (attacks.isEmpty()) {
-			throw new POOBkemonException("No attacks available for " + attacker.getName());
+			return this.defaultAttack(attacker);
 		}
 
 		Attack bestAttack = selectBestAttack(attacks, attacker, opponent);
-		return new String[] {
-				"Attack",
-				String.valueOf(bestAttack.getIdInside()),
-				String.valueOf(attacker.getId()),
-				String.valueOf(this.getId())
-		};
+		return new AttackAction(this.getId(), attacker.getId(), bestAttack.getIdInside());
 	}
 
 	/**
@@ -328,7 +298,7 @@ public class Expert extends Machine {
 		double score = 0;
 
 		try {
-			double effectiveness = typeChart.getMultiplier(attack.getType(), opponent.type);
+			double effectiveness = typeChart.getMultiplier(attack.getTypeId(), opponent.getTypeId(), opponent.getType2Id());
 			score += effectiveness * 0.3;
 
 			double powerScore = attack.getPower() / 150.0;
@@ -346,7 +316,7 @@ public class Expert extends Machine {
 			score += ppScore * 0.05;
 
 		} catch (Exception e) {
-			score = random.nextDouble();
+			score = random().nextDouble();
 		}
 
 		return score;
@@ -411,7 +381,7 @@ public class Expert extends Machine {
 	 */
 	private double calculateEffectiveness(Pokemon attacker, Pokemon defender) {
 		try {
-			return typeChart.getMultiplier(attacker.getType(), defender.type);
+			return typeChart.getMultiplier(attacker.getTypeId(), defender.getTypeId(), defender.getType2Id());
 		} catch (Exception e) {
 			return 1.0;
 		}
@@ -423,12 +393,11 @@ public class Expert extends Machine {
 	 *
 	 * @param game the current instance of the POOBkemon game*/
 	private Team getMyTeam(POOBkemon game) throws POOBkemonException {
-		for (Team team : game.teams()) {
-			if (team.getTrainer().getId() == this.getId()) {
-				return team;
-			}
+		Team team = game.findTeam(this.getId());
+		if (team == null) {
+			throw new POOBkemonException("Team not found for trainer: " + this.getId());
 		}
-		throw new POOBkemonException("Team not found for trainer: " + this.getId());
+		return team;
 	}
 
 	/**
@@ -450,16 +419,12 @@ public class Expert extends Machine {
 	 * @return the opponent's active Pokémon.
 	 * @throws POOBkemonException if no active opponent Pokémon is*/
 	private Pokemon getOpponentActivePokemon(POOBkemon game) throws POOBkemonException {
-		for (Team team : game.teams()) {
-			if (team.getTrainer().getId() != this.getId()) {
-				for (Pokemon pokemon : team.getPokemons()) {
-					if (pokemon.getActive()) {
-						return pokemon;
-					}
-				}
-			}
+		Team rival = game.findOpponentTeam(this.getId());
+		Pokemon pokemon = rival == null ? null : rival.getActivePokemon();
+		if (pokemon == null) {
+			throw new POOBkemonException("No active opponent Pokémon found");
 		}
-		throw new POOBkemonException("No active opponent Pokémon found");
+		return pokemon;
 	}
 
 	/**
@@ -0,0 +1,490 @@
+package domain;
+
+import persistence.GameData;
+import persistence.MovesRepository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Endurance benchmark of the {@link Survive} mode: one machine trainer with a
+ * fixed team faces an endless stream of generated opponents, every Pokemon at
+ * level 100 and with empty bags, battle after battle.
+ * <p>
+ * The opponents, a random machine with a random team and the seed of the
+ * battle, are drawn by a background producer thread into a bounded queue, so
+ * the battle thread only takes them; the times it had to wait for one are
+ * counted as stalls. The run reports the sustained battles per second, the
+ * latency of each turn (both actions) and how the heap that survives a
+ * collection grows over time.
+ */
+public final class Gauntlet {
+
+	/** Opponents the producer keeps ready ahead of the battle thread. */
+	public static final int DEFAULT_QUEUE = 256;
+
+	private static final String[][] NO_ITEMS = {};
+
+	private final String champion;
+	private final Lineup lineup;
+	private final int maxTurns;
+	private final int queueCapacity;
+
+	/**
+	 * @param champion machine of the team that faces every opponent, one of {@link BattleSimulator#MACHINES}
+	 * @param lineup team of the champion
+	 * @param maxTurns turns after which a battle is left unfinished
+	 * @param queueCapacity opponents the producer keeps ready
+	 * @throws POOBkemonException if the machine is not recognised or a limit is not positive
+	 */
+	public Gauntlet(String champion, Lineup lineup, int maxTurns, int queueCapacity) throws POOBkemonException {
+		if (!BattleSimulator.MACHINES.contains(champion)) {
+			throw new POOBkemonException("Máquina no reconocida: " + champion);
+		}
+		if (maxTurns < 1 || queueCapacity < 1) {
+			throw new POOBkemonException("El número de turnos y el tamaño de la cola deben ser positivos");
+		}
+		this.champion = champion;
+		this.lineup = lineup;
+		this.maxTurns = maxTurns;
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Plays opponents until the number of battles or the time runs out.
+	 *
+	 * @param battles battles to play; 0 for no limit
+	 * @param duration time after which no new battle starts; null for no limit
+	 * @param seed seed of the stream of opponents
+	 * @param window time between two calls to {@code progress}
+	 * @param progress receives the report so far every window; may be null
+	 * @return the report of the whole run
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public Report run(long battles, Duration duration, long seed, Duration window, Consumer<Report> progress) throws InterruptedException {
+		if (battles <= 0 && duration == null) {
+			throw new IllegalArgumentException("Se necesita un límite de batallas o de tiempo");
+		}
+		BlockingQueue<Opponent> queue = new ArrayBlockingQueue<>(this.queueCapacity);
+		Thread producer = new Thread(() -> produce(queue, seed), "POOBkemon-gauntlet-producer");
+		producer.setDaemon(true);
+
+		Stats stats = new Stats(heapAfterGc(true));
+		long start = System.nanoTime();
+		long end = duration == null ? Long.MAX_VALUE : start + duration.toNanos();
+		long windowNanos = window == null ? Long.MAX_VALUE : window.toNanos();
+		long nextWindow = start + windowNanos;
+		long windowBattles = 0;
+		long windowStart = start;
+		producer.start();
+		try {
+			while ((battles <= 0 || stats.battles < battles) && System.nanoTime() < end) {
+				Opponent opponent = queue.poll();
+				if (opponent == null) {
+					long wait = System.nanoTime();
+					opponent = queue.take();
+					stats.stalls++;
+					stats.stallNanos += System.nanoTime() - wait;
+				}
+				this.fight(opponent, stats);
+				long now = System.nanoTime();
+				if (now >= nextWindow && progress != null) {
+					double rate = (stats.battles - windowBattles) * 1e9 / (now - windowStart);
+					progress.accept(stats.report(now - start, rate, heapAfterGc(false)));
+					windowBattles = stats.battles;
+					windowStart = now;
+					nextWindow = now + windowNanos;
+				}
+			}
+		} finally {
+			producer.interrupt();
+		}
+		long elapsed = System.nanoTime() - start;
+		return stats.report(elapsed, stats.battles * 1e9 / Math.max(1, elapsed), heapAfterGc(true));
+	}
+
+	/**
+	 * Draws opponents until the thread is interrupted.
+	 */
+	private static void produce(BlockingQueue<Opponent> queue, long seed) {
+		GameData catalog = GameData.getInstance();
+		MovesRepository moves = new MovesRepository(catalog);
+		int[] speciesIds = catalog.getPokemons().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		int moveCount = catalog.getMoves().size();
+		BattleRandom random = new BattleRandom(seed);
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				String machine = BattleSimulator.MACHINES.get(random.nextInt(BattleSimulator.MACHINES.size()));
+				Lineup lineup = Lineup.draw(random, speciesIds, moves, moveCount);
+				queue.put(new Opponent(machine, lineup, random.nextLong()));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Plays one battle in a survival session, timing every turn.
+	 */
+	private void fight(Opponent opponent, Stats stats) {
+		String name1 = this.champion + "1";
+		String name2 = opponent.machine + "2";
+		ArrayList<String> trainers = new ArrayList<>(List.of(name1, name2));
+		HashMap<String, ArrayList<Integer>> pokemons = new HashMap<>();
+		HashMap<String, ArrayList<Integer>> attacks = new HashMap<>();
+		HashMap<String, String[][]> items = new HashMap<>();
+		pokemons.put(name1, this.lineup.getSpecies());
+		attacks.put(name1, this.lineup.getAttacks());
+		items.put(name1, NO_ITEMS);
+		pokemons.put(name2, opponent.lineup.getSpecies());
+		attacks.put(name2, opponent.lineup.getAttacks());
+		items.put(name2, NO_ITEMS);
+
+		SessionRegistry registry = SessionRegistry.getInstance();
+		BattleSession session = registry.openSurvive(new BattleRandom(opponent.seed));
+		try {
+			POOBkemon game = session.getGame();
+			game.initGame(trainers, pokemons, items, attacks, false);
+			int first = game.getOrder().get(0);
+			int second = game.getOrder().get(1);
+			int turn = 0;
+			while (!game.finishBattle() && turn < this.maxTurns) {
+				long turnStart = System.nanoTime();
+				Action action1 = game.machineAction(first);
+				Action action2 = game.machineAction(second);
+				game.apply(action1);
+				if (!game.finishBattle()) {
+					game.apply(action2);
+				}
+				stats.latency.record(System.nanoTime() - turnStart);
+				turn++;
+			}
+			stats.turns += turn;
+			if (!game.finishBattle()) {
+				stats.unfinished++;
+			} else if (game.getWinner() == game.getTeams().get(0).getTrainer().getId()) {
+				stats.wins++;
+			}
+		} catch (POOBkemonException | RuntimeException e) {
+			stats.errors++;
+			if (stats.firstError == null) {
+				stats.firstError = e.getClass().getSimpleName() + ": " + e.getMessage();
+			}
+		} finally {
+			registry.close(session.getId());
+			stats.battles++;
+		}
+	}
+
+	/**
+	 * Heap still in use after the last collection, the part of the heap a leak
+	 * makes grow; before any collection, the heap in use.
+	 *
+	 * @param collect whether to ask for a collection first
+	 */
+	static long heapAfterGc(boolean collect) {
+		if (collect) {
+			System.gc();
+		}
+		long used = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			if (pool.getType() == MemoryType.HEAP && usage != null) {
+				used += usage.getUsed();
+			}
+		}
+		if (used == 0) {
+			Runtime runtime = Runtime.getRuntime();
+			used = runtime.totalMemory() - runtime.freeMemory();
+		}
+		return used;
+	}
+
+	private static final class Opponent {
+		private final String machine;
+		private final Lineup lineup;
+		private final long seed;
+
+		Opponent(String machine, Lineup lineup, long seed) {
+			this.machine = machine;
+			this.lineup = lineup;
+			this.seed = seed;
+		}
+	}
+
+	/**
+	 * Counters of a run, only touched by the battle thread.
+	 */
+	private static final class Stats {
+		private final LatencyHistogram latency = new LatencyHistogram();
+		private final long heapStart;
+		private long battles;
+		private long wins;
+		private long unfinished;
+		private long errors;
+		private long turns;
+		private long stalls;
+		private long stallNanos;
+		private String firstError;
+
+		Stats(long heapStart) {
+			this.heapStart = heapStart;
+		}
+
+		Report report(long elapsedNanos, double battlesPerSecond, long heap) {
+			return new Report(this.battles, this.wins, this.unfinished, this.errors, this.turns, elapsedNanos,
+					battlesPerSecond, this.latency.percentile(50), this.latency.percentile(99), this.latency.getMax(),
+					this.stalls, this.stallNanos, this.heapStart, heap, this.firstError);
+		}
+	}
+
+	/**
+	 * Counts of values in buckets that split every power of two in sixteen, so
+	 * percentiles are known within about 6% in a fixed, small array whatever
+	 * the number of values.
+	 */
+	static final class LatencyHistogram {
+		private static final int SUB_BITS = 4;
+		private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+		private final long[] counts = new long[(64 - SUB_BITS) * SUB_BUCKETS];
+		private long count;
+		private long max;
+
+		void record(long value) {
+			this.counts[bucket(Math.max(0, value))]++;
+			this.count++;
+			this.max = Math.max(this.max, value);
+		}
+
+		static int bucket(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+			return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+		}
+
+		/**
+		 * @return the smallest value of a bucket
+		 */
+		static long lowest(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+			return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+		}
+
+		/**
+		 * @param percentile between 0 and 100
+		 * @return a value below which that share of the values lies, or 0 if there are none
+		 */
+		long percentile(double percentile) {
+			if (this.count == 0) {
+				return 0;
+			}
+			long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+			long seen = 0;
+			for (int b = 0; b < this.counts.length; b++) {
+				seen += this.counts[b];
+				if (seen >= rank) {
+					return b + 1 == this.counts.length ? this.max : Math.min(this.max, lowest(b + 1) - 1);
+				}
+			}
+			return this.max;
+		}
+
+		long getCount() {
+			return this.count;
+		}
+
+		long getMax() {
+			return this.max;
+		}
+	}
+
+	/**
+	 * State of a run at one moment.
+	 */
+	public static final class Report {
+
+		private final long battles;
+		private final long wins;
+		private final long unfinished;
+		private final long errors;
+		private final long turns;
+		private final long elapsedNanos;
+		private final double battlesPerSecond;
+		private final long turnP50;
+		private final long turnP99;
+		private final long turnMax;
+		private final long stalls;
+		private final long stallNanos;
+		private final long heapStart;
+		private final long heap;
+		private final String firstError;
+
+		Report(long battles, long wins, long unfinished, long errors, long turns, long elapsedNanos,
+			   double battlesPerSecond, long turnP50, long turnP99, long turnMax,
+			   long stalls, long stallNanos, long heapStart, long heap, String firstError) {
+			this.battles = battles;
+			this.wins = wins;
+			this.unfinished = unfinished;
+			this.errors = errors;
+			this.turns = turns;
+			this.elapsedNanos = elapsedNanos;
+			this.battlesPerSecond = battlesPerSecond;
+			this.turnP50 = turnP50;
+			this.turnP99 = turnP99;
+			this.turnMax = turnMax;
+			this.stalls = stalls;
+			this.stallNanos = stallNanos;
+			this.heapStart = heapStart;
+			this.heap = heap;
+			this.firstError = firstError;
+		}
+
+		public long getBattles() {
+			return this.battles;
+		}
+
+		/**
+		 * @return battles won by the champion
+		 */
+		public long getWins() {
+			return this.wins;
+		}
+
+		public long getUnfinished() {
+			return this.unfinished;
+		}
+
+		public long getErrors() {
+			return this.errors;
+		}
+
+		/**
+		 * @return share of the battles won by the champion
+		 */
+		public double getWinRate() {
+			return this.battles == 0 ? 0 : (double) this.wins / this.battles;
+		}
+
+		/**
+		 * @return share of the battles that failed
+		 */
+		public double getErrorRate() {
+			return this.battles == 0 ? 0 : (double) this.errors / this.battles;
+		}
+
+		public long getTurns() {
+			return this.turns;
+		}
+
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/**
+		 * @return battles per second of the last window, or of the whole run in the final report
+		 */
+		public double getBattlesPerSecond() {
+			return this.battlesPerSecond;
+		}
+
+		public long getTurnNanosP50() {
+			return this.turnP50;
+		}
+
+		public long getTurnNanosP99() {
+			return this.turnP99;
+		}
+
+		public long getTurnNanosMax() {
+			return this.turnMax;
+		}
+
+		/**
+		 * @return times the battle thread had to wait for the producer
+		 */
+		public long getStalls() {
+			return this.stalls;
+		}
+
+		public long getStallNanos() {
+			return this.stallNanos;
+		}
+
+		/**
+		 * @return bytes of heap in use after a collection at the start of the run
+		 */
+		public long getHeapStart() {
+			return this.heapStart;
+		}
+
+		/**
+		 * @return bytes of heap in use after the last collection
+		 */
+		public long getHeap() {
+			return this.heap;
+		}
+
+		public long getHeapGrowth() {
+			return this.heap - this.heapStart;
+		}
+
+		/**
+		 * @return the message of the first battle that failed, or null if none did
+		 */
+		public String getFirstError() {
+			return this.firstError;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d batallas en %.1f s (%.1f batallas/s), victorias %d (%.1f%%), sin terminar %d, errores %d (%.1f%%)%n"
+							+ "  turno: p50 %.1f us, p99 %.1f us, max %.1f us; esperas al productor %d (%.1f ms)%n"
+							+ "  heap tras GC: %.1f MB (inicio %.1f MB, %+.1f MB)",
+					this.battles, this.elapsedNanos / 1e9, this.battlesPerSecond, this.wins, 100 * this.getWinRate(),
+					this.unfinished, this.errors, 100 * this.getErrorRate(),
+					this.turnP50 / 1e3, this.turnP99 / 1e3, this.turnMax / 1e3, this.stalls, this.stallNanos / 1e6,
+					this.heap / 1048576.0, this.heapStart / 1048576.0, this.getHeapGrowth() / 1048576.0);
+		}
+	}
+
+	/**
+	 * Runs the gauntlet from the command line, without the GUI:
+	 * {@code Gauntlet <minutes> [champion] [seed] [windowSeconds]}. A report is
+	 * printed every window and at the end.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Uso: Gauntlet <minutos> [campeon] [semilla] [segundosVentana]");
+			System.out.println("Máquinas: " + BattleSimulator.MACHINES);
+			return;
+		}
+		Duration duration = Duration.ofSeconds((long) (Double.parseDouble(args[0]) * 60));
+		String champion = args.length > 1 ? args[1] : "Expert";
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+		Duration window = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+
+		Gauntlet gauntlet = new Gauntlet(champion, Lineup.randomPool(1, seed).get(0),
+				BattleSimulator.DEFAULT_MAX_TURNS, DEFAULT_QUEUE);
+		Report report = gauntlet.run(0, duration, seed, window, System.out::println);
+		System.out.println("Final: " + report);
+		if (report.getFirstError() != null) {
+			System.out.println("  primer error: " + report.getFirstError());
+		}
+	}
+}
@@ -6,7 +6,7 @@ import java.io.Serializable;
  * Represents an abstract item that can be used on a Pokemon. Each item has a quantity,
  * a name, and a specific effect that gets applied to a Pokemon.
  * This*/
-public abstract class Item implements Serializable {
+public abstract class Item implements Serializable, Cloneable {
 	protected int number;
 	protected String name;
 	public Item(int number){
@@ -16,6 +16,17 @@ public abstract class Item implements Serializable {
 		return number;
 	}
 
+	/**
+	 * Copies the item with its remaining quantity, for a copied battle.
+	 */
+	Item copy() {
+		try {
+			return (Item) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
 	/**
 	 * Applies the effect of this item to the specified Pokemon if the item has not been fully used.
 	 **/
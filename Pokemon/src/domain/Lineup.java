@@ -0,0 +1,107 @@
+package domain;
+
+import persistence.GameData;
+import persistence.MovesRepository;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Team that a trainer brings to a simulated battle: the species of its Pokemon
+ * and their attacks, {@link BattleSimulator#ATTACKS_PER_POKEMON} per Pokemon in the
+ * order {@link POOBkemon#initGame} expects them.
+ */
+public final class Lineup implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<Integer> species;
+	private final List<Integer> attacks;
+
+	private Lineup(List<Integer> species, List<Integer> attacks) {
+		this.species = List.copyOf(species);
+		this.attacks = List.copyOf(attacks);
+	}
+
+	/**
+	 * @param species species of the Pokemon, in team order
+	 * @param attacks attacks of the Pokemon, {@link BattleSimulator#ATTACKS_PER_POKEMON} for each one
+	 * @throws POOBkemonException if there are no Pokemon or not enough attacks for them
+	 */
+	public static Lineup of(List<Integer> species, List<Integer> attacks) throws POOBkemonException {
+		if (species.isEmpty()) {
+			throw new POOBkemonException(POOBkemonException.INCOMPLETE_DATA + " El equipo no tiene Pokemon");
+		}
+		if (attacks.size() < species.size() * BattleSimulator.ATTACKS_PER_POKEMON) {
+			throw new POOBkemonException("Se necesitan " + species.size() * BattleSimulator.ATTACKS_PER_POKEMON
+					+ " ataques, pero solo hay " + attacks.size());
+		}
+		return new Lineup(species, attacks);
+	}
+
+	/**
+	 * Draws a team of {@link BattleSimulator#TEAM_SIZE} random species, each with
+	 * random attacks it can learn.
+	 */
+	static Lineup draw(RandomGenerator random, int[] speciesIds, MovesRepository moves, int moveCount) {
+		ArrayList<Integer> species = new ArrayList<>();
+		ArrayList<Integer> attacks = new ArrayList<>();
+		for (int p = 0; p < BattleSimulator.TEAM_SIZE; p++) {
+			int id = speciesIds[random.nextInt(speciesIds.length)];
+			species.add(id);
+			int[] compatible = moves.getCompatibleAttackIds(id);
+			for (int a = 0; a < BattleSimulator.ATTACKS_PER_POKEMON; a++) {
+				attacks.add(compatible.length > 0
+						? compatible[random.nextInt(compatible.length)]
+						: random.nextInt(moveCount) + 1);
+			}
+		}
+		return new Lineup(species, attacks);
+	}
+
+	/**
+	 * Draws a pool of random teams from the current catalog.
+	 *
+	 * @param size number of teams
+	 * @param seed seed of the draw; the same seed gives the same pool
+	 */
+	public static List<Lineup> randomPool(int size, long seed) {
+		GameData catalog = GameData.getInstance();
+		MovesRepository moves = new MovesRepository(catalog);
+		int[] speciesIds = catalog.getPokemons().keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		int moveCount = catalog.getMoves().size();
+		BattleRandom random = new BattleRandom(seed);
+		List<Lineup> pool = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			pool.add(draw(random, speciesIds, moves, moveCount));
+		}
+		return pool;
+	}
+
+	public ArrayList<Integer> getSpecies() {
+		return new ArrayList<>(this.species);
+	}
+
+	public ArrayList<Integer> getAttacks() {
+		return new ArrayList<>(this.attacks);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Lineup
+				&& this.species.equals(((Lineup) other).species)
+				&& this.attacks.equals(((Lineup) other).attacks);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * this.species.hashCode() + this.attacks.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.species + " " + this.attacks;
+	}
+}
@@ -1,5 +1,8 @@
 package domain;    
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.logging.Logger;
 import java.util.logging.FileHandler;
 import java.util.logging.SimpleFormatter;
@@ -12,6 +15,7 @@ import java.util.logging.Level;
  */
 public class Log{
     public static String nombre="POOBkemon";
+    public static String reportes="reportes";
 
     /**
      * Records the provided exception information to a log file.
@@ -22,13 +26,42 @@ public class Log{
      * @param e the exception to be recorded in the log file
      */
     public static void record(Exception e){
+        write(e.toString(), e);
+    }
+
+    /**
+     * Records an unexpected exception together with the replay of the battle where it
+     * happened, so the failure can be reproduced. The replay is written to the folder
+     * named by the static field `reportes`, and its path is added to the log entry.
+     *
+     * @param e the exception to be recorded in the log file
+     * @param replay replay of the battle, or null to record only the exception
+     */
+    public static void record(Exception e, BattleReplay replay){
+        if (replay == null) {
+            record(e);
+            return;
+        }
+        File file = new File(reportes, new File(nombre).getName() + "-" + System.currentTimeMillis() + ".pkr");
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            replay.write(file);
+        } catch (IOException | POOBkemonException oe) {
+            record(oe);
+            record(e);
+            return;
+        }
+        write(e + " (repetición: " + file.getPath() + ")", e);
+    }
+
+    private static void write(String message, Exception e){
         try{
             Logger logger=Logger.getLogger(nombre);
             logger.setUseParentHandlers(false);
             FileHandler file=new FileHandler(nombre+".log",true);
             file.setFormatter(new SimpleFormatter());
             logger.addHandler(file);
-            logger.log(Level.SEVERE,e.toString(),e);
+            logger.log(Level.SEVERE,message,e);
             file.close();
         }catch (Exception oe){
             oe.printStackTrace();
@@ -1,9 +1,68 @@
 package domain;
 
+import persistence.StatsRepository;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
 public abstract class Machine extends Trainer {
+	private transient RandomGenerator random;
+
 	public Machine(int id, BagPack bagPack) throws POOBkemonException {
 		super(id, bagPack);
 	}
 
-	public abstract String[] machineMovement( POOBkemon game)  throws POOBkemonException;
+	/**
+	 * Chooses the action of this machine for the current turn.
+	 * @param game the battle the machine plays
+	 * @return the chosen action
+	 * @throws POOBkemonException if the machine cannot find its team or a valid action
+	 */
+	public abstract Action decide(POOBkemon game) throws POOBkemonException;
+
+	/**
+	 * Chooses the action of this machine for the current turn as a {@code String[]} decision.
+	 * @param game the battle the machine plays
+	 * @return the chosen decision
+	 * @throws POOBkemonException if the machine cannot find its team or a valid action
+	 */
+	public String[] machineMovement(POOBkemon game) throws POOBkemonException {
+		return this.decide(game).toDecision();
+	}
+
+	/**
+	 * Attack action for a Pokemon whose attacks are all out of PP. It names the first
+	 * attack, and the battle swaps in the Pokemon's default move when it is used.
+	 * @param pokemon the active Pokemon of this machine
+	 * @return the attack action
+	 */
+	protected Action defaultAttack(Pokemon pokemon) {
+		return new AttackAction(this.getId(), pokemon.getId(), pokemon.getAttacks().get(0).getIdInside());
+	}
+
+	/**
+	 * Type chart of the catalog the battle was started with, so a reload of the CSV
+	 * files does not change the machine's choices in the middle of a battle.
+	 * @param game the battle the machine plays
+	 * @return the type chart of the battle's catalog
+	 */
+	protected StatsRepository typeChart(POOBkemon game) {
+		return new StatsRepository(game.catalog());
+	}
+
+	/**
+	 * Makes the machine draw its random choices from the generator of its battle.
+	 * @param random generator of the battle session
+	 */
+	void bindRandom(RandomGenerator random) {
+		this.random = random;
+	}
+
+	/**
+	 * Retrieves the generator for the machine's random choices.
+	 * @return the battle's generator, or the thread's own generator if the machine is not bound to a battle
+	 */
+	protected RandomGenerator random() {
+		return this.random != null ? this.random : ThreadLocalRandom.current();
+	}
 }
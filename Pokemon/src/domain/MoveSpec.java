@@ -0,0 +1,150 @@
+package domain;
+
+import java.io.Serializable;
+
+/**
+ * Immutable description of a move as read from movimientos.csv. There is one
+ * instance per CSV row, shared by every {@link Attack} that uses the move; the
+ * attacks only add their own internal id and remaining PP.
+ */
+public final class MoveSpec implements Serializable {
+
+	/**
+	 * Damage class of a move, from the damage_class column.
+	 */
+	public enum Category {
+		PHYSICAL,
+		SPECIAL,
+		STATUS
+	}
+
+	private final int id;
+	private final String name;
+	private final String description;
+	private final String type;
+	private final int typeId;
+	private final Category category;
+	private final int power;
+	private final int accuracy;
+	private final int ppMax;
+	private final boolean targetsSelf;
+
+	/**
+	 * Parses a move from its CSV row.
+	 *
+	 * @param info A String array containing the move's details in the following order:
+	 *             [0] - The CSV ID of the move (numeric).
+	 *             [1] - The name of the move.
+	 *             [2] - The description of the move.
+	 *             [3] - The type of the move.
+	 *             [4] - The damage class (physical, special or status).
+	 *             [5] - The power of the move (numeric).
+	 *             [6] - The precision of the move (numeric).
+	 *             [7] - The maximum power points (PP) for the move (numeric).
+	 *             [8] - The direction of the move ("ally" if it affects the user), optional.
+	 * @throws POOBkemonException If the information array is incomplete, has invalid formatting, or if another unexpected error occurs.
+	 */
+	public MoveSpec(String[] info) throws POOBkemonException {
+		try {
+			this.id = Integer.parseInt(info[0]);
+			this.name = info[1];
+			this.description = info[2];
+			this.type = info[3];
+			this.typeId = PokemonType.indexOf(this.type);
+			this.category = categoryOf(info[4]);
+			this.power = Integer.parseInt(info[5]);
+			this.accuracy = Integer.parseInt(info[6]);
+			this.ppMax = Integer.parseInt(info[7]);
+			this.targetsSelf = info.length > 8 && info[8].equalsIgnoreCase("ally");
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new POOBkemonException("Error al crear ataque: información incompleta en el array" + e.getMessage());
+		} catch (NumberFormatException e) {
+			throw new POOBkemonException("Error al crear ataque: formato numérico inválido" + e.getMessage());
+		} catch (Exception e) {
+			throw new POOBkemonException("Error inesperado al crear ataque" + e.getMessage());
+		}
+	}
+
+	/**
+	 * Builds a move from columns that are already decoded, such as the
+	 * fixed-width numbers of a {@link persistence.DataPack}.
+	 *
+	 * @param damageClass physical, special or status
+	 * @param direction "ally" if the move affects the user, or null
+	 */
+	public MoveSpec(int id, String name, String description, String type, String damageClass,
+			int power, int accuracy, int ppMax, String direction) {
+		this.id = id;
+		this.name = name;
+		this.description = description;
+		this.type = type;
+		this.typeId = PokemonType.indexOf(this.type);
+		this.category = categoryOf(damageClass);
+		this.power = power;
+		this.accuracy = accuracy;
+		this.ppMax = ppMax;
+		this.targetsSelf = direction != null && direction.equalsIgnoreCase("ally");
+	}
+
+	private static Category categoryOf(String damageClass) {
+		for (Category category : Category.values()) {
+			if (category.name().equalsIgnoreCase(damageClass)) {
+				return category;
+			}
+		}
+		return null;
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public String getDescription() {
+		return this.description;
+	}
+
+	public String getType() {
+		return this.type;
+	}
+
+	/**
+	 * Retrieves the type of the move as a {@link PokemonType} ordinal.
+	 *
+	 * @return the type index, or {@link PokemonType#NONE} if the type is unknown.
+	 */
+	public int getTypeId() {
+		return this.typeId;
+	}
+
+	/**
+	 * Retrieves the damage class of the move.
+	 *
+	 * @return the category, or null if the CSV value is not a known damage class.
+	 */
+	public Category getCategory() {
+		return this.category;
+	}
+
+	public int getPower() {
+		return this.power;
+	}
+
+	public int getAccuracy() {
+		return this.accuracy;
+	}
+
+	public int getPPMax() {
+		return this.ppMax;
+	}
+
+	/**
+	 * Indicates whether the move is aimed at its user rather than at the opponent.
+	 */
+	public boolean targetsSelf() {
+		return this.targetsSelf;
+	}
+}
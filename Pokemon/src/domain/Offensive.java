@@ -22,20 +22,13 @@ public class Offensive extends Machine {
      * within the game based on its current active Pokémon and available attacks.
      *
      * @param game the current state of the POOBkemon game, including all teams and their Pokémon
-     * @return a String array representing the decision, where the elements describe the action type,
-     *         attack ID, Pokémon ID, and trainer ID
+     * @return the attack of the active Pokémon to use
      * @throws POOBkemonException if there is no active Pokémon found for this trainer
      */
     @Override
-    public String[] machineMovement(POOBkemon game) throws POOBkemonException {
+    public Action decide(POOBkemon game) throws POOBkemonException {
         // 1. Obtener el Pokémon activo de este entrenador
-        Pokemon myActivePokemon = null;
-        for (Team team : game.teams()) {
-            if (team.getTrainer().getId() == this.getId()) {
-                myActivePokemon = team.getPokemonById(team.getTrainer().getCurrentPokemonId());
-                break;
-            }
-        }
+        Pokemon myActivePokemon = game.findActivePokemon(this.getId());
         if (myActivePokemon == null) {
             throw new POOBkemonException("No se encontró Pokémon activo");
         }
@@ -44,15 +37,15 @@ public class Offensive extends Machine {
             if(a.getPPActual()>0){
                 selectedAttack = a;
                 break;
-            } else if (selectedAttack == null && a.getPPActual() > 0) {
-                selectedAttack = a;
             }
         }
+        if (selectedAttack == null) {
+            return this.defaultAttack(myActivePokemon);
+        }
 
         int attackId = selectedAttack.getIdInside();
 
         // 4. Crear la decisión de ataque
-        String[] decision = {"Attack", String.valueOf(attackId), String.valueOf(myActivePokemon.getId()), String.valueOf(this.getId())};
-        return decision;
+        return new AttackAction(this.getId(), myActivePokemon.getId(), attackId);
     }
 }
@@ -1,5 +1,6 @@
 package domain;
 
+import persistence.GameData;
 import persistence.ItemRepository;
 import persistence.MovesRepository;
 import persistence.PokemonRepository;
@@ -9,27 +10,35 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Clase principal que representa el juego POOBkemon.
  * La clase administra toda la lógica y los aspectos fundamentales del juego,
  * incluyendo la creación de entrenadores, Pokémon, manejo de batallas, y control general.
- * Utiliza un patrón Singleton para garantizar que solo exista una única instancia del juego.
+ * Cada juego pertenece a una {@link BattleSession}, que le da sus ids y su generador
+ * aleatorio, de modo que varias batallas pueden correr a la vez.
  */
-public class POOBkemon implements Serializable {
+public class POOBkemon implements Serializable, Cloneable, Team.FaintListener {
 
-	protected ArrayList<String> moves;
+	protected BattleLog log;
+	protected BattleReplay replay;
 	protected ArrayList<Integer> order;
 	private boolean finishBattle = false;
+	private boolean faintPending = false; // Algún Pokémon se debilitó desde la última revisión
 	protected ArrayList<Team> teams;
-	protected int nid = 0;
-	protected int trainerId = 0;
+	private HashMap<Integer, Team> teamsByTrainer;
+	private HashMap<Integer, Team> opponentsByTrainer;
+	private HashMap<Integer, Pokemon> pokemonsById;
 	protected boolean random;
 	protected boolean ok;
-	protected static POOBkemon game;
+	protected BattleSession session;
 	private int pokemonLvl = 1;
 	private int winner = -1;
 	private int counter = 1;
+	private static final int COPY_LOG_CAPACITY = 64; // Eventos que guarda el registro de una copia
+	protected transient GameData catalog;
 
 
 	/**
@@ -38,24 +47,22 @@ public class POOBkemon implements Serializable {
 	protected POOBkemon() {}
 
 	/**
-	 * Obtiene la instancia singleton del juego POOBkemon.
-	 * @return Instancia única del juego
-	 * @throws IllegalStateException Si el juego no ha sido inicializado
+	 * Obtiene el juego de la sesión por defecto, la que usa la interfaz gráfica.
+	 * Para batallas simultáneas se abren sesiones propias con {@link SessionRegistry}.
+	 * @return Juego de la sesión por defecto
 	 */
 	public static POOBkemon getInstance(){
-		if (game == null) {
-			game = new POOBkemon();
-		}
-		return game;
+		return SessionRegistry.getInstance()
+				.defaultSession(SessionRegistry.DEFAULT_POOBKEMON, POOBkemon::new)
+				.getGame();
 	}
 
 	/**
-	 * Resets the current instance of the game by setting
-	 * the game property to null. This method is used to
-	 * clear or reset the game state.
+	 * Cierra la sesión por defecto, de modo que la siguiente llamada a
+	 * {@link #getInstance()} empiece un juego nuevo con ids desde cero.
 	 */
 	public static void resetInstance(){
-		game = null;
+		SessionRegistry.getInstance().closeDefault(SessionRegistry.DEFAULT_POOBKEMON);
 	}
 	/**
 	 * Inicializa el juego con los datos proporcionados.
@@ -72,6 +79,19 @@ public class POOBkemon implements Serializable {
 						 HashMap<String, String[][]> items,
 						 HashMap<String, ArrayList<Integer>> attacks,
 						 boolean random) throws POOBkemonException{
+		this.initGame(trainers, pokemons, items, attacks, random, session().getRandom().nextLong());
+	}
+
+	/**
+	 * Inicializa el juego con una semilla dada, como al reproducir una repetición.
+	 * @param seed Semilla de la batalla
+	 * @see #initGame(ArrayList, HashMap, HashMap, HashMap, boolean)
+	 */
+	void initGame(ArrayList<String> trainers,
+				  HashMap<String, ArrayList<Integer>> pokemons,
+				  HashMap<String, String[][]> items,
+				  HashMap<String, ArrayList<Integer>> attacks,
+				  boolean random, long seed) throws POOBkemonException{
 		// Validar datos básicos
 		if (trainers == null || trainers.isEmpty()) {
 			throw new POOBkemonException(POOBkemonException.MISSING_TRAINER_DATA);
@@ -83,9 +103,17 @@ public class POOBkemon implements Serializable {
 			throw new POOBkemonException(POOBkemonException.MISSING_ITEMS_DATA);
 		}
 
+		this.replay = null;
+		int[] ids = session().ids();
+		session().startBattle(seed);
 		this.teams = new ArrayList<>();
+		this.teamsByTrainer = null;
 		this.finishBattle = false;
+		this.faintPending = false;
+		this.winner = -1;
+		this.counter = 1;
 		this.random = random;
+		this.catalog = GameData.getInstance();
 
 		try {
 			for (String trainer : trainers) {
@@ -115,9 +143,11 @@ public class POOBkemon implements Serializable {
 				this.teams.add(team);
 			}
 
+			this.indexTeams();
 			this.order = this.coin();
-			this.moves = new ArrayList<>();
-			this.moves.add("Start Game");
+			this.log = new BattleLog();
+			this.log.record(BattleLog.START);
+			this.replay = new BattleReplay(seed, ids, this instanceof Survive, random, trainers, pokemons, items, attacks);
 			this.ok = true;
 
 		} catch (NullPointerException | NumberFormatException e) {
@@ -126,12 +156,128 @@ public class POOBkemon implements Serializable {
 	}
 
 	/**
-	 * Increments the value of the `nid` property by 1.
-	 * This method is used to update the internal state of the object
-	 * by advancing the numeric identifier for Pokémon.
+	 * Devuelve el catálogo de datos con el que se inició la batalla, de modo que una
+	 * recarga de los CSV no cambie las reglas a mitad de combate.
+	 * @return Catálogo de la batalla, o el vigente si aún no se ha iniciado
+	 */
+	protected GameData catalog() {
+		if (this.catalog == null) {
+			this.catalog = GameData.getInstance();
+		}
+		return this.catalog;
+	}
+
+	/**
+	 * Construye los índices por id de entrenador y de Pokémon a partir de los equipos.
+	 * El Pokémon activo de cada entrenador se obtiene de su equipo, que lo sigue en
+	 * cada cambio, así que no hace falta volver a indexar durante la batalla.
+	 */
+	private void indexTeams() {
+		this.teamsByTrainer = new HashMap<>();
+		this.opponentsByTrainer = new HashMap<>();
+		this.pokemonsById = new HashMap<>();
+		for (Team team : this.teams) {
+			this.teamsByTrainer.put(team.getTrainer().getId(), team);
+			for (Pokemon pokemon : team.getPokemons()) {
+				this.pokemonsById.put(pokemon.getId(), pokemon);
+			}
+		}
+		for (Team team : this.teams) {
+			for (Team other : this.teams) {
+				if (other != team) {
+					this.opponentsByTrainer.putIfAbsent(team.getTrainer().getId(), other);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba que los índices estén construidos; una batalla guardada sin ellos
+	 * los construye al primer uso.
+	 * @return false si el juego aún no tiene equipos
+	 */
+	private boolean indexed() {
+		if (this.teamsByTrainer == null) {
+			if (this.teams == null) return false;
+			this.indexTeams();
+		}
+		return true;
+	}
+
+	/**
+	 * Busca el equipo de un entrenador.
+	 * @param trainerId ID del entrenador
+	 * @return Equipo del entrenador, o null si no existe o el juego no se ha iniciado
+	 */
+	public Team findTeam(int trainerId) {
+		if (!this.indexed()) return null;
+		return this.teamsByTrainer.get(trainerId);
+	}
+
+	/**
+	 * Busca el equipo rival de un entrenador.
+	 * @param trainerId ID del entrenador
+	 * @return Primer equipo que no es del entrenador, o null si no hay
+	 */
+	public Team findOpponentTeam(int trainerId) {
+		if (!this.indexed()) return null;
+		return this.opponentsByTrainer.get(trainerId);
+	}
+
+	/**
+	 * Busca un Pokémon de cualquier equipo por su id.
+	 * @param pokemonId ID del Pokémon
+	 * @return Pokémon, o null si no existe
+	 */
+	public Pokemon findPokemon(int pokemonId) {
+		if (!this.indexed()) return null;
+		return this.pokemonsById.get(pokemonId);
+	}
+
+	/**
+	 * Busca el Pokémon activo de un entrenador.
+	 * @param trainerId ID del entrenador
+	 * @return Pokémon activo, o null si el entrenador no existe
+	 */
+	public Pokemon findActivePokemon(int trainerId) {
+		Team team = this.findTeam(trainerId);
+		return team == null ? null : team.getActivePokemon();
+	}
+
+	/**
+	 * Asocia el juego a la sesión que lo contiene.
+	 * @param session Sesión dueña del juego
+	 */
+	void bind(BattleSession session) {
+		this.session = session;
+	}
+
+	/**
+	 * Obtiene la sesión de la batalla.
+	 * @return Sesión del juego, o null si aún no tiene
+	 */
+	public BattleSession getSession() {
+		return this.session;
+	}
+
+	/**
+	 * Obtiene el generador aleatorio de la batalla.
+	 * @return Generador de la sesión
+	 */
+	public RandomGenerator getRandom() {
+		return session().getRandom();
+	}
+
+	/**
+	 * Devuelve la sesión de la batalla, creando una fuera del registro si el
+	 * juego se construyó directamente.
+	 * @return Sesión del juego
 	 */
-	protected void nextIdPokemon(){
-		this.nid = this.nid + 1;
+	protected BattleSession session() {
+		if (this.session == null) {
+			new BattleSession(0, this, new SplittableRandom());
+		}
+		return this.session;
 	}
 
 	/**
@@ -145,17 +291,21 @@ public class POOBkemon implements Serializable {
 		String trainerType = trainerName.replaceAll("\\d+$", "");
 
 		Map<String, CheckedFunction<BagPack, Trainer>> trainerFactories = new HashMap<>();
-		trainerFactories.put("Player", bp -> new Trainer(trainerId++, bp));
-		trainerFactories.put("Offensive", bp -> new Offensive(trainerId++, bp));
-		trainerFactories.put("Defensive", bp -> new Defensive(trainerId++, bp));
-		trainerFactories.put("Expert", bp -> new Expert(trainerId++, bp));
+		trainerFactories.put("Player", bp -> new Trainer(session().nextTrainerId(), bp));
+		trainerFactories.put("Offensive", bp -> new Offensive(session().nextTrainerId(), bp));
+		trainerFactories.put("Defensive", bp -> new Defensive(session().nextTrainerId(), bp));
+		trainerFactories.put("Expert", bp -> new Expert(session().nextTrainerId(), bp));
 
 		CheckedFunction<BagPack, Trainer> factory = trainerFactories.getOrDefault(
 				trainerType,
-				bp -> new Switcher(trainerId++, bp)
+				bp -> new Switcher(session().nextTrainerId(), bp)
 		);
 
-		return factory.apply(bagPack);
+		Trainer created = factory.apply(bagPack);
+		if (created instanceof Machine) {
+			((Machine) created).bindRandom(session().getDecisionRandom());
+		}
+		return created;
 	}
 	/**
 	 * Interfaz funcional para métodos que pueden lanzar excepciones.
@@ -240,11 +390,12 @@ public class POOBkemon implements Serializable {
 	 * @return Pokémon creado
 	 */
 	public Pokemon createPokemon(int id, ArrayList<Integer> attackIds) throws POOBkemonException{
-		PokemonRepository info = new PokemonRepository();
-		String[] infoPokemon = info.getPokemonId(id);
-		Pokemon pokemon = new Pokemon(nid,infoPokemon,attackIds, this.random, this.pokemonLvl);
-		this.nextIdPokemon();
-		return pokemon;
+		PokemonRepository info = new PokemonRepository(catalog());
+		SpeciesTemplate species = info.getSpeciesTemplate(id);
+		int nid = session().nextPokemonId();
+		return species != null
+				? new Pokemon(nid, species, attackIds, this.random, this.pokemonLvl, catalog(), session())
+				: new Pokemon(nid, info.getPokemonId(id), attackIds, this.random, this.pokemonLvl);
 	}
 
 	/**
@@ -254,6 +405,7 @@ public class POOBkemon implements Serializable {
 	 */
 	private Team createTeam(ArrayList<Pokemon> pokemones, Trainer trainer){
 		Team team = new Team(pokemones, trainer);
+		team.setFaintListener(this);
 		return team;
 	}
 
@@ -267,7 +419,7 @@ public class POOBkemon implements Serializable {
 
 		int t1 = teams.get(0).getTrainer().getId();
 		int t2 = teams.get(1).getTrainer().getId();
-		if (Math.random()<0.5) {
+		if (session().getRandom().nextDouble()<0.5) {
 			turnOrder.add(t1);
 			turnOrder.add(t2);
 		} else {
@@ -282,15 +434,22 @@ public class POOBkemon implements Serializable {
 	* @return String[]
 	 **/
 	public String[] machineDecision(int idTrainer) throws POOBkemonException {
-		for (Team t : teams) {
-			if (idTrainer == t.getTrainer().getId()) {
-				Trainer trainer = t.getTrainer();
+		Action action = this.machineAction(idTrainer);
+		return action == null ? null : action.toDecision();
+	}
 
-				if (trainer instanceof Machine) {
-					String[] desci = ((Machine) trainer).machineMovement(this);
-					return desci;
-				}
-			}
+	/**
+	 * Obtiene la decisión de la máquina como acción, sin pasar por texto.
+	 * @param idTrainer id del entrenador
+	 * @return la acción elegida, o null si el entrenador no es una máquina
+	 */
+	public Action machineAction(int idTrainer) throws POOBkemonException {
+		Team t = this.findTeam(idTrainer);
+		if (t != null && t.getTrainer() instanceof Machine) {
+			Machine trainer = (Machine) t.getTrainer();
+			// Se vuelve a asociar por si la batalla se cargó de un archivo
+			trainer.bindRandom(session().getDecisionRandom());
+			return trainer.decide(this);
 		}
 		return null;
 	}
@@ -303,6 +462,22 @@ public class POOBkemon implements Serializable {
 	 */
 	public void takeDecision(String[] decisionTrainer) throws POOBkemonException {
 		if(this.finishBattle)return;
+		this.apply(Action.fromDecision(decisionTrainer));
+	}
+
+	/**
+	 * Aplica la acción de un entrenador en su turno.
+	 * @param action acción a aplicar
+	 * @throws POOBkemonException Si la acción no es válida en la batalla
+	 */
+	public void apply(Action action) throws POOBkemonException {
+		if(this.finishBattle)return;
+		if (action == null) {
+			throw new POOBkemonException("Se necesita introducir un movimiento valido");
+		}
+		if (this.replay != null) {
+			this.replay.add(action);
+		}
 		if(this.counter % 2 == 0) {
 			this.applyStates();
 		}
@@ -312,97 +487,80 @@ public class POOBkemon implements Serializable {
 		if (this.teams.size() < 2) {
 			throw new POOBkemonException("Se necesitan al menos 2 entrenadores para una batalla");
 		}
-		// Procesar decisiones en el orden establecido (order)
-
-		String[] decision = decisionTrainer;
-
-		if (decision == null || decision.length == 0) {
-			throw new POOBkemonException("Se necesita introducir un movimiento valido");
-		}
 
 		if(this.winner == -1) {
-
-			String action = decision[0];
-			try {
-				switch (action) {
-					case "Attack":
-						if (decision.length < 3) throw new POOBkemonException("Faltan parámetros para Attack");
-						int attackId = Integer.parseInt(decision[1]);
-						int pokemonId1 = Integer.parseInt(decision[2]);
-						int trainerId = Integer.parseInt(decision[3]);
-						this.attack(attackId, trainerId, pokemonId1);
-						checkBattleStatus();
-						break;
-
-					case "UseItem":
-						if (decision.length < 2) throw new POOBkemonException("Faltan parámetros para UseItem");
-						int idTrainer = Integer.parseInt(decision[1]);
-						int pokemonId = Integer.parseInt(decision[2]);
-						String datoItem = decision[3];
-						this.useItem(idTrainer, pokemonId, datoItem);
-						break;
-
-					case "ChangePokemon":
-						if (decision.length < 3) throw new POOBkemonException("Faltan parámetros para ChangePokemon");
-						int newPokemonId = Integer.parseInt(decision[2]);
-						this.changePokemon(Integer.parseInt(decision[1]), newPokemonId);
-						String pokemonName = "";
-
-						pokemonName = this.searchPokemon(newPokemonId).getName();
-						moves.add("Player " + decision[1] + " cambió a Pokémon " + pokemonName);
-
-						break;
-
-					case "Run":
-						this.run(Integer.valueOf(decision[1]));
-						moves.add("Player " + decision[1] + " huyó de la batalla");
-						this.finishBattle = true;
-						break;
-
-					case "timeOver":
-						if (decision.length < 2) throw new POOBkemonException("Faltan parámetros para Attack");
-						int trainerid = Integer.parseInt(decision[1]);
-						int pokemonid = Integer.parseInt(decision[2]);
-						this.timeOver(trainerid, pokemonid);
-						moves.add("Player se le acabo el tiempo");
-						break;
-					default:
-						throw new POOBkemonException("Acción no reconocida: " + action);
-				}
-				checkBattleStatus();
-			} catch (NumberFormatException e) {
-				throw new POOBkemonException("Formato inválido en parámetros: " + e.getMessage());
+			if (action instanceof AttackAction attack) {
+				this.attack(attack.attackId(), attack.trainerId(), attack.pokemonId());
+			} else if (action instanceof UseItemAction item) {
+				this.useItem(item.trainerId(), item.pokemonId(), item.item());
+			} else if (action instanceof SwitchAction change) {
+				this.changePokemon(change.trainerId(), change.pokemonId());
+				this.log.record(BattleLog.SWITCH, change.trainerId(), change.pokemonId());
+			} else if (action instanceof RunAction run) {
+				this.run(run.trainerId());
+				this.log.record(BattleLog.RUN, run.trainerId());
+				this.finishBattle = true;
+			} else if (action instanceof TimeoutAction timeout) {
+				this.timeOver(timeout.trainerId(), timeout.pokemonId());
+				this.log.record(BattleLog.TIMEOUT, timeout.trainerId());
 			}
-			// Verificar estado de la batalla después de ambos turnos
+			// Verificar estado de la batalla después de la acción
 			checkBattleStatus();
 		}
 	}
 
+	/**
+	 * Indica cuántos entrenadores ya actuaron en el turno en curso.
+	 * @return 0 al empezar un turno, 1 si el primero del orden ya actuó
+	 */
+	int actionsInTurn() {
+		return (this.counter + 1) % 2;
+	}
+
+	/**
+	 * Número de acciones aplicadas desde que empezó la batalla.
+	 */
+	int actionCount() {
+		return this.counter - 1;
+	}
+
+	/**
+	 * Fija el número de acciones aplicadas, al traer de vuelta una batalla jugada en forma compacta.
+	 */
+	void setActionCount(int actions) {
+		this.counter = actions + 1;
+	}
+
 	/**
 	 * Verifica si el entrenador es una máquina.
 	 * @param TrainerId
 	 * @return
 	 */
 	public boolean isMachine(int TrainerId){
-
-		for (Team t : teams) {
-			if(t.getTrainer().getId() == TrainerId){
-				if(t.getTrainer() instanceof Machine){
-					return true;
-				}
-			}
-		}
-		return false;
+		Team t = this.findTeam(TrainerId);
+		return t != null && t.getTrainer() instanceof Machine;
+	}
+	/**
+	 * Se llama cuando un Pokémon de algún equipo se debilita; la próxima revisión
+	 * del estado de la batalla mirará si su equipo quedó sin Pokémon.
+	 */
+	@Override
+	public void onFainted(Team team, Pokemon pokemon) {
+		this.faintPending = true;
 	}
+
 	/**
-	 * Verifica el estado de la batalla y determina si ha terminado.
+	 * Verifica el estado de la batalla y determina si ha terminado. Solo revisa los
+	 * equipos si algún Pokémon se debilitó desde la última vez.
 	 */
     public void checkBattleStatus() {
-		if(this.finishBattle)return;
-		for (Team team : teams) {
+		if(this.finishBattle || !this.faintPending)return;
+		this.faintPending = false;
+		for (int i = 0; i < teams.size(); i++) {
+			Team team = teams.get(i);
 			if (team.allFainted()) {
 				this.finishBattle = true;
-				moves.add("¡Batalla terminada! " + team.getTrainer().getId() + " ha sido derrotado");
+				this.log.record(BattleLog.DEFEATED, team.getTrainer().getId());
 				this.searchWinner(team);
 				break;
 			}
@@ -430,19 +588,9 @@ public class POOBkemon implements Serializable {
 	 */
 	public void changePokemon(int trainerId, int pokemonId) throws POOBkemonException {
 		if(this.finishBattle)return;
-		// Buscar el entrenador
-		Trainer selectedTrainer = null;
-		Team team = null;
-		for (Team t : this.teams) {
-
-			if (t.getTrainer().getId() == trainerId) {
-				selectedTrainer = t.getTrainer();
-				team = t;
-				break;
-			}
-		}
+		Team team = this.findTeam(trainerId);
 		// Verificar si se encontró el entrenador
-		if (selectedTrainer == null) {
+		if (team == null) {
 			throw new POOBkemonException("Entrenador con ID " + trainerId + " no encontrado");
 		}
 		// Intentar cambiar el Pokémon
@@ -457,11 +605,7 @@ public class POOBkemon implements Serializable {
 	 */
 	private void timeOver(int trainerId, int pokemonId) throws POOBkemonException {
 		if(this.finishBattle)return;
-		Team team = null;
-		for (Team t : teams)
-			if (t.getTrainer().getId() == trainerId) {
-				team = t;
-			}
+		Team team = this.findTeam(trainerId);
 		if (team == null) {
 			throw new POOBkemonException("Entrenador con ID " + trainerId + " no fue encontrado");
 		}
@@ -475,7 +619,7 @@ public class POOBkemon implements Serializable {
 		Team team_1 = null;
 		for (Team team : teams) {
 			if (team.getTrainer().getId() == trainer) {
-				this.moves.add("GameOver para el jugador " + team.getTrainer().getId());
+				this.log.record(BattleLog.GAME_OVER, team.getTrainer().getId());
 			}else{
 				team_1 = team;
 			}
@@ -502,19 +646,10 @@ public class POOBkemon implements Serializable {
 	private void useItem(int trainer, int idPokemon, String datoItem) throws POOBkemonException {
 		if(this.finishBattle)return;
 		checkBattleStatus();
-		Team team_0 = null;
-		if (!finishBattle) {
-			for (Team team : teams) {
-				if (team.getTrainer().getId() == trainer) {
-					team_0 = team;
-					break;
-				}
-			}
-		}
+		Team team_0 = finishBattle ? null : this.findTeam(trainer);
 		if(team_0 == null)throw new POOBkemonException("Error: No se encontró el Equipo, para el uso de Item");
 		team_0.useItem(idPokemon,datoItem);
-		String message = "El entrenador " + trainer + " ha usado " + datoItem + " en " + team_0.getPokemonById(idPokemon).getName();
-		this.moves.add(message);
+		this.log.record(BattleLog.ITEM, trainer, idPokemon, this.log.text(datoItem));
 	}
 	/**
 	 * Realiza un ataque entre Pokémon.
@@ -523,37 +658,14 @@ public class POOBkemon implements Serializable {
 	 */
 	public void attack(int idAttack, int idTrainer, int idThrower) throws POOBkemonException{
 		if(this.finishBattle)return;
-		Attack damage = null;
-		Pokemon attacker = null;
-		Pokemon target = null;
-		// Primero: Encontrar el Pokémon atacante (idThrower) en el equipo del entrenador (idTrainer)
-		for (Team team : teams) {
-			if (team.getTrainer().getId() == idTrainer) { // Buscamos en el equipo del entrenador
-				for (Pokemon pokemon : team.getPokemons()) {
-					if (pokemon.getId() == idThrower) {
-						attacker = pokemon;
-						damage = pokemon.getAttack(idAttack);
-						break;
-					}
-				}
-				break; // Salimos después de encontrar el equipo correcto
-			}
-		}
-
-		// Segundo: Encontrar el Pokémon objetivo (el activo del otro equipo)
-		for (Team team : teams) {
-			if (team.getTrainer().getId() != idTrainer) { // Buscamos en el equipo contrario
-				for (Pokemon pokemon : team.getPokemons()) {
-					if (pokemon.getActive()) {
-						target = pokemon;
-						break;
-					}
-				}
-				break; // Solo necesitamos un objetivo activo
-			}
-		}
-
+		// Primero: el Pokémon atacante (idThrower) del equipo del entrenador (idTrainer)
+		Team own = this.findTeam(idTrainer);
+		Pokemon attacker = own == null ? null : own.findPokemon(idThrower);
+		Attack damage = attacker == null ? null : attacker.attackToUse(idAttack);
 
+		// Segundo: el objetivo, el activo del otro equipo
+		Team rival = this.findOpponentTeam(idTrainer);
+		Pokemon target = rival == null ? null : rival.getActivePokemon();
 
 		// Verificar que tenemos ambos Pokémon
 		if (attacker == null) {
@@ -567,15 +679,8 @@ public class POOBkemon implements Serializable {
 		}
 		// Aplicar el daño
 		damage.usePP();
-		String effect = target.getDamage(damage, attacker);
-
-		//agrego el mensaje de la ultima acción
-		if(effect.equals("")){
-			//si el pokemon atacante ya esta debilitado no agregar nada.
-		}else {
-			String message = attacker.getName() + " atacó a " + target.getName() + effect;
-			this.moves.add(message);
-		}
+		// El objetivo registra el resultado; si alguno ya está debilitado no se registra nada
+		target.receiveAttack(damage, attacker, this.log);
 		if(this.finishBattle)return;
 		// Cambio automático si es necesario
 		this.autoChangePokemon();
@@ -587,38 +692,17 @@ public class POOBkemon implements Serializable {
 	 */
 	private void autoChangePokemon() throws POOBkemonException{
 		if(this.finishBattle)return;
-			for (Team team : teams) {
-				for (Pokemon pokemon : team.getPokemons()) {
-					if (pokemon.getWeak() && pokemon.getActive()) {
-						this.checkBattleStatus();
-						if(this.finishBattle)return;
-						int savePokemon = this.getAlivePokemon(team.getTrainer().getId());
-						this.changePokemon(team.getTrainer().getId(), savePokemon);
-						String message = pokemon.getName() + " ha sido debilitado, cambiando a " + searchPokemon(savePokemon).getName();
-						this.moves.add(message);
-						return;
-					}
-				}
-			}
-	}
-
-	/**
-	 * Busca un Pokemon en el equipo de un entrenador.
-	 * @param id
-	 * @return
-	 */
-	private Pokemon searchPokemon(int id){
-		try {
-			for (Team team : teams) {
-				for (Pokemon pokemon : team.getPokemons()) {
-					if (pokemon.getId() == id) {
-						return pokemon;
-					}
-				}
+		for (int i = 0; i < teams.size(); i++) {
+			Team team = teams.get(i);
+			if (team.activeFainted()) {
+				Pokemon pokemon = team.getActivePokemon();
+				this.checkBattleStatus();
+				if(this.finishBattle)return;
+				int savePokemon = this.getAlivePokemon(team.getTrainer().getId());
+				this.changePokemon(team.getTrainer().getId(), savePokemon);
+				this.log.record(BattleLog.FAINTED, pokemon.getId(), savePokemon);
+				return;
 			}
-			throw new POOBkemonException("Error: No se encontró el Pokemon con ID " + id);
-		}catch (POOBkemonException e){
-			return null;
 		}
 	}
 
@@ -629,17 +713,9 @@ public class POOBkemon implements Serializable {
 	 */
 	private int getAlivePokemon(int trainerId){
 		if(this.finishBattle)return -1;
-		int id = -1;
-		for (Team team : teams) {
-			if(team.getTrainer().getId() == trainerId){
-				for(Pokemon p: team.getPokemons()){
-					if(!p.getWeak()){
-						id = p.getId();
-					}
-				}
-			}
-		}
-		return id;
+		Team team = this.findTeam(trainerId);
+		Pokemon alive = team == null ? null : team.lastAlivePokemon();
+		return alive == null ? -1 : alive.getId();
 	}
 
 	public ArrayList<Team> getTeams(){
@@ -648,11 +724,68 @@ public class POOBkemon implements Serializable {
 	public boolean isOk (){
 		return this.ok;
 	}
+	/**
+	 * Construye los mensajes de los eventos que guarda el registro de la batalla.
+	 * @return mensajes, del más antiguo al más reciente
+	 */
 	public ArrayList<String> getMoves(){
-		return this.moves;
+		return this.log.renderAll(this);
 	}
+	/**
+	 * Construye solo el mensaje del último evento de la batalla.
+	 * @return mensaje del último evento
+	 */
 	public String getLastMoves(){
-		return this.moves.getLast();
+		return this.log.render(this.log.size() - 1, this);
+	}
+	/**
+	 * Registro de eventos de la batalla, sin mensajes construidos.
+	 * @return registro de la batalla
+	 */
+	public BattleLog getLog(){
+		return this.log;
+	}
+	/**
+	 * Repetición de la batalla en curso: semilla, equipos iniciales y acciones aplicadas hasta ahora.
+	 * @return repetición, o null si la batalla no se ha iniciado
+	 */
+	public BattleReplay getReplay(){
+		return this.replay;
+	}
+	/**
+	 * Copia la batalla en su estado actual para explorar jugadas sin tocarla:
+	 * equipos, entrenadores, mochilas, Pokémon (vida, estadísticas, PP y estados),
+	 * contador de turnos, ganador y generadores aleatorios. La copia vive en una
+	 * sesión propia fuera del registro cuyos generadores siguen donde iban los de
+	 * esta batalla, así que con las mismas acciones ambas se juegan igual.
+	 * No pasa por serialización; cambiar la copia no cambia esta batalla.
+	 * La copia empieza con un registro de eventos vacío y no se graba como repetición.
+	 * @return Copia independiente de la batalla
+	 */
+	public POOBkemon copy() {
+		POOBkemon copy;
+		try {
+			copy = (POOBkemon) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		BattleSession session = this.session().copyFor(copy);
+		copy.log = new BattleLog(COPY_LOG_CAPACITY);
+		copy.replay = null;
+		copy.order = this.order == null ? null : new ArrayList<>(this.order);
+		copy.teamsByTrainer = null;
+		copy.opponentsByTrainer = null;
+		copy.pokemonsById = null;
+		if (this.teams != null) {
+			copy.teams = new ArrayList<>(this.teams.size());
+			for (int i = 0; i < this.teams.size(); i++) {
+				Team team = this.teams.get(i).copy(session);
+				team.setFaintListener(copy);
+				copy.teams.add(team);
+			}
+			copy.indexTeams();
+		}
+		return copy;
 	}
 	public boolean finishBattle(){
 		return this.finishBattle;
@@ -692,25 +825,21 @@ public class POOBkemon implements Serializable {
 	 */
 	public int[] getPokemonsInactive(int idTrainer) {
 		if(this.finishBattle)return null;
-		for (Team t : teams) {
-			if (t.getTrainer().getId() == idTrainer) {
-				ArrayList<Pokemon> pokemons = t.getPokemons();
-				int activePokemonId = t.getTrainer().getCurrentPokemonId();
-				ArrayList<Integer> inactiveIds = new ArrayList<>();
-				for (Pokemon p : pokemons) {
-					if (!p.getActive()) {
-						inactiveIds.add(p.getId());
-					}
-				}
-				// Convertir ArrayList a arreglo
-				int[] result = new int[inactiveIds.size()];
-				for (int i = 0; i < inactiveIds.size(); i++) {
-					result[i] = inactiveIds.get(i);
-				}
-				return result;
+		Team t = this.findTeam(idTrainer);
+		if (t == null) return new int[0]; // Si no se encuentra el entrenador
+		ArrayList<Pokemon> pokemons = t.getPokemons();
+		int count = 0;
+		for (Pokemon p : pokemons) {
+			if (!p.getActive()) count++;
+		}
+		int[] result = new int[count];
+		int i = 0;
+		for (Pokemon p : pokemons) {
+			if (!p.getActive()) {
+				result[i++] = p.getId();
 			}
 		}
-		return new int[0]; // Si no se encuentra el entrenador
+		return result;
 	}
 
 	/**
@@ -720,23 +849,14 @@ public class POOBkemon implements Serializable {
 	 */
 	public int[] getPokemonsPerTrainer(int idTrainer) {
 		if(this.finishBattle)return null;
-		for (Team t : teams) {
-			if (t.getTrainer().getId() == idTrainer) {
-				ArrayList<Pokemon> pokemons = t.getPokemons();
-				int activePokemonId = t.getTrainer().getCurrentPokemonId();
-				ArrayList<Integer> inactiveIds = new ArrayList<>();
-				for (Pokemon p : pokemons) {
-					inactiveIds.add(p.getId());
-				}
-				// Convertir ArrayList a arreglo
-				int[] result = new int[inactiveIds.size()];
-				for (int i = 0; i < inactiveIds.size(); i++) {
-					result[i] = inactiveIds.get(i);
-				}
-				return result;
-			}
+		Team t = this.findTeam(idTrainer);
+		if (t == null) return new int[0]; // Si no se encuentra el entrenador
+		ArrayList<Pokemon> pokemons = t.getPokemons();
+		int[] result = new int[pokemons.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = pokemons.get(i).getId();
 		}
-		return new int[0]; // Si no se encuentra el entrenador
+		return result;
 	}
 
 	/**
@@ -751,12 +871,8 @@ public class POOBkemon implements Serializable {
 	public String[] getPokemonInfo(int idTrainer, int idPokemon) throws POOBkemonException {
 		if(this.finishBattle)return null;
 		// Buscar el entrenador
-		String[] infoPokemon = null;
-		for (Team t : teams) {
-			if (t.getTrainer().getId() == idTrainer) {
-				infoPokemon = t.getPokemonById(idPokemon).getInfo();
-			}
-		}
+		Team t = this.findTeam(idTrainer);
+		String[] infoPokemon = t == null ? null : t.getPokemonById(idPokemon).getInfo();
 		if(infoPokemon == null) throw new POOBkemonException("Entrenador con ID " + idTrainer + " no encontrado");
 		return infoPokemon;
 	}
@@ -787,7 +903,7 @@ public class POOBkemon implements Serializable {
 	 * @return Lista de arrays con información de Pokémon
 	 */
 	public ArrayList<String[]> getPokInfo(){
-		ArrayList<String[]> info = new PokemonRepository().getPokemons();
+		ArrayList<String[]> info = new PokemonRepository(catalog()).getPokemons();
 		return info;
 	}
 	/**
@@ -796,7 +912,7 @@ public class POOBkemon implements Serializable {
 	 */
 	public ArrayList<ArrayList<String>> getItemInfo(){
 		if(this.finishBattle)return null;
-		ArrayList<ArrayList<String>> info = new ItemRepository().getItems();
+		ArrayList<ArrayList<String>> info = new ItemRepository(catalog()).getItems();
 		return info;
 	}
 	/**
@@ -805,7 +921,7 @@ public class POOBkemon implements Serializable {
 	 * @return String con información del ataque
 	 */
 	public String getMoveInfo(int id){
-		String info = new MovesRepository().getAttackId(id);
+		String info = new MovesRepository(catalog()).getAttackId(id);
 		return info;
 	}
 
@@ -816,12 +932,8 @@ public class POOBkemon implements Serializable {
 	 * @throws POOBkemonException
 	 */
 	public String[][] getInfoItems(int trainerId) throws POOBkemonException {
-		Trainer trainer = null;
-		for (Team t: this.teams){
-			if(t.getTrainer().getId() == trainerId){
-				trainer = t.getTrainer();
-			}
-		}
+		Team t = this.findTeam(trainerId);
+		Trainer trainer = t == null ? null : t.getTrainer();
 		if(trainer == null) throw new POOBkemonException("Entrenador no encontrado");
 		return trainer.getBagPack().getItems();
 	}
@@ -867,7 +979,7 @@ public class POOBkemon implements Serializable {
 	 * @param move
 	 */
 	public void addMove(String move){
-		this.moves.add(move);
+		this.log.recordText(move);
 	}
 
 	/**
@@ -884,17 +996,26 @@ public class POOBkemon implements Serializable {
 	 * @return
 	 */
 	public ArrayList<String[]> getCompatibleAttacks(int pokemonId) {
-		ArrayList<String[]> compatibleAttacks = new MovesRepository().getCompatibleAttacks(pokemonId);
+		ArrayList<String[]> compatibleAttacks = new MovesRepository(catalog()).getCompatibleAttacks(pokemonId);
 		return compatibleAttacks;
 	}
 
+	/**
+	 * Obtiene los ids de los ataques compatibles con un Pokémon, en orden ascendente.
+	 * @param pokemonId
+	 * @return
+	 */
+	public int[] getCompatibleAttackIds(int pokemonId) {
+		return new MovesRepository(catalog()).getCompatibleAttackIds(pokemonId);
+	}
+
 	/**
 	 * Obtiene el nombre de un ataque.
 	 * @param id
 	 * @return
 	 */
 	public String getAttackId(int id) {
-		String move = new MovesRepository().getAttackId(id);
+		String move = new MovesRepository(catalog()).getAttackId(id);
 		return move;
 	}
 
@@ -902,13 +1023,13 @@ public class POOBkemon implements Serializable {
 	 * Aplica los efectos de los Pokémon en la batalla.
 	 */
 	private void applyStates(){
-		for (Team team : teams) {
-			team.applyEffect();
+		for (int i = 0; i < teams.size(); i++) {
+			teams.get(i).applyEffect();
 		}
 	}
 
 	public String[] getPokemonInfoById(int id){
-		PokemonRepository pokemonInfo = new PokemonRepository();
+		PokemonRepository pokemonInfo = new PokemonRepository(catalog());
 		return pokemonInfo.getPokemonId(id);
 	}
 }
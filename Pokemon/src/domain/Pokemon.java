@@ -1,11 +1,13 @@
 package domain;
 
+import persistence.GameData;
 import persistence.MovesRepository;
-import persistence.StatsRepository;
 import persistence.StatusRepository;
 
 import java.io.Serializable;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.ArrayList;
 
 /**
@@ -13,13 +15,16 @@ import java.util.ArrayList;
  * for managing its states, statistics, and interactions during battles.
  * It includes support for customization, random stat generation, attacks, and status effects.
  */
-public class Pokemon implements Serializable {
+public class Pokemon implements Serializable, Cloneable {
 
 	// Basic Pokemon attributes
 	public String name;
 	public String idPokedex;
 	private int id;
 	public String type;
+	public String type2;
+	private int typeId = PokemonType.NONE;
+	private int type2Id = PokemonType.NONE;
 
 	// Combat stats
 	public int maxHealth;
@@ -34,6 +39,8 @@ public class Pokemon implements Serializable {
 	// Status flags
 	private boolean active;
 	private boolean weak;
+	private Team team; // Team that counts this Pokemon among its members alive
+	private int slot; // Position in that team
 	private boolean shiny;
 
 	// Progression
@@ -42,18 +49,20 @@ public class Pokemon implements Serializable {
 	public int ivs;
 
 	// Battle modifiers
-	private static boolean random;
-	private static int attackId = 0;
+	private boolean random;
+	private static final AtomicInteger attackId = new AtomicInteger(); // Ids for Pokemon outside a battle session
+	private BattleSession session;
 	private ArrayList<Attack> attacks;
-	private ArrayList<State> states;
+	private short[] pp; // Remaining PP of each attack, in the same order as attacks
+	private transient GameData catalog; // Data snapshot this Pokemon was created with
+	private StateSet states; // Active states: the principal one and the secondary ones
 
 	private State principalState;
-	private int accuracyStage = (int)(Math.random() * 13) - 6;
-	private int evasionStage = (int)(Math.random() * 13) - 6;
+	private int accuracyStage;
+	private int evasionStage;
 
 	// Constants for battle calculations
-	private double CRITICAL_HIT_CHANCE = 0.0417; // 4.17% standar = 0.0417
-	private static final double STAGE_MODIFIER = 1.3;  // 1.5 Pokemon standar (Modify Accuracy)
+	private int criticalChance = DamageKernel.CRITICAL_CHANCE; // 16.16 fixed point, 4.17% standar
 
 	private boolean canAttack = true;
 	private boolean isProtected = false;
@@ -64,6 +73,7 @@ public class Pokemon implements Serializable {
 	 * @throws POOBkemonException if there's an error during creation
 	 */
 	public Pokemon() throws POOBkemonException {
+		initStages();
 		initDefault();
 	}
 
@@ -77,9 +87,10 @@ public class Pokemon implements Serializable {
 	 * @throws POOBkemonException if there's an error during creation
 	 */
 	public Pokemon(int id, String[] info, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl) throws POOBkemonException {
+		initStages();
 		try {
 			if (info.length < 11) throw new POOBkemonException(POOBkemonException.LESS_INFORMACION_POKEMON);
-			this.initFromParameters(id, info, attacksIds, random, pokemonLvl);
+			this.initFromParameters(id, new SpeciesTemplate(info), attacksIds, random, pokemonLvl);
 		} catch (POOBkemonException | NumberFormatException e) {
 			initDefault();
 			System.err.println("Error creating Pokémon: " + e.getMessage());
@@ -87,6 +98,181 @@ public class Pokemon implements Serializable {
 		this.probShiny();
 	}
 
+	/**
+	 * Creates a Pokemon from the cached template of its species, without parsing
+	 * the CSV row or recomputing stats already in the template's level tables.
+	 * @param id Pokemon ID
+	 * @param species Shared template of the species
+	 * @param attacksIds List of attack IDs
+	 * @param random Whether to generate random stats
+	 * @param pokemonLvl Initial level
+	 * @throws POOBkemonException if there's an error during creation
+	 */
+	public Pokemon(int id, SpeciesTemplate species, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl) throws POOBkemonException {
+		this(id, species, attacksIds, random, pokemonLvl, GameData.getInstance());
+	}
+
+	/**
+	 * Creates a Pokemon bound to a specific data snapshot, so its attacks, statuses and
+	 * type chart stay consistent with the rest of its battle even if the catalog is reloaded.
+	 * @param id Pokemon ID
+	 * @param species Shared template of the species
+	 * @param attacksIds List of attack IDs
+	 * @param random Whether to generate random stats
+	 * @param pokemonLvl Initial level
+	 * @param catalog Data snapshot used by the battle
+	 * @throws POOBkemonException if there's an error during creation
+	 */
+	public Pokemon(int id, SpeciesTemplate species, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl, GameData catalog) throws POOBkemonException {
+		this(id, species, attacksIds, random, pokemonLvl, catalog, null);
+	}
+
+	/**
+	 * Creates a Pokemon for a battle session, which hands out the ids of its attacks.
+	 * @param id Pokemon ID
+	 * @param species Shared template of the species
+	 * @param attacksIds List of attack IDs
+	 * @param random Whether to generate random stats
+	 * @param pokemonLvl Initial level
+	 * @param catalog Data snapshot used by the battle
+	 * @param session Battle the Pokemon belongs to, or null to use ids shared by every Pokemon outside a session
+	 * @throws POOBkemonException if there's an error during creation
+	 */
+	public Pokemon(int id, SpeciesTemplate species, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl, GameData catalog, BattleSession session) throws POOBkemonException {
+		this.catalog = catalog;
+		this.session = session;
+		initStages();
+		try {
+			this.initFromParameters(id, species, attacksIds, random, pokemonLvl);
+		} catch (POOBkemonException e) {
+			initDefault();
+			System.err.println("Error creating Pokémon: " + e.getMessage());
+		}
+		this.probShiny();
+	}
+
+	/**
+	 * Copies this Pokemon for a copied battle: stats, HP, stages and flags are
+	 * copied as they are, and the states, the PP and the attacks get their own
+	 * instances, so nothing done to the copy reaches this Pokemon. The principal
+	 * state object is shared, as only its type is read once it is set. The copy
+	 * joins no team until its copied team takes it.
+	 *
+	 * @param session session of the copied battle
+	 * @return the copy
+	 */
+	Pokemon copy(BattleSession session) {
+		Pokemon copy;
+		try {
+			copy = (Pokemon) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.session = session;
+		copy.team = null;
+		copy.states = this.states.copy();
+		copy.pp = new short[this.pp == null ? 0 : this.pp.length];
+		copy.attacks = new ArrayList<>(this.attacks.size());
+		for (int i = 0; i < this.attacks.size(); i++) {
+			Attack attack = this.attacks.get(i).copy();
+			if (i < copy.pp.length) {
+				attack.bindPP(copy.pp, i);
+			}
+			copy.attacks.add(attack);
+		}
+		return copy;
+	}
+
+	/**
+	 * Writes this Pokemon into the columns of a compact battle.
+	 *
+	 * @param battle the compact battle being built
+	 * @param p position of this Pokemon in the battle
+	 * @param row first move row of this Pokemon
+	 */
+	void writeTo(CompactBattle battle, int p, int row) {
+		battle.pokemonIds[p] = this.id;
+		battle.hp[p] = this.weak ? 0 : this.currentHealth;
+		battle.maxHp[p] = this.maxHealth;
+		battle.attack[p] = this.attack;
+		battle.defense[p] = this.defense;
+		battle.specialAttack[p] = this.specialAttack;
+		battle.specialDefense[p] = this.specialDefense;
+		battle.speed[p] = this.speed;
+		battle.criticalChance[p] = this.criticalChance;
+		battle.level[p] = (short) this.level;
+		battle.type1[p] = (byte) this.typeId;
+		battle.type2[p] = (byte) this.type2Id;
+		battle.accuracyStage[p] = this.accuracyStage;
+		battle.evasionStage[p] = this.evasionStage;
+		battle.flags[p] = this.weak ? CompactBattle.FAINTED : 0;
+		battle.principal[p] = (byte) (this.principalState == null ? -1 : this.principalState.getType().ordinal());
+		this.states.copyTo(battle.states, p * CompactBattle.STATE_WORDS,
+				battle.stateTurns, battle.stateIntensity, p * CompactBattle.TYPES);
+		battle.firstMove[p] = row;
+		battle.lastMove[p] = row + this.attacks.size() - 1;
+		for (int i = 0; i < this.attacks.size(); i++) {
+			battle.move(row + i, this.attacks.get(i));
+		}
+	}
+
+	/**
+	 * Takes the state of this Pokemon back from a compact battle built from its
+	 * battle. If it fainted there it faints here, and if it ran out of PP there
+	 * it gets its default move here.
+	 *
+	 * @param battle the compact battle
+	 * @param p position of this Pokemon in the battle
+	 * @throws POOBkemonException if the default move cannot be created
+	 */
+	void readFrom(CompactBattle battle, int p) throws POOBkemonException {
+		this.attack = battle.attack[p];
+		this.defense = battle.defense[p];
+		this.specialAttack = battle.specialAttack[p];
+		this.specialDefense = battle.specialDefense[p];
+		this.speed = battle.speed[p];
+		this.criticalChance = battle.criticalChance[p];
+		this.accuracyStage = battle.accuracyStage[p];
+		this.evasionStage = battle.evasionStage[p];
+		this.states.copyFrom(battle.states, p * CompactBattle.STATE_WORDS,
+				battle.stateTurns, battle.stateIntensity, p * CompactBattle.TYPES);
+		int principal = battle.principal[p];
+		if (principal < 0) {
+			this.principalState = null;
+		} else if (this.principalState == null || this.principalState.getType().ordinal() != principal) {
+			String name = StateSet.TYPES[principal].name();
+			this.principalState = new State(new String[] {name, String.valueOf(battle.stateTurns[p * CompactBattle.TYPES + principal]), "0", "0", name});
+		}
+		int first = battle.firstMove[p];
+		boolean fallback = first == battle.moveStart[p + 1] - 1 && first != battle.moveStart[p];
+		if (fallback && !(this.attacks.size() == 1 && this.attacks.get(0).getIdCSV() == CompactBattle.DEFAULT_MOVE)) {
+			this.attacks.clear();
+			this.attackDefault();
+		}
+		for (int i = 0; i < this.attacks.size() && first + i <= battle.lastMove[p]; i++) {
+			this.attacks.get(i).setPPActual(battle.pp[first + i]);
+		}
+		this.currentHealth = battle.hp[p];
+		this.isWeak();
+	}
+
+	/**
+	 * Starts the accuracy and evasion stages at a random value between -6 and 6.
+	 */
+	private void initStages() {
+		this.accuracyStage = rng().nextInt(13) - 6;
+		this.evasionStage = rng().nextInt(13) - 6;
+	}
+
+	/**
+	 * Retrieves the random generator of this Pokemon's battle, so that a battle
+	 * replayed from the same seed makes the same draws.
+	 * @return the session generator, or the thread's own generator for a Pokemon outside a session
+	 */
+	RandomGenerator rng() {
+		return this.session != null ? this.session.getRandom() : ThreadLocalRandom.current();
+	}
+
 	/**
 	 * Initializes default values for a Pokemon.
 	 * @throws POOBkemonException if default attack cannot be created
@@ -96,6 +282,9 @@ public class Pokemon implements Serializable {
 		this.name = "MissingNo";
 		this.idPokedex = "0";
 		this.type = "Normal";
+		this.type2 = "";
+		this.typeId = PokemonType.NORMAL.ordinal();
+		this.type2Id = PokemonType.NONE;
 		this.maxHealth = 180;
 		this.currentHealth = this.maxHealth;
 		this.attack = 10;
@@ -106,7 +295,7 @@ public class Pokemon implements Serializable {
 		this.xp = 0;
 		this.level = 1;
 		this.levelRequirement = 100;
-		this.states = new ArrayList<State>();
+		this.states = new StateSet();
 		this.active = false;
 		this.weak = false;
 		this.random = false;
@@ -118,20 +307,23 @@ public class Pokemon implements Serializable {
 	/**
 	 * Initializes Pokemon from parameters.
 	 * @param id Pokemon ID
-	 * @param info Pokemon information array
+	 * @param species Template with the parsed species information
 	 * @param attacksIds List of attack IDs
 	 * @param random Whether to generate random stats
 	 * @param pokemonLvl Initial level
 	 * @throws POOBkemonException if there's an error during creation
 	 */
-	private void initFromParameters(int id, String[] info, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl) throws POOBkemonException {
+	private void initFromParameters(int id, SpeciesTemplate species, ArrayList<Integer> attacksIds, boolean random, int pokemonLvl) throws POOBkemonException {
 		this.id = id;
-		this.name = info[1];
-		this.idPokedex = info[0];
-		this.type = info[2];
+		this.name = species.getName();
+		this.idPokedex = species.getIdPokedex();
+		this.type = species.getType();
+		this.type2 = species.getType2();
+		this.typeId = species.getTypeId();
+		this.type2Id = species.getType2Id();
 
 		// Level handling
-		this.level = random ? (int)(Math.random() * 31) + 25 : pokemonLvl;
+		this.level = random ? rng().nextInt(31) + 25 : pokemonLvl;
 
 		this.levelRequirement = 100;
 		this.xp = 0;
@@ -139,32 +331,24 @@ public class Pokemon implements Serializable {
 		this.weak = false;
 		this.random = random;
 		this.attacks = new ArrayList<>(this.createAttacks(attacksIds));
-		this.states = new ArrayList<State>();
+		this.states = new StateSet();
 		this.ivs = createRandom(32);
 
-		// Base stats
-		int baseHP = Integer.parseInt(info[5]);
-		int baseAttack = Integer.parseInt(info[6]);
-		int baseDefense = Integer.parseInt(info[7]);
-		int baseSpAttack = Integer.parseInt(info[8]);
-		int baseSpDefense = Integer.parseInt(info[9]);
-		int baseSpeed = Integer.parseInt(info[10]);
-
 		// Calculate scaled stats
 		if (random) {
-			this.maxHealth = calculateHPStat(baseHP, this.level, true);
-			this.attack = calculateOtherStat(baseAttack, this.level, true);
-			this.defense = calculateOtherStat(baseDefense, this.level, true);
-			this.specialAttack = calculateOtherStat(baseSpAttack, this.level, true);
-			this.specialDefense = calculateOtherStat(baseSpDefense, this.level, true);
-			this.speed = calculateOtherStat(baseSpeed, this.level, true);
+			this.maxHealth = calculateHPStat(species.getBaseStat(SpeciesTemplate.HP), this.level, true);
+			this.attack = calculateOtherStat(species.getBaseStat(SpeciesTemplate.ATTACK), this.level, true);
+			this.defense = calculateOtherStat(species.getBaseStat(SpeciesTemplate.DEFENSE), this.level, true);
+			this.specialAttack = calculateOtherStat(species.getBaseStat(SpeciesTemplate.SP_ATTACK), this.level, true);
+			this.specialDefense = calculateOtherStat(species.getBaseStat(SpeciesTemplate.SP_DEFENSE), this.level, true);
+			this.speed = calculateOtherStat(species.getBaseStat(SpeciesTemplate.SPEED), this.level, true);
 		} else {
-			this.maxHealth = calculateHPStat(baseHP, this.level);
-			this.attack = calculateOtherStat(baseAttack, this.level);
-			this.defense = calculateOtherStat(baseDefense, this.level);
-			this.specialAttack = calculateOtherStat(baseSpAttack, this.level);
-			this.specialDefense = calculateOtherStat(baseSpDefense, this.level);
-			this.speed = calculateOtherStat(baseSpeed, this.level);
+			this.maxHealth = species.getStat(SpeciesTemplate.HP, this.level, this.ivs);
+			this.attack = species.getStat(SpeciesTemplate.ATTACK, this.level, this.ivs);
+			this.defense = species.getStat(SpeciesTemplate.DEFENSE, this.level, this.ivs);
+			this.specialAttack = species.getStat(SpeciesTemplate.SP_ATTACK, this.level, this.ivs);
+			this.specialDefense = species.getStat(SpeciesTemplate.SP_DEFENSE, this.level, this.ivs);
+			this.speed = species.getStat(SpeciesTemplate.SPEED, this.level, this.ivs);
 		}
 
 		this.currentHealth = this.maxHealth;
@@ -181,9 +365,9 @@ public class Pokemon implements Serializable {
 	 * @return Calculated HP stat
 	 */
 	private int calculateHPStat(int baseStat, int level, boolean random) {
-		int iv = random ? (int)(Math.random() * 32) : this.ivs;
-		int ev = random ? (int)(Math.random() * 256) : 0;
-		return (int)(((2 * baseStat + iv + (ev / 4)) * level) / 100) + level + 10;
+		int iv = random ? rng().nextInt(32) : this.ivs;
+		int ev = random ? rng().nextInt(256) : 0;
+		return SpeciesTemplate.calculateStat(SpeciesTemplate.HP, baseStat, level, iv, ev);
 	}
 
 	/**
@@ -194,18 +378,9 @@ public class Pokemon implements Serializable {
 	 * @return Calculated stat value
 	 */
 	private int calculateOtherStat(int baseStat, int level, boolean random) {
-		int iv = random ? (int)(Math.random() * 32) : this.ivs;
-		int ev = random ? (int)(Math.random() * 256) : 0;
-		return (int)(((2 * baseStat + iv + (ev / 4)) * level / 100) + 5);
-	}
-
-	// Overloaded stat calculation methods without random flag
-	private int calculateHPStat(int baseStat, int level) {
-		return calculateHPStat(baseStat, level, false);
-	}
-
-	private int calculateOtherStat(int baseStat, int level) {
-		return calculateOtherStat(baseStat, level, false);
+		int iv = random ? rng().nextInt(32) : this.ivs;
+		int ev = random ? rng().nextInt(256) : 0;
+		return SpeciesTemplate.calculateStat(SpeciesTemplate.ATTACK, baseStat, level, iv, ev);
 	}
 
 	/**
@@ -214,7 +389,7 @@ public class Pokemon implements Serializable {
 	 * @return Random number
 	 */
 	public int createRandom(int limit) {
-		return new Random().nextInt(limit);
+		return rng().nextInt(limit);
 	}
 
 	// Getters and setters
@@ -247,56 +422,75 @@ public class Pokemon implements Serializable {
 	 */
 	private ArrayList<Attack> createAttacks(ArrayList<Integer> attacksIds) throws POOBkemonException {
 		ArrayList<Attack> attacks = new ArrayList<>();
-		MovesRepository movesRepository = new MovesRepository();
-		StatusRepository statusRepository = new StatusRepository();
+		MovesRepository movesRepository = new MovesRepository(catalog());
+		StatusRepository statusRepository = new StatusRepository(catalog());
 
 		for(Integer id : attacksIds) {
-			String[] infoAttack = movesRepository.getAttacksId(id);
+			MoveSpec spec = movesRepository.getMoveSpec(id);
+			if(spec == null) {
+				throw new POOBkemonException("Error al crear ataque: movimiento inexistente " + id);
+			}
 
-			if(infoAttack[4].equalsIgnoreCase("physical")) {
-				attacks.add(new Attack(this.nextAttackId(), infoAttack));
-			} else if(infoAttack[4].equalsIgnoreCase("special")) {
-				attacks.add(new special(this.nextAttackId(), infoAttack));
+			if(spec.getCategory() == MoveSpec.Category.PHYSICAL) {
+				attacks.add(new Attack(this.nextAttackId(), spec));
+			} else if(spec.getCategory() == MoveSpec.Category.SPECIAL) {
+				attacks.add(new special(this.nextAttackId(), spec));
 
-			} else if(infoAttack[4].equalsIgnoreCase("status")) {
-				String[] infoStatus = statusRepository.getStatusByName(infoAttack[9].toUpperCase());
+			} else if(spec.getCategory() == MoveSpec.Category.STATUS) {
+				String[] infoStatus = statusRepository.getStatusOfMove(id);
+				State.StateType statusType = statusRepository.getStatusTypeOfMove(id);
 				if(infoStatus == null) {
-					infoStatus = statusRepository.getStatusByName("DEFENSE_UP");
+					statusType = State.StateType.DEFENSE_UP;
+					infoStatus = statusRepository.getStatus(statusType);
 				}
-				attacks.add(new StateAttack(this.nextAttackId(), infoAttack, infoStatus));
+				attacks.add(new StateAttack(this.nextAttackId(), spec, infoStatus, statusRepository.createState(statusType)));
 			}
 		}
+		this.pp = new short[attacks.size()];
+		for(int i = 0; i < attacks.size(); i++) {
+			attacks.get(i).bindPP(this.pp, i);
+		}
 		return attacks;
 	}
 
+	/**
+	 * Returns the data snapshot of this Pokemon, taking the current one if it was
+	 * created without one or has just been deserialized.
+	 */
+	private GameData catalog() {
+		if (this.catalog == null) {
+			this.catalog = GameData.getInstance();
+		}
+		return this.catalog;
+	}
+
 	/**
 	 * genera los siguientes Id
 	 * @return
 	 */
 	private int nextAttackId() {
-		return ++this.attackId;
+		return this.session != null ? this.session.nextAttackId() : attackId.incrementAndGet();
 	}
 
 	/**
-	 * Calculates damage dealt by an attack.
+	 * Receives an attack and records its outcome in the battle log.
+	 * Nothing is recorded if either Pokemon is already fainted.
 	 * @param damage Attack being used
 	 * @param attacker Pokemon using the attack
-	 * @return Result message string
+	 * @param log Log of the battle
 	 * @throws POOBkemonException if damage calculation fails
 	 */
-	public String getDamage(Attack damage, Pokemon attacker) throws POOBkemonException {
-		String message = "";
+	public void receiveAttack(Attack damage, Pokemon attacker, BattleLog log) throws POOBkemonException {
 		if (!canReceiveDamage(attacker)) {
-			return "";
+			return;
 		}
 
 		if (damage instanceof StateAttack) {
 			StateAttack stateAttack = (StateAttack) damage;
-			message = handleStateAttack(stateAttack,attacker);
+			handleStateAttack(stateAttack, attacker, log);
 		} else {
-			message = handleRegularAttack(damage, attacker);
+			handleRegularAttack(damage, attacker, log);
 		}
-		return message;
 	}
 
 	private boolean canReceiveDamage(Pokemon attacker) {
@@ -308,20 +502,26 @@ public class Pokemon implements Serializable {
 	 *
 	 * @param stateAttack The state attack to be executed.
 	 * @param attacker The Pokemon executing the state attack.
-	 * @return A message describing the result of the state attack. Returns an empty string if there is no effect.
+	 * @param log Log where the outcome is recorded; nothing is recorded if the state is unknown.
 	 */
-	private String handleStateAttack(StateAttack stateAttack, Pokemon attacker) {
+	private void handleStateAttack(StateAttack stateAttack, Pokemon attacker, BattleLog log) {
 		if (!doesStateApply(stateAttack)) {
-			return attacker.name + " falló el ataque de estado! ";
+			log.record(BattleLog.STATE_MISS, attacker.id, this.id);
+			return;
 		}
 
-		StatusRepository infoState = new StatusRepository();
+		State estado = stateAttack.createState();
+		if (estado != null) {
+			applyStatus(estado, stateAttack, attacker, log);
+			return;
+		}
+
+		StatusRepository infoState = new StatusRepository(catalog());
 		String[] info = infoState.getStatusByName(stateAttack.getState());
 
 		if (info != null) {
-			return applyStatusFromInfo(info, stateAttack, attacker);
+			applyStatusFromInfo(info, stateAttack, attacker, log);
 		}
-		return "";
 	}
 
 	/**
@@ -331,7 +531,7 @@ public class Pokemon implements Serializable {
 	 * @return true if the*/
 	private boolean doesStateApply(StateAttack stateAttack) {
 		if(stateAttack.getAccuracy()==100){return true;}
-		double prob = Math.random() * 100;
+		double prob = rng().nextDouble() * 100;
 		return prob < stateAttack.getAccuracy();
 	}
 
@@ -341,83 +541,66 @@ public class Pokemon implements Serializable {
 	 * @param info An array containing the status information to be applied.
 	 * @param stateAttack The state attack to be applied to the Pokemon.
 	 * @param attacker The Pokemon initiating the state attack.
-	 * @return A string describing the outcome of the status application. Returns an empty string if an invalid status type is provided or if no effect is applied.
+	 * @param log Log where the outcome is recorded; nothing is recorded if the status type is invalid.
 	 */
-	private String applyStatusFromInfo(String[] info, StateAttack stateAttack, Pokemon attacker) {
+	private void applyStatusFromInfo(String[] info, StateAttack stateAttack, Pokemon attacker, BattleLog log) {
 		try {
-			Pokemon target = stateAttack.affectsSelf() ? attacker : this;
-			State estado = new State(info);
-			if (!estado.isImmune(target)) {
-				persistentDamage(estado,target);
-				if(stateAttack.affectsSelf()){
-					return " [" + target.getName() + "] se aplico " + stateAttack.getName();
-				}
-				return " [" + target.getName() + "] fue afectado por " + stateAttack.getName();
-			}
-			return target.getName() + " es inmune a " + stateAttack.getName();
+			applyStatus(new State(info), stateAttack, attacker, log);
 		} catch (IllegalArgumentException e) {
 			System.err.println("Tipo de estado inválido: " + info[0] + e.getMessage());
-			return "";
 		}
 	}
 
+	/**
+	 * Applies an already built status to the target of a state attack.
+	 *
+	 * @param estado The status instance to apply; it becomes owned by the target.
+	 * @param stateAttack The state attack to be applied to the Pokemon.
+	 * @param attacker The Pokemon initiating the state attack.
+	 * @param log Log where the outcome is recorded.
+	 */
+	private void applyStatus(State estado, StateAttack stateAttack, Pokemon attacker, BattleLog log) {
+		Pokemon target = stateAttack.affectsSelf() ? attacker : this;
+		if (!estado.isImmune(target)) {
+			persistentDamage(estado,target);
+			log.record(stateAttack.affectsSelf() ? BattleLog.STATE_SELF : BattleLog.STATE_APPLIED,
+					attacker.id, this.id, stateAttack.getIdCSV());
+			return;
+		}
+		log.record(BattleLog.STATE_IMMUNE, attacker.id, this.id, stateAttack.getIdCSV(), target.id);
+	}
+
 	/**
 	 * Handles the execution of a regular attack, calculates damage dealt, and updates the states of
 	 * both the attacking and defending Pokemon. It also evaluates type effectiveness, attack accuracy,
-	 * and updates the attacker's Power Points (PP).
+	 * and updates the attacker's Power Points (PP). The rules themselves are in {@link DamageKernel}.
 	 *
 	 * @param damage The attack object specifying the details of the attack being executed.
 	 * @param attacker The Pokemon executing the attack.
-	 * @return A string describing the result of the attack, including effectiveness, damage dealt, or
-	 *         whether the attack failed.
+	 * @param log Log where the hit, the miss or the immunity is recorded with the damage dealt.
 	 * @throws POOBkemonException If an error occurs while handling the attack.
 	 */
-	private String handleRegularAttack(Attack damage, Pokemon attacker) throws POOBkemonException {
-		MovesRepository movesRepository = new MovesRepository();
-		StatsRepository statsRepository = new StatsRepository();
-		String[] info = movesRepository.getAttackDamageAndType(damage.getIdCSV());
-
-		double multiplicator = statsRepository.getMultiplier(info[0], this.type);
-		if (multiplicator == 0.0) {
-			attacker.spectorPP();
-			return " No afecta a " + this.name + "...";
-		}
+	private void handleRegularAttack(Attack damage, Pokemon attacker, BattleLog log) throws POOBkemonException {
+		boolean special = damage.isSpecial();
+		long outcome = DamageKernel.resolve(damage.getAccuracy(), attacker.accuracyStage, this.evasionStage,
+				attacker.level, damage.getPower(),
+				special ? attacker.specialAttack : attacker.attack,
+				special ? this.specialDefense : this.defense,
+				catalog().getEffectiveness(damage.getTypeId(), this.typeId, this.type2Id),
+				attacker.criticalChance, rng());
+		attacker.spectorPP();
 
-		if (!doesAttackHit(damage, attacker)) {
-			attacker.spectorPP();
-			return attacker.name + " falló el ataque!";
+		int event = DamageKernel.eventOf(outcome);
+		if (event == BattleLog.NO_EFFECT || event == BattleLog.MISS) {
+			log.record(event, attacker.id, this.id);
+			return;
 		}
 
-		double calculatedDamage = calculateDamage(damage, attacker, multiplicator);
-		this.currentHealth = Math.max(0, this.currentHealth - (int)calculatedDamage);
+		int calculatedDamage = DamageKernel.damageOf(outcome);
+		this.currentHealth = Math.max(0, this.currentHealth - calculatedDamage);
 		this.isWeak();
 
-		attacker.spectorPP();
-	
-		return getDamageEffectivenessMessage(multiplicator) +
-				" [" + damage.getName() + "] causó " + (int)calculatedDamage + " puntos de daño!";
-	}
-
-	/**
-	 * Returns a message describing the effectiveness of damage based on
-	 * the provided type effectiveness multiplier.
-	 *
-	 * @param multiplicator The type effectiveness multiplier of the attack.
-	 *                      For example, 2.0 indicates the attack is super effective,
-	 *                      0.5 indicates it is not very effective, and other values
-	 *                      indicate neutral effectiveness.
-	 * @return A string message indicating the effectiveness of the attack.
-	 *         Returns " ¡Fue super efectivo! \n" if the multiplier is 2.0,
-	 *         " No fue muy efectivo... \n" if it is 0.5, and an empty string
-	 *         for other multiplier values.
-	 */
-	private String getDamageEffectivenessMessage(double multiplicator) {
-		if (multiplicator == 2.0) {
-			return " ¡Fue super efectivo! \n";
-		} else if (multiplicator == 0.5) {
-			return " No fue muy efectivo... \n";
-		}
-		return "";
+		log.record(event, attacker.id, this.id, damage.getIdCSV(), calculatedDamage);
 	}
 
 	/**
@@ -427,55 +610,32 @@ public class Pokemon implements Serializable {
 	 */
 	public void isWeak(){
 		if (this.currentHealth <= 0) {
-			this.currentHealth = 0;
-			this.weak = true;
+			this.faint();
 		}
 	}
 
 	/**
-	 * Determines if an attack hits.
-	 * @param damage Attack being used
-	 * @param attacker Pokemon using the attack
-	 * @return true if attack hits, false otherwise
+	 * Leaves the Pokemon at zero HP and, the first time, marks it as weak and
+	 * tells its team. This is the only place where a Pokemon faints.
 	 */
-	private boolean doesAttackHit(Attack damage, Pokemon attacker) {
-		if (damage.getAccuracy() >= 100) return true;
-
-		double hitProbability = (damage.getAccuracy() / 100.0) *
-				(Math.pow(STAGE_MODIFIER, attacker.accuracyStage) / Math.pow(STAGE_MODIFIER, -this.evasionStage));
-
-		hitProbability *= (damage.getAccuracy() <= 30) ? 0.6 : 1.0;
-		return Math.random() < Math.max(0.1, Math.min(1.0, hitProbability));
+	private void faint() {
+		this.currentHealth = 0;
+		if (!this.weak) {
+			this.weak = true;
+			if (this.team != null) {
+				this.team.fainted(this.slot);
+			}
+		}
 	}
 
 	/**
-	 * Calculates damage using Pokemon formula.
-	 * @param damage Attack being used
-	 * @param attacker Pokemon using the attack
-	 * @param typeEffectiveness Type effectiveness multiplier
-	 * @return Calculated damage
+	 * Makes this Pokemon a member of a team, which keeps count of its members alive.
+	 * @param team the team
+	 * @param slot position of the Pokemon in the team
 	 */
-	private double calculateDamage(Attack damage, Pokemon attacker, double typeEffectiveness) {
-		if (damage instanceof StateAttack) {
-			return 0;
-		}
-
-		int power = damage.getPower();
-		int level = attacker.level;
-		double randomFactor = 0.85 + (Math.random() * 0.15);
-		double critical = (Math.random() < CRITICAL_HIT_CHANCE) ? 2 : 1.0;
-
-		// Determinar qué estadísticas usar (físicas o especiales)
-		boolean isSpecialAttack = damage instanceof special;
-		double attackStat = isSpecialAttack ? attacker.specialAttack : attacker.attack;
-		double defenseStat = isSpecialAttack ? this.specialDefense : this.defense;
-
-		// Fórmula de daño estándar de Pokémon
-		double damageValue = (((2 * level / 5 + 2) * power * attackStat / defenseStat) / 50 + 2);
-		damageValue *= critical * typeEffectiveness * randomFactor;
-
-		// Asegurar mínimo 1 de daño
-		return Math.max(1, Math.round(damageValue));
+	void joinTeam(Team team, int slot) {
+		this.team = team;
+		this.slot = slot;
 	}
 
 	/**
@@ -548,7 +708,7 @@ public class Pokemon implements Serializable {
 	 * @param state the State object to be added to the collection
 	 */
 	public void addSecundariState(State state){
-		this.states.add(state);
+		this.states.put(state.getType().ordinal(), state.getDuration(), state.getIntensity());
 	}
 
 	/**
@@ -557,7 +717,19 @@ public class Pokemon implements Serializable {
 	 * @param state the State object to be set as the principal state
 	 */
 	public void addPrincipalState(State state) {
+		this.clearPrincipalState();
 		this.principalState = state;
+		this.states.put(state.getType().ordinal(), state.getDuration(), state.getIntensity());
+	}
+
+	/**
+	 * Removes the principal state, if any, from the active states.
+	 */
+	private void clearPrincipalState() {
+		if (this.principalState != null) {
+			this.states.remove(this.principalState.getType().ordinal());
+			this.principalState = null;
+		}
 	}
 
 	/**
@@ -635,8 +807,13 @@ public class Pokemon implements Serializable {
 		if(this.currentHealth == 0) {
 			this.currentHealth = this.maxHealth/2;
 		}
-		this.weak = false;
-		this.principalState = null;
+		if (this.weak) {
+			this.weak = false;
+			if (this.team != null) {
+				this.team.revived(this.slot);
+			}
+		}
+		this.clearPrincipalState();
 	}
 
 	/**
@@ -669,17 +846,37 @@ public class Pokemon implements Serializable {
 	 * @throws POOBkemonException if default attack cannot be created
 	 */
 	private void spectorPP() throws POOBkemonException {
-		boolean hasPP = false;
+		if(!this.hasPP()) {
+			this.attacks.clear();
+			this.attackDefault();
+		}
+	}
+
+	/**
+	 * Checks if any attack of this Pokemon still has PP.
+	 */
+	private boolean hasPP() {
 		for(Attack attack: this.attacks) {
 			if(attack.getPPActual() > 0) {
-				hasPP = true;
-				break;
+				return true;
 			}
 		}
-		if(!hasPP) {
-			this.attacks.clear();
-			this.attackDefault();
+		return false;
+	}
+
+	/**
+	 * Retrieves the attack this Pokemon uses for an attack action. A Pokemon whose
+	 * attacks are all out of PP swaps them for its default move and uses that one.
+	 * @param id internal ID of the chosen attack
+	 * @return the attack to use, or null if the Pokemon has PP left but no such attack
+	 * @throws POOBkemonException if the default move cannot be created
+	 */
+	Attack attackToUse(int id) throws POOBkemonException {
+		if(this.hasPP()) {
+			return this.getAttack(id);
 		}
+		this.spectorPP();
+		return this.attacks.get(0);
 	}
 
 
@@ -692,8 +889,7 @@ public class Pokemon implements Serializable {
 	public void takeDamage( int damage ) {
 		this.currentHealth -= damage;
 		if(this.currentHealth <= 0) {
-			this.currentHealth = 0;
-			this.weak = true;
+			this.faint();
 		}
 	}
 
@@ -705,7 +901,7 @@ public class Pokemon implements Serializable {
 	 * Determines if Pokemon is shiny (10% chance).
 	 */
 	private void probShiny() {
-		this.shiny = Math.random() < 0.1;
+		this.shiny = rng().nextDouble() < 0.1;
 	}
 
 	/**
@@ -718,20 +914,31 @@ public class Pokemon implements Serializable {
 	}
 
 	/**
-	 * Determines whether a state with the specified name exists in the collection of states.
+	 * Determines whether a state with the specified name is active, as the principal
+	 * state or as a secondary one.
 	 *
 	 * @param stateName the name of the state to check for. It is case-insensitive.
 	 * @return true if a state with the specified name exists, otherwise false.
 	 */
 	public boolean hasState(String stateName) {
-		for (State s : states) {
-			if (s.getName().equalsIgnoreCase(stateName)) {
-				return true;
+		for (State.StateType type : StateSet.TYPES) {
+			if (type.name().equalsIgnoreCase(stateName)) {
+				return this.states.has(type);
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Determines whether a state of the given type is active.
+	 *
+	 * @param type the state type to check for
+	 * @return true if the state is active, otherwise false
+	 */
+	public boolean hasState(State.StateType type) {
+		return this.states.has(type);
+	}
+
 	/**
 	 * Sets the protected status of an object.
 	 *
@@ -752,6 +959,27 @@ public class Pokemon implements Serializable {
 		return type;
 	}
 
+	/**
+	 * @return the secondary type name, or an empty string if the Pokemon has a single type
+	 */
+	public String getType2() {
+		return type2;
+	}
+
+	/**
+	 * @return the primary type as a {@link PokemonType} ordinal
+	 */
+	public int getTypeId() {
+		return typeId;
+	}
+
+	/**
+	 * @return the secondary type as a {@link PokemonType} ordinal, or {@link PokemonType#NONE}
+	 */
+	public int getType2Id() {
+		return type2Id;
+	}
+
 	public void setCanAttack(boolean active){
 		this.canAttack = active;
 	}
@@ -794,7 +1022,7 @@ public class Pokemon implements Serializable {
 				this.specialAttack = (int)(this.specialAttack*multiplicator);
 				break;
 			case "Critico":
-				this.CRITICAL_HIT_CHANCE = this.CRITICAL_HIT_CHANCE*multiplicator;
+				this.criticalChance = (int)Math.min(DamageKernel.ONE, this.criticalChance*multiplicator);
 				break;
 			case "evasion":
 				this.evasionStage = (int)(this.evasionStage*multiplicator);
@@ -826,31 +1054,30 @@ public class Pokemon implements Serializable {
 	public boolean isFree(){
 		return this.free;
 	}
-	private boolean activeState(){
-		return (true);
-	}
-
 	/**
 	 * Applies the current state logic to the object.
 	 *
-	 * This method evaluates and applies effects based on the principal state and
-	 * additionally iterates through all secondary states, applying their respective effects.
-	 * It performs the following operations:
-	 * 1. Checks if a principal state exists and is active. If so, it applies the
-	 *    corresponding effect.
-	 * 2. Clears the principal state if its duration has ended.
-	 * 3. Cleans up states by invoking the `statesDelete` method.
-	 * 4. Applies the effect of each state in the collection of states.
+	 * The principal state takes effect first and then every secondary state, in
+	 * the order of {@link State.StateType}. A state whose turns run out is removed
+	 * from the active states; the principal one also stops being the principal
+	 * state, so the Pokemon can receive a new one. No message is built.
 	 */
 	public void applyState(){
-		if(!(this.principalState == null) && this.activeState()) {
-			this.principalState.applyEffect(this);
-		}else if(this.principalState != null && this.principalState.getDuration() == 0){
-			principalState = null;
+		int principal = this.principalState == null ? -1 : this.principalState.getType().ordinal();
+		if (principal >= 0) {
+			State.apply(this, this.states, principal, null);
+			if (this.states.getTurns(principal) == 0) {
+				this.clearPrincipalState();
+			}
 		}
-		statesDelete();
-		for (State s : states) {
-			s.applyEffect(this);
+		for (int type = this.states.next(0); type >= 0; type = this.states.next(type + 1)) {
+			if (type == principal) {
+				continue;
+			}
+			State.apply(this, this.states, type, null);
+			if (this.states.getTurns(type) == 0) {
+				this.states.remove(type);
+			}
 		}
 	}
 
@@ -862,29 +1089,7 @@ public class Pokemon implements Serializable {
 	 */
 	public void deleteState(State state){
 		if(this.principalState == state){
-			principalState = null;
-		}
-	}
-
-	/**
-	 * Removes states from the list whose duration is zero.
-	 *
-	 * This method iterates through the list of states and deletes any state
-	 * where the duration equals zero. The iteration continues until all
-	 * elements of the list are checked. If a state is removed during
-	 * iteration, the loop does not increment the counter to re-check the
-	 * shifted element at the current index. If no state meets the removal
-	 * criteria, all the states are retained, and the method completes without
-	 * making changes to the list.
-	 */
-	private void statesDelete(){
-		int stateCount = 0;
-		while(stateCount < this.states.size()){
-			if(this.states.get(stateCount).getDuration() == 0){
-				this.states.remove(stateCount);
-			}else{
-				stateCount ++;
-			}
+			this.clearPrincipalState();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package domain;
+
+/**
+ * Enumerates the eighteen elemental types, in the same order as the columns of
+ * MovesStatspok.csv. The ordinal is used as a primitive index into the type
+ * effectiveness tables so the battle code can compare types without strings.
+ */
+public enum PokemonType {
+	NORMAL,
+	FIRE,
+	WATER,
+	ELECTRIC,
+	GRASS,
+	ICE,
+	FIGHTING,
+	POISON,
+	GROUND,
+	FLYING,
+	PSYCHIC,
+	BUG,
+	ROCK,
+	GHOST,
+	DRAGON,
+	DARK,
+	STEEL,
+	FAIRY;
+
+	/** Index used when a Pokemon or attack has no (or an unknown) type. */
+	public static final int NONE = -1;
+
+	private static final PokemonType[] VALUES = values();
+
+	/** Number of types, i.e. the side of the effectiveness matrix. */
+	public static final int COUNT = VALUES.length;
+
+	/**
+	 * Resolves a type name, ignoring case and surrounding spaces.
+	 *
+	 * @param name the type name as written in the CSV files (e.g. "Grass")
+	 * @return the ordinal of the type, or {@link #NONE} if the name is empty or unknown
+	 */
+	public static int indexOf(String name) {
+		if (name == null) return NONE;
+		String trimmed = name.trim();
+		for (PokemonType t : VALUES) {
+			if (t.name().equalsIgnoreCase(trimmed)) {
+				return t.ordinal();
+			}
+		}
+		return NONE;
+	}
+
+	/**
+	 * Returns the type for an ordinal, or null for {@link #NONE}.
+	 */
+	public static PokemonType fromIndex(int index) {
+		return index < 0 || index >= COUNT ? null : VALUES[index];
+	}
+}
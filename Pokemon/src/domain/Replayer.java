@@ -0,0 +1,91 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Plays a {@link BattleReplay} on a new game. {@link #playToEnd()} applies
+ * every action at once, as fast as the rules run; the GUI instead takes the
+ * actions one by one with {@link #next()} and applies them at its own pace.
+ */
+public final class Replayer {
+
+	private final BattleReplay replay;
+	private final List<Action> actions;
+	private final POOBkemon game;
+	private int position = 0;
+
+	/**
+	 * Starts the recorded battle on a new game.
+	 *
+	 * @param replay the battle to play
+	 * @throws POOBkemonException if the battle cannot be started with the current catalog
+	 */
+	public Replayer(BattleReplay replay) throws POOBkemonException {
+		this.replay = replay;
+		this.actions = replay.getActions();
+		this.game = replay.start();
+	}
+
+	public BattleReplay getReplay() {
+		return this.replay;
+	}
+
+	public POOBkemon getGame() {
+		return this.game;
+	}
+
+	/**
+	 * @return the number of actions already taken
+	 */
+	public int getPosition() {
+		return this.position;
+	}
+
+	public boolean hasNext() {
+		return this.position < this.actions.size();
+	}
+
+	/**
+	 * Takes the next recorded action without applying it.
+	 *
+	 * @return the action
+	 * @throws IllegalStateException if there are no more actions
+	 */
+	public Action next() {
+		if (!this.hasNext()) {
+			throw new IllegalStateException("No quedan acciones en la repetición");
+		}
+		return this.actions.get(this.position++);
+	}
+
+	/**
+	 * Applies the next recorded action to the game.
+	 *
+	 * @return the action applied
+	 * @throws POOBkemonException if the game rejects the action, as it did when it was recorded
+	 */
+	public Action step() throws POOBkemonException {
+		Action action = this.next();
+		this.game.apply(action);
+		return action;
+	}
+
+	/**
+	 * Applies the remaining actions. An action rejected with a
+	 * {@link POOBkemonException} is skipped, as the GUI did when it was
+	 * recorded; any other exception stops the replay.
+	 *
+	 * @return the number of actions rejected
+	 */
+	public int playToEnd() {
+		int rejected = 0;
+		while (this.hasNext()) {
+			try {
+				this.step();
+			} catch (POOBkemonException e) {
+				rejected++;
+			}
+		}
+		return rejected;
+	}
+}
@@ -0,0 +1,14 @@
+package domain;
+
+/**
+ * The trainer runs away and loses the battle.
+ *
+ * @param trainerId the trainer that runs
+ */
+public record RunAction(int trainerId) implements Action {
+
+	@Override
+	public String[] toDecision() {
+		return new String[] {"Run", String.valueOf(this.trainerId)};
+	}
+}
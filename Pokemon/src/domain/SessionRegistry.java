@@ -0,0 +1,166 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Keeps the battle sessions that are open in this JVM. Sessions can be opened
+ * and closed from any thread; each one owns its game and ids, so they never
+ * interfere with each other. Sessions opened without a generator get one split
+ * from the registry's root {@link SplittableRandom}; to reproduce a battle, open
+ * it with a generator built from a known seed.
+ * <p>
+ * The GUI does not deal with sessions: {@link POOBkemon#getInstance()} and
+ * {@link Survive#getInstance()} return the game of a default session of each
+ * mode, created on first use and discarded by {@link POOBkemon#resetInstance()}.
+ */
+public final class SessionRegistry {
+
+	static final String DEFAULT_POOBKEMON = "POOBkemon";
+	static final String DEFAULT_SURVIVE = "Survive";
+
+	private static final SessionRegistry INSTANCE = new SessionRegistry();
+
+	private final ConcurrentHashMap<Long, BattleSession> sessions = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, BattleSession> defaults = new ConcurrentHashMap<>();
+	private final AtomicLong ids = new AtomicLong();
+	private final SplittableRandom root = new SplittableRandom();
+
+	private SessionRegistry() {}
+
+	public static SessionRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Opens a session with a new, not yet initialized, battle.
+	 *
+	 * @return the registered session
+	 */
+	public BattleSession open() {
+		return this.register(new POOBkemon());
+	}
+
+	/**
+	 * Opens a session with a new battle that draws from the given generator.
+	 *
+	 * @param random generator for every random draw of the battle; it must not be shared with other battles
+	 * @return the registered session
+	 */
+	public BattleSession open(RandomGenerator random) {
+		return this.register(new POOBkemon(), random);
+	}
+
+	/**
+	 * Opens a session with a new survival battle.
+	 *
+	 * @return the registered session
+	 */
+	public BattleSession openSurvive() {
+		return this.register(new Survive());
+	}
+
+	/**
+	 * Opens a session with a new survival battle that draws from the given generator.
+	 *
+	 * @param random generator for every random draw of the battle; it must not be shared with other battles
+	 * @return the registered session
+	 */
+	public BattleSession openSurvive(RandomGenerator random) {
+		return this.register(new Survive(), random);
+	}
+
+	/**
+	 * Registers a game that was created elsewhere, such as one read from a saved file.
+	 * If the game already had a session it keeps its counters and gets a new id.
+	 *
+	 * @param game the game to register
+	 * @return the registered session
+	 */
+	public BattleSession register(POOBkemon game) {
+		return this.register(game, null);
+	}
+
+	private BattleSession register(POOBkemon game, RandomGenerator random) {
+		long id = this.ids.incrementAndGet();
+		BattleSession session = game.getSession();
+		if (session == null) {
+			session = new BattleSession(id, game, random != null ? random : this.split());
+		} else {
+			session.setId(id);
+		}
+		this.sessions.put(id, session);
+		return session;
+	}
+
+	/**
+	 * Splits a new generator from the root. SplittableRandom is not thread safe,
+	 * so splits are serialized; the battles then use their generators without locks.
+	 */
+	private SplittableRandom split() {
+		synchronized (this.root) {
+			return this.root.split();
+		}
+	}
+
+	/**
+	 * Looks up an open session.
+	 *
+	 * @param id the session id
+	 * @return the session, or null if there is none with that id
+	 */
+	public BattleSession get(long id) {
+		return this.sessions.get(id);
+	}
+
+	/**
+	 * Closes a session. Its game can still be used by whoever holds it, but the
+	 * registry no longer keeps it.
+	 *
+	 * @param id the session id
+	 * @return true if the session was open
+	 */
+	public boolean close(long id) {
+		BattleSession session = this.sessions.remove(id);
+		if (session == null) return false;
+		this.defaults.values().remove(session);
+		return true;
+	}
+
+	/**
+	 * @return the number of open sessions
+	 */
+	public int size() {
+		return this.sessions.size();
+	}
+
+	/**
+	 * @return a snapshot of the open sessions
+	 */
+	public Collection<BattleSession> getSessions() {
+		return new ArrayList<>(this.sessions.values());
+	}
+
+	/**
+	 * Returns the default session of a mode, opening it the first time.
+	 */
+	BattleSession defaultSession(String mode, Supplier<? extends POOBkemon> factory) {
+		return this.defaults.computeIfAbsent(mode, m -> this.register(factory.get()));
+	}
+
+	/**
+	 * Closes the default session of a mode, so the next call to
+	 * {@link #defaultSession(String, Supplier)} starts a new one.
+	 */
+	void closeDefault(String mode) {
+		BattleSession session = this.defaults.remove(mode);
+		if (session != null) {
+			this.sessions.remove(session.getId());
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package domain;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Parsed data of a species from Pokemones.csv: name, types and base stats.
+ * There is one template per Pokedex number, shared by every {@link Pokemon} of
+ * that species. The stats for each level (with EVs at 0) are computed the first
+ * time a level is requested and kept for every possible IV, so creating a
+ * Pokemon only reads a precomputed row.
+ */
+public final class SpeciesTemplate {
+
+	public static final int HP = 0;
+	public static final int ATTACK = 1;
+	public static final int DEFENSE = 2;
+	public static final int SP_ATTACK = 3;
+	public static final int SP_DEFENSE = 4;
+	public static final int SPEED = 5;
+	public static final int STATS = 6;
+
+	/** Number of possible IVs (0 to 31). */
+	public static final int IVS = 32;
+	public static final int MAX_LEVEL = 100;
+
+	private final String idPokedex;
+	private final String name;
+	private final String type;
+	private final String type2;
+	private final int typeId;
+	private final int type2Id;
+	private final int[] baseStats = new int[STATS];
+	private final AtomicReferenceArray<int[]> statsByLevel = new AtomicReferenceArray<>(MAX_LEVEL + 1);
+
+	/**
+	 * Parses a species from its CSV row.
+	 *
+	 * @param info ID, Name, Type1, Type2, Total, HP, Attack, Defense, Sp. Atk, Sp. Def, Speed
+	 * @throws NumberFormatException if a base stat is not a number
+	 * @throws ArrayIndexOutOfBoundsException if the row has fewer than 11 columns
+	 */
+	public SpeciesTemplate(String[] info) {
+		this(info[0], info[1], info[2], info[3], parseBaseStats(info));
+	}
+
+	/**
+	 * Builds a species from columns that are already decoded, such as the
+	 * fixed-width numbers of a {@link persistence.DataPack}.
+	 *
+	 * @param baseStats HP, Attack, Defense, Sp. Atk, Sp. Def and Speed
+	 */
+	public SpeciesTemplate(String idPokedex, String name, String type, String type2, int[] baseStats) {
+		this.idPokedex = idPokedex;
+		this.name = name;
+		this.type = type;
+		this.type2 = type2;
+		this.typeId = PokemonType.indexOf(this.type);
+		this.type2Id = PokemonType.indexOf(this.type2);
+		System.arraycopy(baseStats, 0, this.baseStats, 0, STATS);
+	}
+
+	private static int[] parseBaseStats(String[] info) {
+		int[] stats = new int[STATS];
+		for (int stat = 0; stat < STATS; stat++) {
+			stats[stat] = Integer.parseInt(info[5 + stat]);
+		}
+		return stats;
+	}
+
+	public String getIdPokedex() {
+		return this.idPokedex;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public String getType() {
+		return this.type;
+	}
+
+	public String getType2() {
+		return this.type2;
+	}
+
+	public int getTypeId() {
+		return this.typeId;
+	}
+
+	public int getType2Id() {
+		return this.type2Id;
+	}
+
+	/**
+	 * @param stat one of {@link #HP}, {@link #ATTACK}, {@link #DEFENSE}, {@link #SP_ATTACK},
+	 *             {@link #SP_DEFENSE} or {@link #SPEED}
+	 */
+	public int getBaseStat(int stat) {
+		return this.baseStats[stat];
+	}
+
+	/**
+	 * Returns a stat at the given level and IV with EVs at 0, using the precomputed
+	 * table for levels 1 to {@link #MAX_LEVEL}.
+	 *
+	 * @param stat the stat index, {@link #HP} to {@link #SPEED}
+	 * @param level the Pokemon level
+	 * @param iv the individual value, 0 to 31
+	 * @return the calculated stat
+	 */
+	public int getStat(int stat, int level, int iv) {
+		if (level < 1 || level > MAX_LEVEL || iv < 0 || iv >= IVS) {
+			return calculateStat(stat, this.baseStats[stat], level, iv, 0);
+		}
+		return statsAt(level)[stat * IVS + iv];
+	}
+
+	private int[] statsAt(int level) {
+		int[] row = this.statsByLevel.get(level);
+		if (row == null) {
+			row = new int[STATS * IVS];
+			for (int stat = 0; stat < STATS; stat++) {
+				for (int iv = 0; iv < IVS; iv++) {
+					row[stat * IVS + iv] = calculateStat(stat, this.baseStats[stat], level, iv, 0);
+				}
+			}
+			this.statsByLevel.compareAndSet(level, null, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Applies the stat formula: HP adds the level plus 10, the other stats add 5.
+	 *
+	 * @param stat the stat index, {@link #HP} to {@link #SPEED}
+	 * @param baseStat the base value of the species
+	 * @param level the Pokemon level
+	 * @param iv the individual value
+	 * @param ev the effort value
+	 * @return the calculated stat
+	 */
+	public static int calculateStat(int stat, int baseStat, int level, int iv, int ev) {
+		int scaled = (2 * baseStat + iv + (ev / 4)) * level / 100;
+		return stat == HP ? scaled + level + 10 : scaled + 5;
+	}
+}
@@ -1,6 +1,7 @@
 package domain;
 
 import java.io.Serializable;
+import java.util.EnumMap;
 
 /**
  * Representa un estado alterado aplicado a un Pokémon (como envenenado, paralizado, dormido, etc.).
@@ -138,6 +139,29 @@ public class State implements Serializable {
         }
     }
 
+    /**
+     * Crea un estado nuevo con los mismos valores que un prototipo ya parseado.
+     * @param prototype Estado del que se copian tipo, duración, banderas, descripción e intensidad
+     */
+    private State(State prototype) {
+        this.type = prototype.type;
+        this.duration = prototype.duration;
+        this.isPermanent = prototype.isPermanent;
+        this.isVolatile = prototype.isVolatile;
+        this.damage = prototype.damage;
+        this.description = prototype.description;
+        this.intensity = prototype.intensity;
+    }
+
+    /**
+     * Copia este estado sin volver a parsear su información, para aplicarlo a un Pokémon
+     * a partir de un prototipo compartido del catálogo.
+     * @return Un estado independiente con los mismos valores
+     */
+    public State copy() {
+        return new State(this);
+    }
+
     public String getName(){
         return this.type.name();
     }
@@ -173,6 +197,10 @@ public class State implements Serializable {
         return duration;
     }
 
+    public int getIntensity() {
+        return intensity;
+    }
+
     /**
      * Verifica si el estado es principal (no volátil)
      */
@@ -180,6 +208,66 @@ public class State implements Serializable {
         return !isVolatile;
     }
 
+    /**
+     * Efecto de un tipo de estado sobre el Pokémon que lo tiene. Lee y actualiza los
+     * turnos y la intensidad del estado en el {@link StateSet} del Pokémon; solo
+     * escribe el mensaje si se le pasa dónde.
+     */
+    @FunctionalInterface
+    interface Effect {
+        void apply(Pokemon pokemon, StateSet states, int type, StringBuilder message);
+    }
+
+    private static final EnumMap<StateType, Effect> EFFECTS = new EnumMap<>(StateType.class);
+
+    static {
+        EFFECTS.put(StateType.BURN, State::applyBurnEffect);
+        EFFECTS.put(StateType.POISON, State::applyPoisonEffect);
+        EFFECTS.put(StateType.PARALYSIS, State::applyParalysisEffect);
+        EFFECTS.put(StateType.BAD_POISON, State::applyBadPoisonEffect);
+        EFFECTS.put(StateType.SLEEP, State::applySleepEffect);
+        EFFECTS.put(StateType.FREEZE, State::applyFreezeEffect);
+        EFFECTS.put(StateType.HEAL, State::applyHealEffect);
+        EFFECTS.put(StateType.ATTACK_UP, (pokemon, states, type, message) -> pokemon.modifyStat("attack", 1.2));
+        EFFECTS.put(StateType.DEFENSE_UP, (pokemon, states, type, message) -> pokemon.modifyStat("defense", 1.2));
+        EFFECTS.put(StateType.SPEED_UP, (pokemon, states, type, message) -> pokemon.modifyStat("speed", 1.2));
+        EFFECTS.put(StateType.SP_ATTACK_UP, (pokemon, states, type, message) -> pokemon.modifyStat("SP_attack", 1.2));
+        EFFECTS.put(StateType.SP_DEFENSE_UP, (pokemon, states, type, message) -> pokemon.modifyStat("SP_defense", 1.2));
+        EFFECTS.put(StateType.EVASION_UP, (pokemon, states, type, message) -> pokemon.modifyStat("evasion", 1.2));
+        EFFECTS.put(StateType.ACCURACY_UP, State::applyStatUpEffect);
+        EFFECTS.put(StateType.ATTACK_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("attack", 0.8));
+        EFFECTS.put(StateType.DEFENSE_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("defense", 0.8));
+        EFFECTS.put(StateType.SPEED_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("speed", 0.8));
+        EFFECTS.put(StateType.SP_ATTACK_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("SP_attack", 0.8));
+        EFFECTS.put(StateType.SP_DEFENSE_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("SP_defense", 0.8));
+        EFFECTS.put(StateType.EVASION_DOWN, (pokemon, states, type, message) -> pokemon.modifyStat("evasion", 0.8));
+        EFFECTS.put(StateType.ACCURACY_DOWN, State::applyStatDownEffect);
+        EFFECTS.put(StateType.CONFUSION, State::applyConfusionEffect);
+        EFFECTS.put(StateType.FLINCH, State::applyFlinchEffect);
+        EFFECTS.put(StateType.LEECH_SEED, State::applyLeechSeedEffect);
+        EFFECTS.put(StateType.CURSE, State::applyCurseEffect);
+        EFFECTS.put(StateType.NIGHTMARE, State::applyNightmareEffect);
+        EFFECTS.put(StateType.PROTECT, State::applyProtectEffect);
+        EFFECTS.put(StateType.PERISH_SONG, State::applyPerishSongEffect);
+        EFFECTS.put(StateType.DESTINY_BOND, State::applyDestinyBondEffect);
+        EFFECTS.put(StateType.SPIKES, State::applySpikesEffect);
+        EFFECTS.put(StateType.SANDSTORM, State::applySandstormEffect);
+        EFFECTS.put(StateType.TAUNT, State::applyTauntEffect);
+        EFFECTS.put(StateType.TORMENT, State::applyTormentEffect);
+        EFFECTS.put(StateType.TRANSFORM, State::applyTransformEffect);
+        EFFECTS.put(StateType.SUBSTITUTE, State::applySubstituteEffect);
+        EFFECTS.put(StateType.INGRAIN, State::applyIngrainEffect);
+        EFFECTS.put(StateType.DISABLE, State::applyDisableEffect);
+        EFFECTS.put(StateType.RECHARGE, State::applyRechargeEffect);
+        EFFECTS.put(StateType.RAGE, State::applyRageEffect);
+        EFFECTS.put(StateType.TRAPPED, State::applyTrappedEffect);
+        EFFECTS.put(StateType.TYPE_CHANGE, State::applyTypeChangeEffect);
+        EFFECTS.put(StateType.MAGIC_COAT, State::applyMagicCoatEffect);
+        EFFECTS.put(StateType.SNATCH, State::applySnatchEffect);
+        EFFECTS.put(StateType.GRUDGE, State::applyGrudgeEffect);
+        EFFECTS.put(StateType.IMPRISON, State::applyImprisonEffect);
+    }
+
     /**
      * Aplica el efecto del estado al Pokémon
      * @param pokemon Pokémon afectado
@@ -189,174 +277,57 @@ public class State implements Serializable {
         if (pokemon == null || !isActive() || pokemon.getWeak()) {
             return "";
         }
-
+        int ordinal = this.type.ordinal();
+        StateSet own = new StateSet();
+        own.put(ordinal, this.duration, this.intensity);
         StringBuilder effectMessage = new StringBuilder();
+        boolean healed = apply(pokemon, own, ordinal, effectMessage);
+        this.duration = own.getTurns(ordinal);
+        this.intensity = own.getIntensity(ordinal);
+        if (healed) {
+            pokemon.deleteState(this);
+        }
+        return effectMessage.toString();
+    }
 
-        switch (this.type) {
-            case BURN:
-                applyBurnEffect(pokemon, effectMessage);
-                break;
-            case POISON:
-                applyPoisonEffect(pokemon, effectMessage);
-                break;
-            case PARALYSIS:
-                applyParalysisEffect(pokemon, effectMessage);
-                break;
-            case BAD_POISON:
-                applyBadPoisonEffect(pokemon, effectMessage);
-                break;
-            case SLEEP:
-                applySleepEffect(pokemon, effectMessage);
-                break;
-            case FREEZE:
-                applyFreezeEffect(pokemon, effectMessage);
-                break;
-            case HEAL:
-                if(!pokemon.getWeak()){
-                    applyHealEffect(pokemon, effectMessage);
-                }
-                break;
-            case ATTACK_UP:
-                pokemon.modifyStat("attack",1.2);
-                break;
-            case DEFENSE_UP:
-                pokemon.modifyStat("defense",1.2);
-                break;
-            case SPEED_UP:
-                pokemon.modifyStat("speed",1.2);
-                break;
-            case SP_ATTACK_UP:
-                pokemon.modifyStat("SP_attack",1.2);
-                break;
-            case SP_DEFENSE_UP:
-                pokemon.modifyStat("SP_defense",1.2);
-                break;
-            case EVASION_UP:
-                pokemon.modifyStat("evasion",1.2);
-                break;
-            case ACCURACY_UP:
-                applyStatUpEffect(pokemon, effectMessage);
-                break;
-            case ATTACK_DOWN:
-                pokemon.modifyStat("attack",0.8);
-                break;
-            case DEFENSE_DOWN:
-                pokemon.modifyStat("defense",0.8);
-                break;
-            case SPEED_DOWN:
-                pokemon.modifyStat("speed",0.8);
-                break;
-            case SP_ATTACK_DOWN:
-                pokemon.modifyStat("SP_attack",0.8);
-                break;
-            case SP_DEFENSE_DOWN:
-                pokemon.modifyStat("SP_defense",0.8);
-                break;
-            case EVASION_DOWN:
-                pokemon.modifyStat("evasion",0.8);
-                break;
-            case ACCURACY_DOWN:
-                applyStatDownEffect(pokemon, effectMessage);
-                break;
-            case CONFUSION:
-                applyConfusionEffect(pokemon, effectMessage);
-                break;
-            case FLINCH:
-                //applyStatDownEffect(pokemon, effectMessage);
-                applyFlinchEffect(pokemon,effectMessage);
-                break;
-            case LEECH_SEED:
-                applyLeechSeedEffect(pokemon, effectMessage);
-                break;
-            case CURSE:
-                applyCurseEffect(pokemon, effectMessage);
-                break;
-            case NIGHTMARE:
-                applyNightmareEffect(pokemon, effectMessage);
-                break;
-            case PROTECT:
-                applyProtectEffect(pokemon, effectMessage);
-                break;
-            case PERISH_SONG:
-                applyPerishSongEffect(pokemon, effectMessage);
-                break;
-            case DESTINY_BOND:
-                applyDestinyBondEffect(pokemon, effectMessage);
-                break;
-            case SPIKES:
-                applySpikesEffect(pokemon, effectMessage);
-                break;
-            case SANDSTORM:
-                applySandstormEffect(pokemon, effectMessage);
-                break;
-            case TAUNT:
-                applyTauntEffect(pokemon, effectMessage);
-                break;
-            case TORMENT:
-                applyTormentEffect(pokemon, effectMessage);
-                break;
-            case TRANSFORM:
-                applyTransformEffect(pokemon, effectMessage);
-                break;
-            case SUBSTITUTE:
-                applySubstituteEffect(pokemon, effectMessage);
-                break;
-            case INGRAIN:
-                applyIngrainEffect(pokemon, effectMessage);
-                break;
-            case DISABLE:
-                applyDisableEffect(pokemon, effectMessage);
-                break;
-            case RECHARGE:
-                applyRechargeEffect(pokemon, effectMessage);
-                break;
-            case RAGE:
-                applyRageEffect(pokemon, effectMessage);
-                break;
-            case TRAPPED:
-                applyTrappedEffect(pokemon, effectMessage);
-                break;
-            case TYPE_CHANGE:
-                applyTypeChangeEffect(pokemon, effectMessage);
-                break;
-            case MAGIC_COAT:
-                applyMagicCoatEffect(pokemon, effectMessage);
-                break;
-            case SNATCH:
-                applySnatchEffect(pokemon, effectMessage);
-                break;
-            case GRUDGE:
-                applyGrudgeEffect(pokemon, effectMessage);
-                break;
-            case IMPRISON:
-                applyImprisonEffect(pokemon, effectMessage);
-                break;
-            default:
-                break;
+    /**
+     * Aplica un turno de un estado guardado en un {@link StateSet}: ejecuta su efecto y
+     * descuenta un turno si tiene duración limitada.
+     * @param pokemon Pokémon afectado
+     * @param states Estados del Pokémon
+     * @param type Ordinal del tipo de estado
+     * @param message Donde se escribe el mensaje del efecto, o null para no construirlo
+     * @return true si el estado se acabó en este turno
+     */
+    static boolean apply(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        if (states.getTurns(type) == 0 || pokemon.getWeak()) {
+            return false;
+        }
+        Effect effect = EFFECTS.get(StateSet.TYPES[type]);
+        if (effect != null) {
+            effect.apply(pokemon, states, type, message);
         }
-        if(isHeal(this,pokemon)){
-            effectMessage.append(pokemon.getName()).append(" se ha curado de ").append(type.name().toLowerCase());
+        boolean healed = isHeal(states, type);
+        if (healed && message != null) {
+            message.append(pokemon.getName()).append(" se ha curado de ").append(StateSet.TYPES[type].name().toLowerCase());
         }
         pokemon.isWeak();
-        return effectMessage.toString();
+        return healed;
     }
 
     /**
-     * Checks if the current state should heal or terminate its effect on the given Pokémon.
-     * If the duration of the state reaches zero, the state will be removed from the Pokémon,
-     * and the method returns true. Otherwise, it returns false.
+     * Checks if the state should heal or terminate its effect. A state with a limited
+     * duration loses one turn; when it reaches zero the state is over.
      *
-     * @param state The current state object being evaluated.
-     * @param pokemon The Pokémon affected by the state.
+     * @param states The states of the affected Pokémon.
+     * @param type The ordinal of the state being evaluated.
      * @return true if the state has healed or finished its effect, false otherwise.
      */
-    private boolean isHeal(State state, Pokemon pokemon){
-        if (state.duration > 0) {
-            duration--;
-            if (duration == 0) {
-                pokemon.deleteState(this);
-                return true;
-            }
+    private static boolean isHeal(StateSet states, int type){
+        int turns = states.getTurns(type);
+        if (turns > 0) {
+            states.setTurns(type, --turns);
+            return turns == 0;
         }
         return false;
     }
@@ -369,12 +340,14 @@ public class State implements Serializable {
      * @param pokemon The Pokémon to which the burn effect is applied.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyBurnEffect(Pokemon pokemon, StringBuilder message) {
-        damage = pokemon.maxHealth / 8;
+    private static void applyBurnEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        int damage = pokemon.maxHealth / 8;
         if (damage == 0) {damage = 1;}
         pokemon.takeDamage(damage);
         pokemon.modifyStat("attack",0.5); // Reduce ataque físico en 50%
-        message.append(pokemon.getName()).append(" sufre ").append(damage).append(" de daño por quemadura!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" sufre ").append(damage).append(" de daño por quemadura!");
+        }
     }
 
     /**
@@ -385,11 +358,13 @@ public class State implements Serializable {
      * @param pokemon The Pokémon affected by the poison effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyPoisonEffect(Pokemon pokemon, StringBuilder message) {
-        this.damage = pokemon.maxHealth / 8;
+    private static void applyPoisonEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        int damage = pokemon.maxHealth / 8;
         if(damage <= 0){ damage = 1;}
         pokemon.takeDamage(damage);
-        message.append(pokemon.getName()).append(" sufre ").append(damage).append(" de daño por veneno!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" sufre ").append(damage).append(" de daño por veneno!");
+        }
     }
 
     /**
@@ -401,27 +376,34 @@ public class State implements Serializable {
      * @param pokemon The Pokémon affected by the bad poison effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyBadPoisonEffect(Pokemon pokemon, StringBuilder message) {
-        damage = (pokemon.maxHealth / 25);
+    private static void applyBadPoisonEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        int damage = (pokemon.maxHealth / 25);
         if(damage <= 0){ damage = 1;}
+        int intensity = states.getIntensity(type);
         damage *= intensity;
         pokemon.takeDamage(damage);
         pokemon.isWeak();
-        intensity++;
-        message.append(pokemon.getName()).append(" sufre ").append(damage)
-                .append(" de daño \npor envenenamiento grave (").append(intensity).append("x)!");
+        states.setIntensity(type, ++intensity);
+        if (message != null) {
+            message.append(pokemon.getName()).append(" sufre ").append(damage)
+                    .append(" de daño \npor envenenamiento grave (").append(intensity).append("x)!");
+        }
     }
 
     /**
      *
      */
-    private void applyParalysisEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyParalysisEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.reduceSpeed(50); // Reduce velocidad en 50%
-        if (Math.random() < 0.25) {
+        if (pokemon.rng().nextDouble() < 0.25) {
             pokemon.setCanAttack(false);
-            message.append(pokemon.getName()).append(" está paralizado y no puede moverse!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" está paralizado y no puede moverse!");
+            }
         } else {
-            message.append(pokemon.getName()).append(" está paralizado!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" está paralizado!");
+            }
         }
     }
 
@@ -433,15 +415,19 @@ public class State implements Serializable {
      * @param pokemon The Pokémon affected by the sleep effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applySleepEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applySleepEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setCanAttack(false);
-        message.append(pokemon.getName()).append(" está dormido.");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" está dormido.");
+        }
 
         // 20% de probabilidad de despertarse cada turno
-        if (Math.random() < 0.2) {
-            duration = 0;
+        if (pokemon.rng().nextDouble() < 0.2) {
+            states.setTurns(type, 0);
             pokemon.setCanAttack(true);
-            message.append(" ").append(pokemon.getName()).append(" se despertó!");
+            if (message != null) {
+                message.append(" ").append(pokemon.getName()).append(" se despertó!");
+            }
         }
     }
 
@@ -453,9 +439,11 @@ public class State implements Serializable {
      * @param pokemon The Pokémon affected by the flinch effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyFlinchEffect(Pokemon pokemon, StringBuilder message){
+    private static void applyFlinchEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message){
         pokemon.setCanAttack(false);
-        message.append(pokemon.getName()).append(" no ataca este turno.");      
+        if (message != null) {
+            message.append(pokemon.getName()).append(" no ataca este turno.");      
+        }
     }
 
     /**
@@ -466,14 +454,18 @@ public class State implements Serializable {
      * @param pokemon The Pokémon affected by the freeze effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyFreezeEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyFreezeEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setCanAttack(false);
-        message.append(pokemon.getName()).append(" está congelado!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" está congelado!");
+        }
 
-        if (Math.random() < 0.2) {
-            duration = 0;
+        if (pokemon.rng().nextDouble() < 0.2) {
+            states.setTurns(type, 0);
             pokemon.setCanAttack(true);
-            message.append(" ").append(pokemon.getName()).append(" se descongeló!");
+            if (message != null) {
+                message.append(" ").append(pokemon.getName()).append(" se descongeló!");
+            }
         }
     }
 
@@ -485,11 +477,13 @@ public class State implements Serializable {
      * @param pokemon The Pokémon that will receive the healing effect.
      * @param message A StringBuilder to store the descriptive message of the healing effect.
      */
-    private void applyHealEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyHealEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         int healAmount = (int) (pokemon.maxHealth * 0.05);
         if(healAmount == 0) { healAmount = 1; }
         pokemon.heals(healAmount);
-        message.append(pokemon.getName()).append(" recuperó ").append(healAmount).append(" PS!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" recuperó ").append(healAmount).append(" PS!");
+        }
     }
 
     /**
@@ -500,23 +494,29 @@ public class State implements Serializable {
      * @param pokemon The Pokémon that will receive the stat increase effect.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyStatUpEffect(Pokemon pokemon, StringBuilder message) {
-        String stat = type.name().split("_")[0].toLowerCase();
+    private static void applyStatUpEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        String stat = "accuracy";
         pokemon.modifyStat(stat, 1.2);
-        message.append(pokemon.getName()).append(" aumentó su ").append(stat).append("!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" aumentó su ").append(stat).append("!");
+        }
     }
 
     /**
      * Applies the confusion effect to the specified Pokémon. The effect may cause the Pokémon
      * to harm itself with a 33% probability or simply remain confused. A descriptive message
      * indicating the result of the confusion effect*/
-    private void applyConfusionEffect(Pokemon pokemon, StringBuilder message) {
-        if (Math.random() < 0.33) { // 33% de golpearse a sí mismo
-            damage = pokemon.getAttacks().get(0).getPower() / 2;
+    private static void applyConfusionEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        if (pokemon.rng().nextDouble() < 0.33) { // 33% de golpearse a sí mismo
+            int damage = pokemon.getAttacks().get(0).getPower() / 2;
             pokemon.takeDamage(damage);
-            message.append(pokemon.getName()).append(" está confundido y se hirió a sí mismo!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" está confundido y se hirió a sí mismo!");
+            }
         } else {
-            message.append(pokemon.getName()).append(" está confundido!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" está confundido!");
+            }
         }
     }
 
@@ -544,20 +544,24 @@ public class State implements Serializable {
      * @param pokemon The Pokémon that will be affected by the stat reduction.
      * @param message A StringBuilder to store the descriptive message of the effect.
      */
-    private void applyStatDownEffect(Pokemon pokemon, StringBuilder message) {
-        String stat = type.name().split("_")[0].toLowerCase();
+    private static void applyStatDownEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        String stat = "accuracy";
         int stages = -1;
         pokemon.modifyStat(stat, stages);
-        message.append(pokemon.getName()).append(" redujo su ").append(stat).append("!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" redujo su ").append(stat).append("!");
+        }
     }
 
     /**
      * Applies the Leech Seed effect to the*/
-    private void applyLeechSeedEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyLeechSeedEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         int damage = pokemon.maxHealth / 8;
         pokemon.takeDamage(damage);
         // El usuario debería recuperar esta vida (necesitas referencia al Pokémon atacante)
-        message.append(pokemon.getName()).append(" perdió ").append(damage).append(" PS por drenadoras!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" perdió ").append(damage).append(" PS por drenadoras!");
+        }
     }
 
     /**
@@ -569,18 +573,22 @@ public class State implements Serializable {
      * @param pokemon The Pokémon to which the Curse effect is applied.
      * @param message A StringBuilder to append a descriptive message of the applied effect.
      */
-    private void applyCurseEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyCurseEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         if (pokemon.getType().equals("GHOST")) {
             // Efecto para Pokémon fantasma
             int damage = pokemon.maxHealth / 2;
             pokemon.takeDamage(damage);
-            message.append(pokemon.getName()).append(" usó maldición a costa de su vida!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" usó maldición a costa de su vida!");
+            }
         } else {
             // Efecto para otros tipos
             pokemon.modifyStat("attack", 1);
             pokemon.modifyStat("defense", 1);
             pokemon.modifyStat("speed", -1);
-            message.append(pokemon.getName()).append(" maldijo al enemigo!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" maldijo al enemigo!");
+            }
         }
     }
 
@@ -596,11 +604,13 @@ public class State implements Serializable {
      *                effect, indicating the impact of the nightmare on the
      *                Pokémon.
      */
-    private void applyNightmareEffect(Pokemon pokemon, StringBuilder message) {
-        if (pokemon.hasState(String.valueOf(StateType.SLEEP))) {
+    private static void applyNightmareEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        if (pokemon.hasState(StateType.SLEEP)) {
             int damage = pokemon.maxHealth/ 4;
             pokemon.takeDamage(damage);
-            message.append(pokemon.getName()).append(" sufre una pesadilla!");
+            if (message != null) {
+                message.append(pokemon.getName()).append(" sufre una pesadilla!");
+            }
         }
     }
 
@@ -611,9 +621,11 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to apply the protect effect to
      * @param message the StringBuilder to which the message will be appended
      */
-    private void applyProtectEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyProtectEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setProtected(true);
-        message.append(pokemon.getName()).append(" se protegió!");
+        if (message != null) {
+            message.append(pokemon.getName()).append(" se protegió!");
+        }
     }
 
     /**
@@ -621,13 +633,17 @@ public class State implements Serializable {
      * @param pokemon
      * @param message
      */
-    private void applyPerishSongEffect(Pokemon pokemon, StringBuilder message) {
-        if (duration == 3) { // Solo mostrar el mensaje el primer turno
-            message.append("¡Un canto mortal afecta a ").append(pokemon.getName()).append("!");
+    private static void applyPerishSongEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        if (states.getTurns(type) == 3) { // Solo mostrar el mensaje el primer turno
+            if (message != null) {
+                message.append("¡Un canto mortal afecta a ").append(pokemon.getName()).append("!");
+            }
         }
-        if (duration == 0) {
+        if (states.getTurns(type) == 0) {
             pokemon.takeDamage(pokemon.currentHealth);
-            message.append("¡").append(pokemon.getName()).append(" sucumbió al canto mortal!");
+            if (message != null) {
+                message.append("¡").append(pokemon.getName()).append(" sucumbió al canto mortal!");
+            }
         }
     }
 
@@ -638,15 +654,19 @@ public class State implements Serializable {
      *
      * @param pokemon the Pokémon being targeted to apply the Destiny Bond effect
      * @param message a StringBuilder to append messages indicating the*/
-    private void applyDestinyBondEffect(Pokemon pokemon, StringBuilder message) {
-        if (duration == 0) {
-            message.append("¡").append(pokemon.getName()).append(" vinculó su destino!");
+    private static void applyDestinyBondEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
+        if (states.getTurns(type) == 0) {
+            if (message != null) {
+                message.append("¡").append(pokemon.getName()).append(" vinculó su destino!");
+            }
         }
     }
 
-    private void applySpikesEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applySpikesEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         // Este efecto se maneja a nivel de campo de batalla
-        message.append("¡Púas esparcidas en el campo rival!");
+        if (message != null) {
+            message.append("¡Púas esparcidas en el campo rival!");
+        }
     }
 
     /**
@@ -657,13 +677,15 @@ public class State implements Serializable {
      * @param pokemon the Pokemon to which the sandstorm effect is applied
      * @param message a StringBuilder to append the damage message if applicable
      */
-    private void applySandstormEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applySandstormEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         if (!pokemon.getType().equals("ROCK") &&
                 !pokemon.getType().equals("GROUND") &&
                 !pokemon.getType().equals("STEEL")) {
             int damage = pokemon.maxHealth / 16;
             pokemon.takeDamage(damage);
-            message.append("¡La tormenta de arena daña a ").append(pokemon.getName()).append("!");
+            if (message != null) {
+                message.append("¡La tormenta de arena daña a ").append(pokemon.getName()).append("!");
+            }
         }
     }
 
@@ -674,12 +696,14 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to which the taunt effect is applied
      * @param message the message builder to append the taunt effect message
      */
-    private void applyTauntEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyTauntEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("speed",1.3);
         pokemon.modifyStat("defense",0.4);
         pokemon.modifyStat("SP_defense",0.5);
         pokemon.modifyStat("SP_attack", 1.3);
-        message.append("¡").append(pokemon.getName()).append(" fue provocado!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" fue provocado!");
+        }
     }
 
     /**
@@ -688,11 +712,13 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to which the torment effect will be applied
      * @param message the StringBuilder used to append the message indicating the effect application
      */
-    private void applyTormentEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyTormentEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("speed",1.3);
         pokemon.modifyStat("defense",0.6);
         pokemon.modifyStat("SP_attack", 1.3);
-        message.append("¡").append(pokemon.getName()).append(" fue atormentado!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" fue atormentado!");
+        }
     }
 
     /**
@@ -702,10 +728,12 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to which the transform effect will be applied
      * @param message the StringBuilder used to append the transformation message
      */
-    private void applyTransformEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyTransformEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         int hpCost = pokemon.maxHealth / 5;
         pokemon.setNewPS(hpCost);
-        message.append("¡").append(pokemon.getName()).append(" se transformó!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" se transformó!");
+        }
     }
 
     /**
@@ -716,23 +744,29 @@ public class State implements Serializable {
      * @param pokemon The Pokémon instance to which the Substitute effect will be applied.
      * @param message The StringBuilder to append status messages indicating the result of the operation.
      */
-    private void applySubstituteEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applySubstituteEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         int hpCost = pokemon.maxHealth / 4;
         if (pokemon.currentHealth > hpCost) {
             pokemon.takeDamage(hpCost);
             pokemon.setNewPS(hpCost);
-            message.append("¡").append(pokemon.getName()).append(" se modificó!");
+            if (message != null) {
+                message.append("¡").append(pokemon.getName()).append(" se modificó!");
+            }
         } else {
-            message.append("¡No tiene suficiente PS para alterarse!");
+            if (message != null) {
+                message.append("¡No tiene suficiente PS para alterarse!");
+            }
         }
     }
 
     /**
      * Applies the Ingrain*/
-    private void applyIngrainEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyIngrainEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         int heal = pokemon.maxHealth / 16;
         pokemon.heals(heal);
-        message.append("¡").append(pokemon.getName()).append(" se arraigó y recuperó PS!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" se arraigó y recuperó PS!");
+        }
     }
 
     /**
@@ -741,9 +775,11 @@ public class State implements Serializable {
      * @param pokemon the Pokémon on which the disable effect is applied
      * @param message the message that describes the action performed
      */
-    private void applyDisableEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyDisableEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.disableLastMove();
-        message.append("¡Un movimiento de ").append(pokemon.getName()).append(" fue anulado!");
+        if (message != null) {
+            message.append("¡Un movimiento de ").append(pokemon.getName()).append(" fue anulado!");
+        }
     }
 
     /**
@@ -753,24 +789,30 @@ public class State implements Serializable {
      * @param pokemon the Pokemon to which the recharge effect is applied
      * @param message the StringBuilder used to append the recharge message
      */
-    private void applyRechargeEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyRechargeEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("speed",0.3);
-        message.append("¡").append(pokemon.getName()).append(" debe recargar energía!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" debe recargar energía!");
+        }
     }
 
     /**
      * Applies the rage effect to a specific Pokémon, increasing its*/
-    private void applyRageEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyRageEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("attack",1.3);
-        message.append("¡").append(pokemon.getName()).append(" entra en cólera!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" entra en cólera!");
+        }
     }
 
     /**
      * Applies a trapped effect to the specified Pokemon, preventing it from escaping
      * and updates the provided*/
-    private void applyTrappedEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyTrappedEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setTrapped(true);
-        message.append("¡").append(pokemon.getName()).append(" no puede escapar!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" no puede escapar!");
+        }
     }
 
     /**
@@ -780,10 +822,12 @@ public class State implements Serializable {
      * @param pokemon the Pokemon whose type is to be changed
      * @param message the StringBuilder object to append the change message
      */
-    private void applyTypeChangeEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyTypeChangeEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         // Necesitas especificar el nuevo tipo
         // pokemon.setType(newType);
-        message.append("¡El tipo de ").append(pokemon.getName()).append(" cambió!");
+        if (message != null) {
+            message.append("¡El tipo de ").append(pokemon.getName()).append(" cambió!");
+        }
     }
 
     /**
@@ -793,9 +837,11 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to which the Magic Coat effect is applied
      * @param message the StringBuilder to append the activation message to
      */
-    private void applyMagicCoatEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyMagicCoatEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setProtected(true);
-        message.append("¡").append(pokemon.getName()).append(" activó manto mágico!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" activó manto mágico!");
+        }
     }
 
     /**
@@ -805,17 +851,21 @@ public class State implements Serializable {
      * @param pokemon the Pokémon to which the Snatch effect will be applied
      * @param message the message builder to append the effect notification to
      */
-    private void applySnatchEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applySnatchEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("speed", 1.6);
         pokemon.modifyStat("attack", 1.6);
-        message.append("¡").append(pokemon.getName()).append(" prepara un arrebato!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" prepara un arrebato!");
+        }
     }
 
     /**
      * Applies the grudge effect to the specified Pokemon, reducing its attack stat*/
-    private void applyGrudgeEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyGrudgeEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.modifyStat("attack", 0.8);
-        message.append("¡").append(pokemon.getName()).append(" guarda rencor!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" guarda rencor!");
+        }
     }
 
     /**
@@ -825,9 +875,11 @@ public class State implements Serializable {
      * @param pokemon the Pokemon to which the imprison effect is applied
      * @param message the StringBuilder to append the protection message
      */
-    private void applyImprisonEffect(Pokemon pokemon, StringBuilder message) {
+    private static void applyImprisonEffect(Pokemon pokemon, StateSet states, int type, StringBuilder message) {
         pokemon.setProtected(true);
-        message.append("¡").append(pokemon.getName()).append(" se Protege!");
+        if (message != null) {
+            message.append("¡").append(pokemon.getName()).append(" se Protege!");
+        }
     }
 
     /**
@@ -839,33 +891,29 @@ public class State implements Serializable {
             return false;
         }
 
-        String stateType = String.valueOf(this.getType());
-        String pokemonType = target.type.trim().toUpperCase();
+        String pokemonType = target.type.trim();
 
-        switch (stateType) {
-            case "PARALYSIS":
+        switch (this.type) {
+            case PARALYSIS:
                 // Pokémon Eléctricos son inmunes a parálisis
                 return pokemonType.equalsIgnoreCase("ELECTRIC");
 
-            case "POISON":
+            case POISON:
                 return pokemonType.equalsIgnoreCase("POISON");
-            case "BAD_POISON":
+            case BAD_POISON:
                 // Pokémon de tipo Veneno y Acero son inmunes a envenenamiento
-                return pokemonType.equalsIgnoreCase("POISON") || pokemonType.equals("STEEL");
+                return pokemonType.equalsIgnoreCase("POISON") || pokemonType.equalsIgnoreCase("STEEL");
 
-            case "BURN":
+            case BURN:
                 // Pokémon de tipo Fuego son inmunes a quemaduras
                 return pokemonType.equalsIgnoreCase("FIRE");
 
-            case "FREEZE":
+            case FREEZE:
                 // Pokémon de tipo Hielo son inmunes a congelación
                 return pokemonType.equalsIgnoreCase("ICE");
 
-            case "SLEEP":
-                return false;
-
             default:
                 return false;
         }
     }
-}
\ No newline at end of file
+}
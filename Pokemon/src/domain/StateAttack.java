@@ -13,6 +13,7 @@ public class StateAttack extends Attack implements Serializable {
     private int effectValue;
     private boolean affectsSelf;
     private boolean isPersistent;
+    private State prototype;
 
     /**
      * Constructor para crear un ataque de estado
@@ -23,7 +24,39 @@ public class StateAttack extends Attack implements Serializable {
      */
     public StateAttack(int idInside, String[] infoAttack, String[] infoState) throws POOBkemonException {
         super(idInside, infoAttack);
+        initState(infoState);
+        this.affectsSelf = infoAttack.length > 8 && infoAttack[8].equalsIgnoreCase("ally");
+    }
+
+    /**
+     * Constructor para crear un ataque de estado con el estado ya parseado
+     * @param idInside ID interno del ataque
+     * @param infoAttack Información básica del ataque [nombre, tipo, poder, precision, pp, etc.]
+     * @param infoState Información del estado [nombre, efecto, duración, etc.]
+     * @param prototype Estado del catálogo que se copia cada vez que el ataque acierta, o null
+     * @throws POOBkemonException Si hay error en la creación
+     */
+    public StateAttack(int idInside, String[] infoAttack, String[] infoState, State prototype) throws POOBkemonException {
+        this(idInside, infoAttack, infoState);
+        this.prototype = prototype;
+    }
+
+    /**
+     * Constructor para crear un ataque de estado a partir de un movimiento ya parseado
+     * @param idInside ID interno del ataque
+     * @param spec Movimiento compartido del catálogo
+     * @param infoState Información del estado [nombre, efecto, duración, etc.]
+     * @param prototype Estado del catálogo que se copia cada vez que el ataque acierta, o null
+     * @throws POOBkemonException Si hay error en la creación
+     */
+    public StateAttack(int idInside, MoveSpec spec, String[] infoState, State prototype) throws POOBkemonException {
+        super(idInside, spec);
+        initState(infoState);
+        this.affectsSelf = spec.targetsSelf();
+        this.prototype = prototype;
+    }
 
+    private void initState(String[] infoState) throws POOBkemonException {
         if (infoState == null || infoState.length < 3) {
             if (infoState == null){
                 throw new POOBkemonException("Informacion de estado nula");
@@ -33,7 +66,6 @@ public class StateAttack extends Attack implements Serializable {
         }
         this.stateName = infoState[0];
         this.effectValue = Integer.parseInt(infoState[1]);
-        this.affectsSelf = infoAttack.length > 8 && infoAttack[8].equalsIgnoreCase("ally");
         this.isPersistent = Boolean.parseBoolean(infoState[2]);
     }
 
@@ -60,4 +92,12 @@ public class StateAttack extends Attack implements Serializable {
     public boolean affectsSelf(){
         return this.affectsSelf;
     }
+
+    /**
+     * Crea el estado que aplica este ataque copiando su prototipo
+     * @return Un estado nuevo, o null si el ataque se creó sin prototipo
+     */
+    public State createState() {
+        return this.prototype == null ? null : this.prototype.copy();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package domain;
+
+import java.io.Serializable;
+
+/**
+ * Active states of one Pokemon: a bit per {@link State.StateType} plus, for
+ * each type, its remaining turns (-1 if it does not wear off) and its
+ * intensity, the growing factor of a bad poisoning. Asking for, adding or
+ * removing a state touches only these arrays, so the states of a Pokemon are
+ * updated each turn without allocating.
+ */
+public final class StateSet implements Serializable {
+
+	static final State.StateType[] TYPES = State.StateType.values();
+
+	private final long[] bits;
+	private final short[] turns;
+	private final short[] intensity;
+
+	public StateSet() {
+		this.bits = new long[(TYPES.length + 63) >>> 6];
+		this.turns = new short[TYPES.length];
+		this.intensity = new short[TYPES.length];
+	}
+
+	private StateSet(StateSet other) {
+		this.bits = other.bits.clone();
+		this.turns = other.turns.clone();
+		this.intensity = other.intensity.clone();
+	}
+
+	/**
+	 * @return a set with the same states, turns and intensities that changes independently of this one
+	 */
+	public StateSet copy() {
+		return new StateSet(this);
+	}
+
+	public boolean has(State.StateType type) {
+		return this.has(type.ordinal());
+	}
+
+	public boolean has(int type) {
+		return (this.bits[type >>> 6] & (1L << type)) != 0;
+	}
+
+	public boolean isEmpty() {
+		for (long word : this.bits) {
+			if (word != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a state, or restarts it if it was already active.
+	 *
+	 * @param type ordinal of the state type
+	 * @param turns remaining turns, -1 if it does not wear off
+	 * @param intensity starting intensity
+	 */
+	public void put(int type, int turns, int intensity) {
+		this.bits[type >>> 6] |= 1L << type;
+		this.turns[type] = (short) turns;
+		this.intensity[type] = (short) intensity;
+	}
+
+	public void remove(int type) {
+		this.bits[type >>> 6] &= ~(1L << type);
+	}
+
+	public void clear() {
+		for (int i = 0; i < this.bits.length; i++) {
+			this.bits[i] = 0;
+		}
+	}
+
+	/**
+	 * @param from first ordinal to look at
+	 * @return the ordinal of the first active state at or after {@code from}, or -1 if there is none
+	 */
+	public int next(int from) {
+		int word = from >>> 6;
+		if (word >= this.bits.length) {
+			return -1;
+		}
+		long remaining = this.bits[word] & (-1L << from);
+		while (remaining == 0) {
+			if (++word == this.bits.length) {
+				return -1;
+			}
+			remaining = this.bits[word];
+		}
+		return (word << 6) + Long.numberOfTrailingZeros(remaining);
+	}
+
+	/**
+	 * Writes the bits, turns and intensities of this set into the state columns of a {@link CompactBattle}.
+	 *
+	 * @param bitsAt first word of the set in {@code bits}
+	 * @param at first entry of the set in {@code turns} and {@code intensity}
+	 */
+	void copyTo(long[] bits, int bitsAt, short[] turns, short[] intensity, int at) {
+		System.arraycopy(this.bits, 0, bits, bitsAt, this.bits.length);
+		System.arraycopy(this.turns, 0, turns, at, this.turns.length);
+		System.arraycopy(this.intensity, 0, intensity, at, this.intensity.length);
+	}
+
+	/**
+	 * Reads the set back from the state columns of a {@link CompactBattle}.
+	 *
+	 * @param bitsAt first word of the set in {@code bits}
+	 * @param at first entry of the set in {@code turns} and {@code intensity}
+	 */
+	void copyFrom(long[] bits, int bitsAt, short[] turns, short[] intensity, int at) {
+		System.arraycopy(bits, bitsAt, this.bits, 0, this.bits.length);
+		System.arraycopy(turns, at, this.turns, 0, this.turns.length);
+		System.arraycopy(intensity, at, this.intensity, 0, this.intensity.length);
+	}
+
+	public int getTurns(int type) {
+		return this.turns[type];
+	}
+
+	public void setTurns(int type, int turns) {
+		this.turns[type] = (short) turns;
+	}
+
+	public int getIntensity(int type) {
+		return this.intensity[type];
+	}
+
+	public void setIntensity(int type, int intensity) {
+		this.intensity[type] = (short) intensity;
+	}
+}
@@ -6,26 +6,28 @@ import java.util.ArrayList;
 import java.util.HashMap;
 
 public class Survive extends POOBkemon {
-    private static Survive instance;
     private int pokemonLvl = 100;
 
-    private Survive() {
+    Survive() {
         super();
     }
 
+    /**
+     * Obtiene el juego de la sesión de supervivencia por defecto.
+     */
     public static Survive getInstance() {
-        if (instance == null) {
-            instance = new Survive();
-        }
-        return instance;
+        return (Survive) SessionRegistry.getInstance()
+                .defaultSession(SessionRegistry.DEFAULT_SURVIVE, Survive::new)
+                .getGame();
     }
     @Override
     public Pokemon createPokemon(int id, ArrayList<Integer> attackIds)throws POOBkemonException{
-        PokemonRepository info = new PokemonRepository();
-        String[] infoPokemon = info.getPokemonId(id);
-        Pokemon pokemon = new Pokemon(nid,infoPokemon,attackIds, this.random, this.pokemonLvl);
-        this.nextIdPokemon();
-        return pokemon;
+        PokemonRepository info = new PokemonRepository(catalog());
+        SpeciesTemplate species = info.getSpeciesTemplate(id);
+        int nid = session().nextPokemonId();
+        return species != null
+                ? new Pokemon(nid, species, attackIds, this.random, this.pokemonLvl, catalog(), session())
+                : new Pokemon(nid, info.getPokemonId(id), attackIds, this.random, this.pokemonLvl);
     }
 
     @Override
@@ -0,0 +1,15 @@
+package domain;
+
+/**
+ * The trainer sends another of its Pokemon to the battle.
+ *
+ * @param trainerId the trainer that switches
+ * @param pokemonId the Pokemon that becomes active
+ */
+public record SwitchAction(int trainerId, int pokemonId) implements Action {
+
+	@Override
+	public String[] toDecision() {
+		return new String[] {"ChangePokemon", String.valueOf(this.trainerId), String.valueOf(this.pokemonId)};
+	}
+}
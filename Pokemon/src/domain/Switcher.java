@@ -4,7 +4,6 @@ import persistence.StatsRepository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * The Switcher class represents a machine-driven trainer that implements decision-making logic
@@ -24,8 +23,7 @@ public class Switcher extends Machine {
     private static final double HEALTH_SCORE_WEIGHT = 0.3;
     private static final double RANDOM_SCORE_WEIGHT = 0.2;
 
-    private final StatsRepository typeChart = new StatsRepository();
-    private java.util.Random random;
+    private transient StatsRepository typeChart;
 
     /**
      * Constructs a Switcher object that represents a specialized Machine with enhanced capabilities.
@@ -38,7 +36,6 @@ public class Switcher extends Machine {
      */
     public Switcher(int id, BagPack bagPack) throws POOBkemonException {
         super(id, bagPack);
-        this.random = new Random();
     }
 
     /**
@@ -48,13 +45,13 @@ public class Switcher extends Machine {
      * health thresholds, and other strategic considerations.
      *
      * @param game the current state of the POOBkemon game, including teams, active Pokemon, and other game details
-     * @return a String array representing the action to be performed, where the first element indicates the type of action
-     *         (e.g., "attack" or "switch"), and subsequent elements provide additional details specific to the chosen action
+     * @return the action to be performed, either an attack or a switch
      * @throws POOBkemonException if an error occurs during the decision-making process, such as invalid game data or
      *                             unexpected states within the game
      */
     @Override
-    public String[] machineMovement(POOBkemon game) throws POOBkemonException {
+    public Action decide(POOBkemon game) throws POOBkemonException {
+        this.typeChart = typeChart(game);
         Team myTeam = getMyTeam(game);
         Pokemon myActive = getActivePokemon(myTeam);
         Pokemon opponent = getOpponentActivePokemon(game);
@@ -73,12 +70,11 @@ public class Switcher extends Machine {
      *
      * @param game the current POOBkemon game, containing all teams*/
     private Team getMyTeam(POOBkemon game) throws POOBkemonException {
-        for (Team team : game.teams()) {
-            if (team.getTrainer().getId() == this.getId()) {
-                return team;
-            }
+        Team team = game.findTeam(this.getId());
+        if (team == null) {
+            throw new POOBkemonException("Equipo no encontrado para el entrenador: " + this.getId());
         }
-        throw new POOBkemonException("Equipo no encontrado para el entrenador: " + this.getId());
+        return team;
     }
 
     /**
@@ -94,16 +90,12 @@ public class Switcher extends Machine {
     }
 
     private Pokemon getOpponentActivePokemon(POOBkemon game) throws POOBkemonException {
-        for (Team team : game.teams()) {
-            if (team.getTrainer().getId() != this.getId()) {
-                for (Pokemon pokemon : team.getPokemons()) {
-                    if (pokemon.getActive()) {
-                        return pokemon;
-                    }
-                }
-            }
+        Team rival = game.findOpponentTeam(this.getId());
+        Pokemon pokemon = rival == null ? null : rival.getActivePokemon();
+        if (pokemon == null) {
+            throw new POOBkemonException("No se encontró Pokémon oponente activo");
         }
-        throw new POOBkemonException("No se encontró Pokémon oponente activo");
+        return pokemon;
     }
 
     /**
@@ -133,7 +125,7 @@ public class Switcher extends Machine {
             return true;
         }
         double switchProbability = calculateDynamicSwitchProbability(typeEffectiveness);
-        return random.nextDouble() < switchProbability;
+        return random().nextDouble() < switchProbability;
     }
 
     /**
@@ -165,10 +157,9 @@ public class Switcher extends Machine {
      * @param myTeam the player's team, containing all available Pokemon for this decision-making process
      * @param current the currently active Pokemon on the player's team
      * @param opponent the opponent's active Pokemon
-     * @return a String array representing the switch action to be performed, where the first element indicates
-     *         the action type ("ChangePokemon"), and subsequent elements provide additional details like
+     * @return the switch action to be performed, or an attack action if there are no candidates
      **/
-    private String[] createSwitchDecision(Team myTeam, Pokemon current, Pokemon opponent) throws POOBkemonException {
+    private Action createSwitchDecision(Team myTeam, Pokemon current, Pokemon opponent) throws POOBkemonException {
         List<Pokemon> candidates = getSwitchCandidates(myTeam, current);
 
         if (candidates.isEmpty()) {
@@ -176,11 +167,7 @@ public class Switcher extends Machine {
         }
 
         Pokemon bestChoice = selectBestSwitchCandidate(candidates, opponent);
-        return new String[] {
-                "ChangePokemon",
-                String.valueOf(this.getId()),
-                String.valueOf(bestChoice.getId())
-        };
+        return new SwitchAction(this.getId(), bestChoice.getId());
     }
 
     /**
@@ -189,26 +176,17 @@ public class Switcher extends Machine {
      *
      * @param attacker the Pokemon executing the attack
      * @param opponent the Pokemon being targeted by the attack
-     * @return a String array representing the attack action to be performed, where:
-     *         - The first element indicates the action type ("Attack").
-     *         - The second element is the ID of the selected attack.
-     *         - The third element is the ID of the attacking Pokemon.
-     *         - The fourth element is the ID of the current Switcher instance.
-     * @throws POOBkemonException if no attacks are available for the specified attacker*/
-    private String[] createAttackDecision(Pokemon attacker, Pokemon opponent) throws POOBkemonException {
+     * @return the attack action with the ID of the selected attack and of the attacking Pokemon,
+     *         or the default move if no attack has PP left*/
+    private Action createAttackDecision(Pokemon attacker, Pokemon opponent) {
         List<Attack> availableAttacks = getAvailableAttacks(attacker);
 
         if (availableAttacks.isEmpty()) {
-            throw new POOBkemonException("No hay ataques disponibles para " + attacker.getName());
+            return this.defaultAttack(attacker);
         }
 
         Attack bestAttack = selectBestAttack(availableAttacks, attacker, opponent);
-        return new String[] {
-                "Attack",
-                String.valueOf(bestAttack.getIdInside()),
-                String.valueOf(attacker.getId()),
-                String.valueOf(this.getId())
-        };
+        return new AttackAction(this.getId(), attacker.getId(), bestAttack.getIdInside());
     }
 
     /**
@@ -266,7 +244,7 @@ public class Switcher extends Machine {
         double healthRatio = (double) candidate.currentHealth / candidate.maxHealth;
         score += healthRatio * HEALTH_SCORE_WEIGHT;
 
-        score += random.nextDouble() * RANDOM_SCORE_WEIGHT;
+        score += random().nextDouble() * RANDOM_SCORE_WEIGHT;
 
         return score;
     }
@@ -324,17 +302,17 @@ public class Switcher extends Machine {
         try {
             double score = 0;
 
-            double typeEffectiveness = typeChart.getMultiplier(attack.getType(), opponent.type);
+            double typeEffectiveness = typeChart.getMultiplier(attack.getTypeId(), opponent.getTypeId(), opponent.getType2Id());
             score += typeEffectiveness * 0.5;
 
             score += (attack.getPower() / 150.0) * 0.3;
 
             score += (attack.getAccuracy() / 100.0) * 0.15;
-            score += random.nextDouble() * 0.05;
+            score += random().nextDouble() * 0.05;
 
             return score;
         } catch (Exception e) {
-            return random.nextDouble();
+            return random().nextDouble();
         }
     }
 
@@ -353,7 +331,7 @@ public class Switcher extends Machine {
      */
     private double calculateTypeEffectiveness(Pokemon attacker, Pokemon defender) {
         try {
-            return typeChart.getMultiplier(attacker.getType(), defender.getType());
+            return typeChart.getMultiplier(attacker.getTypeId(), defender.getTypeId(), defender.getType2Id());
         } catch (Exception e) {
             return 1.0;
         }
@@ -2,16 +2,31 @@ package domain;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * Represents a team composed of Pokémon and a Trainer. This class manages Pokémon
  * activities such as changing the active Pokémon, checking team status, and applying effects.
  * It also facilitates Trainer interactions with the Pokémon, such as using items.
  */
-public class Team implements Serializable {
+public class Team implements Serializable, Cloneable {
+
+	/** Largest team whose alive Pokémon fit in {@link #getAliveMask()}. */
+	public static final int MAX_POKEMONS = 64;
 
 	private ArrayList<Pokemon> pokemons;
 	private Trainer trainer;
+	private HashMap<Integer, Pokemon> pokemonsById;
+	private long aliveMask; // Bit i set while pokemons.get(i) has not fainted
+	private int alive;
+	private FaintListener faintListener;
+
+	/**
+	 * Receives each Pokémon of the team that faints, right when its HP reaches zero.
+	 */
+	public interface FaintListener extends Serializable {
+		void onFainted(Team team, Pokemon pokemon);
+	}
 
 	/**
 	 * Constructs a Team object with a list of Pokémon and a trainer.
@@ -23,9 +38,55 @@ public class Team implements Serializable {
 	public Team(ArrayList<Pokemon> pokemons, Trainer trainer) {
 		this.pokemons = pokemons;
 		this.trainer = trainer;
+		if (pokemons.size() > MAX_POKEMONS) {
+			throw new IllegalArgumentException("A team holds at most " + MAX_POKEMONS + " Pokémon: " + pokemons.size());
+		}
+		this.pokemonsById = new HashMap<>();
+		for (int i = 0; i < pokemons.size(); i++) {
+			Pokemon pokemon = pokemons.get(i);
+			this.pokemonsById.put(pokemon.getId(), pokemon);
+			pokemon.joinTeam(this, i);
+			if (!pokemon.getWeak()) {
+				this.aliveMask |= 1L << i;
+				this.alive++;
+			}
+		}
 		this.pokemons.get(0).setActive(true);
 		this.trainer.setCurrentPokemonId(this.pokemons.get(0).getId());
 	}
+
+	/**
+	 * Copies the team for a copied battle: the trainer, its backpack and every
+	 * Pokémon are copied, and the alive count and mask carry over. A machine
+	 * trainer draws its choices from the copied session. The copy has no faint
+	 * listener until its game sets one.
+	 *
+	 * @param session session of the copied battle
+	 * @return the copy
+	 */
+	Team copy(BattleSession session) {
+		Team copy;
+		try {
+			copy = (Team) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+		copy.trainer = this.trainer.copy();
+		if (copy.trainer instanceof Machine) {
+			((Machine) copy.trainer).bindRandom(session.getDecisionRandom());
+		}
+		copy.pokemons = new ArrayList<>(this.pokemons.size());
+		copy.pokemonsById = new HashMap<>();
+		for (int i = 0; i < this.pokemons.size(); i++) {
+			Pokemon pokemon = this.pokemons.get(i).copy(session);
+			pokemon.joinTeam(copy, i);
+			copy.pokemons.add(pokemon);
+			copy.pokemonsById.put(pokemon.getId(), pokemon);
+		}
+		copy.faintListener = null;
+		return copy;
+	}
+
 	public ArrayList<Pokemon> getPokemons() {
 		return pokemons;
 	}
@@ -36,18 +97,8 @@ public class Team implements Serializable {
 	 * @throws POOBkemonException Si no se encuentra el pokémon o está debilitado
 	 */
 	public Pokemon changePokemon(int id) throws POOBkemonException {
-		Pokemon pokemonToActivate = null;
-		Pokemon currentActive = null;
-
-		// Primer recorrido para identificar ambos pokémones
-		for (Pokemon pokemon : pokemons) {
-			if (pokemon.getActive()) {
-				currentActive = pokemon;
-			}
-			if (pokemon.getId() == id) {
-				pokemonToActivate = pokemon;
-			}
-		}
+		Pokemon pokemonToActivate = this.findPokemon(id);
+		Pokemon currentActive = this.getActivePokemon();
 		if (pokemonToActivate == null) {
 			throw new POOBkemonException( POOBkemonException.POKEMON_ID_NOT_FOUND + id );
 		}
@@ -69,12 +120,67 @@ public class Team implements Serializable {
 	 * @return true if all Pokémon in the team's list are in a weakened state, false otherwise
 	 */
 	public boolean allFainted(){
-		for (Pokemon pokemon : this.pokemons) {
-			if(!pokemon.getWeak()) {
-				return false;
-			}
+		return this.alive == 0;
+	}
+
+	/**
+	 * @return the number of Pokémon of the team that have not fainted
+	 */
+	public int getAliveCount() {
+		return this.alive;
+	}
+
+	/**
+	 * @return a bit per Pokémon, in the order of {@link #getPokemons()}, set while it has not fainted
+	 */
+	public long getAliveMask() {
+		return this.aliveMask;
+	}
+
+	/**
+	 * Checks whether the active Pokémon has fainted and has to be replaced.
+	 */
+	public boolean activeFainted() {
+		Pokemon active = this.getActivePokemon();
+		return active != null && active.getWeak();
+	}
+
+	/**
+	 * @return the last Pokémon of the team that has not fainted, or null if all have
+	 */
+	public Pokemon lastAlivePokemon() {
+		if (this.aliveMask == 0) {
+			return null;
 		}
-		return true;
+		return this.pokemons.get(63 - Long.numberOfLeadingZeros(this.aliveMask));
+	}
+
+	/**
+	 * Sets who is told about each Pokémon of the team that faints.
+	 */
+	public void setFaintListener(FaintListener listener) {
+		this.faintListener = listener;
+	}
+
+	/**
+	 * Called by a Pokémon of the team when its HP reaches zero.
+	 * @param slot position of the Pokémon in the team
+	 */
+	void fainted(int slot) {
+		this.aliveMask &= ~(1L << slot);
+		this.alive--;
+		if (this.faintListener != null) {
+			this.faintListener.onFainted(this, this.pokemons.get(slot));
+		}
+	}
+
+	/**
+	 * Called by a Pokémon of the team when it is revived.
+	 * @param slot position of the Pokémon in the team
+	 */
+	void revived(int slot) {
+		this.aliveMask |= 1L << slot;
+		this.alive++;
 	}
 	/**
 	 * Obtiene los IDs de los Pokémon inactivos en el equipo, excluyendo al Pokémon actual.
@@ -108,16 +214,30 @@ public class Team implements Serializable {
 	 * @throws POOBkemonException if no Pokémon with the given ID is found in the team's list
 	 */
 	public Pokemon getPokemonById(int id) throws POOBkemonException {
-		Pokemon pokemon = null;
-		for (Pokemon p : pokemons) {
-			if (p.getId() == id) {
-				pokemon = p;
-			}
-		}
+		Pokemon pokemon = this.findPokemon(id);
 		if(pokemon == null)throw new POOBkemonException(POOBkemonException.POKEMON_ID_NOT_FOUND + id);
 		return pokemon;
 	}
 
+	/**
+	 * Looks up a Pokémon of the team by its ID without throwing.
+	 *
+	 * @param id the unique identifier of the Pokémon
+	 * @return the Pokémon, or null if it is not in this team
+	 */
+	public Pokemon findPokemon(int id) {
+		return this.pokemonsById.get(id);
+	}
+
+	/**
+	 * Retrieves the active Pokémon, the one whose ID the trainer holds as current.
+	 *
+	 * @return the active Pokémon, or null if the current ID is not in this team
+	 */
+	public Pokemon getActivePokemon() {
+		return this.pokemonsById.get(this.trainer.getCurrentPokemonId());
+	}
+
 	/**
 	 * Retrieves the trainer associated with the team.
 	 *
@@ -137,13 +257,7 @@ public class Team implements Serializable {
 	 * @throws POOBkemonException if the Pokémon with the specified ID is not found in the team
 	 */
 	public void useItem(int idPokemon,String datoItem) throws POOBkemonException{
-		Pokemon pokemonTarget = null;
-		for(Pokemon p : pokemons){
-			if(p.getId() == idPokemon){
-				pokemonTarget = p;
-				break;
-			}
-		}
+		Pokemon pokemonTarget = this.findPokemon(idPokemon);
 		//lanza error si no lo encuentra
 		if(pokemonTarget == null){
 			throw new POOBkemonException(POOBkemonException.POKEMON_ID_NOT_FOUND + idPokemon);
@@ -155,10 +269,9 @@ public class Team implements Serializable {
 	 * @param pokemonID Id del pokemon al que se le ejecuta la accion
 	 */
 	public void timeOver(int pokemonID) {
-		for (Pokemon p : pokemons) {
-			if (p.getId() == pokemonID) {
-				p.timeOver();
-			}
+		Pokemon pokemon = this.findPokemon(pokemonID);
+		if (pokemon != null) {
+			pokemon.timeOver();
 		}
 	}
 
@@ -171,8 +284,8 @@ public class Team implements Serializable {
 	 * the individual Pokémon.
 	 */
 	public void applyEffect(){
-		for (Pokemon p : pokemons) {
-			p.applyState();
+		for (int i = 0; i < pokemons.size(); i++) {
+			pokemons.get(i).applyState();
 		}
 	}
 }
@@ -0,0 +1,15 @@
+package domain;
+
+/**
+ * The trainer ran out of time to decide; its active Pokemon loses the turn.
+ *
+ * @param trainerId the trainer that ran out of time
+ * @param pokemonId the active Pokemon of the trainer
+ */
+public record TimeoutAction(int trainerId, int pokemonId) implements Action {
+
+	@Override
+	public String[] toDecision() {
+		return new String[] {"timeOver", String.valueOf(this.trainerId), String.valueOf(this.pokemonId)};
+	}
+}
@@ -0,0 +1,546 @@
+package domain;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robin tournament between {@link Machine} strategies. Every machine plays
+ * every other one the same number of battles, with teams taken from a pool, and
+ * the results feed Elo ratings and a head-to-head matrix.
+ * <p>
+ * Battles are numbered and each one draws from a generator built from the seed
+ * of the tournament and its number, so a tournament is the same whatever the
+ * number of threads. They are played in blocks spread over a pool of worker
+ * threads; after each block the results are folded into the standings in battle
+ * order and, if a checkpoint file is given, the standings are saved there, so
+ * that a run stopped at any point goes on from the last block when it is
+ * started again.
+ * <p>
+ * Two consecutive battles of a pairing use the same two teams of the pool with
+ * the machines swapped, both in turn order and in team, so that neither machine
+ * is favoured by its side or its team.
+ */
+public final class Tournament {
+
+	public static final double INITIAL_RATING = 1500;
+	/** Elo K factor: the most a rating moves in one battle. */
+	public static final double K_FACTOR = 16;
+	/** Battles played between two checkpoints. */
+	public static final int DEFAULT_BLOCK = 4096;
+	public static final String RATINGS_CSV = "ratings.csv";
+	public static final String HEAD_TO_HEAD_CSV = "head_to_head.csv";
+
+	private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+	private static final byte FIRST_WINS = 0;
+	private static final byte SECOND_WINS = 1;
+	private static final byte DRAW = 2;
+	private static final byte ERROR = 3;
+
+	private final List<String> machines;
+	private final List<Lineup> pool;
+	private final int battlesPerPairing;
+	private final int threads;
+	private final int maxTurns;
+	private final boolean randomStats;
+	private final int block;
+	private final int[][] pairings;
+
+	/**
+	 * Creates a tournament that uses every available core, the default turn limit and the default block.
+	 *
+	 * @param machines machines that take part, from {@link BattleSimulator#MACHINES}
+	 * @param pool teams the battles are played with
+	 * @param battlesPerPairing battles between each two machines
+	 * @throws POOBkemonException if a machine is not recognised or the tournament is empty
+	 */
+	public Tournament(List<String> machines, List<Lineup> pool, int battlesPerPairing) throws POOBkemonException {
+		this(machines, pool, battlesPerPairing, Runtime.getRuntime().availableProcessors(),
+				BattleSimulator.DEFAULT_MAX_TURNS, false, DEFAULT_BLOCK);
+	}
+
+	/**
+	 * @param machines machines that take part, from {@link BattleSimulator#MACHINES}
+	 * @param pool teams the battles are played with
+	 * @param battlesPerPairing battles between each two machines
+	 * @param threads number of worker threads
+	 * @param maxTurns turns after which a battle is a draw
+	 * @param randomStats whether Pokemon are created with random levels and stats
+	 * @param block battles played between two checkpoints
+	 * @throws POOBkemonException if a machine is not recognised, repeated, or a limit is not positive
+	 */
+	public Tournament(List<String> machines, List<Lineup> pool, int battlesPerPairing,
+					  int threads, int maxTurns, boolean randomStats, int block) throws POOBkemonException {
+		if (machines.size() < 2 || machines.stream().distinct().count() != machines.size()) {
+			throw new POOBkemonException("Se necesitan al menos dos máquinas distintas");
+		}
+		for (String machine : machines) {
+			if (!BattleSimulator.MACHINES.contains(machine)) {
+				throw new POOBkemonException("Máquina no reconocida: " + machine);
+			}
+		}
+		if (pool.isEmpty()) {
+			throw new POOBkemonException("No hay equipos para el torneo");
+		}
+		if (battlesPerPairing < 1 || threads < 1 || maxTurns < 1 || block < 1) {
+			throw new POOBkemonException("El número de batallas, hilos, turnos y el bloque deben ser positivos");
+		}
+		this.machines = List.copyOf(machines);
+		this.pool = List.copyOf(pool);
+		this.battlesPerPairing = battlesPerPairing;
+		this.threads = threads;
+		this.maxTurns = maxTurns;
+		this.randomStats = randomStats;
+		this.block = block;
+		List<int[]> pairs = new ArrayList<>();
+		for (int a = 0; a < machines.size(); a++) {
+			for (int b = a + 1; b < machines.size(); b++) {
+				pairs.add(new int[]{a, b});
+			}
+		}
+		this.pairings = pairs.toArray(new int[0][]);
+	}
+
+	/**
+	 * @return battles of the whole tournament
+	 */
+	public long getTotalBattles() {
+		return (long) this.pairings.length * this.battlesPerPairing;
+	}
+
+	/**
+	 * Plays the whole tournament.
+	 *
+	 * @param seed seed of the tournament
+	 * @return the final standings
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public Standings run(long seed) throws InterruptedException {
+		try {
+			return this.run(seed, null, null);
+		} catch (POOBkemonException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Plays the tournament from where the checkpoint left it, saving it after every block.
+	 *
+	 * @param seed seed of the tournament; it must be the one the checkpoint was started with
+	 * @param checkpoint file of the standings, read if it exists and written after each block; null for none
+	 * @param budget time after which no new block is started; null to play to the end
+	 * @return the standings, complete unless the budget ran out first
+	 * @throws POOBkemonException if the checkpoint cannot be read or written, or belongs to another tournament
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public Standings run(long seed, Path checkpoint, Duration budget) throws POOBkemonException, InterruptedException {
+		String fingerprint = this.fingerprint(seed);
+		Standings standings = checkpoint != null && Files.exists(checkpoint)
+				? load(checkpoint)
+				: new Standings(this.machines, this.getTotalBattles(), fingerprint);
+		if (!standings.fingerprint.equals(fingerprint)) {
+			throw new POOBkemonException("El punto de control es de otro torneo: " + checkpoint);
+		}
+		long deadline = budget == null ? Long.MAX_VALUE : System.nanoTime() + budget.toNanos();
+		byte[] outcomes = new byte[(int) Math.min(this.block, Math.max(1, standings.total))];
+		int[] turns = new int[outcomes.length];
+		String[] firstError = new String[1];
+
+		ExecutorService workers = Executors.newFixedThreadPool(this.threads, r -> {
+			Thread thread = new Thread(r, "POOBkemon-tournament");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			while (!standings.isComplete()) {
+				long start = System.nanoTime();
+				long from = standings.completed;
+				int count = (int) Math.min(outcomes.length, standings.total - from);
+				this.playBlock(workers, seed, from, count, outcomes, turns, firstError);
+				for (int i = 0; i < count; i++) {
+					standings.record(this.pairings[(int) ((from + i) % this.pairings.length)], outcomes[i], turns[i]);
+				}
+				if (standings.firstError == null) {
+					standings.firstError = firstError[0];
+				}
+				standings.elapsedNanos += System.nanoTime() - start;
+				if (checkpoint != null) {
+					save(standings, checkpoint);
+				}
+				if (System.nanoTime() >= deadline) {
+					break;
+				}
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+		return standings;
+	}
+
+	private void playBlock(ExecutorService workers, long seed, long from, int count,
+						   byte[] outcomes, int[] turns, String[] firstError) throws InterruptedException {
+		AtomicInteger next = new AtomicInteger();
+		List<Future<?>> tasks = new ArrayList<>();
+		for (int t = 0; t < this.threads; t++) {
+			tasks.add(workers.submit(() -> {
+				int i;
+				while ((i = next.getAndIncrement()) < count) {
+					try {
+						int[] result = this.play(seed, from + i);
+						outcomes[i] = (byte) result[0];
+						turns[i] = result[1];
+					} catch (POOBkemonException | RuntimeException e) {
+						outcomes[i] = ERROR;
+						turns[i] = -1;
+						synchronized (firstError) {
+							if (firstError[0] == null) {
+								firstError[0] = e.getClass().getSimpleName() + ": " + e.getMessage();
+							}
+						}
+					}
+				}
+			}));
+		}
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Plays one battle of the tournament.
+	 *
+	 * @param seed seed of the tournament
+	 * @param battle number of the battle, from 0
+	 * @return {outcome for the first machine of the pairing, turns played}
+	 * @throws POOBkemonException if the battle cannot be created or a decision is rejected
+	 */
+	int[] play(long seed, long battle) throws POOBkemonException {
+		int pairing = (int) (battle % this.pairings.length);
+		long round = battle / this.pairings.length;
+		BattleRandom teams = new BattleRandom(seedOf(~seed, (round / 2) * this.pairings.length + pairing));
+		Lineup lineup1 = this.pool.get(teams.nextInt(this.pool.size()));
+		Lineup lineup2 = this.pool.get(teams.nextInt(this.pool.size()));
+		boolean swapped = (round & 1) == 1;
+		String machine1 = this.machines.get(this.pairings[pairing][swapped ? 1 : 0]);
+		String machine2 = this.machines.get(this.pairings[pairing][swapped ? 0 : 1]);
+
+		int[] result = BattleSimulator.fight(machine1, lineup1, machine2, lineup2,
+				this.randomStats, this.maxTurns, new BattleRandom(seedOf(seed, battle)));
+		int side = result[0];
+		byte outcome;
+		if (side == BattleSimulator.Report.UNFINISHED) {
+			outcome = DRAW;
+		} else {
+			outcome = (side == 0) != swapped ? FIRST_WINS : SECOND_WINS;
+		}
+		return new int[]{outcome, result[1]};
+	}
+
+	private static long seedOf(long seed, long index) {
+		return new BattleRandom(seed + index * GOLDEN).nextLong();
+	}
+
+	/**
+	 * Everything a checkpoint must agree on to be resumed by this tournament.
+	 */
+	private String fingerprint(long seed) {
+		return this.machines + "|" + this.pool.size() + ":" + this.pool.hashCode() + "|" + this.battlesPerPairing
+				+ "|" + this.maxTurns + "|" + this.randomStats + "|" + seed;
+	}
+
+	private static void save(Standings standings, Path checkpoint) throws POOBkemonException {
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try {
+			try (ObjectOutputStream writer = new ObjectOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				writer.writeObject(standings);
+			}
+			Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new POOBkemonException("Error de E/S al guardar el torneo: " + e.getMessage());
+		}
+	}
+
+	private static Standings load(Path checkpoint) throws POOBkemonException {
+		try (ObjectInputStream reader = new ObjectInputStream(
+				new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+			return (Standings) reader.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new POOBkemonException("El archivo no es un punto de control de torneo: " + checkpoint);
+		} catch (IOException e) {
+			throw new POOBkemonException("Error de E/S al abrir el torneo: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Ratings and results of a tournament so far.
+	 */
+	public static final class Standings implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> machines;
+		private final double[] ratings;
+		private final long[][] wins; // wins[a][b]: battles a won against b
+		private final long[][] draws;
+		private final long total;
+		private final String fingerprint;
+		private long completed;
+		private long errors;
+		private long turns;
+		private long elapsedNanos;
+		private String firstError;
+
+		Standings(List<String> machines, long total, String fingerprint) {
+			this.machines = new ArrayList<>(machines);
+			this.ratings = new double[machines.size()];
+			Arrays.fill(this.ratings, INITIAL_RATING);
+			this.wins = new long[machines.size()][machines.size()];
+			this.draws = new long[machines.size()][machines.size()];
+			this.total = total;
+			this.fingerprint = fingerprint;
+		}
+
+		/**
+		 * Folds the result of the next battle into the standings.
+		 */
+		void record(int[] pairing, byte outcome, int turns) {
+			this.completed++;
+			if (outcome == ERROR) {
+				this.errors++;
+				return;
+			}
+			int a = pairing[0];
+			int b = pairing[1];
+			this.turns += turns;
+			double score;
+			if (outcome == FIRST_WINS) {
+				this.wins[a][b]++;
+				score = 1;
+			} else if (outcome == SECOND_WINS) {
+				this.wins[b][a]++;
+				score = 0;
+			} else {
+				this.draws[a][b]++;
+				this.draws[b][a]++;
+				score = 0.5;
+			}
+			double expected = 1 / (1 + Math.pow(10, (this.ratings[b] - this.ratings[a]) / 400));
+			double change = K_FACTOR * (score - expected);
+			this.ratings[a] += change;
+			this.ratings[b] -= change;
+		}
+
+		public List<String> getMachines() {
+			return new ArrayList<>(this.machines);
+		}
+
+		public double getRating(String machine) {
+			return this.ratings[this.indexOf(machine)];
+		}
+
+		/**
+		 * @return battles that {@code machine} won against {@code opponent}
+		 */
+		public long getWins(String machine, String opponent) {
+			return this.wins[this.indexOf(machine)][this.indexOf(opponent)];
+		}
+
+		/**
+		 * @return battles between the two machines that reached the turn limit
+		 */
+		public long getDraws(String machine, String opponent) {
+			return this.draws[this.indexOf(machine)][this.indexOf(opponent)];
+		}
+
+		/**
+		 * @return battles the machine played that did not fail
+		 */
+		public long getBattles(String machine) {
+			int m = this.indexOf(machine);
+			long battles = 0;
+			for (int o = 0; o < this.machines.size(); o++) {
+				battles += this.wins[m][o] + this.wins[o][m] + this.draws[m][o];
+			}
+			return battles;
+		}
+
+		public long getCompleted() {
+			return this.completed;
+		}
+
+		public long getTotal() {
+			return this.total;
+		}
+
+		public boolean isComplete() {
+			return this.completed >= this.total;
+		}
+
+		public long getErrors() {
+			return this.errors;
+		}
+
+		/**
+		 * @return share of the battles played so far that failed; they count for no machine
+		 */
+		public double getErrorRate() {
+			return this.completed == 0 ? 0 : (double) this.errors / this.completed;
+		}
+
+		/**
+		 * @return the average turns of the battles that did not fail
+		 */
+		public double getAverageTurns() {
+			long played = this.completed - this.errors;
+			return played == 0 ? 0 : (double) this.turns / played;
+		}
+
+		/**
+		 * @return time spent playing, added up over every run that resumed the tournament
+		 */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		public double getBattlesPerSecond() {
+			return this.elapsedNanos == 0 ? 0 : this.completed * 1e9 / this.elapsedNanos;
+		}
+
+		/**
+		 * @return the message of the first battle that failed, or null if none did
+		 */
+		public String getFirstError() {
+			return this.firstError;
+		}
+
+		private int indexOf(String machine) {
+			int index = this.machines.indexOf(machine);
+			if (index < 0) {
+				throw new IllegalArgumentException("Máquina no inscrita en el torneo: " + machine);
+			}
+			return index;
+		}
+
+		private List<String> byRating() {
+			List<String> ranking = new ArrayList<>(this.machines);
+			ranking.sort(Comparator.comparingDouble(this::getRating).reversed());
+			return ranking;
+		}
+
+		/**
+		 * Writes {@link #RATINGS_CSV}, one row per machine from the highest rating
+		 * down, and {@link #HEAD_TO_HEAD_CSV}, with the wins of each row machine
+		 * against each column machine.
+		 *
+		 * @param directory directory of the files, created if needed
+		 * @throws POOBkemonException if the files cannot be written
+		 */
+		public void writeCsv(Path directory) throws POOBkemonException {
+			try {
+				Files.createDirectories(directory);
+				try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(RATINGS_CSV))) {
+					writer.write("machine,rating,battles,wins,losses,draws");
+					writer.newLine();
+					for (String machine : this.byRating()) {
+						int m = this.indexOf(machine);
+						long won = 0;
+						long lost = 0;
+						long drawn = 0;
+						for (int o = 0; o < this.machines.size(); o++) {
+							won += this.wins[m][o];
+							lost += this.wins[o][m];
+							drawn += this.draws[m][o];
+						}
+						writer.write(String.format(Locale.ROOT, "%s,%.1f,%d,%d,%d,%d",
+								machine, this.ratings[m], won + lost + drawn, won, lost, drawn));
+						writer.newLine();
+					}
+				}
+				try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(HEAD_TO_HEAD_CSV))) {
+					writer.write("machine," + String.join(",", this.machines));
+					writer.newLine();
+					for (int m = 0; m < this.machines.size(); m++) {
+						StringBuilder row = new StringBuilder(this.machines.get(m));
+						for (int o = 0; o < this.machines.size(); o++) {
+							row.append(',');
+							if (o != m) {
+								row.append(this.wins[m][o]);
+							}
+						}
+						writer.write(row.toString());
+						writer.newLine();
+					}
+				}
+			} catch (IOException e) {
+				throw new POOBkemonException("Error de E/S al escribir los resultados del torneo: " + e.getMessage());
+			}
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("Torneo: %d de %d batallas en %.2f s (%.1f batallas/s), errores %d (%.1f%%), turnos de media %.1f",
+					this.completed, this.total, this.elapsedNanos / 1e9, this.getBattlesPerSecond(), this.errors,
+					100 * this.getErrorRate(), this.getAverageTurns()));
+			for (String machine : this.byRating()) {
+				text.append(String.format("%n  %-10s %7.1f  (%d batallas)", machine, this.getRating(machine), this.getBattles(machine)));
+			}
+			return text.toString();
+		}
+	}
+
+	/**
+	 * Runs a tournament from the command line, without the GUI:
+	 * {@code Tournament <battlesPerPairing> [teams] [seed] [threads] [directory] [machine...]}.
+	 * The standings are checkpointed in the directory, so running the same command
+	 * again resumes an interrupted tournament, and the CSV files are written there.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Uso: Tournament <batallasPorEmparejamiento> [equipos] [semilla] [hilos] [carpeta] [maquina...]");
+			System.out.println("Máquinas: " + BattleSimulator.MACHINES);
+			return;
+		}
+		int battles = Integer.parseInt(args[0]);
+		int teams = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : 0L;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		Path directory = Paths.get(args.length > 4 ? args[4] : "torneo");
+		List<String> machines = args.length > 5
+				? Arrays.asList(Arrays.copyOfRange(args, 5, args.length))
+				: BattleSimulator.MACHINES;
+
+		Tournament tournament = new Tournament(machines, Lineup.randomPool(teams, seed), battles,
+				threads, BattleSimulator.DEFAULT_MAX_TURNS, false, DEFAULT_BLOCK);
+		Files.createDirectories(directory);
+		Standings standings = tournament.run(seed, directory.resolve("torneo.ckpt"), null);
+		standings.writeCsv(directory);
+		System.out.println(standings);
+		if (standings.getFirstError() != null) {
+			System.out.println("  primer error: " + standings.getFirstError());
+		}
+	}
+}
@@ -3,7 +3,7 @@ package domain;
 import java.io.Serializable;
 import java.util.List;
 
-public class Trainer implements Serializable {
+public class Trainer implements Serializable, Cloneable {
 
 	private int currentPokemonId = -1;  // Ahora es solo el ID (int)
 	private BagPack bagPack;
@@ -17,6 +17,19 @@ public class Trainer implements Serializable {
 		this.bagPack = bagPack;
 	}
 
+	/**
+	 * Copies the trainer, with the same id and current Pokémon and a copy of its backpack.
+	 */
+	Trainer copy() {
+		try {
+			Trainer copy = (Trainer) super.clone();
+			copy.bagPack = this.bagPack.copy();
+			return copy;
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
 	public int getId() {
 		return id;
 	}
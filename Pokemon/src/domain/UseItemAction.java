@@ -0,0 +1,16 @@
+package domain;
+
+/**
+ * The trainer uses an item of its bag on one of its Pokemon.
+ *
+ * @param trainerId the trainer that uses the item
+ * @param pokemonId the Pokemon that receives the item
+ * @param item the name of the item
+ */
+public record UseItemAction(int trainerId, int pokemonId, String item) implements Action {
+
+	@Override
+	public String[] toDecision() {
+		return new String[] {"UseItem", String.valueOf(this.trainerId), String.valueOf(this.pokemonId), this.item};
+	}
+}
@@ -0,0 +1,404 @@
+package domain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estimates who is going to win a battle in progress by Monte Carlo: the
+ * battle is copied with {@link POOBkemon#copy()} once per rollout and each
+ * copy is played to the end with {@link Machine} policies taking the place of
+ * every trainer, human or not. Rollouts run on a fixed pool of worker threads,
+ * like the battles of {@link BattleSimulator}.
+ * <p>
+ * Rollout {@code i} restarts the generators of its copy from a seed of its own,
+ * the {@code i}-th draw of a generator built from the run's seed, so the
+ * rollouts are independent of each other and of the live battle, and each
+ * one plays the same way whatever thread runs it. The run stops when all the
+ * rollouts are played, when the time budget is over, or as soon as the 95%
+ * interval of every trainer's win rate is narrower than the tolerance.
+ */
+public final class WinEstimator {
+
+	/** Policy of the trainers without one of their own. */
+	public static final String DEFAULT_POLICY = "Expert";
+	/** Half width of the 95% interval below which the run stops early. */
+	public static final double DEFAULT_TOLERANCE = 0.02;
+	/** Rollouts played before the interval is allowed to stop the run. */
+	public static final int MIN_ROLLOUTS = 32;
+
+	private static final double Z = 1.96; // 95% normal quantile
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final int UNFINISHED = -1;
+	private static final int ABANDONED = -2;
+
+	private final String defaultPolicy;
+	private final Map<Integer, String> policies;
+	private final int threads;
+	private final int maxTurns;
+	private final double tolerance;
+
+	/**
+	 * Creates an estimator that plays every trainer as {@link #DEFAULT_POLICY},
+	 * uses every available core, the default turn limit and the default tolerance.
+	 */
+	public WinEstimator() {
+		this.defaultPolicy = DEFAULT_POLICY;
+		this.policies = Map.of();
+		this.threads = Runtime.getRuntime().availableProcessors();
+		this.maxTurns = BattleSimulator.DEFAULT_MAX_TURNS;
+		this.tolerance = DEFAULT_TOLERANCE;
+	}
+
+	/**
+	 * @param defaultPolicy machine that plays the trainers without a policy, one of {@link BattleSimulator#MACHINES}
+	 * @param policies machine that plays each trainer, by trainer id
+	 * @param threads number of worker threads
+	 * @param maxTurns turns after which a rollout is counted as unfinished
+	 * @param tolerance half width of the 95% interval that stops the run early, 0 to play every rollout
+	 * @throws POOBkemonException if a policy is not recognised or a limit is not valid
+	 */
+	public WinEstimator(String defaultPolicy, Map<Integer, String> policies, int threads, int maxTurns, double tolerance) throws POOBkemonException {
+		if (!BattleSimulator.MACHINES.contains(defaultPolicy)) {
+			throw new POOBkemonException("Máquina no reconocida: " + defaultPolicy);
+		}
+		for (String policy : policies.values()) {
+			if (!BattleSimulator.MACHINES.contains(policy)) {
+				throw new POOBkemonException("Máquina no reconocida: " + policy);
+			}
+		}
+		if (threads < 1 || maxTurns < 1 || tolerance < 0) {
+			throw new POOBkemonException("El número de hilos y de turnos debe ser positivo y la tolerancia no negativa");
+		}
+		this.defaultPolicy = defaultPolicy;
+		this.policies = new HashMap<>(policies);
+		this.threads = threads;
+		this.maxTurns = maxTurns;
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Estimates the win probability of each trainer with a default estimator.
+	 *
+	 * @see #estimate(POOBkemon, int, Duration, long)
+	 */
+	public static Estimate estimateWinProbability(POOBkemon state, int rollouts, Duration budget)
+			throws POOBkemonException, InterruptedException {
+		return new WinEstimator().estimate(state, rollouts, budget, System.nanoTime());
+	}
+
+	/**
+	 * Plays up to {@code rollouts} copies of the battle to the end and counts who
+	 * wins them. The battle itself is copied once, on the calling thread, and
+	 * is not touched afterwards; it must not change until the copy is made.
+	 *
+	 * @param state battle in progress
+	 * @param rollouts most rollouts to play
+	 * @param budget time after which no more rollouts are played
+	 * @param seed seed of the run
+	 * @return the estimate
+	 * @throws POOBkemonException if the battle has not started or a limit is not positive
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public Estimate estimate(POOBkemon state, int rollouts, Duration budget, long seed)
+			throws POOBkemonException, InterruptedException {
+		if (state.getTeams() == null || state.getOrder() == null || state.getOrder().isEmpty()) {
+			throw new POOBkemonException("La batalla no se ha iniciado");
+		}
+		if (rollouts < 1 || budget.isNegative() || budget.isZero()) {
+			throw new POOBkemonException("El número de simulaciones y el tiempo deben ser positivos");
+		}
+		POOBkemon origin = state.copy();
+		int[] trainers = new int[origin.getOrder().size()];
+		for (int i = 0; i < trainers.length; i++) {
+			trainers[i] = origin.getOrder().get(i);
+		}
+		Tally tally = new Tally(trainers);
+		AtomicInteger next = new AtomicInteger();
+		AtomicBoolean stop = new AtomicBoolean();
+		long start = System.nanoTime();
+		long deadline = start + budget.toNanos();
+
+		int workers = Math.min(this.threads, rollouts);
+		ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+			Thread thread = new Thread(r, "POOBkemon-estimator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> running = new ArrayList<>();
+			for (int t = 0; t < workers; t++) {
+				running.add(pool.submit(() -> {
+					int i;
+					while (!stop.get() && System.nanoTime() < deadline && (i = next.getAndIncrement()) < rollouts) {
+						int winner;
+						try {
+							winner = this.rollout(origin, rolloutSeed(seed, i), deadline);
+						} catch (POOBkemonException | RuntimeException e) {
+							tally.error();
+							continue;
+						}
+						if (winner != ABANDONED && tally.add(winner, this.tolerance)) {
+							stop.set(true);
+						}
+					}
+				}));
+			}
+			for (Future<?> worker : running) {
+				try {
+					worker.get();
+				} catch (ExecutionException e) {
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		return tally.toEstimate(System.nanoTime() - start, stop.get());
+	}
+
+	/**
+	 * Plays one copy of the battle to the end.
+	 *
+	 * @return the id of the winning trainer, {@link #UNFINISHED} at the turn limit
+	 *         or {@link #ABANDONED} if the time budget ran out first
+	 */
+	private int rollout(POOBkemon origin, long seed, long deadline) throws POOBkemonException {
+		POOBkemon game = origin.copy();
+		BattleSession session = game.getSession();
+		session.startBattle(seed);
+		ArrayList<Integer> order = game.getOrder();
+		Machine[] players = new Machine[order.size()];
+		for (int i = 0; i < players.length; i++) {
+			int trainer = order.get(i);
+			players[i] = machine(this.policies.getOrDefault(trainer, this.defaultPolicy),
+					trainer, game.findTeam(trainer).getTrainer().getBagPack());
+			players[i].bindRandom(session.getDecisionRandom());
+		}
+		int turn = 0;
+		int player = game.actionsInTurn();
+		while (!game.finishBattle() && turn < this.maxTurns) {
+			game.apply(players[player].decide(game));
+			if (++player == players.length) {
+				player = 0;
+				turn++;
+				if (System.nanoTime() >= deadline) {
+					return ABANDONED;
+				}
+			}
+		}
+		return game.finishBattle() ? game.getWinner() : UNFINISHED;
+	}
+
+	/**
+	 * @return the machine of the given type that plays for a trainer, sharing its backpack
+	 */
+	private static Machine machine(String type, int trainer, BagPack bagPack) throws POOBkemonException {
+		switch (type) {
+			case "Offensive":
+				return new Offensive(trainer, bagPack);
+			case "Defensive":
+				return new Defensive(trainer, bagPack);
+			case "Switcher":
+				return new Switcher(trainer, bagPack);
+			default:
+				return new Expert(trainer, bagPack);
+		}
+	}
+
+	/**
+	 * @return the draw number {@code rollout} of a {@link BattleRandom} seeded with
+	 *         {@code seed}, computed without making the draws before it
+	 */
+	static long rolloutSeed(long seed, int rollout) {
+		return new BattleRandom(seed + rollout * GOLDEN_GAMMA).nextLong();
+	}
+
+	/**
+	 * Wilson score interval of a win rate.
+	 *
+	 * @return {lower bound, upper bound} at 95%
+	 */
+	static double[] interval(int wins, int rollouts) {
+		if (rollouts == 0) {
+			return new double[] {0, 1};
+		}
+		double p = (double) wins / rollouts;
+		double z2 = Z * Z / rollouts;
+		double center = (p + z2 / 2) / (1 + z2);
+		double half = Z * Math.sqrt(p * (1 - p) / rollouts + z2 / (4 * rollouts)) / (1 + z2);
+		return new double[] {Math.max(0, center - half), Math.min(1, center + half)};
+	}
+
+	/**
+	 * Counts shared by the workers of a run.
+	 */
+	private static final class Tally {
+
+		private final int[] trainers;
+		private final int[] wins;
+		private int rollouts;
+		private int unfinished;
+		private int errors;
+
+		Tally(int[] trainers) {
+			this.trainers = trainers;
+			this.wins = new int[trainers.length];
+		}
+
+		/**
+		 * Counts a rollout.
+		 *
+		 * @return true if the run can stop, every interval being within the tolerance
+		 */
+		synchronized boolean add(int winner, double tolerance) {
+			this.rollouts++;
+			boolean won = false;
+			for (int i = 0; i < this.trainers.length; i++) {
+				if (this.trainers[i] == winner) {
+					this.wins[i]++;
+					won = true;
+				}
+			}
+			if (!won) {
+				this.unfinished++;
+			}
+			if (tolerance == 0 || this.rollouts < MIN_ROLLOUTS) {
+				return false;
+			}
+			for (int win : this.wins) {
+				double[] bounds = interval(win, this.rollouts);
+				if (bounds[1] - bounds[0] > 2 * tolerance) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		synchronized void error() {
+			this.errors++;
+		}
+
+		synchronized Estimate toEstimate(long elapsedNanos, boolean converged) {
+			return new Estimate(this.trainers.clone(), this.wins.clone(), this.rollouts,
+					this.unfinished, this.errors, elapsedNanos, converged);
+		}
+	}
+
+	/**
+	 * Outcome of a run: the rollouts each trainer won, out of those that were played
+	 * to the end or to the turn limit. Rollouts that failed are left out.
+	 */
+	public static final class Estimate {
+
+		private final int[] trainers;
+		private final int[] wins;
+		private final int rollouts;
+		private final int unfinished;
+		private final int errors;
+		private final long elapsedNanos;
+		private final boolean converged;
+
+		Estimate(int[] trainers, int[] wins, int rollouts, int unfinished, int errors, long elapsedNanos, boolean converged) {
+			this.trainers = trainers;
+			this.wins = wins;
+			this.rollouts = rollouts;
+			this.unfinished = unfinished;
+			this.errors = errors;
+			this.elapsedNanos = elapsedNanos;
+			this.converged = converged;
+		}
+
+		/**
+		 * @return the trainer ids, in turn order
+		 */
+		public int[] getTrainers() {
+			return this.trainers.clone();
+		}
+
+		/**
+		 * @return the rollouts counted in the estimate
+		 */
+		public int getRollouts() {
+			return this.rollouts;
+		}
+
+		public int getWins(int trainerId) {
+			return this.wins[this.indexOf(trainerId)];
+		}
+
+		/**
+		 * @return the share of the counted rollouts that the trainer won, 0 if none was counted
+		 */
+		public double getWinRate(int trainerId) {
+			return this.rollouts == 0 ? 0 : (double) this.getWins(trainerId) / this.rollouts;
+		}
+
+		/**
+		 * @return {lower bound, upper bound} of the trainer's win rate at 95%
+		 */
+		public double[] getInterval(int trainerId) {
+			return interval(this.getWins(trainerId), this.rollouts);
+		}
+
+		/**
+		 * @return the counted rollouts that reached the turn limit
+		 */
+		public int getUnfinished() {
+			return this.unfinished;
+		}
+
+		public int getErrors() {
+			return this.errors;
+		}
+
+		/**
+		 * @return share of the rollouts that failed; they are left out of the win rates
+		 */
+		public double getErrorRate() {
+			int played = this.rollouts + this.errors;
+			return played == 0 ? 0 : (double) this.errors / played;
+		}
+
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/**
+		 * @return true if the run stopped early because every interval was within the tolerance
+		 */
+		public boolean isConverged() {
+			return this.converged;
+		}
+
+		private int indexOf(int trainerId) {
+			for (int i = 0; i < this.trainers.length; i++) {
+				if (this.trainers[i] == trainerId) {
+					return i;
+				}
+			}
+			throw new IllegalArgumentException("Entrenador con ID " + trainerId + " no está en la batalla");
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder(String.format("%d simulaciones en %.2f s%s",
+					this.rollouts, this.elapsedNanos / 1e9, this.converged ? " (convergió)" : ""));
+			for (int trainer : this.trainers) {
+				double[] bounds = this.getInterval(trainer);
+				text.append(String.format("%n  entrenador %d: %.1f%% [%.1f%%, %.1f%%]",
+						trainer, 100 * this.getWinRate(trainer), 100 * bounds[0], 100 * bounds[1]));
+			}
+			return text.append(String.format("%n  sin terminar %d, errores %d (%.1f%%)",
+					this.unfinished, this.errors, 100 * this.getErrorRate())).toString();
+		}
+	}
+}
@@ -4,4 +4,12 @@ public class special extends Attack {
     public special(int idInside,String[] info) throws POOBkemonException{
         super(idInside,info);
     }
+    public special(int idInside,MoveSpec spec){
+        super(idInside,spec);
+    }
+
+    @Override
+    public boolean isSpecial() {
+        return true;
+    }
 }
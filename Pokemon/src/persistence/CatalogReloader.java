@@ -0,0 +1,172 @@
+package persistence;
+
+import domain.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vigila la carpeta de los CSV y, cuando alguno cambia, construye un catálogo nuevo
+ * en su propio hilo y lo publica en {@link GameData#getInstance()}.
+ *
+ * <p>Las batallas en curso conservan el catálogo con el que se crearon; solo las
+ * nuevas toman el recargado. Si la lectura falla (un archivo a medio guardar, una
+ * fila mal formada) se mantiene el catálogo anterior y se cuenta el fallo.
+ */
+public final class CatalogReloader implements Closeable {
+
+    /** Tiempo sin eventos que se espera antes de recargar, para agrupar guardados seguidos. */
+    private static final long QUIET_PERIOD_MS = 250;
+
+    private static final Set<String> SOURCES = Set.of(
+            GameData.POKEMONS_ARCHIVE,
+            GameData.ATACKS_ARCHIVE,
+            GameData.STATUS_CSV,
+            GameData.ROOT_STATS_LOCATION,
+            GameData.ITEMS_ARCHIVE
+    );
+
+    private final Path csvDir;
+    private final Object reloadLock = new Object();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private volatile Exception lastFailure;
+    private WatchService watcher;
+    private Thread thread;
+
+    /**
+     * Crea un recargador sin vigilar la carpeta; las recargas se piden con {@link #reloadNow()}.
+     * @param csvDir carpeta con los cinco CSV del juego
+     */
+    public CatalogReloader(Path csvDir) {
+        this.csvDir = csvDir;
+    }
+
+    /**
+     * Empieza a vigilar la carpeta en un hilo demonio.
+     * @param csvDir carpeta con los cinco CSV del juego
+     */
+    public static CatalogReloader start(Path csvDir) throws IOException {
+        CatalogReloader reloader = new CatalogReloader(csvDir);
+        reloader.watcher = FileSystems.getDefault().newWatchService();
+        csvDir.register(reloader.watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        reloader.thread = new Thread(reloader::watch, "POOBkemon-catalog-reloader");
+        reloader.thread.setDaemon(true);
+        reloader.thread.start();
+        return reloader;
+    }
+
+    /**
+     * Empieza a vigilar la carpeta de los CSV del juego, la misma de la que carga
+     * {@link GameData#getInstance()}.
+     */
+    public static CatalogReloader start() throws IOException {
+        return start(Paths.get(GameData.CSV_DIR));
+    }
+
+    /**
+     * Lee los CSV y publica el catálogo resultante.
+     * @return true si se publicó un catálogo nuevo, false si la lectura falló
+     *         (el error queda en {@link #getLastFailure()})
+     */
+    public boolean reloadNow() {
+        synchronized (reloadLock) {
+            long start = System.nanoTime();
+            try {
+                GameData data = GameData.load(csvDir);
+                GameData.publish(data);
+                long latency = System.nanoTime() - start;
+                lastLatencyNanos.set(latency);
+                totalLatencyNanos.addAndGet(latency);
+                reloads.incrementAndGet();
+                return true;
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                lastFailure = e;
+                return false;
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!relevant(watcher.take())) continue;
+                // Espera a que dejen de llegar eventos antes de leer
+                WatchKey key;
+                while ((key = watcher.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant(key);
+                }
+                if (!reloadNow()) {
+                    Log.record(lastFailure);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Cerrado: termina el hilo
+        }
+    }
+
+    private boolean relevant(WatchKey key) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (SOURCES.contains(String.valueOf(event.context()))) {
+                relevant = true;
+            }
+        }
+        key.reset();
+        return relevant;
+    }
+
+    /** Número de recargas publicadas. */
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    /** Número de recargas que fallaron y dejaron el catálogo anterior. */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /** Duración de la última recarga exitosa, desde que empieza la lectura hasta que se publica. */
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos.get();
+    }
+
+    /** Duración media de las recargas exitosas, o 0 si aún no hay ninguna. */
+    public long getAverageLatencyNanos() {
+        long count = reloads.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count;
+    }
+
+    /** Último error de recarga, o null si nunca falló. */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Lector de CSV por flujo que reutiliza sus buffers entre registros.
+ *
+ * <p>Lee con un buffer de caracteres fijo y guarda el registro actual en un único
+ * arreglo, de modo que avanzar de registro no reserva memoria. Los campos se
+ * consultan como vistas {@link CharSequence} (válidas hasta el siguiente
+ * {@link #next()}), como primitivos ya parseados, o como {@code String} sólo
+ * cuando realmente se necesitan.
+ *
+ * <p>Sigue las mismas reglas que el antiguo {@code splitCSVLine}: las comillas
+ * agrupan comas y se descartan, y cada campo se recorta. Dentro de comillas, dos
+ * comillas seguidas valen por una literal. Además ignora el BOM UTF-8 al inicio
+ * del archivo (presente en {@code movimientos.csv}).
+ */
+public final class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char BOM = '\uFEFF';
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean atStart = true;
+
+    private char[] record = new char[256];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private Field[] views = new Field[16];
+    private int fields;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Abre un archivo CSV codificado en UTF-8.
+     */
+    public static CsvReader open(Path path) throws IOException {
+        return new CsvReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Avanza al siguiente registro.
+     * @return false si se llegó al final del archivo
+     */
+    public boolean next() throws IOException {
+        fields = 0;
+        int length = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        boolean read = false;
+
+        while (true) {
+            if (position == limit && !fill()) {
+                if (!read) return false;
+                break;
+            }
+            char c = buffer[position++];
+            if (atStart) {
+                atStart = false;
+                if (c == BOM) continue;
+            }
+            read = true;
+            if (c == '"') {
+                if (!inQuotes || (position == limit && !fill()) || buffer[position] != '"') {
+                    inQuotes = !inQuotes;
+                    continue;
+                }
+                position++;
+            }
+            if (!inQuotes) {
+                if (c == ',') {
+                    endField(fieldStart, length);
+                    fieldStart = length;
+                    continue;
+                }
+                if (c == '\n') break;
+                if (c == '\r') {
+                    if ((position < limit || fill()) && buffer[position] == '\n') position++;
+                    break;
+                }
+            }
+            if (length == record.length) {
+                record = Arrays.copyOf(record, length * 2);
+            }
+            record[length++] = c;
+        }
+        endField(fieldStart, length);
+        return true;
+    }
+
+    public int fieldCount() {
+        return fields;
+    }
+
+    /**
+     * Vista del campo sobre el buffer interno; deja de ser válida al llamar a {@link #next()}.
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        Field view = views[index];
+        if (view == null) {
+            view = new Field(index);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return starts[index] == ends[index];
+    }
+
+    public String getString(int index) {
+        checkIndex(index);
+        return new String(record, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parsea el campo como entero sin crear un {@code String}.
+     * @throws NumberFormatException si el campo no es un entero válido
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        int i = starts[index];
+        int end = ends[index];
+        if (i == end) throw new NumberFormatException("Campo vacío en la columna " + index);
+        boolean negative = record[i] == '-';
+        if (negative || record[i] == '+') i++;
+        if (i == end) throw new NumberFormatException("Entero inválido: " + getString(index));
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException("Entero inválido: " + getString(index));
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) throw new NumberFormatException("Entero fuera de rango: " + getString(index));
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException("Entero fuera de rango: " + getString(index));
+        return (int) value;
+    }
+
+    /**
+     * Parsea el campo como decimal. Los valores simples ({@code -12.5}) se convierten
+     * sin crear objetos; cualquier otra notación se delega a {@link Double#parseDouble(String)}.
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        int i = starts[index];
+        int end = ends[index];
+        boolean negative = i < end && record[i] == '-';
+        if (negative || (i < end && record[i] == '+')) i++;
+        long mantissa = 0;
+        int decimals = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; i < end; i++) {
+            char c = record[i];
+            if (c == '.' && !point) {
+                point = true;
+            } else if (c >= '0' && c <= '9' && digits < 16) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (point) decimals++;
+            } else {
+                return Double.parseDouble(getString(index));
+            }
+        }
+        if (digits == 0) return Double.parseDouble(getString(index));
+        double value = mantissa / POWERS_OF_TEN[decimals];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Copia el registro actual en un arreglo de {@code String}.
+     */
+    public String[] toArray() {
+        String[] values = new String[fields];
+        for (int i = 0; i < fields; i++) {
+            values[i] = getString(i);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    private void endField(int start, int end) {
+        while (start < end && record[start] <= ' ') start++;
+        while (end > start && record[end - 1] <= ' ') end--;
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+            views = Arrays.copyOf(views, fields * 2);
+        }
+        starts[fields] = start;
+        ends[fields] = end;
+        fields++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fields) {
+            throw new IndexOutOfBoundsException("Columna " + index + " fuera del registro de " + fields + " campos");
+        }
+    }
+
+    /**
+     * Vista reutilizable de una columna del registro actual.
+     */
+    private final class Field implements CharSequence {
+        private final int index;
+
+        private Field(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return ends[index] - starts[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            return record[starts[index] + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(record, starts[index] + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return getString(index);
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Paquete binario con los datos de los cinco CSV del juego, pensado para que los
+ * procesos de simulación arranquen sin parsear CSV.
+ *
+ * <p>Formato (big-endian):
+ * <pre>
+ * encabezado  : magic "PKDP" | versión | nº tablas | reservado | CRC32 del cuerpo (long) | tamaño del cuerpo (long)
+ * directorio  : por tabla → id | nº registros | campos máximos | offset de registros | ancho de registro | columnas numéricas
+ * registros   : ancho fijo → clave | nº campos | 8 bytes por campo
+ * textos      : bytes UTF-8 de los campos de texto
+ * </pre>
+ * Una columna es numérica si todos sus valores son enteros; sus campos guardan el
+ * entero directamente (valor, 0) y se leen con {@link #intField(Table, int, int)} sin
+ * parsear nada. Los demás campos guardan (offset, longitud) en el montón de textos.
+ * Las columnas numéricas se marcan en una máscara de bits, así que solo las 32
+ * primeras de cada tabla pueden serlo.
+ *
+ * <p>Los registros de especies y movimientos están ordenados por clave, por lo que
+ * {@link #find(Table, int)} hace búsqueda binaria y cada registro se puede leer
+ * por separado directamente desde la vista mapeada en memoria.
+ *
+ * <p>Se genera con {@code java persistence.DataPack [carpetaCsv] [archivoSalida]}.
+ */
+public final class DataPack {
+
+    /**
+     * Tablas contenidas en el paquete.
+     */
+    public enum Table {
+        POKEMONS,
+        MOVES,
+        STATUSES,
+        TYPE_CHART,
+        ITEMS
+    }
+
+    static final int MAGIC = 0x504B4450; // "PKDP"
+    static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int DIRECTORY_ENTRY_SIZE = 24;
+    private static final int NUMERIC_COLUMNS = Integer.SIZE;
+    private static final int FIELD_SLOT_SIZE = 8;
+    private static final int RECORD_PREFIX_SIZE = 8;
+
+    private static final String[] SOURCES = {
+            GameData.POKEMONS_ARCHIVE,
+            GameData.ATACKS_ARCHIVE,
+            GameData.STATUS_CSV,
+            GameData.ROOT_STATS_LOCATION,
+            GameData.ITEMS_ARCHIVE
+    };
+
+    private final ByteBuffer buffer;
+    private final int[] recordCounts = new int[Table.values().length];
+    private final int[] recordOffsets = new int[Table.values().length];
+    private final int[] recordWidths = new int[Table.values().length];
+    private final int[] numericColumns = new int[Table.values().length];
+
+    private DataPack(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("El archivo no es un paquete de datos de POOBkemon");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Versión de paquete no soportada: " + buffer.getInt(4));
+        }
+        long bodyLength = buffer.getLong(24);
+        if (bodyLength != buffer.capacity() - HEADER_SIZE) {
+            throw new IllegalStateException("Paquete de datos truncado");
+        }
+        if (checksum(buffer) != buffer.getLong(16)) {
+            throw new IllegalStateException("Checksum inválido en el paquete de datos");
+        }
+        int tables = buffer.getInt(8);
+        for (int i = 0; i < tables; i++) {
+            int entry = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            int table = buffer.getInt(entry);
+            recordCounts[table] = buffer.getInt(entry + 4);
+            recordOffsets[table] = buffer.getInt(entry + 12);
+            recordWidths[table] = buffer.getInt(entry + 16);
+            numericColumns[table] = buffer.getInt(entry + 20);
+        }
+    }
+
+    /**
+     * Abre un paquete mapeándolo en memoria y valida su versión y checksum.
+     * @throws IllegalStateException si el paquete está corrupto o es de otra versión
+     */
+    public static DataPack open(Path pack) throws IOException {
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            return new DataPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Arma un paquete en memoria a partir de filas ya separadas, sin pasar por disco.
+     * @param source filas por tabla, en el formato de {@link GameData#readCsvTables(Path)}
+     */
+    static DataPack of(Map<Table, Rows> source) {
+        return new DataPack(encode(source));
+    }
+
+    /**
+     * Indica si el paquete existe y es al menos tan reciente como todos los CSV.
+     */
+    static boolean isUpToDate(Path pack, Path csvDir) {
+        try {
+            if (!Files.isRegularFile(pack)) return false;
+            FileTime packTime = Files.getLastModifiedTime(pack);
+            for (String source : SOURCES) {
+                Path csv = csvDir.resolve(source);
+                if (Files.exists(csv) && Files.getLastModifiedTime(csv).compareTo(packTime) > 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public int recordCount(Table table) {
+        return recordCounts[table.ordinal()];
+    }
+
+    /**
+     * Clave del registro: número de Pokédex o id de movimiento, o su posición en las demás tablas.
+     */
+    public int key(Table table, int record) {
+        return buffer.getInt(recordPosition(table, record));
+    }
+
+    /**
+     * Busca un registro por clave en las tablas ordenadas (especies y movimientos).
+     * @return el índice del registro o -1 si no existe
+     */
+    public int find(Table table, int key) {
+        int low = 0;
+        int high = recordCount(table) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int current = key(table, mid);
+            if (current < key) {
+                low = mid + 1;
+            } else if (current > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public int fieldCount(Table table, int record) {
+        return buffer.getInt(recordPosition(table, record) + 4);
+    }
+
+    /**
+     * Indica si la columna guarda enteros de ancho fijo.
+     */
+    public boolean isNumeric(Table table, int field) {
+        return isNumericColumn(numericColumns[table.ordinal()], field);
+    }
+
+    /**
+     * Lee un campo como entero. En las columnas numéricas es una lectura directa;
+     * en las de texto se parsea el valor.
+     * @throws NumberFormatException si el campo de texto no es un entero
+     */
+    public int intField(Table table, int record, int field) {
+        if (isNumeric(table, field)) {
+            return buffer.getInt(fieldPosition(table, record, field));
+        }
+        return Integer.parseInt(field(table, record, field).trim());
+    }
+
+    /**
+     * Lee un único campo de un registro sin decodificar el resto.
+     */
+    public String field(Table table, int record, int field) {
+        int slot = fieldPosition(table, record, field);
+        if (isNumeric(table, field)) {
+            return Integer.toString(buffer.getInt(slot));
+        }
+        int offset = buffer.getInt(slot);
+        int length = buffer.getInt(slot + 4);
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lee un registro completo con el mismo formato de fila que produce el CSV.
+     */
+    public String[] record(Table table, int record) {
+        String[] values = new String[fieldCount(table, record)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = field(table, record, i);
+        }
+        return values;
+    }
+
+    private int fieldPosition(Table table, int record, int field) {
+        if (field < 0 || field >= fieldCount(table, record)) {
+            throw new IndexOutOfBoundsException("Campo " + field + " fuera del registro " + record + " de " + table);
+        }
+        return recordPosition(table, record) + RECORD_PREFIX_SIZE + field * FIELD_SLOT_SIZE;
+    }
+
+    private int recordPosition(Table table, int record) {
+        int t = table.ordinal();
+        if (record < 0 || record >= recordCounts[t]) {
+            throw new IndexOutOfBoundsException("Registro " + record + " fuera de la tabla " + table);
+        }
+        return recordOffsets[t] + record * recordWidths[t];
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_SIZE));
+        return crc.getValue();
+    }
+
+    /**
+     * Compila los CSV de una carpeta en un paquete binario.
+     * @param csvDir carpeta con los cinco CSV del juego
+     * @param out archivo de salida
+     */
+    public static void compile(Path csvDir, Path out) throws IOException {
+        write(GameData.readCsvTables(csvDir), out);
+    }
+
+    static void write(Map<Table, Rows> source, Path out) throws IOException {
+        ByteBuffer buffer = encode(source);
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ByteBuffer encode(Map<Table, Rows> source) {
+        Table[] tables = Table.values();
+        int[][] orders = new int[tables.length][];
+        int[][] keys = new int[tables.length][];
+        int[] widths = new int[tables.length];
+        int[] numeric = new int[tables.length];
+        int size = HEADER_SIZE + tables.length * DIRECTORY_ENTRY_SIZE;
+        int[] offsets = new int[tables.length];
+
+        for (Table table : tables) {
+            int t = table.ordinal();
+            Rows rows = source.get(table);
+            boolean keyed = table == Table.POKEMONS || table == Table.MOVES;
+            int[] order = keyed ? sortedByKey(rows) : IntStream.range(0, rows.size()).toArray();
+            int[] tableKeys = new int[order.length];
+            int maxFields = 0;
+            for (int i = 0; i < order.length; i++) {
+                tableKeys[i] = keyed ? rows.getInt(order[i], 0) : i;
+                maxFields = Math.max(maxFields, rows.fieldCount(order[i]));
+            }
+            numeric[t] = numericColumns(rows, Math.min(maxFields, NUMERIC_COLUMNS));
+            orders[t] = order;
+            keys[t] = tableKeys;
+            widths[t] = RECORD_PREFIX_SIZE + maxFields * FIELD_SLOT_SIZE;
+            offsets[t] = size;
+            size += order.length * widths[t];
+        }
+
+        List<byte[]> texts = new ArrayList<>();
+        int textSize = 0;
+        for (Table table : tables) {
+            int t = table.ordinal();
+            Rows rows = source.get(table);
+            for (int row : orders[t]) {
+                for (int f = 0; f < rows.fieldCount(row); f++) {
+                    if (isNumericColumn(numeric[t], f)) continue;
+                    byte[] bytes = rows.get(row, f).getBytes(StandardCharsets.UTF_8);
+                    texts.add(bytes);
+                    textSize += bytes.length;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size + textSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, tables.length);
+        for (Table table : tables) {
+            int t = table.ordinal();
+            int entry = HEADER_SIZE + t * DIRECTORY_ENTRY_SIZE;
+            buffer.putInt(entry, t);
+            buffer.putInt(entry + 4, orders[t].length);
+            buffer.putInt(entry + 8, (widths[t] - RECORD_PREFIX_SIZE) / FIELD_SLOT_SIZE);
+            buffer.putInt(entry + 12, offsets[t]);
+            buffer.putInt(entry + 16, widths[t]);
+            buffer.putInt(entry + 20, numeric[t]);
+        }
+
+        int textOffset = size;
+        int text = 0;
+        for (Table table : tables) {
+            int t = table.ordinal();
+            Rows rows = source.get(table);
+            for (int i = 0; i < orders[t].length; i++) {
+                int row = orders[t][i];
+                int position = offsets[t] + i * widths[t];
+                buffer.putInt(position, keys[t][i]);
+                buffer.putInt(position + 4, rows.fieldCount(row));
+                for (int f = 0; f < rows.fieldCount(row); f++) {
+                    int slot = position + RECORD_PREFIX_SIZE + f * FIELD_SLOT_SIZE;
+                    if (isNumericColumn(numeric[t], f)) {
+                        buffer.putInt(slot, rows.getInt(row, f));
+                        continue;
+                    }
+                    byte[] bytes = texts.get(text++);
+                    buffer.putInt(slot, textOffset);
+                    buffer.putInt(slot + 4, bytes.length);
+                    buffer.put(textOffset, bytes);
+                    textOffset += bytes.length;
+                }
+            }
+        }
+        buffer.putLong(24, buffer.capacity() - HEADER_SIZE);
+        buffer.putLong(16, checksum(buffer));
+        return buffer;
+    }
+
+    /**
+     * Orden de las filas por clave. Con claves repetidas queda la última fila, como al indexar el CSV.
+     */
+    private static int[] sortedByKey(Rows rows) {
+        long[] sorted = new long[rows.size()];
+        for (int row = 0; row < sorted.length; row++) {
+            sorted[row] = (long) rows.getInt(row, 0) << 32 | row;
+        }
+        Arrays.sort(sorted);
+        int[] order = new int[sorted.length];
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i + 1 < sorted.length && sorted[i + 1] >> 32 == sorted[i] >> 32) continue;
+            order[count++] = (int) sorted[i];
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    /**
+     * Máscara de las columnas cuyos valores son todos enteros escritos sin ceros ni
+     * signos de más, de modo que al leerlos se obtiene exactamente el mismo texto.
+     */
+    private static int numericColumns(Rows rows, int columns) {
+        int mask = 0;
+        for (int f = 0; f < columns; f++) {
+            boolean numeric = rows.size() > 0;
+            for (int row = 0; row < rows.size() && numeric; row++) {
+                numeric = f >= rows.fieldCount(row) || rows.isInt(row, f);
+            }
+            if (numeric) mask |= 1 << f;
+        }
+        return mask;
+    }
+
+    /**
+     * Indica si el texto es un entero escrito tal como lo escribe {@link Integer#toString(int)}.
+     */
+    static boolean isCanonicalInt(CharSequence value) {
+        int length = value.length();
+        boolean negative = length > 0 && value.charAt(0) == '-';
+        int i = negative ? 1 : 0;
+        if (i == length || length - i > 10) return false;
+        if (value.charAt(i) == '0') return length == 1;
+        long number = 0;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+            number = number * 10 + (c - '0');
+        }
+        return number <= (negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE);
+    }
+
+    private static boolean isNumericColumn(int mask, int field) {
+        return field < NUMERIC_COLUMNS && (mask >>> field & 1) != 0;
+    }
+
+    /**
+     * Filas de una tabla antes de empaquetarlas. Los campos de todas las filas van
+     * seguidos en arreglos compartidos, sin un arreglo por fila, y los enteros se
+     * guardan como {@code int} sin crear su {@code String}.
+     */
+    static final class Rows {
+
+        private int[] rowEnds = new int[64];
+        private int[] ints = new int[256];
+        private String[] texts = new String[256];
+        private int size;
+        private int cells;
+
+        /**
+         * Agrega el registro actual del lector.
+         */
+        void add(CsvReader reader) {
+            for (int f = 0; f < reader.fieldCount(); f++) {
+                if (isCanonicalInt(reader.field(f))) {
+                    addCell(reader.getInt(f), null);
+                } else {
+                    addCell(0, reader.getString(f));
+                }
+            }
+            endRow();
+        }
+
+        void add(String... row) {
+            for (String value : row) {
+                if (isCanonicalInt(value)) {
+                    addCell(Integer.parseInt(value), null);
+                } else {
+                    addCell(0, value);
+                }
+            }
+            endRow();
+        }
+
+        int size() {
+            return size;
+        }
+
+        int fieldCount(int row) {
+            return rowEnds[row] - start(row);
+        }
+
+        boolean isInt(int row, int field) {
+            return texts[cell(row, field)] == null;
+        }
+
+        /**
+         * @throws NumberFormatException si el campo es un texto que no es un entero
+         */
+        int getInt(int row, int field) {
+            int cell = cell(row, field);
+            return texts[cell] == null ? ints[cell] : Integer.parseInt(texts[cell].trim());
+        }
+
+        String get(int row, int field) {
+            int cell = cell(row, field);
+            return texts[cell] == null ? Integer.toString(ints[cell]) : texts[cell];
+        }
+
+        private int start(int row) {
+            return row == 0 ? 0 : rowEnds[row - 1];
+        }
+
+        private int cell(int row, int field) {
+            if (field < 0 || field >= fieldCount(row)) {
+                throw new IndexOutOfBoundsException("Campo " + field + " fuera de la fila " + row);
+            }
+            return start(row) + field;
+        }
+
+        private void addCell(int value, String text) {
+            if (cells == texts.length) {
+                ints = Arrays.copyOf(ints, cells * 2);
+                texts = Arrays.copyOf(texts, cells * 2);
+            }
+            ints[cells] = value;
+            texts[cells] = text;
+            cells++;
+        }
+
+        private void endRow() {
+            if (size == rowEnds.length) {
+                rowEnds = Arrays.copyOf(rowEnds, size * 2);
+            }
+            rowEnds[size++] = cells;
+        }
+    }
+
+    /**
+     * Herramienta de compilación: {@code java persistence.DataPack [carpetaCsv] [archivoSalida]}.
+     */
+    public static void main(String[] args) throws IOException {
+        Path csvDir = Paths.get(args.length > 0 ? args[0] : GameData.CSV_DIR);
+        Path out = Paths.get(args.length > 1 ? args[1] : GameData.PACK_ARCHIVE);
+        compile(csvDir, out);
+        DataPack pack = open(out);
+        for (Table table : Table.values()) {
+            System.out.println(table + ": " + pack.recordCount(table) + " registros");
+        }
+        System.out.println("Paquete escrito en " + out.toAbsolutePath());
+    }
+}
@@ -0,0 +1,544 @@
+package persistence;
+
+import domain.DamageKernel;
+import domain.Log;
+import domain.MoveSpec;
+import domain.POOBkemonException;
+import domain.PokemonType;
+import domain.SpeciesTemplate;
+import domain.State;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Catálogo inmutable con todos los datos del juego (especies, movimientos, estados,
+ * tabla de tipos e items). Se construye a partir de los CSV de
+ * {@code resources/csv} y es compartido por todos los repositorios, de modo que
+ * durante una batalla no se vuelve a leer ningún archivo. Si los CSV cambian, se
+ * construye un catálogo nuevo que reemplaza al vigente sin modificar el anterior.
+ * Si existe un paquete binario compilado ({@link DataPack}) más reciente que los CSV,
+ * se carga desde él en lugar de volver a parsear los CSV; los CSV también se pasan a
+ * un paquete en memoria, así que el catálogo siempre se lee de un {@link DataPack}.
+ */
+public final class GameData {
+
+    static final String CSV_DIR = "resources/csv/";
+    static final String POKEMONS_ARCHIVE = "Pokemones.csv";
+    static final String ATACKS_ARCHIVE = "movimientos.csv";
+    static final String STATUS_CSV = "Estados.csv";
+    static final String ROOT_STATS_LOCATION = "MovesStatspok.csv";
+    static final String ITEMS_ARCHIVE = "Items.csv";
+    static final String PACK_ARCHIVE = CSV_DIR + "POOBkemon.pack";
+
+    private final Map<Integer, String[]> pokemons;
+    private final Map<Integer, SpeciesTemplate> species;
+    private final Map<Integer, String[]> moves;
+    private final Map<Integer, MoveSpec> moveSpecs;
+    private final Map<Integer, String[]> statuses;
+    private final Map<String, String[]> statusesByName;
+    private final Map<State.StateType, String[]> statusesByType;
+    private final Map<State.StateType, State> statePrototypes;
+    private final Map<Integer, String[]> moveStatuses;
+    private final Map<Integer, State.StateType> moveStatusTypes;
+    private final BitSet[] movesByType;
+    private final Map<String, Map<String, Double>> typeChart;
+    private final double[] typeMatrix;
+    private final double[] dualTypeMatrix;
+    private final int[] dualTypeFixed;
+    private final List<List<String>> items;
+
+    /**
+     * Catálogo vigente. Se reemplaza completo al recargar los CSV ({@link CatalogReloader}),
+     * así que quien ya obtuvo una instancia sigue usando la misma de forma consistente.
+     */
+    private static volatile GameData current;
+
+    /**
+     * Construye el catálogo a partir de un paquete. Las filas de especies y movimientos
+     * se decodifican del paquete a medida que se piden; para lo demás solo se leen los
+     * campos necesarios, y los números salen directamente de sus columnas de enteros.
+     */
+    GameData(DataPack pack) {
+        Map<Integer, SpeciesTemplate> templates = new HashMap<>();
+        for (int r = 0; r < pack.recordCount(DataPack.Table.POKEMONS); r++) {
+            try {
+                templates.put(pack.key(DataPack.Table.POKEMONS, r), speciesOf(pack, r));
+            } catch (RuntimeException e) {
+                Log.record(e);
+            }
+        }
+        Map<Integer, MoveSpec> specs = new HashMap<>();
+        for (int r = 0; r < pack.recordCount(DataPack.Table.MOVES); r++) {
+            try {
+                specs.put(pack.key(DataPack.Table.MOVES, r), moveSpecOf(pack, r));
+            } catch (RuntimeException e) {
+                Log.record(e);
+            }
+        }
+        TreeMap<Integer, String[]> estados = new TreeMap<>();
+        Map<String, String[]> byName = new HashMap<>();
+        for (int i = 0; i < pack.recordCount(DataPack.Table.STATUSES); i++) {
+            String[] estado = pack.record(DataPack.Table.STATUSES, i);
+            estados.put(i + 1, estado); // Usa el número de línea como ID único
+            byName.putIfAbsent(estado[0].toUpperCase(), estado);
+        }
+        Map<State.StateType, String[]> byType = new EnumMap<>(State.StateType.class);
+        Map<State.StateType, State> prototypes = new EnumMap<>(State.StateType.class);
+        Map<String[], State.StateType> typeOfRow = new IdentityHashMap<>();
+        for (String[] estado : byName.values()) {
+            try {
+                State prototype = new State(estado);
+                byType.putIfAbsent(prototype.getType(), estado);
+                prototypes.putIfAbsent(prototype.getType(), prototype);
+                typeOfRow.put(estado, prototype.getType());
+            } catch (IllegalArgumentException e) {
+                // Estados del CSV sin StateType: solo se pueden consultar por nombre
+            }
+        }
+        BitSet[] byMoveType = new BitSet[PokemonType.COUNT];
+        for (int t = 0; t < byMoveType.length; t++) {
+            byMoveType[t] = new BitSet();
+        }
+        Map<Integer, String[]> statusOfMove = new HashMap<>();
+        Map<Integer, State.StateType> statusTypeOfMove = new HashMap<>();
+        for (int r = 0; r < pack.recordCount(DataPack.Table.MOVES); r++) {
+            int id = pack.key(DataPack.Table.MOVES, r);
+            int type = PokemonType.indexOf(pack.field(DataPack.Table.MOVES, r, 3));
+            if (type != PokemonType.NONE) byMoveType[type].set(id);
+            if (pack.fieldCount(DataPack.Table.MOVES, r) <= 9
+                    || !pack.field(DataPack.Table.MOVES, r, 4).equalsIgnoreCase("status")) continue;
+            String[] estado = byName.get(pack.field(DataPack.Table.MOVES, r, 9).toUpperCase());
+            if (estado == null) continue;
+            statusOfMove.put(id, estado);
+            State.StateType stateType = typeOfRow.get(estado);
+            if (stateType != null) statusTypeOfMove.put(id, stateType);
+        }
+        List<List<String>> itemList = new ArrayList<>();
+        for (int r = 0; r < pack.recordCount(DataPack.Table.ITEMS); r++) {
+            itemList.add(List.of(pack.field(DataPack.Table.ITEMS, r, 0), pack.field(DataPack.Table.ITEMS, r, 1)));
+        }
+        List<String[]> typeRows = new ArrayList<>();
+        for (int r = 0; r < pack.recordCount(DataPack.Table.TYPE_CHART); r++) {
+            typeRows.add(pack.record(DataPack.Table.TYPE_CHART, r));
+        }
+        this.pokemons = new PackedRows(pack, DataPack.Table.POKEMONS);
+        this.species = Collections.unmodifiableMap(templates);
+        this.moves = new PackedRows(pack, DataPack.Table.MOVES);
+        this.moveSpecs = Collections.unmodifiableMap(specs);
+        this.statuses = Collections.unmodifiableMap(estados);
+        this.statusesByName = Collections.unmodifiableMap(byName);
+        this.statusesByType = Collections.unmodifiableMap(byType);
+        this.statePrototypes = Collections.unmodifiableMap(prototypes);
+        this.moveStatuses = Collections.unmodifiableMap(statusOfMove);
+        this.moveStatusTypes = Collections.unmodifiableMap(statusTypeOfMove);
+        this.movesByType = byMoveType;
+        this.typeChart = Collections.unmodifiableMap(buildTypeChart(typeRows));
+        this.typeMatrix = buildTypeMatrix(this.typeChart);
+        this.dualTypeMatrix = buildDualTypeMatrix(this.typeMatrix);
+        this.dualTypeFixed = toFixedPoint(this.dualTypeMatrix);
+        this.items = Collections.unmodifiableList(itemList);
+    }
+
+    /**
+     * Devuelve el catálogo vigente, cargándolo la primera vez que se pide.
+     * Tras la primera carga es una simple lectura volátil, sin bloqueos.
+     */
+    public static GameData getInstance() {
+        GameData data = current;
+        if (data == null) {
+            synchronized (GameData.class) {
+                data = current;
+                if (data == null) {
+                    data = loadFrom(Paths.get(CSV_DIR), Paths.get(PACK_ARCHIVE));
+                    current = data;
+                }
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Publica un catálogo nuevo; las batallas que se creen a partir de ahora lo usarán.
+     */
+    static void publish(GameData data) {
+        current = data;
+    }
+
+    /**
+     * Lee y construye un catálogo nuevo a partir de los CSV de una carpeta, fallando
+     * en lugar de devolver tablas vacías si algún archivo no se puede leer.
+     * @throws IOException si falta un archivo, no se puede leer o está vacío
+     * @throws RuntimeException si alguna fila tiene un formato inválido
+     */
+    static GameData load(Path csvDir) throws IOException {
+        Map<DataPack.Table, DataPack.Rows> tables = new EnumMap<>(DataPack.Table.class);
+        tables.put(DataPack.Table.POKEMONS, readRows(csvDir.resolve(POKEMONS_ARCHIVE), true));
+        tables.put(DataPack.Table.MOVES, readRows(csvDir.resolve(ATACKS_ARCHIVE), true));
+        tables.put(DataPack.Table.STATUSES, readRows(csvDir.resolve(STATUS_CSV), true));
+        tables.put(DataPack.Table.TYPE_CHART, readRows(csvDir.resolve(ROOT_STATS_LOCATION), false));
+        tables.put(DataPack.Table.ITEMS, readRows(csvDir.resolve(ITEMS_ARCHIVE), false));
+        for (Map.Entry<DataPack.Table, DataPack.Rows> table : tables.entrySet()) {
+            if (table.getValue().size() == 0) {
+                throw new IOException("Tabla vacía al recargar: " + table.getKey());
+            }
+        }
+        return new GameData(DataPack.of(tables));
+    }
+
+    /**
+     * Especies indexadas por número de Pokédex.
+     */
+    public Map<Integer, String[]> getPokemons() {
+        return pokemons;
+    }
+
+    /**
+     * Especie ya parseada, compartida por todos los Pokémon de ese número de Pokédex.
+     * @return la plantilla o null si no existe o su fila es inválida
+     */
+    public SpeciesTemplate getSpeciesTemplate(int id) {
+        return species.get(id);
+    }
+
+    /**
+     * Movimientos indexados por su id en el CSV.
+     */
+    public Map<Integer, String[]> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Movimiento ya parseado, compartido por todos los ataques que lo usan.
+     * @return el movimiento o null si no existe o su fila es inválida
+     */
+    public MoveSpec getMoveSpec(int id) {
+        return moveSpecs.get(id);
+    }
+
+    /**
+     * Estados indexados por su línea en el CSV.
+     */
+    public Map<Integer, String[]> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Busca un estado por nombre sin distinguir mayúsculas.
+     * @return la fila del estado o null si no existe
+     */
+    public String[] getStatusByName(String nombre) {
+        if (nombre == null) return null;
+        return statusesByName.get(nombre.toUpperCase());
+    }
+
+    /**
+     * Fila del estado de cada {@link State.StateType} presente en el CSV.
+     */
+    public Map<State.StateType, String[]> getStatusesByType() {
+        return statusesByType;
+    }
+
+    /**
+     * Estado ya parseado para un tipo; es compartido, así que solo debe usarse
+     * para crear copias con {@link State#copy()}.
+     * @return el prototipo o null si el tipo no está en el CSV
+     */
+    State getStatePrototype(State.StateType type) {
+        return type == null ? null : statePrototypes.get(type);
+    }
+
+    /**
+     * Estado que aplica cada movimiento de estado, resuelto por el nombre de su
+     * columna {@code consequence} al cargar el catálogo.
+     * @return la fila del estado o null si el movimiento no aplica ningún estado conocido
+     */
+    public String[] getStatusOfMove(int moveId) {
+        return moveStatuses.get(moveId);
+    }
+
+    /**
+     * Tipo del estado que aplica un movimiento.
+     * @return el tipo o null si el movimiento no aplica ningún estado con {@link State.StateType}
+     */
+    public State.StateType getStatusTypeOfMove(int moveId) {
+        return moveStatusTypes.get(moveId);
+    }
+
+    /**
+     * Ids de los movimientos de un tipo, como bits de un {@link BitSet}. Es compartido:
+     * quien lo use debe combinarlo sobre una copia y nunca modificarlo.
+     * @param type ordinal de {@link PokemonType}
+     */
+    BitSet getMovesOfType(int type) {
+        return movesByType[type];
+    }
+
+    /**
+     * Tabla de tipos: fila (tipo de la fila del CSV) → columna → multiplicador.
+     */
+    public Map<String, Map<String, Double>> getTypeChart() {
+        return typeChart;
+    }
+
+    /**
+     * Multiplicadores indexados por {@code atacante * COUNT + defensor}, con los
+     * ordinales de {@link PokemonType}. Mantiene la misma orientación que
+     * {@link #getTypeChart()} consultado como {@code chart[defensor][atacante]}.
+     */
+    double[] getTypeMatrix() {
+        return typeMatrix;
+    }
+
+    /**
+     * Multiplicadores ya combinados para defensores de doble tipo, indexados por
+     * {@code (atacante * COUNT + tipo1) * (COUNT + 1) + tipo2}, donde
+     * {@code tipo2 == COUNT} significa que no hay segundo tipo.
+     */
+    double[] getDualTypeMatrix() {
+        return dualTypeMatrix;
+    }
+
+    /**
+     * Multiplicador de un tipo atacante contra un defensor de uno o dos tipos, en
+     * punto fijo 16.16 ({@link DamageKernel#ONE} es 1.0). Un tipo desconocido es neutro.
+     * @param defendingType2 segundo tipo, o {@link PokemonType#NONE} si no tiene
+     */
+    public int getEffectiveness(int attackingType, int defendingType1, int defendingType2) {
+        if (attackingType < 0 || defendingType1 < 0) return DamageKernel.ONE;
+        int n = PokemonType.COUNT;
+        int second = defendingType2 < 0 ? n : defendingType2;
+        return dualTypeFixed[(attackingType * n + defendingType1) * (n + 1) + second];
+    }
+
+    public List<List<String>> getItems() {
+        return items;
+    }
+
+    /**
+     * Construye el catálogo desde el paquete binario si está vigente; si no existe, está
+     * desactualizado respecto a los CSV o es inválido, lo construye desde los CSV.
+     */
+    static GameData loadFrom(Path csvDir, Path pack) {
+        if (DataPack.isUpToDate(pack, csvDir)) {
+            try {
+                return new GameData(DataPack.open(pack));
+            } catch (IOException | RuntimeException e) {
+                Log.record(e);
+            }
+        }
+        return new GameData(DataPack.of(readCsvTables(csvDir)));
+    }
+
+    private static SpeciesTemplate speciesOf(DataPack pack, int record) {
+        DataPack.Table table = DataPack.Table.POKEMONS;
+        int[] baseStats = new int[SpeciesTemplate.STATS];
+        for (int stat = 0; stat < baseStats.length; stat++) {
+            baseStats[stat] = pack.intField(table, record, 5 + stat);
+        }
+        return new SpeciesTemplate(pack.field(table, record, 0), pack.field(table, record, 1),
+                pack.field(table, record, 2), pack.field(table, record, 3), baseStats);
+    }
+
+    private static MoveSpec moveSpecOf(DataPack pack, int record) {
+        DataPack.Table table = DataPack.Table.MOVES;
+        return new MoveSpec(pack.key(table, record), pack.field(table, record, 1), pack.field(table, record, 2),
+                pack.field(table, record, 3), pack.field(table, record, 4),
+                pack.intField(table, record, 5), pack.intField(table, record, 6), pack.intField(table, record, 7),
+                pack.fieldCount(table, record) > 8 ? pack.field(table, record, 8) : null);
+    }
+
+    /**
+     * Lee los cinco CSV del juego y devuelve sus filas ya separadas en campos,
+     * sin encabezados salvo en la tabla de tipos (cuya primera fila nombra las columnas).
+     * @param csvDir carpeta que contiene los CSV
+     */
+    static Map<DataPack.Table, DataPack.Rows> readCsvTables(Path csvDir) {
+        Map<DataPack.Table, DataPack.Rows> tables = new EnumMap<>(DataPack.Table.class);
+        //ID_0,"Name"_1,"Type1"_3,"Type2"_4,"HP"_6,"Attack"_7,"Defense"_8,"Sp. Atk"_9,"Sp. Def"_10,"Speed"_11,
+        tables.put(DataPack.Table.POKEMONS, readRowsOrEmpty(csvDir.resolve(POKEMONS_ARCHIVE), true));
+        tables.put(DataPack.Table.MOVES, readRowsOrEmpty(csvDir.resolve(ATACKS_ARCHIVE), true));
+        tables.put(DataPack.Table.STATUSES, readRowsOrEmpty(csvDir.resolve(STATUS_CSV), true));
+        tables.put(DataPack.Table.TYPE_CHART, readRowsOrEmpty(csvDir.resolve(ROOT_STATS_LOCATION), false));
+        tables.put(DataPack.Table.ITEMS, readRowsOrEmpty(csvDir.resolve(ITEMS_ARCHIVE), false));
+        return tables;
+    }
+
+    private static DataPack.Rows readRowsOrEmpty(Path archive, boolean skipHeader) {
+        try {
+            return readRows(archive, skipHeader);
+        } catch (IOException e) {
+            Log.record(e);
+            return new DataPack.Rows();
+        }
+    }
+
+    /**
+     * Lee todas las filas de un CSV con {@link CsvReader}, pasando cada campo del
+     * registro directamente a las filas del paquete.
+     * @param skipHeader si se descarta la primera fila
+     */
+    private static DataPack.Rows readRows(Path archive, boolean skipHeader) throws IOException {
+        DataPack.Rows rows = new DataPack.Rows();
+        try (CsvReader reader = CsvReader.open(archive)) {
+            if (skipHeader && !reader.next()) return rows;
+            while (reader.next()) {
+                rows.add(reader);
+            }
+        }
+        return rows;
+    }
+
+    private static Map<String, Map<String, Double>> buildTypeChart(List<String[]> rows) {
+        Map<String, Map<String, Double>> chart = new HashMap<>();
+        if (rows.isEmpty()) {
+            Log.record(new IllegalArgumentException("El archivo está vacío: " + ROOT_STATS_LOCATION));
+            return chart;
+        }
+        String[] types = rows.get(0);
+        for (int i = 1; i < rows.size(); i++) {
+            String[] values = rows.get(i);
+            Map<String, Double> multipliers = new HashMap<>();
+            for (int j = 1; j < values.length; j++) {
+                multipliers.put(types[j], Double.parseDouble(values[j]));
+            }
+            chart.put(values[0], Collections.unmodifiableMap(multipliers));
+        }
+        return chart;
+    }
+
+    private static double[] buildTypeMatrix(Map<String, Map<String, Double>> chart) {
+        int n = PokemonType.COUNT;
+        double[] matrix = new double[n * n];
+        Arrays.fill(matrix, 1.0);
+        for (Map.Entry<String, Map<String, Double>> row : chart.entrySet()) {
+            int defending = PokemonType.indexOf(row.getKey());
+            if (defending == PokemonType.NONE) continue;
+            for (Map.Entry<String, Double> column : row.getValue().entrySet()) {
+                int attacking = PokemonType.indexOf(column.getKey());
+                if (attacking == PokemonType.NONE) continue;
+                matrix[attacking * n + defending] = column.getValue();
+            }
+        }
+        return matrix;
+    }
+
+    private static int[] toFixedPoint(double[] matrix) {
+        int[] fixed = new int[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            fixed[i] = (int) Math.round(matrix[i] * DamageKernel.ONE);
+        }
+        return fixed;
+    }
+
+    private static double[] buildDualTypeMatrix(double[] matrix) {
+        int n = PokemonType.COUNT;
+        double[] dual = new double[n * n * (n + 1)];
+        for (int attacking = 0; attacking < n; attacking++) {
+            for (int first = 0; first < n; first++) {
+                double single = matrix[attacking * n + first];
+                int base = (attacking * n + first) * (n + 1);
+                for (int second = 0; second < n; second++) {
+                    dual[base + second] = second == first ? single : single * matrix[attacking * n + second];
+                }
+                dual[base + n] = single;
+            }
+        }
+        return dual;
+    }
+
+    /**
+     * Tabla del paquete vista como mapa por clave y en orden de clave. Cada fila se
+     * decodifica del paquete la primera vez que se pide y luego se reutiliza.
+     */
+    private static final class PackedRows extends AbstractMap<Integer, String[]> {
+
+        private final DataPack pack;
+        private final DataPack.Table table;
+        private final AtomicReferenceArray<String[]> rows;
+
+        PackedRows(DataPack pack, DataPack.Table table) {
+            this.pack = pack;
+            this.table = table;
+            this.rows = new AtomicReferenceArray<>(pack.recordCount(table));
+        }
+
+        private String[] row(int record) {
+            String[] row = rows.get(record);
+            if (row == null) {
+                rows.compareAndSet(record, null, pack.record(table, record));
+                row = rows.get(record);
+            }
+            return row;
+        }
+
+        @Override
+        public String[] get(Object key) {
+            int record = key instanceof Integer ? pack.find(table, (Integer) key) : -1;
+            return record < 0 ? null : row(record);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && pack.find(table, (Integer) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return rows.length();
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Integer> iterator() {
+                    return IntStream.range(0, size()).mapToObj(record -> pack.key(table, record)).iterator();
+                }
+
+                @Override
+                public boolean contains(Object key) {
+                    return containsKey(key);
+                }
+
+                @Override
+                public int size() {
+                    return PackedRows.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Integer, String[]>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Integer, String[]>> iterator() {
+                    return IntStream.range(0, size()).<Entry<Integer, String[]>>mapToObj(
+                            record -> new SimpleImmutableEntry<>(pack.key(table, record), row(record))).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return PackedRows.this.size();
+                }
+            };
+        }
+    }
+}
@@ -1,39 +1,25 @@
 package persistence;
 
-import domain.Log;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 public class ItemRepository {
 
-    private static final String ITEMS_ARCHIVE ="resources/csv/Items.csv";
-    private static ArrayList<ArrayList<String>> items = new ArrayList<>();
+    private final List<List<String>> items;
     
     public ItemRepository(){
-    	ArrayList<ArrayList<String>> items = new ArrayList<>();
-        try {
-			List<String> lineas = Files.readAllLines(Paths.get(ITEMS_ARCHIVE));
+        this(GameData.getInstance());
+    }
 
-		    for (String s : lineas) {
-		        String[] valores = s.split(",");
-		        ArrayList<String> informacion = new ArrayList<>();
-		        informacion.add(valores[0]);
-		        informacion.add(valores[1]);
-		        items.add(informacion);
-		        
-		    }
-		} catch (IOException e) {
-			Log.record(e);
-		}
-        this.items = items;
-    	
+    public ItemRepository(GameData data){
+        this.items = data.getItems();
     }
 
     public ArrayList<ArrayList<String>> getItems() {
-        return this.items;
+        ArrayList<ArrayList<String>> items = new ArrayList<>();
+        for (List<String> item : this.items) {
+            items.add(new ArrayList<>(item));
+        }
+        return items;
     }
 }
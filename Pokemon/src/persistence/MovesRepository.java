@@ -1,31 +1,23 @@
 package persistence;
 
-import domain.Log;
+import domain.MoveSpec;
+import domain.PokemonType;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
 import java.util.Map;
-import java.util.TreeMap;
 
 public class MovesRepository {
-    private static final String ATACKS_ARCHIVE = "resources/csv/movimientos.csv";
-    private static TreeMap<Integer, String[]> movimientos = new TreeMap<>();
+    private final GameData data;
+    private final Map<Integer, String[]> movimientos;
 
     public MovesRepository() {
-        List<String> pokemonsIput = null;
-        try {
-            pokemonsIput = Files.readAllLines(Paths.get(ATACKS_ARCHIVE));
-        } catch (IOException e) {
-            Log.record(e);
-        }
+        this(GameData.getInstance());
+    }
 
-        for (int i = 1; i < pokemonsIput.size(); i++) {
-            String[] valores = splitCSVLine(pokemonsIput.get(i));
-            this.movimientos.put(Integer.parseInt(valores[0]), valores);
-        }
+    public MovesRepository(GameData data) {
+        this.data = data;
+        this.movimientos = data.getMoves();
     }
 
     public ArrayList<String[]> getMoves() {
@@ -37,22 +29,27 @@ public class MovesRepository {
     }
 
     public String[] getAttacksId(int id) {
-        if (movimientos.containsKey(id)) {
-            return movimientos.get(id);
-        } else {
-            return null;
-        }
+        return movimientos.get(id);
+    }
+
+    /**
+     * Devuelve el movimiento ya parseado del catálogo, sin copiar su fila.
+     * @return el movimiento o null si no existe
+     */
+    public MoveSpec getMoveSpec(int id) {
+        return data.getMoveSpec(id);
     }
 
     public String getAttackId(int id) {
         if (movimientos.containsKey(id)) {
             String[] attack = getAttacksId(id);
-            if (attack[0].length() == 1) {
-                attack[0] = "00" + attack[0];
-            } else if (attack[0].length() == 2) {
-                attack[0] = "0" + attack[0];
+            String number = attack[0];
+            if (number.length() == 1) {
+                number = "00" + number;
+            } else if (number.length() == 2) {
+                number = "0" + number;
             }
-            return attack[0] + " " + attack[1] + " - " + attack[3] + " - " + attack[4];
+            return number + " " + attack[1] + " - " + attack[3] + " - " + attack[4];
         } else {
             return null;
         }
@@ -75,28 +72,6 @@ public class MovesRepository {
         }
     }
 
-    private static String[] splitCSVLine(String line) {
-        List<String> values = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '\"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
-                current.setLength(0);
-            } else {
-                current.append(c);
-            }
-        }
-
-        values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
-
-        return values.toArray(new String[0]);
-    }
     public String[] getAttackDamageAndType(int id) {
          if (!movimientos.containsKey(id)) return null;
          String[] ataque = movimientos.get(id);
@@ -109,26 +84,37 @@ public class MovesRepository {
          return info;
      }
 
-     //metodo para maquina (Experta)
-     public ArrayList<String[]> getCompatibleAttacks(int pokemonId) {
-        ArrayList<String[]> compatibleAttacks = new ArrayList<>();
-        PokemonRepository pokemonRepo = new PokemonRepository();
+    /**
+     * Movimientos que puede aprender un Pokémon: los de sus tipos más los de tipo Normal.
+     * Se obtiene combinando los índices por tipo del catálogo, sin recorrer los movimientos.
+     * @param pokemonId número de Pokédex
+     * @return un conjunto nuevo con los ids de los movimientos, vacío si la especie no existe
+     */
+    public BitSet getCompatibleMoves(int pokemonId) {
+        BitSet compatible = new BitSet();
+        String[] pokemonInfo = data.getPokemons().get(pokemonId);
+        if (pokemonInfo == null) return compatible;
+        compatible.or(data.getMovesOfType(PokemonType.NORMAL.ordinal()));
+        int type = PokemonType.indexOf(pokemonInfo[2]);
+        if (type != PokemonType.NONE) compatible.or(data.getMovesOfType(type));
+        int type2 = PokemonType.indexOf(pokemonInfo[3]);
+        if (type2 != PokemonType.NONE) compatible.or(data.getMovesOfType(type2));
+        return compatible;
+    }
 
-        String[] pokemonInfo = pokemonRepo.getPokemonId(pokemonId);
-        if (pokemonInfo == null) return compatibleAttacks;
-        String pokemonType = pokemonInfo[2];
-        String pokemonType2 = pokemonInfo[3] == "" ? pokemonType : pokemonInfo[3];
-        for (Map.Entry<Integer, String[]> entry : movimientos.entrySet()) {
-            String[] attack = entry.getValue();
-            String attackType = attack[3];
-            try {
-                if (pokemonType.equalsIgnoreCase(attackType) || pokemonType2.equalsIgnoreCase(attackType) || attackType.equalsIgnoreCase("Normal")) {
-                    compatibleAttacks.add(attack);
-                }
-            } catch (Exception e) {
-                compatibleAttacks.add(attack);
-                Log.record(e);
-            }
+    /**
+     * Ids de los movimientos compatibles con un Pokémon, en orden ascendente.
+     */
+    public int[] getCompatibleAttackIds(int pokemonId) {
+        return getCompatibleMoves(pokemonId).stream().toArray();
+    }
+
+    //metodo para maquina (Experta)
+    public ArrayList<String[]> getCompatibleAttacks(int pokemonId) {
+        BitSet compatible = getCompatibleMoves(pokemonId);
+        ArrayList<String[]> compatibleAttacks = new ArrayList<>(compatible.cardinality());
+        for (int id = compatible.nextSetBit(0); id >= 0; id = compatible.nextSetBit(id + 1)) {
+            compatibleAttacks.add(movimientos.get(id));
         }
         return compatibleAttacks;
     }
@@ -1,37 +1,24 @@
 package persistence;
 
-import domain.Log;
+import domain.SpeciesTemplate;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.List;
-import java.util.TreeMap;
+import java.util.Map;
 
 public class
 
 PokemonRepository {
 
-    private static final String POKEMONS_ARCHIVE = "resources/csv/Pokemones.csv";
+    private final GameData data;
+    private final Map<Integer,String[]> pokemones;
 
-    private static TreeMap<Integer,String[]> pokemones = new TreeMap<>();
-    
     public PokemonRepository(){
-    	List<String> pokemonsIput = null;
-        try {
-            pokemonsIput = Files.readAllLines(Paths.get(POKEMONS_ARCHIVE));
-
-        } catch (IOException e) {
-            Log.record(e);
-        }
+        this(GameData.getInstance());
+    }
 
-        for (int i = 1; i < pokemonsIput.size(); i++) {
-            //ID_0,"Name"_1,"Type1"_3,"Type2"_4,"HP"_6,"Attack"_7,"Defense"_8,"Sp. Atk"_9,"Sp. Def"_10,"Speed"_11,
-            String[] valores = pokemonsIput.get(i).split(",");
-            this.pokemones.put(Integer.parseInt(valores[0]),valores);
-        }
-    	
+    public PokemonRepository(GameData data){
+        this.data = data;
+        this.pokemones = data.getPokemons();
     }
 
     public ArrayList<String[]> getPokemons() {
@@ -44,10 +31,14 @@ PokemonRepository {
     }
 
     public String[] getPokemonId(int id) {
-        if (pokemones.containsKey(id)) {
-            return pokemones.get(id);
-        } else {
-            return null;
-        }
+        return pokemones.get(id);
+    }
+
+    /**
+     * Devuelve la plantilla ya parseada de una especie, con sus estadísticas por nivel.
+     * @return la plantilla o null si no existe
+     */
+    public SpeciesTemplate getSpeciesTemplate(int id) {
+        return data.getSpeciesTemplate(id);
     }
 }
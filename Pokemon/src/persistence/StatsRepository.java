@@ -1,51 +1,50 @@
 package persistence;
 
-import domain.Log;
+import domain.PokemonType;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class StatsRepository {
-    private static final String ROOT_STATS_LOCATION = "resources/csv/MovesStatspok.csv";
-    private final Map<String, Map<String, Double>> typeChart = new HashMap<>();
+    private static final int TYPES = PokemonType.COUNT;
+
+    private final Map<String, Map<String, Double>> typeChart;
+    private final double[] typeMatrix;
+    private final double[] dualTypeMatrix;
 
     public StatsRepository() {
-        try {
-            loadTypeChart();
-        } catch (IOException e) {
-            e.printStackTrace();
-            Log.record(e);
-        }
+        this(GameData.getInstance());
     }
 
-    private void loadTypeChart() throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(ROOT_STATS_LOCATION));
-        if (lines.isEmpty()) {
-            throw new IllegalArgumentException("El archivo está vacío: " + ROOT_STATS_LOCATION);
-        }
-
-        String[] types = lines.get(0).split(",");
-
-        for (int i = 1; i < lines.size(); i++) {
-            String[] values = lines.get(i).split(",");
-            String defendingType = values[0];
-            Map<String, Double> multipliers = new HashMap<>();
-
-            for (int j = 1; j < values.length; j++) {
-                multipliers.put(types[j], Double.parseDouble(values[j]));
-            }
-
-            typeChart.put(defendingType, multipliers);
-        }
+    public StatsRepository(GameData data) {
+        this.typeChart = data.getTypeChart();
+        this.typeMatrix = data.getTypeMatrix();
+        this.dualTypeMatrix = data.getDualTypeMatrix();
     }
 
     public double getMultiplier(String attackingType, String defendingType) {
         return typeChart.get(capitalizar(defendingType)).get(capitalizar(attackingType));
     }
+
+    /**
+     * Multiplicador de un tipo atacante contra un único tipo defensor, usando los
+     * ordinales de {@link PokemonType}. Un tipo desconocido ({@link PokemonType#NONE}) es neutro.
+     */
+    public double getMultiplier(int attackingType, int defendingType) {
+        if (attackingType < 0 || defendingType < 0) return 1.0;
+        return typeMatrix[attackingType * TYPES + defendingType];
+    }
+
+    /**
+     * Multiplicador de un tipo atacante contra un defensor de uno o dos tipos.
+     * No reserva memoria: consulta la tabla precalculada atacante x (tipo1, tipo2).
+     * @param defendingType2 segundo tipo, o {@link PokemonType#NONE} si no tiene
+     */
+    public double getMultiplier(int attackingType, int defendingType1, int defendingType2) {
+        if (attackingType < 0 || defendingType1 < 0) return 1.0;
+        int second = defendingType2 < 0 ? TYPES : defendingType2;
+        return dualTypeMatrix[(attackingType * TYPES + defendingType1) * (TYPES + 1) + second];
+    }
+
     public static String capitalizar(String s) {
         if (s == null || s.isEmpty()) return s;
         return s.substring(0, 1).toUpperCase() + s.substring(1).toLowerCase();
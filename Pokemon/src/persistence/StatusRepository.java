@@ -1,11 +1,8 @@
 package persistence;
 
-import domain.Log;
+import domain.State;
 
-import java.io.IOException;
 import java.io.Serializable;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -13,22 +10,16 @@ import java.util.*;
  */
 public class StatusRepository implements Serializable {
 
-    private static final String STATUS_CSV = "resources/csv/Estados.csv";
-    private static TreeMap<Integer, String[]> estados = new TreeMap<>();
+    private final transient GameData data;
+    private final Map<Integer, String[]> estados;
 
     public StatusRepository() {
-        List<String> lines = null;
-        try {
-            lines = Files.readAllLines(Paths.get(STATUS_CSV));
-        } catch (IOException e) {
-            Log.record(e); // Asume que tienes una clase Log para manejar errores
-            return;
-        }
-
-        for (int i = 1; i < lines.size(); i++) {
-            String[] valores = splitCSVLine(lines.get(i));
-            estados.put(i, valores); // Usa el número de línea como ID único
-        }
+        this(GameData.getInstance());
+    }
+
+    public StatusRepository(GameData data) {
+        this.data = data;
+        this.estados = data.getStatuses();
     }
 
     /**
@@ -77,37 +68,41 @@ public class StatusRepository implements Serializable {
      * @return El arreglo de Strings con los datos del estado, o null si no existe
      */
     public String[] getStatusByName(String nombre) {
-        for (String[] estado : estados.values()) {
-            if (estado[0].equalsIgnoreCase(nombre)) {
-                return estado;
-            }
-        }
-        return null;
+        return data.getStatusByName(nombre);
+    }
+
+    /**
+     * Devuelve el estado de un tipo sin comparar nombres.
+     * @return El arreglo de Strings con los datos del estado, o null si no está en el CSV
+     */
+    public String[] getStatus(State.StateType type) {
+        return type == null ? null : data.getStatusesByType().get(type);
+    }
+
+    /**
+     * Crea un estado nuevo del tipo indicado copiando el prototipo del catálogo.
+     * @return El estado listo para aplicarse, o null si el tipo no está en el CSV
+     */
+    public State createState(State.StateType type) {
+        State prototype = data.getStatePrototype(type);
+        return prototype == null ? null : prototype.copy();
+    }
+
+    /**
+     * Devuelve el estado que aplica un movimiento de estado.
+     * @param moveId id del movimiento en el CSV
+     * @return El arreglo de Strings con los datos del estado, o null si no aplica ninguno conocido
+     */
+    public String[] getStatusOfMove(int moveId) {
+        return data.getStatusOfMove(moveId);
     }
 
     /**
-     * Parsea una línea de CSV con compatibilidad con comillas.
+     * Devuelve el tipo del estado que aplica un movimiento de estado.
+     * @param moveId id del movimiento en el CSV
+     * @return El tipo, o null si el estado no tiene {@link State.StateType}
      */
-    private static String[] splitCSVLine(String line) {
-        List<String> values = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-
-            if (c == '\"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
-                current.setLength(0);
-            } else {
-                current.append(c);
-            }
-        }
-
-        values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
-
-        return values.toArray(new String[0]);
+    public State.StateType getStatusTypeOfMove(int moveId) {
+        return data.getStatusTypeOfMove(moveId);
     }
 }
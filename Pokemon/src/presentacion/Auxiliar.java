@@ -1,14 +1,10 @@
 package presentacion;
 
-import domain.Log;
-
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
 public interface Auxiliar {
 
@@ -48,18 +44,11 @@ public interface Auxiliar {
         return boton;
     }
     public static Font cargarFuentePixel(float tamaño) {
-        try {
-            Font fuenteBase = Font.createFont(Font.TRUETYPE_FONT,
-                    new File("resources/fonts/themevck-text.ttf"));
-            Font fuenteNegrita = fuenteBase.deriveFont(Font.BOLD, tamaño);
-            GraphicsEnvironment ge = GraphicsEnvironment.getLocalGraphicsEnvironment();
-            ge.registerFont(fuenteNegrita);
-            return fuenteNegrita;
-
-        } catch (FontFormatException | IOException e) {
-            Log.record(e);
+        Font fuenteBase = StartupLoader.pixelFont();
+        if (fuenteBase == null) {
             return new Font("Monospaced", Font.BOLD, (int)tamaño);
         }
+        return fuenteBase.deriveFont(Font.BOLD, tamaño);
     }
     public static JButton crearBotonEstilizado(String texto, Rectangle bounds, Color color) {
         JButton boton = new JButton(texto) {
@@ -20,10 +20,10 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Random;
 import java.util.concurrent.atomic.AtomicReference;
 
 import domain.*;
+import persistence.CatalogReloader;
 import presentacion.Auxiliar;
 import presentacion.ImagePanel;
 import presentacion.PokemonBattlePanel;
@@ -36,6 +36,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
     private HashMap<String,ArrayList<Integer>> moves = new HashMap<>(); //trianer, moves (en el orden de los pokemones)>
     private HashMap<String,String[][]> items = new HashMap<>();
     private POOBkemon game;
+    private StartupLoader startup;
     //
     private Clip clip;
     private JPanel IntroductionPanel;
@@ -61,6 +62,8 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
     private JMenuItem itemNuevo;
     private JMenuItem itemAbrir;
     private JMenuItem itemSalvar;
+    private JMenuItem itemGuardarRepeticion;
+    private JMenuItem itemVerRepeticion;
     private JMenuItem itemSalir;
     //
     private int fondo = 0,frame= 0;
@@ -107,9 +110,13 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
     private static final String FRAME = "resources/menu/frame/";
     private static final String APP_ICON = "resources/icon/window_icon.png";
     private static final String WINNER = "resources/menu/winner/";
+    private static final String RELOAD_FLAG = "--recargar-catalogo"; // argumento de main que activa la recarga de los CSV
 
 
     private POOBkemonGUI() {
+        // Los catálogos, la fuente y los sprites se cargan mientras corre la intro
+        this.startup = StartupLoader.start(new String[]{NORMAL_PATH, TYPES},
+                NORMAL_PATH, SHINY_PATH, BACK_PATH, BACK_SHINY_PATH, TYPES);
         this.game = POOBkemon.getInstance();
         setTitle("POOBkemon");
         setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
@@ -142,6 +149,21 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
             }
         });
     }
+    /**
+     * Ejecuta la acción en el EDT cuando termina la carga inicial; mientras tanto
+     * muestra el cursor de espera sin bloquear la ventana.
+     */
+    private void whenReady(Runnable action) {
+        if (startup.ready().isDone()) {
+            action.run();
+            return;
+        }
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        startup.ready().whenComplete((v, e) -> SwingUtilities.invokeLater(() -> {
+            setCursor(Cursor.getDefaultCursor());
+            action.run();
+        }));
+    }
     private void  refresh(JPanel panel) {
         getContentPane().removeAll();
         add(panel);
@@ -164,11 +186,15 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
         itemNuevo = new JMenuItem("Nuevo Juego");
         itemAbrir = new JMenuItem("Abrir Partida");
         itemSalvar = new JMenuItem("Guardar Partida");
+        itemGuardarRepeticion = new JMenuItem("Guardar Repetición");
+        itemVerRepeticion = new JMenuItem("Ver Repetición");
         itemSalir = new JMenuItem("Salir");
         //
         menuArchivo.add(itemNuevo);
         menuArchivo.add(itemAbrir);
         menuArchivo.add(itemSalvar);
+        menuArchivo.add(itemGuardarRepeticion);
+        menuArchivo.add(itemVerRepeticion);
         menuArchivo.addSeparator();
         menuArchivo.add(itemSalir);
         frames.add(frame1);
@@ -187,6 +213,8 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
         itemNuevo.addActionListener(e -> startNewGame());
         itemAbrir.addActionListener(e -> openGame());
         itemSalvar.addActionListener(e -> saveGame());
+        itemGuardarRepeticion.addActionListener(e -> saveReplay());
+        itemVerRepeticion.addActionListener(e -> openReplay());
         itemSalir.addActionListener(e -> confirmExit());
         fondo1.addActionListener(e -> {fondo=0;});
         fondo2.addActionListener(e -> {fondo=1;});
@@ -234,7 +262,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
         actionMap.put("enterAction", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                refresh(menuPanel);
+                whenReady(() -> refresh(menuPanel));
             }
         });
 
@@ -281,7 +309,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
 
     private void prepareActionsMenuPanel() {
         playButton.addActionListener(e -> startNewGame());
-        pokedexButton.addActionListener(e -> showPokedex());
+        pokedexButton.addActionListener(e -> whenReady(this::showPokedex));
         itemsButton.addActionListener(e -> showItemsGalery());
         stastRandomButton.addActionListener(e -> actualizarTextoDificultad());
         backButtonIntro.addActionListener(e -> refresh(IntroductionPanel));
@@ -374,15 +402,9 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
 
                 if (i == currentIndex[0]) {
                     try {
-                        ImageIcon icon = new ImageIcon(POKEMONES +"Normal/"+(i+1)+".png");
-                        imagenLabel.setIcon(new ImageIcon(icon.getImage().getScaledInstance(
-                                150, 150, Image.SCALE_SMOOTH)));
-                        ImageIcon t1 = new ImageIcon(TYPES+p[2]+".png");
-                        ImageIcon t2 = new ImageIcon(TYPES+p[3]+".png");
-                        type1.setIcon(new ImageIcon(t1.getImage().getScaledInstance(
-                                128, 56, Image.SCALE_SMOOTH)));
-                        type2.setIcon(new ImageIcon(t2.getImage().getScaledInstance(
-                                128, 56, Image.SCALE_SMOOTH)));
+                        imagenLabel.setIcon(spriteEscalado(NORMAL_PATH, (i+1)+PNG_EXT, 150, 150));
+                        type1.setIcon(spriteEscalado(TYPES, p[2]+PNG_EXT, 128, 56));
+                        type2.setIcon(spriteEscalado(TYPES, p[3]+PNG_EXT, 128, 56));
                     } catch (Exception e) {
                         Log.record(e);
                         imagenLabel.setIcon(null);
@@ -392,9 +414,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
                     if (currentIndex[0] > 0) {
                         try {
                             String[] anterior = pokemones.get(currentIndex[0] - 1);
-                            ImageIcon iconAnterior = new ImageIcon(POKEMONES +"Normal/"+(i)+".png");
-                            imagenArriba.setIcon(new ImageIcon(iconAnterior.getImage().getScaledInstance(
-                                    130, 55, Image.SCALE_SMOOTH)));
+                            imagenArriba.setIcon(spriteEscalado(NORMAL_PATH, (i)+PNG_EXT, 130, 55));
                         } catch (Exception e) {
                             Log.record(e);
                             imagenArriba.setIcon(null);
@@ -406,9 +426,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
                     if (currentIndex[0] < pokemones.size() - 1) {
                         try {
                             String[] siguiente = pokemones.get(currentIndex[0] + 1);
-                            ImageIcon iconSiguiente = new ImageIcon(POKEMONES +"Normal/"+ (i+2)+".png");
-                            imagenAbajo.setIcon(new ImageIcon(iconSiguiente.getImage().getScaledInstance(
-                                    130, 55, Image.SCALE_SMOOTH)));
+                            imagenAbajo.setIcon(spriteEscalado(NORMAL_PATH, (i+2)+PNG_EXT, 130, 55));
                         } catch (Exception e) {
                             Log.record(e);
                             imagenAbajo.setIcon(null);
@@ -1058,7 +1076,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
 
         doneButton.addActionListener(e -> {
             assingPokemon(selectedPokemons1, selectedPokemons2);
-            chooseMoves();
+            whenReady(this::chooseMoves);
         });
         setContentPane(choosePokemonPanel);
         revalidate();
@@ -1186,9 +1204,7 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
             pokemonLabel.setText("Movimientos para " + pokemonName);
 
             try {
-                ImageIcon icon = new ImageIcon(NORMAL_PATH + pokemonId + ".png");
-                Image scaled = icon.getImage().getScaledInstance(120, 120, Image.SCALE_SMOOTH);
-                pokemonImage.setIcon(new ImageIcon(scaled));
+                pokemonImage.setIcon(spriteEscalado(NORMAL_PATH, pokemonId + PNG_EXT, 120, 120));
             } catch (Exception e) {
                 pokemonImage.setIcon(null);
             }
@@ -1817,6 +1833,17 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
             return new Font("Monospaced", Font.BOLD, (int)tamaño);
         }
     }
+    /**
+     * Sprite ya decodificado por el cargador, escalado al tamaño pedido.
+     * @return el icono, o null si la imagen no existe
+     */
+    private ImageIcon spriteEscalado(String carpeta, String archivo, int ancho, int alto) {
+        Image sprite = startup.sprite(carpeta, archivo);
+        if (sprite == null) {
+            return null;
+        }
+        return new ImageIcon(sprite.getScaledInstance(ancho, alto, Image.SCALE_SMOOTH));
+    }
     private void reproducirSonido(String sonido) {
         try {
             AudioInputStream audioInput = AudioSystem.getAudioInputStream(new File(songs+sonido));
@@ -1916,6 +1943,38 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
             }
         }
     }
+    private void saveReplay() {
+        if (game == null || game.getReplay() == null) {
+            JOptionPane.showMessageDialog(this, "No hay una batalla para guardar.");
+            return;
+        }
+        JFileChooser fileChooser = new JFileChooser();
+        int result = fileChooser.showSaveDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                game.getReplay().write(fileChooser.getSelectedFile());
+            } catch (POOBkemonException e) {
+                System.out.println("Exepción" + e.getMessage());
+            }
+        }
+    }
+
+    private void openReplay() {
+        JFileChooser fileChooser = new JFileChooser();
+        int result = fileChooser.showOpenDialog(this);
+        if (result == JFileChooser.APPROVE_OPTION) {
+            try {
+                Replayer replayer = new Replayer(BattleReplay.read(fileChooser.getSelectedFile()));
+                game = replayer.getGame();
+                PokemonBattlePanel battlePanel = new PokemonBattlePanel(replayer, fondo, frame);
+                battlePanel.setBattleListener(playerWon -> showFishPanel());
+                refresh(battlePanel);
+            } catch (POOBkemonException e) {
+                System.out.println("Exepción" + e.getMessage());
+            }
+        }
+    }
+
     private void confirmExit(){
         int option = JOptionPane.showConfirmDialog(
                 this,
@@ -1959,9 +2018,8 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
             this.items.put(this.players.get(i), items);
         }
     }
-    public static int getNumerRandom(int limit) {
-        Random random = new Random();
-        return random.nextInt(limit) + 1;
+    private int getNumerRandom(int limit) {
+        return this.game.getRandom().nextInt(limit) + 1;
     }
     private void createTrainers(String trainer1, String trainer2){
         this.players.clear();
@@ -1983,7 +2041,18 @@ public class POOBkemonGUI extends JFrame implements Auxiliar {
     //
 
     //
+    /**
+     * Con {@code --recargar-catalogo} vigila los CSV del juego y las batallas nuevas
+     * toman los datos recargados sin reiniciar la aplicación.
+     */
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(RELOAD_FLAG)) {
+            try {
+                CatalogReloader.start();
+            } catch (IOException e) {
+                Log.record(e);
+            }
+        }
         POOBkemonGUI ventana = new POOBkemonGUI();
         ventana.setVisible(true);
     }
@@ -1,8 +1,11 @@
 package presentacion;
 
+import domain.Action;
+import domain.BattleReplay;
 import domain.Log;
 import domain.POOBkemon;
 import domain.POOBkemonException;
+import domain.Replayer;
 
 import java.awt.*;
 import java.awt.event.*;
@@ -36,6 +39,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
     private CardLayout cardLayout;
     private final Map<String, Supplier<JPanel>> panelBuilders = new HashMap<>();
     private POOBkemon game;
+    private final Replayer replayer;
     private BattleListener battleListener;
     private int currentPlayer;
     private boolean newTurn = true;
@@ -62,8 +66,21 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
     }
 
     public PokemonBattlePanel(POOBkemon game,int fondo,int frame) {
+        this(game, null, fondo, frame);
+    }
+
+    /**
+     * Muestra una repetición: las decisiones de ambos entrenadores salen de la
+     * repetición y se aplican al ritmo de los turnos de la máquina.
+     */
+    public PokemonBattlePanel(Replayer replayer, int fondo, int frame) {
+        this(replayer.getGame(), replayer, fondo, frame);
+    }
+
+    private PokemonBattlePanel(POOBkemon game, Replayer replayer, int fondo, int frame) {
         if (game == null) throw new IllegalArgumentException("Game cannot be null");
         this.game = game;
+        this.replayer = replayer;
         this.order = game.getOrder();
         this.currentPlayer = game.getOrder().get(0);
         this.fondo = fondo;
@@ -88,7 +105,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
         initialPanel.setName("battle");
         mainPanel.add(initialPanel, "battle");
         SwingUtilities.invokeLater(() -> {
-            if (!game.isMachine(currentPlayer)) {
+            if (!isAutomatic(currentPlayer)) {
                 startDecisionTimer();
             }
         });
@@ -159,7 +176,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
             timer.setRepeats(false);
             timer.start();
         }
-        if (game.isMachine(this.currentPlayer)) {
+        if (isAutomatic(this.currentPlayer)) {
             for(Component jb: buttonPanel.getComponents()){
                 jb.setEnabled(false);
             }
@@ -197,7 +214,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
                 framePanel.setBounds((int)(w * 0), (int)(h * 0.70), (int)(w * 1), (int)(h * 0.3));
             }
         });
-        if (!game.isMachine(this.currentPlayer) && newTurn) {
+        if (!isAutomatic(this.currentPlayer) && newTurn) {
             startDecisionTimer();
         }
         panel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
@@ -494,7 +511,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
 
             buttonPanel.add(btn);
         }
-        if (game.isMachine(this.currentPlayer)) {
+        if (isAutomatic(this.currentPlayer)) {
             for(Component jb: buttonPanel.getComponents()){
                 jb.setEnabled(false);
             }
@@ -1023,7 +1040,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
         stopDecisionTimer(); // Asegurarse de detener cualquier temporizador existente
 
         // Solo iniciar si es turno de jugador humano
-        if (game.isMachine(currentPlayer)) {
+        if (isAutomatic(currentPlayer)) {
             return;
         }
 
@@ -1147,7 +1164,7 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
         currentPlayer = (currentPlayer == order.get(0)) ? order.get(1) : order.get(0);
         showPanel("battle");
         // Solo iniciar temporizador si es jugador humano
-        if (!game.isMachine(currentPlayer)) {
+        if (!isAutomatic(currentPlayer)) {
             startDecisionTimer();
         }
     }
@@ -1180,7 +1197,10 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
             timer.start();
 
         } catch (POOBkemonException e) {
-            System.err.println("Error al procesar turno: " + e.getMessage());
+            Log.record(e);
+            resetForNextTurn();
+        } catch (RuntimeException e) {
+            Log.record(e, replayForReport());
             resetForNextTurn();
         }
     }
@@ -1199,22 +1219,54 @@ public class PokemonBattlePanel extends JPanel implements Auxiliar {
 
         showPanel("battle");
 
-        if (!game.isMachine(currentPlayer)) {
+        if (!isAutomatic(currentPlayer)) {
             startDecisionTimer();
         }
     }
 
 
 
+    /**
+     * Indica si las decisiones del entrenador no las toma una persona:
+     * es una máquina o se está mostrando una repetición.
+     */
+    private boolean isAutomatic(int trainerId) {
+        return replayer != null || game.isMachine(trainerId);
+    }
+
+    /**
+     * Toma la siguiente decisión de la repetición.
+     * @return decisión, o null si la repetición terminó
+     */
+    private String[] replayDecision() {
+        if (!replayer.hasNext()) {
+            return null;
+        }
+        Action action = replayer.next();
+        return action.toDecision();
+    }
+
+    /**
+     * Repetición que acompaña a un error inesperado en el registro, para poder
+     * reproducir el fallo. Mientras se muestra una repetición no hay otra que guardar.
+     */
+    private BattleReplay replayForReport() {
+        return replayer != null ? null : game.getReplay();
+    }
+
     private void machineDecision() {
         stopDecisionTimer();
         Timer timer = new Timer(2000, e -> {
+            // En pausa no se toma la decisión: al reanudar se vuelve a pedir y no se pierde la acción
+            if (this.paused) return;
             try {
-                String[] decision = game.machineDecision(this.currentPlayer);
-                if(!this.paused){
+                String[] decision = replayer != null ? replayDecision() : game.machineDecision(this.currentPlayer);
+                if(decision != null){
                 setDecision(decision);}
             } catch (POOBkemonException ex) {
                 Log.record(ex);
+            } catch (RuntimeException ex) {
+                Log.record(ex, replayForReport());
             }
         });
         timer.setRepeats(false);
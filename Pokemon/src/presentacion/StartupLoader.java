@@ -0,0 +1,202 @@
+package presentacion;
+
+import domain.Log;
+import persistence.GameData;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carga en paralelo lo que la interfaz necesita antes del menú: el catálogo de CSV,
+ * la fuente pixel, la lista de sprites de cada carpeta y las imágenes ya decodificadas
+ * de las carpetas que se muestran primero, repartidas imagen a imagen entre los hilos.
+ * Se arranca al abrir la ventana, mientras se ve la intro, y los paneles esperan a
+ * {@link #ready()}.
+ */
+public final class StartupLoader {
+
+    static final String FONT_PATH = "resources/fonts/themevck-text.ttf";
+
+    private static final Object FONT_LOCK = new Object();
+    private static volatile Font pixelFont;
+
+    private final ExecutorService pool;
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sprites = new ConcurrentHashMap<>();
+    private final Map<String, SoftReference<BufferedImage>> images = new ConcurrentHashMap<>();
+    private final String[] stageOrder;
+    private final CompletableFuture<Void> ready;
+
+    private StartupLoader(String[] decodeDirs, String[] spriteDirs) {
+        int threads = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "POOBkemon-startup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.stageOrder = new String[]{"catalogo", "fuente", "sprites", "imagenes"};
+        CompletableFuture<Void> catalog = stage("catalogo", GameData::getInstance);
+        CompletableFuture<Void> font = stage("fuente", StartupLoader::pixelFont);
+        CompletableFuture<Void> manifests = stage("sprites", () -> listSprites(spriteDirs));
+        CompletableFuture<Void> decoded = decodeSprites(decodeDirs);
+        this.ready = CompletableFuture.allOf(catalog, font, manifests, decoded)
+                .whenComplete((v, e) -> pool.shutdown());
+    }
+
+    /**
+     * Empieza la carga en un pool de hilos demonio.
+     * @param decodeDirs carpetas cuyas imágenes PNG se decodifican durante la carga
+     * @param spriteDirs carpetas de imágenes cuyo contenido se lista
+     */
+    public static StartupLoader start(String[] decodeDirs, String... spriteDirs) {
+        return new StartupLoader(decodeDirs, spriteDirs);
+    }
+
+    private CompletableFuture<Void> stage(String name, Runnable work) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                work.run();
+            } finally {
+                timings.put(name, System.nanoTime() - start);
+            }
+        }, pool);
+    }
+
+    private void listSprites(String[] dirs) {
+        for (String dir : dirs) {
+            String[] files = new File(dir).list();
+            Set<String> names = new HashSet<>();
+            if (files != null) {
+                Collections.addAll(names, files);
+            }
+            sprites.put(dir, Collections.unmodifiableSet(names));
+        }
+    }
+
+    /**
+     * Decodifica cada PNG de las carpetas en su propia tarea del pool. La etapa
+     * dura desde que se listan las carpetas hasta que termina la última imagen.
+     */
+    private CompletableFuture<Void> decodeSprites(String[] dirs) {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            for (String dir : dirs) {
+                String[] files = new File(dir).list((folder, name) -> name.endsWith(".png"));
+                if (files == null) {
+                    continue;
+                }
+                for (String file : files) {
+                    tasks.add(CompletableFuture.runAsync(() -> decode(dir, file), pool));
+                }
+            }
+            return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+        }, pool).thenCompose(all -> all)
+                .whenComplete((v, e) -> timings.put("imagenes", System.nanoTime() - start));
+    }
+
+    private BufferedImage decode(String dir, String file) {
+        try {
+            BufferedImage image = ImageIO.read(new File(dir, file));
+            if (image != null) {
+                images.put(dir + file, new SoftReference<>(image));
+            }
+            return image;
+        } catch (IOException e) {
+            Log.record(e);
+            return null;
+        }
+    }
+
+    /**
+     * Imagen de un sprite. Si se decodificó al arrancar se devuelve la misma; si no,
+     * se lee del disco y queda guardada para la próxima vez. Las imágenes
+     * se guardan como {@link SoftReference}: si falta memoria se liberan y se vuelven a leer al pedirlas.
+     * @return la imagen, o null si el archivo no existe o no es una imagen
+     */
+    public Image sprite(String dir, String file) {
+        SoftReference<BufferedImage> cached = images.get(dir + file);
+        BufferedImage image = cached == null ? null : cached.get();
+        if (image == null && hasSprite(dir, file)) {
+            image = decode(dir, file);
+        }
+        return image;
+    }
+
+    /** Se completa cuando terminan todas las etapas, hayan fallado o no. */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Indica si un archivo está en una de las carpetas listadas al arrancar. Si la
+     * carpeta no se listó, o aún no termina la carga, se consulta el disco.
+     */
+    public boolean hasSprite(String dir, String file) {
+        Set<String> names = sprites.get(dir);
+        return names != null ? names.contains(file) : new File(dir, file).isFile();
+    }
+
+    /** Duración de cada etapa terminada, en nanosegundos, en el orden en que se lanzan. */
+    public Map<String, Long> getTimings() {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (String name : stageOrder) {
+            Long nanos = timings.get(name);
+            if (nanos != null) {
+                ordered.put(name, nanos);
+            }
+        }
+        return ordered;
+    }
+
+    /** Resumen de tiempos de arranque, por ejemplo "catalogo=42ms fuente=8ms sprites=3ms imagenes=60ms". */
+    public String timingsReport() {
+        StringBuilder report = new StringBuilder("Arranque:");
+        for (Map.Entry<String, Long> entry : getTimings().entrySet()) {
+            report.append(' ').append(entry.getKey()).append('=')
+                    .append(entry.getValue() / 1_000_000).append("ms");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Fuente pixel del juego sin tamaño aplicado. Se lee del disco una sola vez;
+     * si no se puede leer devuelve null y queda registrado en el log.
+     */
+    static Font pixelFont() {
+        Font font = pixelFont;
+        if (font == null) {
+            synchronized (FONT_LOCK) {
+                font = pixelFont;
+                if (font == null) {
+                    try {
+                        font = Font.createFont(Font.TRUETYPE_FONT, new File(FONT_PATH));
+                        GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+                        pixelFont = font;
+                    } catch (FontFormatException | IOException e) {
+                        Log.record(e);
+                    }
+                }
+            }
+        }
+        return font;
+    }
+}
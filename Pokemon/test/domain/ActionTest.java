@@ -0,0 +1,82 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionTest {
+
+    private static BattleSession openGame() throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open();
+        Battles.start(session, "Offensive1", "Expert2", false);
+        return session;
+    }
+
+    @Test
+    void shouldReadEveryDecisionFormat() throws POOBkemonException {
+        assertEquals(new AttackAction(1, 3, 12), Action.fromDecision(new String[]{"Attack", "12", "3", "1"}));
+        assertEquals(new UseItemAction(0, 2, "Potion"), Action.fromDecision(new String[]{"UseItem", "0", "2", "Potion"}));
+        assertEquals(new SwitchAction(1, 4), Action.fromDecision(new String[]{"ChangePokemon", "1", "4"}));
+        assertEquals(new RunAction(0), Action.fromDecision(new String[]{"Run", "0"}));
+        assertEquals(new TimeoutAction(1, 5), Action.fromDecision(new String[]{"timeOver", "1", "5"}));
+    }
+
+    @Test
+    void shouldFormatBackToTheSameDecision() throws POOBkemonException {
+        List<Action> actions = List.of(new AttackAction(1, 3, 12), new UseItemAction(0, 2, "Revive"),
+                new SwitchAction(1, 4), new RunAction(0), new TimeoutAction(1, 5));
+        for (Action action : actions) {
+            assertEquals(action, Action.fromDecision(action.toDecision()));
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidDecisions() {
+        assertThrows(POOBkemonException.class, () -> Action.fromDecision(null));
+        assertThrows(POOBkemonException.class, () -> Action.fromDecision(new String[0]));
+        assertThrows(POOBkemonException.class, () -> Action.fromDecision(new String[]{"Dance", "1"}));
+        assertThrows(POOBkemonException.class, () -> Action.fromDecision(new String[]{"Attack", "1", "0"}));
+        assertThrows(POOBkemonException.class, () -> Action.fromDecision(new String[]{"ChangePokemon", "x", "1"}));
+    }
+
+    @Test
+    void shouldApplyMachineActions() throws POOBkemonException {
+        BattleSession session = openGame();
+        try {
+            POOBkemon game = session.getGame();
+            int first = game.getOrder().get(0);
+            Action action = game.machineAction(first);
+
+            assertNotNull(action);
+            assertEquals(first, action.trainerId());
+            int moves = game.getMoves().size();
+            game.apply(action);
+            assertTrue(game.getMoves().size() >= moves);
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldApplySwitchAndRun() throws POOBkemonException {
+        BattleSession session = openGame();
+        try {
+            POOBkemon game = session.getGame();
+            Team team = game.getTeams().get(0);
+            int trainer = team.getTrainer().getId();
+            int next = team.getPokemons().get(1).getId();
+
+            game.apply(new SwitchAction(trainer, next));
+            assertEquals(next, team.getTrainer().getCurrentPokemonId());
+            assertSame(team.getPokemons().get(1), team.getActivePokemon());
+
+            game.apply(new RunAction(trainer));
+            assertTrue(game.finishBattle());
+            assertEquals(game.getTeams().get(1).getTrainer().getId(), game.getWinner());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+}
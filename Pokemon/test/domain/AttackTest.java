@@ -51,6 +51,22 @@ public class AttackTest {
         assertEquals(expected, testAttack.toString());
     }
 
+    @Test
+    public void shouldShareMoveSpecAndKeepPPPerAttack() {
+        MovesRepository moves = new MovesRepository();
+        MoveSpec ember = moves.getMoveSpec(52);
+        Attack first = new Attack(1, ember);
+        Attack second = new special(2, ember);
+
+        first.usePP();
+
+        assertSame(moves.getMoveSpec(52), ember);
+        assertSame(first.getSpec(), second.getSpec());
+        assertEquals(24, first.getPPActual());
+        assertEquals(25, second.getPPActual());
+        assertEquals(MoveSpec.Category.SPECIAL, ember.getCategory());
+    }
+
 
 
 }
@@ -0,0 +1,118 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleLogTest {
+
+    private static BattleSession openGame() throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open();
+        Battles.start(session, "Player1", "Player2", false);
+        return session;
+    }
+
+    @Test
+    void shouldKeepOnlyTheLatestEvents() {
+        BattleLog log = new BattleLog(3);
+        for (int i = 0; i < 5; i++) {
+            log.record(BattleLog.RUN, i);
+        }
+
+        assertEquals(5, log.getTotal());
+        assertEquals(3, log.size());
+        assertEquals(2, log.operand(0, 0));
+        assertEquals(4, log.operand(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.code(3));
+    }
+
+    @Test
+    void shouldSpillPushedOutEventsToDisk(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("battle.log");
+        BattleLog log = new BattleLog(2);
+        try (BattleLog.FileSink sink = new BattleLog.FileSink(file)) {
+            log.setSink(sink);
+            for (int i = 0; i < 5; i++) {
+                log.record(BattleLog.HIT, i, i + 1, 2, 10 * i);
+            }
+        }
+
+        List<int[]> spilled = BattleLog.FileSink.read(file);
+        assertEquals(3, spilled.size());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(new int[]{BattleLog.HIT, i, i + 1, 2, 10 * i}, spilled.get(i));
+        }
+        assertEquals(3, log.operand(0, 0));
+    }
+
+    @Test
+    void shouldRenderMessagesWithBattleNames() throws POOBkemonException {
+        BattleSession session = openGame();
+        try {
+            POOBkemon game = session.getGame();
+            Team team = game.getTeams().get(0);
+            Pokemon attacker = team.getPokemons().get(0);
+            Pokemon target = game.getTeams().get(1).getPokemons().get(0);
+            Attack attack = attacker.getAttacks().get(0);
+            BattleLog log = game.getLog();
+
+            log.record(BattleLog.HIT_SUPER, attacker.getId(), target.getId(), attack.getIdCSV(), 42);
+            assertEquals(attacker.getName() + " atacó a " + target.getName() + " ¡Fue super efectivo! \n ["
+                    + attack.getName() + "] causó 42 puntos de daño!", game.getLastMoves());
+
+            game.apply(new SwitchAction(team.getTrainer().getId(), team.getPokemons().get(1).getId()));
+            assertEquals("Player " + team.getTrainer().getId() + " cambió a Pokémon "
+                    + team.getPokemons().get(1).getName(), game.getLastMoves());
+
+            List<String> moves = game.getMoves();
+            assertEquals("Start Game", moves.get(0));
+            assertEquals(log.size(), moves.size());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldRenderMoveNameAfterPPRunOut() throws POOBkemonException {
+        BattleSession session = openGame();
+        try {
+            POOBkemon game = session.getGame();
+            Pokemon attacker = game.getTeams().get(0).getPokemons().get(0);
+            Pokemon target = game.getTeams().get(1).getPokemons().get(0);
+            Attack attack = null;
+            for (Attack candidate : attacker.getAttacks()) {
+                if (!(candidate instanceof StateAttack) && attack == null) attack = candidate;
+                candidate.setPPActual(0);
+            }
+            assertNotNull(attack);
+            BattleLog log = new BattleLog();
+
+            for (int tries = 0; tries < 50 && (log.isEmpty() || log.code(log.size() - 1) == BattleLog.MISS); tries++) {
+                target.receiveAttack(attack, attacker, log);
+            }
+
+            assertEquals(CompactBattle.DEFAULT_MOVE, attacker.getAttacks().get(0).getIdCSV(),
+                    "the attacker should have swapped its attacks for the default move");
+            assertNotEquals(BattleLog.MISS, log.code(log.size() - 1));
+            assertTrue(log.render(log.size() - 1, game).contains("[" + attack.getName() + "]"),
+                    log.render(log.size() - 1, game));
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldStoreItemNamesOnce() {
+        BattleLog log = new BattleLog();
+        int potion = log.text("Potion");
+
+        assertEquals(potion, log.text("Potion"));
+        assertNotEquals(potion, log.text("Revive"));
+        assertEquals("Potion", log.getText(potion));
+    }
+}
@@ -0,0 +1,43 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleRandomTest {
+
+    @Test
+    void shouldDrawLikeSplittableRandom() {
+        for (long seed = -3; seed < 20; seed++) {
+            SplittableRandom expected = new SplittableRandom(seed);
+            BattleRandom actual = new BattleRandom(seed);
+            SplittableRandom expectedSplit = expected.split();
+            BattleRandom actualSplit = actual.split();
+            for (int i = 0; i < 500; i++) {
+                assertEquals(expected.nextInt(13), actual.nextInt(13));
+                assertEquals(expected.nextInt(DamageKernel.ONE), actual.nextInt(DamageKernel.ONE));
+                assertEquals(expected.nextDouble(), actual.nextDouble());
+                assertEquals(expected.nextLong(), actual.nextLong());
+                assertEquals(expectedSplit.nextInt(), actualSplit.nextInt());
+            }
+        }
+    }
+
+    @Test
+    void shouldContinueIndependentlyAfterCopy() {
+        BattleRandom random = new BattleRandom(42);
+        random.nextLong();
+        BattleRandom copy = random.copy();
+        long[] draws = new long[10];
+        for (int i = 0; i < draws.length; i++) {
+            draws[i] = random.nextLong();
+        }
+        for (long draw : draws) {
+            assertEquals(draw, copy.nextLong());
+        }
+        copy.nextLong();
+        assertNotEquals(random.nextLong(), random.copy().split().nextLong());
+    }
+}
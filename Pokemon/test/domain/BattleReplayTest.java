@@ -0,0 +1,136 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleReplayTest {
+
+    private static void play(POOBkemon game, int turns) {
+        for (int turn = 0; turn < turns && !game.finishBattle(); turn++) {
+            for (int trainer : game.getOrder()) {
+                if (game.finishBattle()) break;
+                try {
+                    game.apply(game.machineAction(trainer));
+                } catch (POOBkemonException e) {
+                    // El juego rechaza la acción y la batalla sigue, como en la interfaz
+                }
+            }
+        }
+    }
+
+    private static void assertSameBattle(POOBkemon expected, POOBkemon actual) {
+        assertEquals(expected.finishBattle(), actual.finishBattle());
+        assertEquals(expected.getOrder(), actual.getOrder());
+        assertEquals(expected.getMoves(), actual.getMoves());
+        for (int t = 0; t < expected.getTeams().size(); t++) {
+            List<Pokemon> before = expected.getTeams().get(t).getPokemons();
+            List<Pokemon> after = actual.getTeams().get(t).getPokemons();
+            for (int p = 0; p < before.size(); p++) {
+                assertEquals(before.get(p).getId(), after.get(p).getId());
+                assertEquals(before.get(p).currentHealth, after.get(p).currentHealth);
+            }
+        }
+    }
+
+    @Test
+    void shouldReplayMachineBattle() throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open(new BattleRandom(17L));
+        try {
+            POOBkemon game = session.getGame();
+            Battles.start(session, "Expert1", "Switcher2", true);
+            play(game, 300);
+            assertTrue(game.getReplay().getActions().size() > 10);
+
+            Replayer replayer = new Replayer(game.getReplay());
+            replayer.playToEnd();
+
+            assertFalse(replayer.hasNext());
+            assertSameBattle(game, replayer.getGame());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldReplaySecondBattleOfSession() throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open();
+        try {
+            POOBkemon game = session.getGame();
+            Battles.start(session, "Offensive1", "Defensive2", true);
+            play(game, 5);
+            Battles.start(session, "Expert1", "Offensive2", true);
+            play(game, 20);
+
+            assertEquals(2, game.getTeams().get(0).getTrainer().getId());
+            Replayer replayer = new Replayer(game.getReplay());
+            replayer.playToEnd();
+            assertSameBattle(game, replayer.getGame());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldWriteAndReadReplayFiles(@TempDir Path dir) throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open();
+        try {
+            POOBkemon game = session.getGame();
+            Battles.start(session, "Player1", "Expert2", true);
+            Team player = game.getTeams().get(0);
+            int trainer = player.getTrainer().getId();
+            game.apply(new SwitchAction(trainer, player.getPokemons().get(2).getId()));
+            game.apply(game.machineAction(game.getTeams().get(1).getTrainer().getId()));
+            game.apply(new UseItemAction(trainer, player.getActivePokemon().getId(), "potion"));
+            game.apply(new TimeoutAction(trainer, player.getActivePokemon().getId()));
+            game.apply(new RunAction(trainer));
+
+            File file = dir.resolve("battle.pkr").toFile();
+            game.getReplay().write(file);
+            BattleReplay read = BattleReplay.read(file);
+
+            assertEquals(game.getReplay().getSeed(), read.getSeed());
+            assertEquals(game.getReplay().getTrainers(), read.getTrainers());
+            assertEquals(game.getReplay().getActions(), read.getActions());
+            Replayer replayer = new Replayer(read);
+            assertEquals(0, replayer.playToEnd());
+            assertSameBattle(game, replayer.getGame());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldKeepReplayValidAfterLoadingSave(@TempDir Path dir) throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open(new BattleRandom(23L));
+        try {
+            POOBkemon game = session.getGame();
+            Battles.start(session, "Expert1", "Switcher2", true);
+            play(game, 5);
+            File file = dir.resolve("battle.dat").toFile();
+            game.save(file);
+
+            POOBkemon loaded = POOBkemon.open(file);
+            play(loaded, 300);
+            assertTrue(loaded.getReplay().getActions().size() > game.getReplay().getActions().size());
+
+            Replayer replayer = new Replayer(loaded.getReplay());
+            replayer.playToEnd();
+            assertSameBattle(loaded, replayer.getGame());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotReplays(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("other.pkr").toFile();
+        java.nio.file.Files.writeString(file.toPath(), "no es una repeticion");
+        assertThrows(POOBkemonException.class, () -> BattleReplay.read(file));
+    }
+}
@@ -0,0 +1,94 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleSessionTest {
+
+    @Test
+    void shouldGiveEachSessionItsOwnIds() throws POOBkemonException {
+        SessionRegistry registry = SessionRegistry.getInstance();
+        BattleSession first = registry.open();
+        BattleSession second = registry.open();
+        try {
+            Battles.start(first, "Offensive1", "Expert2", false);
+            Battles.start(second, "Offensive1", "Expert2", false);
+
+            for (BattleSession session : List.of(first, second)) {
+                assertEquals(0, session.getTeams().get(0).getTrainer().getId());
+                assertEquals(1, session.getTeams().get(1).getTrainer().getId());
+                assertEquals(0, session.getTeams().get(0).getPokemons().get(0).getId());
+                assertEquals(5, session.getTeams().get(1).getPokemons().get(2).getId());
+                assertEquals(1, session.getTeams().get(0).getPokemons().get(0).getAttacks().get(0).getIdInside());
+            }
+        } finally {
+            registry.close(first.getId());
+            registry.close(second.getId());
+        }
+    }
+
+    @Test
+    void shouldOpenLookUpAndCloseSessions() {
+        SessionRegistry registry = SessionRegistry.getInstance();
+        BattleSession session = registry.open();
+
+        assertSame(session, registry.get(session.getId()));
+        assertSame(session, session.getGame().getSession());
+        assertTrue(registry.close(session.getId()));
+        assertNull(registry.get(session.getId()));
+        assertFalse(registry.close(session.getId()));
+    }
+
+    @Test
+    void shouldKeepDefaultSessionUntilReset() {
+        POOBkemon.resetInstance();
+        POOBkemon game = POOBkemon.getInstance();
+        BattleSession other = SessionRegistry.getInstance().open();
+        try {
+            assertSame(game, POOBkemon.getInstance());
+            assertNotSame(game, other.getGame());
+            assertNotSame(game, Survive.getInstance());
+
+            POOBkemon.resetInstance();
+            assertNotSame(game, POOBkemon.getInstance());
+            assertNull(SessionRegistry.getInstance().get(game.getSession().getId()));
+        } finally {
+            SessionRegistry.getInstance().close(other.getId());
+        }
+    }
+
+    @Test
+    void shouldRunSessionsConcurrently() throws Exception {
+        SessionRegistry registry = SessionRegistry.getInstance();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<BattleSession>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> {
+                    BattleSession session = registry.open();
+                    Battles.start(session, "Offensive1", "Expert2", false);
+                    return session;
+                }));
+            }
+            for (Future<BattleSession> result : results) {
+                BattleSession session = result.get();
+                int expected = 0;
+                for (Team team : session.getTeams()) {
+                    for (Pokemon pokemon : team.getPokemons()) {
+                        assertEquals(expected++, pokemon.getId());
+                    }
+                }
+                assertTrue(registry.close(session.getId()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
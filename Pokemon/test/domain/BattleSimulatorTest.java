@@ -0,0 +1,67 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BattleSimulatorTest {
+
+    @Test
+    void shouldPlayEveryBattleInParallel() throws Exception {
+        BattleSimulator simulator = new BattleSimulator("Offensive", "Expert", 4, 200, false);
+        BattleSimulator.Report report = simulator.run(40, 7L);
+
+        assertEquals(40, report.getBattles());
+        assertEquals(40, report.getWins(0) + report.getWins(1) + report.getUnfinished() + report.getErrors());
+        assertTrue(report.getWins(0) + report.getWins(1) > 0);
+        int[] winners = report.getWinners();
+        int[] turns = report.getTurns();
+        for (int i = 0; i < turns.length; i++) {
+            if (winners[i] == BattleSimulator.Report.ERROR) {
+                assertEquals(-1, turns[i]);
+            } else {
+                assertTrue(turns[i] >= 0 && turns[i] <= 200);
+            }
+        }
+        assertTrue(report.getBattlesPerSecond() > 0);
+        assertTrue(report.getTurnsPercentile(50) <= report.getTurnsPercentile(100));
+    }
+
+    @Test
+    void shouldReproduceRunFromSeed() throws Exception {
+        BattleSimulator.Report first = new BattleSimulator("Expert", "Switcher", 4, 200, false).run(30, 2024L);
+        BattleSimulator.Report second = new BattleSimulator("Expert", "Switcher", 1, 200, false).run(30, 2024L);
+
+        assertArrayEquals(first.getWinners(), second.getWinners());
+        assertArrayEquals(first.getTurns(), second.getTurns());
+    }
+
+    @Test
+    void shouldReplaySingleBattle() throws Exception {
+        BattleSimulator simulator = new BattleSimulator("Offensive", "Defensive", 2, 200, false);
+        BattleSimulator.Report report = simulator.run(10, 99L);
+
+        for (int battle : new int[]{0, 4, 9}) {
+            if (report.getWinners()[battle] == BattleSimulator.Report.ERROR) continue;
+            int[] replay = simulator.replay(99L, battle);
+            assertEquals(report.getWinners()[battle], replay[0]);
+            assertEquals(report.getTurns()[battle], replay[1]);
+        }
+    }
+
+    @Test
+    void shouldNotShareStateWithTheSingletonGame() throws Exception {
+        POOBkemon.resetInstance();
+        POOBkemon game = POOBkemon.getInstance();
+        new BattleSimulator("Defensive", "Switcher", 2, 50, false).run(4, 1L);
+
+        assertSame(game, POOBkemon.getInstance());
+        assertNull(game.getTeams());
+    }
+
+    @Test
+    void shouldRejectUnknownMachine() {
+        assertThrows(POOBkemonException.class, () -> new BattleSimulator("Player", "Expert"));
+        assertThrows(POOBkemonException.class, () -> new BattleSimulator("Expert", "Offensive", 0, 10, false));
+    }
+}
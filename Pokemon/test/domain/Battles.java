@@ -0,0 +1,41 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Battle shared by the tests: Bulbasaur, Charmander and Squirtle against
+ * Pikachu, Jigglypuff and Meowth, each trainer with two potions.
+ */
+final class Battles {
+
+    static final List<Integer> FIRST_ATTACKS = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    static final List<Integer> SECOND_ATTACKS = List.of(13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24);
+
+    private Battles() {
+    }
+
+    static void start(BattleSession session, String trainer1, String trainer2, boolean randomStats)
+            throws POOBkemonException {
+        start(session, trainer1, trainer2, randomStats, SECOND_ATTACKS);
+    }
+
+    /**
+     * @param secondAttacks attacks of the second trainer, for tests that need to avoid some move
+     */
+    static void start(BattleSession session, String trainer1, String trainer2, boolean randomStats,
+                      List<Integer> secondAttacks) throws POOBkemonException {
+        ArrayList<String> trainers = new ArrayList<>(List.of(trainer1, trainer2));
+        HashMap<String, ArrayList<Integer>> pokemons = new HashMap<>();
+        pokemons.put(trainer1, new ArrayList<>(List.of(1, 4, 7)));
+        pokemons.put(trainer2, new ArrayList<>(List.of(25, 39, 52)));
+        HashMap<String, String[][]> items = new HashMap<>();
+        items.put(trainer1, new String[][]{{"Potion", "2", "20"}});
+        items.put(trainer2, new String[][]{{"Potion", "2", "20"}});
+        HashMap<String, ArrayList<Integer>> attacks = new HashMap<>();
+        attacks.put(trainer1, new ArrayList<>(FIRST_ATTACKS));
+        attacks.put(trainer2, new ArrayList<>(secondAttacks));
+        session.getGame().initGame(trainers, pokemons, items, attacks, randomStats);
+    }
+}
@@ -0,0 +1,126 @@
+package domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactBattleTest {
+
+    private static final int MAX_TURNS = 500;
+
+    private final List<BattleSession> sessions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (BattleSession session : sessions) {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    private POOBkemon newGame(long seed) throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open(new BattleRandom(seed));
+        sessions.add(session);
+        // Move 18 forces a switch, which keeps the battle out of CompactBattle.isExact()
+        Battles.start(session, "Offensive1", "Offensive2", false, List.of(13, 14, 15, 16, 17, 25, 19, 20, 21, 22, 23, 24));
+        return session.getGame();
+    }
+
+    private static void playObjects(POOBkemon game) throws POOBkemonException {
+        int first = game.getOrder().get(0);
+        int second = game.getOrder().get(1);
+        for (int turn = 0; turn < MAX_TURNS && !game.finishBattle(); turn++) {
+            Action action1 = game.machineAction(first);
+            Action action2 = game.machineAction(second);
+            game.apply(action1);
+            if (!game.finishBattle()) {
+                game.apply(action2);
+            }
+        }
+    }
+
+    private static void assertSameBattle(POOBkemon game, CompactBattle battle) throws POOBkemonException {
+        assertEquals(game.finishBattle(), battle.isFinished());
+        if (game.finishBattle()) {
+            assertEquals(game.getWinner(), battle.getWinner());
+        }
+        for (int t = 0; t < game.getTeams().size(); t++) {
+            Team team = game.getTeams().get(t);
+            for (Pokemon pokemon : team.getPokemons()) {
+                int p = battle.indexOf(pokemon.getId());
+                assertEquals(pokemon.currentHealth, battle.getHealth(p), "Pokemon " + pokemon.getId());
+                int[] pp = battle.getPP(p);
+                assertEquals(pokemon.getAttacks().size(), pp.length);
+                for (int a = 0; a < pp.length; a++) {
+                    assertEquals(pokemon.getAttacks().get(a).getPPActual(), pp[a]);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Las columnas juegan la batalla igual que los objetos")
+    void shouldPlayLikeObjectModel() throws POOBkemonException {
+        for (long seed = 1; seed <= 20; seed++) {
+            POOBkemon game = newGame(seed);
+            CompactBattle battle = CompactBattle.of(game);
+            assertTrue(battle.isExact());
+            POOBkemon copy = game.copy();
+            sessions.add(copy.getSession());
+
+            CompactEngine.play(battle, copy.getSession().getRandom(), MAX_TURNS);
+            playObjects(game);
+
+            assertSameBattle(game, battle);
+        }
+    }
+
+    @Test
+    @DisplayName("Escribir las columnas en una batalla la deja igual")
+    void shouldWriteBackToObjectModel() throws POOBkemonException {
+        POOBkemon game = newGame(7);
+        POOBkemon copy = game.copy();
+        sessions.add(copy.getSession());
+        CompactBattle battle = CompactBattle.of(game);
+
+        CompactEngine.play(battle, copy.getSession().getRandom(), 6);
+        battle.writeTo(copy);
+        assertSameBattle(copy, battle);
+
+        BattleRandom random = ((BattleRandom) copy.getSession().getRandom()).copy();
+        CompactEngine.play(battle, random, MAX_TURNS);
+        playObjects(copy);
+        assertSameBattle(copy, battle);
+    }
+
+    @Test
+    @DisplayName("Jugar una copia no cambia las columnas originales")
+    void shouldNotShareStateWithCopy() throws POOBkemonException {
+        POOBkemon game = newGame(3);
+        CompactBattle battle = CompactBattle.of(game);
+        CompactBattle copy = battle.copy();
+
+        CompactEngine.play(copy, new BattleRandom(3), MAX_TURNS);
+
+        assertTrue(copy.isFinished());
+        assertFalse(battle.isFinished());
+        assertEquals(0, battle.getActions());
+        assertSameBattle(game, battle);
+    }
+
+    @Test
+    @DisplayName("No se cambia a un Pokemon debilitado")
+    void shouldNotSwitchToFaintedPokemon() throws POOBkemonException {
+        CompactBattle battle = CompactBattle.of(newGame(5));
+        int fainted = battle.teamStart[0] == battle.getActive(0) ? battle.teamStart[0] + 1 : battle.teamStart[0];
+        battle.hp[fainted] = 0;
+        battle.flags[fainted] |= CompactBattle.FAINTED;
+        POOBkemonException e = assertThrows(POOBkemonException.class,
+                () -> CompactEngine.switchTo(battle, 0, fainted, new BattleRandom(5)));
+        assertEquals(POOBkemonException.POKEMON_WEAK_CHANGE, e.getMessage());
+    }
+}
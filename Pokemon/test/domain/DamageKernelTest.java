@@ -0,0 +1,72 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DamageKernelTest {
+
+    @Test
+    void shouldMatchStageTableAndClampOutsideIt() {
+        assertEquals(DamageKernel.ONE, DamageKernel.stageMultiplier(0));
+        assertEquals(Math.round(Math.pow(1.3, 6) * DamageKernel.ONE), DamageKernel.stageMultiplier(6));
+        assertEquals(Math.round(Math.pow(1.3, -6) * DamageKernel.ONE), DamageKernel.stageMultiplier(-6));
+        assertEquals(DamageKernel.stageMultiplier(6), DamageKernel.stageMultiplier(20));
+        assertEquals(DamageKernel.stageMultiplier(-6), DamageKernel.stageMultiplier(-20));
+        assertEquals(2 * 50 / 5 + 2, DamageKernel.levelFactor(50));
+    }
+
+    @Test
+    void shouldKeepHitChanceWithinBounds() {
+        assertEquals(DamageKernel.ONE, DamageKernel.hitChance(95, 6, 6));
+        assertEquals(6554, DamageKernel.hitChance(30, -6, -6));
+        int neutral = DamageKernel.hitChance(80, 0, 0);
+        assertEquals(0.8, neutral / (double) DamageKernel.ONE, 1e-4);
+        assertEquals(0.3 * 0.6, DamageKernel.hitChance(30, 0, 0) / (double) DamageKernel.ONE, 1e-4);
+    }
+
+    @Test
+    void shouldAgreeWithTheFloatingPointFormula() {
+        SplittableRandom rng = new SplittableRandom(3);
+        for (int i = 0; i < 2000; i++) {
+            int level = 1 + rng.nextInt(100);
+            int power = 10 + rng.nextInt(140);
+            int attack = 5 + rng.nextInt(400);
+            int defense = 5 + rng.nextInt(400);
+            int effectiveness = DamageKernel.ONE << rng.nextInt(3) >> 1;
+            double expected = ((2 * level / 5 + 2) * power * (double) attack / defense) / 50 + 2;
+            expected *= effectiveness / (double) DamageKernel.ONE;
+            double base = DamageKernel.baseDamage(level, power, attack, defense, effectiveness) / (double) DamageKernel.ONE;
+            assertEquals(expected, base, 1e-3);
+        }
+    }
+
+    @Test
+    void shouldPackOutcome() {
+        SplittableRandom rng = new SplittableRandom(11);
+        long immune = DamageKernel.resolve(100, 0, 0, 50, 80, 100, 100, 0, DamageKernel.CRITICAL_CHANCE, rng);
+        assertEquals(BattleLog.NO_EFFECT, DamageKernel.eventOf(immune));
+        assertEquals(0, DamageKernel.damageOf(immune));
+
+        long hit = DamageKernel.resolve(100, 0, 0, 50, 80, 100, 100, 2 * DamageKernel.ONE, DamageKernel.ONE, rng);
+        assertEquals(BattleLog.HIT_SUPER, DamageKernel.eventOf(hit));
+        assertTrue(DamageKernel.isCritical(hit));
+        assertTrue(DamageKernel.damageOf(hit) >= 1);
+
+        long weak = DamageKernel.resolve(100, 0, 0, 1, 1, 1, 999, DamageKernel.ONE / 4, 0, rng);
+        assertEquals(BattleLog.HIT_WEAK, DamageKernel.eventOf(weak));
+        assertFalse(DamageKernel.isCritical(weak));
+        assertEquals(1, DamageKernel.damageOf(weak));
+    }
+
+    @Test
+    void shouldBeDeterministicForTheSameSeed() {
+        for (int i = 0; i < 50; i++) {
+            long first = DamageKernel.resolve(70, 1, -2, 40, 90, 120, 80, DamageKernel.ONE, DamageKernel.CRITICAL_CHANCE, new SplittableRandom(i));
+            long second = DamageKernel.resolve(70, 1, -2, 40, 90, 120, 80, DamageKernel.ONE, DamageKernel.CRITICAL_CHANCE, new SplittableRandom(i));
+            assertEquals(first, second);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GauntletTest {
+
+    @Test
+    void shouldPlayStreamOfOpponents() throws Exception {
+        Gauntlet gauntlet = new Gauntlet("Expert", Lineup.randomPool(1, 4L).get(0), 100, 8);
+        List<Gauntlet.Report> progress = new ArrayList<>();
+
+        Gauntlet.Report report = gauntlet.run(12, null, 4L, Duration.ZERO, progress::add);
+
+        assertEquals(12, report.getBattles());
+        assertTrue(report.getWins() + report.getUnfinished() + report.getErrors() <= 12);
+        assertTrue(report.getTurns() > 0);
+        assertTrue(report.getTurnNanosP50() <= report.getTurnNanosP99());
+        assertTrue(report.getTurnNanosP99() <= report.getTurnNanosMax());
+        assertTrue(report.getBattlesPerSecond() > 0);
+        assertTrue(report.getHeapStart() > 0 && report.getHeap() > 0);
+        assertEquals(12, progress.size());
+        assertEquals(12, progress.get(11).getBattles());
+    }
+
+    @Test
+    void shouldStopWhenTimeRunsOut() throws Exception {
+        Gauntlet gauntlet = new Gauntlet("Offensive", Lineup.randomPool(1, 2L).get(0), 50, 4);
+
+        Gauntlet.Report report = gauntlet.run(0, Duration.ZERO, 2L, null, null);
+
+        assertEquals(0, report.getBattles());
+    }
+
+    @Test
+    void shouldKnowPercentilesWithinBucket() {
+        Gauntlet.LatencyHistogram histogram = new Gauntlet.LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_000, histogram.percentile(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.percentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.percentile(100));
+        for (long value : new long[]{0, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = Gauntlet.LatencyHistogram.bucket(value);
+            assertTrue(Gauntlet.LatencyHistogram.lowest(bucket) <= value);
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownChampion() {
+        assertThrows(POOBkemonException.class, () -> new Gauntlet("Player", Lineup.randomPool(1, 1L).get(0), 10, 1));
+        assertThrows(POOBkemonException.class, () -> new Gauntlet("Expert", Lineup.randomPool(1, 1L).get(0), 10, 0));
+    }
+}
@@ -0,0 +1,39 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogTest {
+
+    @Test
+    void shouldSaveReplayInReportsFolder(@TempDir Path dir) throws Exception {
+        String nombre = Log.nombre;
+        String reportes = Log.reportes;
+        BattleSession session = SessionRegistry.getInstance().open();
+        try {
+            Log.nombre = dir.resolve("test").toString();
+            Log.reportes = dir.resolve("reportes").toString();
+            Battles.start(session, "Player1", "Player2", false);
+
+            Log.record(new IllegalStateException("fallo"), session.getGame().getReplay());
+
+            File[] reports = dir.resolve("reportes").toFile().listFiles();
+            assertNotNull(reports);
+            assertEquals(1, reports.length);
+            assertEquals(session.getGame().getReplay().getSeed(), BattleReplay.read(reports[0]).getSeed());
+            String log = Files.readString(dir.resolve("test.log"));
+            assertTrue(log.contains("fallo"));
+            assertTrue(log.contains(reports[0].getName()));
+        } finally {
+            Log.nombre = nombre;
+            Log.reportes = reportes;
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+}
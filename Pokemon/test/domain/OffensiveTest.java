@@ -54,4 +54,19 @@ class OffensiveTest {
         }
         assertTrue(game.isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFallBackToDefaultMoveWithoutPP() throws POOBkemonException {
+        Pokemon active = game.getTeams().get(0).getActivePokemon();
+        for (Attack attack : active.getAttacks()) {
+            attack.setPPActual(0);
+        }
+
+        Action action = game.machineAction(0);
+        assertInstanceOf(AttackAction.class, action);
+        game.apply(action);
+
+        assertEquals(1, active.getAttacks().size());
+        assertEquals(CompactBattle.DEFAULT_MOVE, active.getAttacks().get(0).getIdCSV());
+    }
+}
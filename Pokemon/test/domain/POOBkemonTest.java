@@ -3,8 +3,17 @@ package domain;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistence.CatalogReloader;
+import persistence.GameData;
+import persistence.MovesRepository;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -597,6 +606,26 @@ class POOBkemonTest {
         assertTrue(compatibleAttacks.size() > 0);
     }
 
+    @Test
+    @DisplayName("Test getCompatibleAttackIds matches the types of the species")
+    void getCompatibleAttackIds() {
+        int[] bulbasaur = game.getCompatibleAttackIds(1); // Grass / Poison
+        int[] charmander = game.getCompatibleAttackIds(4); // Fire, sin segundo tipo
+        ArrayList<String[]> compatibleAttacks = game.getCompatibleAttacks(1);
+
+        assertEquals(compatibleAttacks.size(), bulbasaur.length);
+        for (int i = 0; i < bulbasaur.length; i++) {
+            assertEquals(String.valueOf(bulbasaur[i]), compatibleAttacks.get(i)[0]);
+            String type = compatibleAttacks.get(i)[3];
+            assertTrue(type.equals("Grass") || type.equals("Poison") || type.equals("Normal"));
+        }
+        for (int id : charmander) {
+            String[] info = new MovesRepository().getAttacksId(id);
+            assertTrue(info[3].equals("Fire") || info[3].equals("Normal"));
+        }
+        assertEquals(0, game.getCompatibleAttackIds(99999).length);
+    }
+
     @Test
     @DisplayName("Test getAttackId method")
     void getAttackId() {
@@ -604,4 +633,144 @@ class POOBkemonTest {
         assertNotNull(attackInfo);
         assertTrue(attackInfo.contains("Pound"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test reloaded catalog only affects new battles")
+    void shouldKeepBattleSnapshotWhenCatalogIsReloaded(@TempDir Path csvDir) throws IOException, POOBkemonException {
+        Path original = Paths.get("resources/csv");
+        for (String file : new String[]{"Pokemones.csv", "movimientos.csv", "Estados.csv", "MovesStatspok.csv", "Items.csv"}) {
+            Files.copy(original.resolve(file), csvDir.resolve(file));
+        }
+        Path moves = csvDir.resolve("movimientos.csv");
+        String csv = Files.readString(moves, StandardCharsets.UTF_8);
+        Files.writeString(moves, csv.replaceFirst("(?m)^(1,Pound,[^\\r\\n]*,physical,)40,", "$199,"), StandardCharsets.UTF_8);
+
+        GameData before = GameData.getInstance();
+        Attack pound = game.createPokemon(1, new ArrayList<>(List.of(1))).getAttacks().get(0);
+        CatalogReloader reloader = new CatalogReloader(csvDir);
+        try {
+            assertTrue(reloader.reloadNow());
+            assertNotSame(before, GameData.getInstance());
+            assertEquals(99, new MovesRepository().getMoveSpec(1).getPower());
+            assertEquals(40, pound.getPower(), "the running battle should keep its snapshot");
+            assertEquals(40, game.createPokemon(1, new ArrayList<>(List.of(1))).getAttacks().get(0).getPower());
+            assertEquals(1, reloader.getReloadCount());
+            assertTrue(reloader.getLastLatencyNanos() > 0);
+
+            GameData reloaded = GameData.getInstance();
+            Files.writeString(csvDir.resolve("Pokemones.csv"), "ID,Name\nxx,Broken\n", StandardCharsets.UTF_8);
+            assertFalse(reloader.reloadNow());
+            assertEquals(1, reloader.getFailureCount());
+            assertSame(reloaded, GameData.getInstance(), "a failed reload should keep the previous catalog");
+        } finally {
+            assertTrue(new CatalogReloader(original).reloadNow());
+        }
+    }
+
+    @Test
+    void shouldLookUpTeamsAndPokemonsById() throws POOBkemonException {
+        Team first = game.teams().get(0);
+        Team second = game.teams().get(1);
+        int trainer = first.getTrainer().getId();
+        Pokemon benched = first.getPokemons().get(3);
+
+        assertSame(first, game.findTeam(trainer));
+        assertSame(second, game.findOpponentTeam(trainer));
+        assertSame(benched, game.findPokemon(benched.getId()));
+        assertSame(first.getPokemons().get(0), game.findActivePokemon(trainer));
+        assertNull(game.findTeam(99));
+        assertNull(game.findPokemon(99));
+        assertNull(game.findActivePokemon(99));
+
+        game.changePokemon(trainer, benched.getId());
+        assertSame(benched, game.findActivePokemon(trainer));
+    }
+
+    private static void playMachines(POOBkemon battle, int turns) {
+        for (int turn = 0; turn < turns && !battle.finishBattle(); turn++) {
+            for (int trainer : battle.getOrder()) {
+                if (battle.finishBattle()) break;
+                try {
+                    battle.apply(battle.machineAction(trainer));
+                } catch (POOBkemonException e) {
+                    // El juego rechaza la acción y la batalla sigue
+                }
+            }
+        }
+    }
+
+    private static String snapshot(POOBkemon battle) {
+        StringBuilder state = new StringBuilder();
+        state.append(battle.finishBattle()).append(battle.getOrder());
+        for (Team team : battle.getTeams()) {
+            state.append('|').append(team.getTrainer().getCurrentPokemonId()).append(':').append(team.getAliveMask());
+            for (String[] item : team.getTrainer().getBagPack().getItems()) {
+                state.append(',').append(item[0]).append('x').append(item[1]);
+            }
+            for (Pokemon pokemon : team.getPokemons()) {
+                state.append(';').append(pokemon.getId()).append('=').append(pokemon.currentHealth)
+                        .append('/').append(pokemon.getInfo()[17]);
+                for (Attack attack : pokemon.getAttacks()) {
+                    state.append(',').append(attack.getPPActual());
+                }
+            }
+        }
+        return state.toString();
+    }
+
+    @Test
+    @DisplayName("La copia de una batalla se juega igual que el original")
+    void shouldPlayCopyLikeOriginal() throws POOBkemonException {
+        BattleSession session = SessionRegistry.getInstance().open();
+        try {
+            POOBkemon battle = session.getGame();
+            ArrayList<String> machines = new ArrayList<>(List.of("Expert1", "Offensive2"));
+            HashMap<String, ArrayList<Integer>> machinePokemons = new HashMap<>();
+            machinePokemons.put("Expert1", new ArrayList<>(List.of(1, 4, 7)));
+            machinePokemons.put("Offensive2", new ArrayList<>(List.of(25, 39, 52)));
+            HashMap<String, String[][]> machineItems = new HashMap<>();
+            machineItems.put("Expert1", new String[][]{{"Potion", "2", "20"}});
+            machineItems.put("Offensive2", new String[][]{{"Potion", "2", "20"}});
+            HashMap<String, ArrayList<Integer>> machineAttacks = new HashMap<>();
+            machineAttacks.put("Expert1", new ArrayList<>(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)));
+            machineAttacks.put("Offensive2", new ArrayList<>(List.of(13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24)));
+            battle.initGame(machines, machinePokemons, machineItems, machineAttacks, true);
+            playMachines(battle, 3);
+
+            POOBkemon copy = battle.copy();
+            assertNotSame(battle.getSession(), copy.getSession());
+            assertSame(copy, copy.getSession().getGame());
+            assertEquals(snapshot(battle), snapshot(copy));
+
+            playMachines(battle, 300);
+            playMachines(copy, 300);
+            assertEquals(snapshot(battle), snapshot(copy));
+            assertEquals(battle.finishBattle(), copy.finishBattle());
+        } finally {
+            SessionRegistry.getInstance().close(session.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Cambiar la copia no cambia la batalla original")
+    void shouldNotShareStateWithCopy() throws POOBkemonException {
+        String before = snapshot(game);
+        POOBkemon copy = game.copy();
+
+        Team team = copy.getTeams().get(0);
+        int trainer = team.getTrainer().getId();
+        Pokemon active = team.getActivePokemon();
+        active.getAttacks().get(0).usePP();
+        active.addSecundariState(new State(new String[]{"BURN", "3", "0", "1", "Burn effect"}));
+        copy.apply(new UseItemAction(trainer, active.getId(), "potion"));
+        active.takeDamage(active.currentHealth);
+        copy.changePokemon(trainer, team.getPokemons().get(1).getId());
+
+        assertEquals(before, snapshot(game));
+        assertNotEquals(before, snapshot(copy));
+        assertFalse(game.findPokemon(active.getId()).hasState(State.StateType.BURN));
+        assertSame(active, copy.findPokemon(active.getId()));
+        assertEquals(team.getPokemons().size() - 1, team.getAliveCount());
+        assertEquals(game.getTeams().get(0).getPokemons().size(), game.getTeams().get(0).getAliveCount());
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import persistence.PokemonRepository;
+import persistence.StatsRepository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,6 +41,42 @@ class PokemonTest {
         assertEquals(2, pokemon.getAttacks().size());
     }
 
+    @Test
+    public void shouldReadBothTypesFromRepository() {
+        assertEquals(PokemonType.GRASS.ordinal(), pokemon.getTypeId());
+        assertEquals("Poison", pokemon.getType2());
+        assertEquals(PokemonType.POISON.ordinal(), pokemon.getType2Id());
+    }
+
+    @Test
+    public void shouldCombineMultipliersForDualTypes() {
+        StatsRepository stats = new StatsRepository();
+        int fire = PokemonType.FIRE.ordinal();
+        int grass = PokemonType.GRASS.ordinal();
+        int poison = PokemonType.POISON.ordinal();
+
+        assertEquals(stats.getMultiplier("Fire", "Grass"), stats.getMultiplier(fire, grass), 0.0001);
+        assertEquals(stats.getMultiplier(fire, grass), stats.getMultiplier(fire, grass, PokemonType.NONE), 0.0001);
+        assertEquals(stats.getMultiplier(fire, grass) * stats.getMultiplier(fire, poison),
+                stats.getMultiplier(fire, grass, poison), 0.0001);
+        assertEquals(1.0, stats.getMultiplier(PokemonType.NONE, grass, poison), 0.0001);
+    }
+
+    @Test
+    public void shouldCreatePokemonFromSpeciesTemplate() throws POOBkemonException {
+        SpeciesTemplate bulbasaur = new PokemonRepository().getSpeciesTemplate(1);
+        Pokemon fromTemplate = new Pokemon(2, bulbasaur, sampleAttacksIds, false, 100);
+        int iv = fromTemplate.ivs;
+
+        assertSame(bulbasaur, new PokemonRepository().getSpeciesTemplate(1));
+        assertEquals("Bulbasaur", fromTemplate.getName());
+        assertEquals(PokemonType.POISON.ordinal(), fromTemplate.getType2Id());
+        assertEquals((2 * 45 + iv) * 100 / 100 + 100 + 10, fromTemplate.maxHealth);
+        assertEquals((2 * 49 + iv) * 100 / 100 + 5, fromTemplate.attack);
+        assertEquals((2 * 45 + iv) * 100 / 100 + 5, fromTemplate.speed);
+        assertEquals(fromTemplate.maxHealth, bulbasaur.getStat(SpeciesTemplate.HP, 100, iv));
+    }
+
     @Test
     public void testGetActive() {
         assertFalse(pokemon.getActive());
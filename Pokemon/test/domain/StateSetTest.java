@@ -0,0 +1,62 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateSetTest {
+
+    @Test
+    void shouldIterateActiveStatesAcrossWords() {
+        StateSet states = new StateSet();
+        int last = State.StateType.values().length - 1;
+        states.put(State.StateType.BURN.ordinal(), 3, 1);
+        states.put(63, 2, 1);
+        states.put(last, -1, 1);
+
+        assertEquals(State.StateType.BURN.ordinal(), states.next(0));
+        assertEquals(63, states.next(State.StateType.BURN.ordinal() + 1));
+        assertEquals(last, states.next(64));
+        assertEquals(-1, states.next(last + 1));
+
+        states.remove(63);
+        assertFalse(states.has(63));
+        assertEquals(last, states.next(State.StateType.BURN.ordinal() + 1));
+        states.clear();
+        assertTrue(states.isEmpty());
+    }
+
+    @Test
+    void shouldDropPrincipalStateWhenItWearsOff() throws POOBkemonException {
+        Pokemon pokemon = new Pokemon();
+        State poison = new State(new String[]{"POISON", "1", "0", "0", "Poison effect"});
+        pokemon.persistentDamage(poison, pokemon);
+
+        assertTrue(pokemon.hasState(State.StateType.POISON));
+        assertEquals("POISON", pokemon.getInfo()[17]);
+
+        pokemon.applyState();
+
+        assertFalse(pokemon.hasState("poison"));
+        assertEquals("null", pokemon.getInfo()[17]);
+        State burn = new State(new String[]{"BURN", "2", "0", "0", "Burn effect"});
+        pokemon.persistentDamage(burn, pokemon);
+        assertTrue(pokemon.hasState(State.StateType.BURN), "a new principal state should be accepted");
+    }
+
+    @Test
+    void shouldKeepBadPoisonIntensityBetweenTurns() throws POOBkemonException {
+        Pokemon pokemon = new Pokemon();
+        pokemon.maxHealth = 1000;
+        pokemon.currentHealth = 1000;
+        State badPoison = new State(new String[]{"BAD_POISON", "5", "0", "1", "Bad poison effect"});
+        pokemon.addSecundariState(badPoison);
+
+        pokemon.applyState();
+        int first = 1000 - pokemon.currentHealth;
+        pokemon.applyState();
+        int second = 1000 - pokemon.currentHealth - first;
+
+        assertEquals(2 * first, second, "the second turn should hurt twice as much");
+    }
+}
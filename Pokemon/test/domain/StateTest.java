@@ -6,6 +6,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.BeforeEach;
 
+import persistence.StatusRepository;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -674,4 +676,29 @@ public class StateTest {
         assertTrue(result.contains("no puede escapar"), "the message should mention that the Pokémon cannot escape");
     }
 
+    @Test
+    public void shouldCopyStateIndependently() throws POOBkemonException {
+        State prototype = new State(new String[]{"SLEEP", "1", "0", "0", "Sleep effect"});
+        State copy = prototype.copy();
+        Pokemon pokemon = game.createPokemon(1, new ArrayList<>(List.of(1, 2, 3, 4)));
+
+        copy.applyEffect(pokemon);
+
+        assertEquals(State.StateType.SLEEP, copy.getType());
+        assertEquals(0, copy.getDuration(), "the copy should consume its own duration");
+        assertEquals(1, prototype.getDuration(), "the prototype should not change when the copy is applied");
+    }
+
+    @Test
+    public void shouldCreateStatesFromCatalogPrototypes() {
+        StatusRepository statuses = new StatusRepository();
+        State first = statuses.createState(State.StateType.PARALYSIS);
+        State second = statuses.createState(State.StateType.PARALYSIS);
+
+        assertNotNull(first);
+        assertNotSame(first, second, "each call should return a fresh copy");
+        assertEquals(State.StateType.PARALYSIS, first.getType());
+        assertSame(statuses.getStatusByName("PARALYSIS"), statuses.getStatus(State.StateType.PARALYSIS));
+    }
+
 }
@@ -4,7 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TeamTest {
 
@@ -63,5 +63,52 @@ public class TeamTest {
         assertEquals(3, inactivePokemons[1], "El segundo pokémon inactivo debe tener ID 3");
     }
 
+    @Test
+    void shouldFindPokemonAndTrackActiveOnSwitch() throws POOBkemonException {
+        Trainer trainer = new Defensive(1, new BagPack(new ArrayList<>()));
+        Team team = new Team(getPokemons(), trainer);
+
+        assertEquals(1, team.getActivePokemon().getId());
+        assertEquals("Raichu", team.findPokemon(2).getName());
+        assertNull(team.findPokemon(7));
+        assertThrows(POOBkemonException.class, () -> team.getPokemonById(7));
 
+        team.changePokemon(2);
+        assertEquals(2, team.getActivePokemon().getId());
+        assertFalse(team.findPokemon(1).getActive());
+    }
+
+    @Test
+    void shouldCountFaintedPokemonWhenTheirHealthReachesZero() throws POOBkemonException {
+        Trainer trainer = new Defensive(1, new BagPack(new ArrayList<>()));
+        Team team = new Team(getPokemons(), trainer);
+        ArrayList<Pokemon> fainted = new ArrayList<>();
+        team.setFaintListener((t, pokemon) -> fainted.add(pokemon));
+
+        assertEquals(2, team.getAliveCount());
+        assertEquals(0b11, team.getAliveMask());
+        assertEquals(2, team.lastAlivePokemon().getId());
+
+        Pokemon raichu = team.findPokemon(2);
+        raichu.takeDamage(raichu.currentHealth + 10);
+        raichu.isWeak();
+
+        assertEquals(1, team.getAliveCount());
+        assertEquals(0b01, team.getAliveMask());
+        assertEquals(1, team.lastAlivePokemon().getId());
+        assertEquals(1, fainted.size(), "the listener should be told once");
+        assertSame(raichu, fainted.get(0));
+        assertFalse(team.activeFainted());
+
+        Pokemon pikachu = team.findPokemon(1);
+        pikachu.currentHealth = 0;
+        pikachu.isWeak();
+        assertTrue(team.allFainted());
+        assertTrue(team.activeFainted());
+        assertNull(team.lastAlivePokemon());
+
+        raichu.effect(new String[]{"Revive", "Revive", "0"});
+        assertEquals(1, team.getAliveCount());
+        assertFalse(team.allFainted());
+    }
 }
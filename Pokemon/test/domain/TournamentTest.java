@@ -0,0 +1,101 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+
+    private static final List<String> MACHINES = List.of("Offensive", "Defensive", "Expert");
+
+    @TempDir
+    Path directory;
+
+    private static Tournament tournament(int threads, int block) throws POOBkemonException {
+        return new Tournament(MACHINES, Lineup.randomPool(4, 11L), 6, threads, 100, false, block);
+    }
+
+    private static void assertSameStandings(Tournament.Standings expected, Tournament.Standings actual) {
+        assertEquals(expected.getCompleted(), actual.getCompleted());
+        assertEquals(expected.getErrors(), actual.getErrors());
+        for (String machine : MACHINES) {
+            assertEquals(expected.getRating(machine), actual.getRating(machine));
+            for (String opponent : MACHINES) {
+                assertEquals(expected.getWins(machine, opponent), actual.getWins(machine, opponent));
+                assertEquals(expected.getDraws(machine, opponent), actual.getDraws(machine, opponent));
+            }
+        }
+    }
+
+    @Test
+    void shouldPlayEveryPairing() throws Exception {
+        Tournament.Standings standings = tournament(4, 5).run(3L);
+
+        assertTrue(standings.isComplete());
+        assertEquals(18, standings.getTotal());
+        double ratings = 0;
+        long decided = 0;
+        for (int m = 0; m < MACHINES.size(); m++) {
+            String machine = MACHINES.get(m);
+            ratings += standings.getRating(machine);
+            for (String opponent : MACHINES.subList(m + 1, MACHINES.size())) {
+                long pairing = standings.getWins(machine, opponent) + standings.getWins(opponent, machine)
+                        + standings.getDraws(machine, opponent);
+                assertTrue(pairing <= 6);
+                decided += pairing;
+            }
+        }
+        assertEquals(18 - standings.getErrors(), decided);
+        assertEquals(3 * Tournament.INITIAL_RATING, ratings, 1e-6);
+    }
+
+    @Test
+    void shouldNotDependOnThreads() throws Exception {
+        assertSameStandings(tournament(1, 18).run(5L), tournament(4, 4).run(5L));
+    }
+
+    @Test
+    void shouldResumeFromCheckpoint() throws Exception {
+        Path checkpoint = directory.resolve("torneo.ckpt");
+        Tournament tournament = tournament(2, 4);
+
+        Tournament.Standings partial = tournament.run(9L, checkpoint, Duration.ZERO);
+        assertEquals(4, partial.getCompleted());
+        assertFalse(partial.isComplete());
+        assertTrue(Files.exists(checkpoint));
+
+        Tournament.Standings resumed = tournament.run(9L, checkpoint, null);
+        assertTrue(resumed.isComplete());
+        assertSameStandings(tournament(3, 7).run(9L), resumed);
+
+        assertThrows(POOBkemonException.class, () -> tournament.run(10L, checkpoint, null));
+    }
+
+    @Test
+    void shouldWriteCsv() throws Exception {
+        Tournament.Standings standings = tournament(2, 18).run(1L);
+        standings.writeCsv(directory);
+
+        List<String> ratings = Files.readAllLines(directory.resolve(Tournament.RATINGS_CSV));
+        assertEquals("machine,rating,battles,wins,losses,draws", ratings.get(0));
+        assertEquals(MACHINES.size() + 1, ratings.size());
+        List<String> matrix = Files.readAllLines(directory.resolve(Tournament.HEAD_TO_HEAD_CSV));
+        assertEquals("machine,Offensive,Defensive,Expert", matrix.get(0));
+        assertEquals("Offensive,," + standings.getWins("Offensive", "Defensive") + "," + standings.getWins("Offensive", "Expert"),
+                matrix.get(1));
+    }
+
+    @Test
+    void shouldRejectInvalidTournament() {
+        assertThrows(POOBkemonException.class, () -> new Tournament(List.of("Expert"), Lineup.randomPool(1, 1L), 1));
+        assertThrows(POOBkemonException.class, () -> new Tournament(List.of("Expert", "Player"), Lineup.randomPool(1, 1L), 1));
+        assertThrows(POOBkemonException.class, () -> new Tournament(MACHINES, List.of(), 1));
+        assertThrows(POOBkemonException.class, () -> Lineup.of(List.of(1, 4), List.of(1, 2, 3)));
+    }
+}
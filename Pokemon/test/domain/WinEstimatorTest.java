@@ -0,0 +1,93 @@
+package domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WinEstimatorTest {
+
+    private BattleSession session;
+    private POOBkemon game;
+
+    @BeforeEach
+    void setUp() throws POOBkemonException {
+        session = SessionRegistry.getInstance().open();
+        game = session.getGame();
+        Battles.start(session, "Player1", "Player2", false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionRegistry.getInstance().close(session.getId());
+    }
+
+    private int[] health() {
+        return game.getTeams().stream()
+                .flatMap(team -> team.getPokemons().stream())
+                .mapToInt(pokemon -> pokemon.currentHealth)
+                .toArray();
+    }
+
+    @Test
+    void shouldGiveTheSameEstimateForTheSameSeed() throws Exception {
+        int[] before = health();
+        WinEstimator oneThread = new WinEstimator("Offensive", Map.of(), 1, 200, 0);
+        WinEstimator fourThreads = new WinEstimator("Offensive", Map.of(), 4, 200, 0);
+
+        WinEstimator.Estimate first = oneThread.estimate(game, 40, Duration.ofMinutes(1), 7);
+        WinEstimator.Estimate second = fourThreads.estimate(game, 40, Duration.ofMinutes(1), 7);
+
+        assertEquals(40, first.getRollouts() + first.getErrors());
+        assertFalse(first.isConverged());
+        int wins = 0;
+        for (int trainer : first.getTrainers()) {
+            assertEquals(first.getWins(trainer), second.getWins(trainer));
+            double[] bounds = first.getInterval(trainer);
+            assertTrue(bounds[0] <= first.getWinRate(trainer) && first.getWinRate(trainer) <= bounds[1]);
+            wins += first.getWins(trainer);
+        }
+        assertEquals(first.getRollouts(), wins + first.getUnfinished());
+        assertArrayEquals(before, health(), "the live battle should not change");
+        assertFalse(game.finishBattle());
+    }
+
+    @Test
+    void shouldStopEarlyWhenTheOutcomeIsClear() throws Exception {
+        Team losing = game.getTeams().get(1);
+        for (Pokemon pokemon : losing.getPokemons()) {
+            pokemon.takeDamage(pokemon.currentHealth - 1);
+        }
+        int favourite = game.getTeams().get(0).getTrainer().getId();
+        WinEstimator estimator = new WinEstimator("Expert", Map.of(losing.getTrainer().getId(), "Offensive"), 2, 200, 0.05);
+
+        WinEstimator.Estimate estimate = estimator.estimate(game, 5000, Duration.ofMinutes(1), 3);
+
+        assertTrue(estimate.isConverged());
+        assertTrue(estimate.getRollouts() < 5000);
+        assertTrue(estimate.getWinRate(favourite) > 0.8, estimate.toString());
+    }
+
+    @Test
+    void shouldKeepIntervalsWithinBounds() {
+        assertArrayEquals(new double[]{0, 1}, WinEstimator.interval(0, 0));
+        double[] none = WinEstimator.interval(0, 100);
+        assertEquals(0, none[0]);
+        assertTrue(none[1] > 0 && none[1] < 0.05);
+        double[] half = WinEstimator.interval(50, 100);
+        assertEquals(0.5, (half[0] + half[1]) / 2, 1e-9);
+        assertEquals(0.0963, half[1] - 0.5, 1e-3);
+    }
+
+    @Test
+    void shouldRejectBattlesNotStarted() {
+        assertThrows(POOBkemonException.class,
+                () -> new WinEstimator().estimate(new POOBkemon(), 10, Duration.ofSeconds(1), 1));
+        assertThrows(POOBkemonException.class,
+                () -> new WinEstimator("Random", Map.of(), 1, 10, 0));
+    }
+}
@@ -0,0 +1,45 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogReloaderTest {
+
+    private static final Path CSV = Paths.get(GameData.CSV_DIR);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReloadWhenCsvChanges() throws Exception {
+        for (String source : List.of(GameData.POKEMONS_ARCHIVE, GameData.ATACKS_ARCHIVE, GameData.STATUS_CSV,
+                GameData.ROOT_STATS_LOCATION, GameData.ITEMS_ARCHIVE)) {
+            Files.copy(CSV.resolve(source), directory.resolve(source));
+        }
+        Path pokemons = directory.resolve(GameData.POKEMONS_ARCHIVE);
+        String csv = Files.readString(pokemons, StandardCharsets.UTF_8);
+
+        try (CatalogReloader reloader = CatalogReloader.start(directory)) {
+            Files.writeString(pokemons, csv.replace("Bulbasaur", "Watchasaur"), StandardCharsets.UTF_8);
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (reloader.getReloadCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertTrue(reloader.getReloadCount() > 0, "the watcher should reload after the CSV changes");
+            assertEquals(0, reloader.getFailureCount());
+            assertEquals("Watchasaur", GameData.getInstance().getPokemons().get(1)[1]);
+        } finally {
+            assertTrue(new CatalogReloader(CSV).reloadNow());
+        }
+        assertEquals("Bulbasaur", GameData.getInstance().getPokemons().get(1)[1]);
+    }
+}
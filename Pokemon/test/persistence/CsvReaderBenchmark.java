@@ -0,0 +1,115 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara la carga de los cinco CSV del juego con el método anterior
+ * ({@code readAllLines} + {@code split}/{@code splitCSVLine} con expresiones regulares)
+ * y con {@link CsvReader}.
+ *
+ * <p>Se ejecuta desde la carpeta {@code Pokemon}:
+ * {@code java persistence.CsvReaderBenchmark [iteraciones]}.
+ */
+public class CsvReaderBenchmark {
+
+    private static final String[] FILES = {
+            GameData.POKEMONS_ARCHIVE,
+            GameData.ATACKS_ARCHIVE,
+            GameData.STATUS_CSV,
+            GameData.ROOT_STATS_LOCATION,
+            GameData.ITEMS_ARCHIVE
+    };
+    private static final boolean[] QUOTED = {false, true, true, false, false};
+
+    private static long sink;
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Path dir = Paths.get(GameData.CSV_DIR);
+
+        for (int i = 0; i < iterations / 2; i++) {
+            legacy(dir);
+            streaming(dir);
+            streamingRows(dir);
+        }
+        report("split + regex (anterior)", iterations, () -> legacy(dir));
+        report("CsvReader -> String[]", iterations, () -> streamingRows(dir));
+        report("CsvReader (vistas)", iterations, () -> streaming(dir));
+        System.out.println("(control " + sink + ")");
+    }
+
+    private interface Load {
+        void run() throws IOException;
+    }
+
+    private static void report(String name, int iterations, Load load) throws IOException {
+        System.gc();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            load.run();
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+        System.out.printf("%-28s %10.1f us por carga de los 5 CSV%n", name, micros);
+    }
+
+    /**
+     * Lo que hacía {@code GameData} antes de {@link CsvReader}.
+     */
+    private static void legacy(Path dir) throws IOException {
+        for (int f = 0; f < FILES.length; f++) {
+            List<String[]> rows = new ArrayList<>();
+            for (String line : Files.readAllLines(dir.resolve(FILES[f]))) {
+                rows.add(QUOTED[f] ? legacySplit(line) : line.split(","));
+            }
+            sink += rows.size();
+        }
+    }
+
+    private static String[] legacySplit(String line) {
+        List<String> values = new ArrayList<>();
+        boolean inQuotes = false;
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim().replaceAll("^\"|\"$", ""));
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * Carga tal como la hace ahora {@link GameData#readCsvTables(Path)}.
+     */
+    private static void streamingRows(Path dir) {
+        for (DataPack.Rows rows : GameData.readCsvTables(dir).values()) {
+            sink += rows.size();
+        }
+    }
+
+    /**
+     * Recorre todos los campos sin materializar ningún {@code String}.
+     */
+    private static void streaming(Path dir) throws IOException {
+        for (String file : FILES) {
+            try (CsvReader reader = CsvReader.open(dir.resolve(file))) {
+                while (reader.next()) {
+                    for (int i = 0; i < reader.fieldCount(); i++) {
+                        sink += reader.field(i).length();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    private static CsvReader reader(String text) {
+        return new CsvReader(new StringReader(text));
+    }
+
+    @Test
+    void shouldSkipBom() throws Exception {
+        CsvReader reader = reader("\uFEFFid,name\n1,Pound\n");
+
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"id", "name"}, reader.toArray());
+        assertTrue(reader.next());
+        assertEquals("Pound", reader.getString(1));
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void shouldKeepCommasAndQuotesInsideQuotedFields() throws Exception {
+        CsvReader reader = reader("1,\"Hits, then flinches\",\"Says \"\"hi\"\"\",\"\"\n");
+
+        assertTrue(reader.next());
+        assertEquals(4, reader.fieldCount());
+        assertEquals("Hits, then flinches", reader.getString(1));
+        assertEquals("Says \"hi\"", reader.getString(2));
+        assertTrue(reader.isEmpty(3));
+    }
+
+    @Test
+    void shouldSplitRecordsOnCrlfAndCr() throws Exception {
+        CsvReader reader = reader("a,b\r\nc,d\re,f");
+
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"a", "b"}, reader.toArray());
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"c", "d"}, reader.toArray());
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"e", "f"}, reader.toArray());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void shouldKeepEmptyTrailingFields() throws Exception {
+        CsvReader reader = reader("a,b,\n,,\n");
+
+        assertTrue(reader.next());
+        assertEquals(3, reader.fieldCount());
+        assertTrue(reader.isEmpty(2));
+        assertEquals("", reader.getString(2));
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"", "", ""}, reader.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.getString(3));
+    }
+
+    @Test
+    void shouldTrimFields() throws Exception {
+        CsvReader reader = reader("  a , \" b \" ,c\t\n");
+
+        assertTrue(reader.next());
+        assertArrayEquals(new String[]{"a", "b", "c"}, reader.toArray());
+        assertEquals("a", reader.field(0).toString());
+    }
+
+    @Test
+    void shouldParseInts() throws Exception {
+        CsvReader reader = reader("42,-7,+3, 2147483647 ,-2147483648,2147483648,4x,,-\n");
+
+        assertTrue(reader.next());
+        assertEquals(42, reader.getInt(0));
+        assertEquals(-7, reader.getInt(1));
+        assertEquals(3, reader.getInt(2));
+        assertEquals(Integer.MAX_VALUE, reader.getInt(3));
+        assertEquals(Integer.MIN_VALUE, reader.getInt(4));
+        for (int field = 5; field < 9; field++) {
+            int index = field;
+            assertThrows(NumberFormatException.class, () -> reader.getInt(index));
+        }
+    }
+
+    @Test
+    void shouldParseDoubles() throws Exception {
+        CsvReader reader = reader("-12.5,0.5,+2,1e3,.25,x\n");
+
+        assertTrue(reader.next());
+        assertEquals(-12.5, reader.getDouble(0));
+        assertEquals(0.5, reader.getDouble(1));
+        assertEquals(2.0, reader.getDouble(2));
+        assertEquals(1000.0, reader.getDouble(3));
+        assertEquals(0.25, reader.getDouble(4));
+        assertThrows(NumberFormatException.class, () -> reader.getDouble(5));
+    }
+}
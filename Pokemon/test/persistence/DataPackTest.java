@@ -0,0 +1,142 @@
+package persistence;
+
+import domain.MoveSpec;
+import domain.SpeciesTemplate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataPackTest {
+
+    private static final Path CSV = Paths.get(GameData.CSV_DIR);
+
+    @TempDir
+    Path directory;
+
+    private Path copyCsv() throws Exception {
+        for (String source : List.of(GameData.POKEMONS_ARCHIVE, GameData.ATACKS_ARCHIVE, GameData.STATUS_CSV,
+                GameData.ROOT_STATS_LOCATION, GameData.ITEMS_ARCHIVE)) {
+            Files.copy(CSV.resolve(source), directory.resolve(source), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return directory;
+    }
+
+    private static void setModified(Path file, long millis) throws Exception {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+    }
+
+    private static void assertSameRows(Map<Integer, String[]> expected, Map<Integer, String[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<Integer, String[]> row : expected.entrySet()) {
+            assertArrayEquals(row.getValue(), actual.get(row.getKey()));
+        }
+    }
+
+    @Test
+    void shouldRoundTripCsvThroughPack() throws Exception {
+        Path pack = directory.resolve("POOBkemon.pack");
+        DataPack.compile(CSV, pack);
+        GameData fromCsv = GameData.load(CSV);
+        GameData fromPack = new GameData(DataPack.open(pack));
+
+        assertSameRows(fromCsv.getPokemons(), fromPack.getPokemons());
+        assertSameRows(fromCsv.getMoves(), fromPack.getMoves());
+        assertSameRows(fromCsv.getStatuses(), fromPack.getStatuses());
+        assertEquals(fromCsv.getTypeChart(), fromPack.getTypeChart());
+        assertEquals(fromCsv.getItems(), fromPack.getItems());
+        for (int id : fromCsv.getPokemons().keySet()) {
+            SpeciesTemplate expected = fromCsv.getSpeciesTemplate(id);
+            SpeciesTemplate actual = fromPack.getSpeciesTemplate(id);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getType2Id(), actual.getType2Id());
+            for (int stat = 0; stat < SpeciesTemplate.STATS; stat++) {
+                assertEquals(expected.getBaseStat(stat), actual.getBaseStat(stat));
+            }
+        }
+        for (int id : fromCsv.getMoves().keySet()) {
+            MoveSpec expected = fromCsv.getMoveSpec(id);
+            MoveSpec actual = fromPack.getMoveSpec(id);
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getCategory(), actual.getCategory());
+            assertEquals(expected.getPower(), actual.getPower());
+            assertEquals(expected.getAccuracy(), actual.getAccuracy());
+            assertEquals(expected.getPPMax(), actual.getPPMax());
+            assertEquals(fromCsv.getStatusTypeOfMove(id), fromPack.getStatusTypeOfMove(id));
+        }
+    }
+
+    @Test
+    void shouldStoreNumericColumnsAsInts() throws Exception {
+        Path pack = directory.resolve("POOBkemon.pack");
+        DataPack.compile(CSV, pack);
+        DataPack data = DataPack.open(pack);
+
+        assertTrue(data.isNumeric(DataPack.Table.POKEMONS, 5));
+        assertFalse(data.isNumeric(DataPack.Table.POKEMONS, 1));
+        assertFalse(data.isNumeric(DataPack.Table.TYPE_CHART, 1));
+        int bulbasaur = data.find(DataPack.Table.POKEMONS, 1);
+        assertEquals(45, data.intField(DataPack.Table.POKEMONS, bulbasaur, 5));
+        assertEquals("45", data.field(DataPack.Table.POKEMONS, bulbasaur, 5));
+        assertEquals("Bulbasaur", data.field(DataPack.Table.POKEMONS, bulbasaur, 1));
+        assertEquals(-1, data.find(DataPack.Table.POKEMONS, 100_000));
+    }
+
+    @Test
+    void shouldKeepNonCanonicalIntsAsText() {
+        DataPack.Rows rows = new DataPack.Rows();
+        rows.add("1", "007", "-3");
+        rows.add("2", "7", "-0");
+        Map<DataPack.Table, DataPack.Rows> tables = new EnumMap<>(DataPack.Table.class);
+        for (DataPack.Table table : DataPack.Table.values()) {
+            tables.put(table, table == DataPack.Table.ITEMS ? rows : new DataPack.Rows());
+        }
+        DataPack data = DataPack.of(tables);
+
+        assertTrue(data.isNumeric(DataPack.Table.ITEMS, 0));
+        assertFalse(data.isNumeric(DataPack.Table.ITEMS, 1));
+        assertFalse(data.isNumeric(DataPack.Table.ITEMS, 2));
+        assertEquals("007", data.field(DataPack.Table.ITEMS, 0, 1));
+        assertEquals("-0", data.field(DataPack.Table.ITEMS, 1, 2));
+        assertEquals(-3, data.intField(DataPack.Table.ITEMS, 0, 2));
+    }
+
+    @Test
+    void shouldRejectCorruptPack() throws Exception {
+        Path pack = directory.resolve("POOBkemon.pack");
+        DataPack.compile(CSV, pack);
+        byte[] bytes = Files.readAllBytes(pack);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(pack, bytes);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> DataPack.open(pack));
+        assertTrue(error.getMessage().contains("Checksum"));
+    }
+
+    @Test
+    void shouldFallBackToCsvWhenPackIsStale() throws Exception {
+        Path csvDir = copyCsv();
+        Path pokemons = csvDir.resolve(GameData.POKEMONS_ARCHIVE);
+        String original = Files.readString(pokemons);
+        Files.writeString(pokemons, original.replace("Bulbasaur", "Packasaur"));
+        Path pack = directory.resolve("POOBkemon.pack");
+        DataPack.compile(csvDir, pack);
+        Files.writeString(pokemons, original);
+
+        long packTime = Files.getLastModifiedTime(pack).toMillis();
+        setModified(pokemons, packTime - 60_000);
+        assertEquals("Packasaur", GameData.loadFrom(csvDir, pack).getPokemons().get(1)[1]);
+
+        setModified(pokemons, packTime + 60_000);
+        assertEquals("Bulbasaur", GameData.loadFrom(csvDir, pack).getPokemons().get(1)[1]);
+    }
+}
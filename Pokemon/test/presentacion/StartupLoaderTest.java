@@ -0,0 +1,59 @@
+package presentacion;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private String folder(String name, int images) throws IOException {
+        Path folder = Files.createDirectories(directory.resolve(name));
+        for (int i = 1; i <= images; i++) {
+            ImageIO.write(new BufferedImage(i, 2, BufferedImage.TYPE_INT_ARGB), "png", folder.resolve(i + ".png").toFile());
+        }
+        return folder + "/";
+    }
+
+    @Test
+    void shouldDecodeSpritesWhileStarting() throws Exception {
+        String normal = folder("Normal", 5);
+        String types = folder("types", 2);
+        StartupLoader loader = StartupLoader.start(new String[]{normal, types}, normal, types);
+        loader.ready().get(30, TimeUnit.SECONDS);
+
+        assertArrayEquals(new String[]{"catalogo", "fuente", "sprites", "imagenes"},
+                loader.getTimings().keySet().toArray());
+        assertTrue(loader.hasSprite(normal, "3.png"));
+        assertFalse(loader.hasSprite(normal, "6.png"));
+        Image sprite = loader.sprite(normal, "3.png");
+        assertNotNull(sprite);
+        assertEquals(3, sprite.getWidth(null));
+        assertSame(sprite, loader.sprite(normal, "3.png"));
+        assertEquals(2, loader.sprite(types, "2.png").getWidth(null));
+        assertNull(loader.sprite(normal, "6.png"));
+    }
+
+    @Test
+    void shouldDecodeOnDemandOutsideDecodedFolders() throws Exception {
+        String back = folder("Back", 2);
+        StartupLoader loader = StartupLoader.start(new String[]{directory.resolve("missing") + "/"}, back);
+        loader.ready().get(30, TimeUnit.SECONDS);
+
+        Image sprite = loader.sprite(back, "2.png");
+        assertNotNull(sprite);
+        assertSame(sprite, loader.sprite(back, "2.png"));
+        assertTrue(loader.timingsReport().contains("imagenes="));
+    }
+}